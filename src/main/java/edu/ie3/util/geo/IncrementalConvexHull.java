@@ -0,0 +1,202 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.geo;
+
+import edu.ie3.util.exceptions.GeoException;
+import java.util.*;
+import org.locationtech.jts.algorithm.Orientation;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * A convex hull, that can be extended by single coordinates or batches of coordinates. Only the
+ * vertices of the current hull are kept, hence the memory footprint is independent of the number of
+ * coordinates that have been added so far. An update first drops all coordinates covered by the
+ * current hull (O(log h) each) and afterwards merges the remaining ones with the hull vertices,
+ * which is why its cost scales with the size of the batch and the hull instead of with all
+ * coordinates seen so far.
+ *
+ * <p>Just like {@link GeoUtils#buildConvexHull(Set)}, collinear coordinates on the hull boundary
+ * are not kept as vertices. The z-value of coordinates is ignored.
+ *
+ * <p><b>Note:</b> This class is not thread safe.
+ */
+public class IncrementalConvexHull {
+
+  private static final Comparator<Coordinate> LEXICOGRAPHIC =
+      Comparator.comparingDouble((Coordinate coordinate) -> coordinate.x)
+          .thenComparingDouble(coordinate -> coordinate.y);
+
+  /**
+   * Vertices of the current hull in counter-clockwise order, starting with the lexicographically
+   * smallest coordinate. The ring is not closed.
+   */
+  private Coordinate[] hull = new Coordinate[0];
+
+  /** Index of the lexicographically largest vertex, which separates lower and upper chain. */
+  private int maxIndex = 0;
+
+  public IncrementalConvexHull() {}
+
+  public IncrementalConvexHull(Collection<Coordinate> coordinates) {
+    addAll(coordinates);
+  }
+
+  /**
+   * Adds a single coordinate to the hull.
+   *
+   * @param coordinate the coordinate to add
+   * @return this instance to allow chaining
+   */
+  public IncrementalConvexHull add(Coordinate coordinate) {
+    return addAll(Collections.singletonList(coordinate));
+  }
+
+  /**
+   * Adds a batch of coordinates to the hull. Coordinates covered by the current hull are discarded
+   * right away.
+   *
+   * @param coordinates the coordinates to add
+   * @return this instance to allow chaining
+   */
+  public IncrementalConvexHull addAll(Collection<Coordinate> coordinates) {
+    List<Coordinate> outside = new ArrayList<>();
+    for (Coordinate coordinate : coordinates) {
+      if (!covers(coordinate)) outside.add(coordinate);
+    }
+    if (outside.isEmpty()) return this;
+
+    outside.sort(LEXICOGRAPHIC);
+    Coordinate[] candidates = merge(sortedHullVertices(), outside);
+    updateHull(candidates);
+    return this;
+  }
+
+  /**
+   * Checks, if the given coordinate is located within or on the boundary of the current hull. If
+   * the hull is degenerated (less than three vertices), false is returned.
+   *
+   * @param coordinate the coordinate to check
+   * @return true, if the coordinate is covered by the current hull
+   */
+  public boolean covers(Coordinate coordinate) {
+    int n = hull.length;
+    if (n < 3) return false;
+
+    Coordinate origin = hull[0];
+    if (Orientation.index(origin, hull[1], coordinate) == Orientation.CLOCKWISE
+        || Orientation.index(origin, hull[n - 1], coordinate) == Orientation.COUNTERCLOCKWISE)
+      return false;
+
+    // binary search for the triangle of the fan around the origin, that may contain the coordinate
+    int low = 1;
+    int high = n - 1;
+    while (high - low > 1) {
+      int mid = (low + high) >>> 1;
+      if (Orientation.index(origin, hull[mid], coordinate) == Orientation.CLOCKWISE) high = mid;
+      else low = mid;
+    }
+    return Orientation.index(hull[low], hull[low + 1], coordinate) != Orientation.CLOCKWISE;
+  }
+
+  /**
+   * @return the number of vertices of the current hull
+   */
+  public int getNumberOfVertices() {
+    return hull.length;
+  }
+
+  /**
+   * @return a copy of the vertices of the current hull in counter-clockwise order (the ring is not
+   *     closed)
+   */
+  public Coordinate[] getCoordinates() {
+    return Arrays.stream(hull).map(Coordinate::copy).toArray(Coordinate[]::new);
+  }
+
+  /**
+   * Builds a polygon from the current hull.
+   *
+   * @return the polygon representing the current hull
+   * @throws GeoException if less than three non-collinear coordinates have been added so far
+   */
+  public Polygon toPolygon() throws GeoException {
+    if (hull.length == 0)
+      throw new GeoException("Cannot build a convex hull polygon, as no coordinates were added.");
+    else if (hull.length == 1)
+      throw new GeoException(
+          "Cannot build a convex hull polygon, as all added coordinates are identical.");
+    else if (hull.length == 2)
+      throw new GeoException(
+          "Cannot build a convex hull polygon, as all added coordinates are collinear.");
+
+    Coordinate[] ring = Arrays.copyOf(getCoordinates(), hull.length + 1);
+    ring[hull.length] = ring[0].copy();
+    return GeoUtils.buildPolygon(ring);
+  }
+
+  /**
+   * Lower and upper chain of the hull are each sorted lexicographically, so that the sorted vertex
+   * array can be obtained by merging both of them in linear time.
+   */
+  private Coordinate[] sortedHullVertices() {
+    int n = hull.length;
+    Coordinate[] sorted = new Coordinate[n];
+    int lower = 0;
+    int upper = n - 1;
+    for (int i = 0; i < n; i++) {
+      if (upper <= maxIndex
+          || (lower <= maxIndex && LEXICOGRAPHIC.compare(hull[lower], hull[upper]) <= 0))
+        sorted[i] = hull[lower++];
+      else sorted[i] = hull[upper--];
+    }
+    return sorted;
+  }
+
+  private static Coordinate[] merge(Coordinate[] first, List<Coordinate> second) {
+    Coordinate[] merged = new Coordinate[first.length + second.size()];
+    int i = 0;
+    int j = 0;
+    for (int k = 0; k < merged.length; k++) {
+      if (j >= second.size()
+          || (i < first.length && LEXICOGRAPHIC.compare(first[i], second.get(j)) <= 0))
+        merged[k] = first[i++];
+      else merged[k] = second.get(j++);
+    }
+    return merged;
+  }
+
+  /**
+   * Andrew's monotone chain algorithm on lexicographically sorted coordinates.
+   *
+   * @param sorted lexicographically sorted coordinates
+   */
+  private void updateHull(Coordinate[] sorted) {
+    Coordinate[] chain = new Coordinate[2 * sorted.length];
+    int k = 0;
+
+    for (int i = 0; i < sorted.length; i++) {
+      if (i > 0 && sorted[i].equals2D(sorted[i - 1])) continue;
+      while (k >= 2
+          && Orientation.index(chain[k - 2], chain[k - 1], sorted[i])
+              != Orientation.COUNTERCLOCKWISE) k--;
+      chain[k++] = sorted[i];
+    }
+    int lowerSize = k;
+
+    for (int i = sorted.length - 2; i >= 0; i--) {
+      if (sorted[i].equals2D(sorted[i + 1])) continue;
+      while (k > lowerSize
+          && Orientation.index(chain[k - 2], chain[k - 1], sorted[i])
+              != Orientation.COUNTERCLOCKWISE) k--;
+      chain[k++] = sorted[i];
+    }
+
+    // the last vertex equals the first one, if more than one distinct coordinate is present
+    hull = Arrays.copyOf(chain, Math.max(k - 1, 1));
+    maxIndex = lowerSize - 1;
+  }
+}
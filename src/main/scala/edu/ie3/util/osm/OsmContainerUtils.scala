@@ -5,16 +5,103 @@
 */
 package edu.ie3.util.osm
 
-import edu.ie3.util.osm.model.OsmContainer.{ParOsmContainer, SeqOsmContainer}
-import edu.ie3.util.osm.model.OsmEntity.{Relation, Way}
-import edu.ie3.util.osm.model.{OsmContainer, OsmEntity}
+import edu.ie3.util.osm.model.OsmContainer.{
+  MappedOsmContainer,
+  ParOsmContainer,
+  PrimitiveOsmContainer,
+  SeqOsmContainer
+}
+import edu.ie3.util.osm.model.OsmEntity.Relation.{
+  RelationMember,
+  RelationMemberType
+}
+import edu.ie3.util.osm.model.OsmEntity.{Node, Relation, Way}
+import edu.ie3.util.osm.model.{
+  IdBitSet,
+  MetaInformationColumns,
+  MetaInformationStore,
+  OsmContainer,
+  OsmEntity,
+  SortedLongMap
+}
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory
+import org.locationtech.jts.geom.{Coordinate, Envelope, Polygon}
 
+import scala.collection.mutable
 import scala.collection.parallel.CollectionConverters._
 import scala.collection.parallel.immutable.ParMap
-import scala.concurrent.Future
+import scala.collection.parallel.mutable.ParArray
+import scala.concurrent.{ExecutionContext, Future}
+import scala.reflect.ClassTag
 
 object OsmContainerUtils {
 
+  /** Default number of ways or relations, that are updated by one task of
+    * [[reducePar]]
+    */
+  val DefaultChunkSize = 4096
+
+  /** Treatment of ways, that cross the border of the area of [[clip]]
+    */
+  sealed trait ClipMode
+
+  object ClipMode {
+
+    /** Only nodes inside the area are kept, ways are reduced to them
+      */
+    case object Strict extends ClipMode
+
+    /** Ways with at least one node inside the area are kept completely,
+      * including their nodes outside of it
+      */
+    case object CompleteWays extends ClipMode
+  }
+
+  private final case class Clipped(
+      nodeIds: IdBitSet,
+      ways: Array[Way],
+      relations: Array[Relation]
+  )
+
+  /** Treatment of entities, that are contained in several containers of
+    * [[merge]]
+    */
+  sealed trait DuplicateResolution
+
+  object DuplicateResolution {
+
+    /** The entity with the highest version of its meta information is kept.
+      * Entities without version are older than versioned ones. Of entities with
+      * the same version, the one of the later container is kept.
+      */
+    case object HighestVersion extends DuplicateResolution
+
+    /** The entity of the later container is kept
+      */
+    case object LastContainer extends DuplicateResolution
+  }
+
+  /** Sorted ids of the entities of one type of a container to merge and the
+    * lookup of the entities
+    */
+  private final case class MergeSource[E](ids: Array[Long], entity: Long => E)
+
+  /** Merged entities in the order of their ids and the positions of those, that
+    * have been contained in several containers
+    */
+  private final case class Merged[E](
+      entities: Array[(Long, E)],
+      duplicates: Array[Int]
+  )
+
+  /** Maximum number of ranges of ids, that are merged in parallel
+    */
+  private val MergePartitions = 4 * Runtime.getRuntime.availableProcessors()
+
+  /** Minimum number of ids of a range, that is merged in parallel
+    */
+  private val MinMergePartitionSize = 1024
+
   /** Given an [[OsmContainer]] instance, this method removes all entity ids
     * from ways and relations that are not available in the container as
     * concrete instances. The result is a new instance of an [[OsmContainer]]
@@ -23,7 +110,8 @@ object OsmContainerUtils {
     * Note: this method does only remove entity ids w/o considering special
     * cases, e.g., adapting [[edu.ie3.util.osm.model.OsmEntity.Way.ClosedWay]] s
     * that become [[edu.ie3.util.osm.model.OsmEntity.Way.OpenWay]] s due to the
-    * id removal.
+    * id removal. A [[MappedOsmContainer]] is copied into a new directory next
+    * to its own one, that is deleted, when the result is closed.
     *
     * @param osmContainer
     *   the [[OsmContainer]] instance that should be reduced
@@ -37,13 +125,14 @@ object OsmContainerUtils {
           .map(updateWays(_, (nodeId: Long) => nodes.contains(nodeId)))
           .toMap
 
-        val allEntities: Map[Long, OsmEntity] = ways ++ nodes ++ relations
         val updatedRelations: Map[Long, Relation] =
           relations.values
             .map(
               updateRelations(
                 _,
-                (entityId: Long) => allEntities.contains(entityId)
+                (entityId: Long) =>
+                  ways.contains(entityId) || nodes.contains(entityId) ||
+                    relations.contains(entityId)
               )
             )
             .toMap
@@ -53,80 +142,750 @@ object OsmContainerUtils {
         val updatedWays: ParMap[Long, Way] = ways.values
           .map(updateWays(_, (nodeId: Long) => nodes.contains(nodeId)))
           .toMap
-        val allEntities: ParMap[Long, OsmEntity] = ways ++ nodes ++ relations
         val updatedRelations: ParMap[Long, Relation] =
           relations.values
             .map(
               updateRelations(
                 _,
-                (entityId: Long) => allEntities.contains(entityId)
+                (entityId: Long) =>
+                  ways.contains(entityId) || nodes.contains(entityId) ||
+                    relations.contains(entityId)
               )
             )
             .toMap
 
         container.copy(ways = updatedWays, relations = updatedRelations)
+      case container: PrimitiveOsmContainer =>
+        container.copy(
+          ways = reducedWays(container),
+          relations = reducedRelations(container)
+        )
+      case container: MappedOsmContainer =>
+        container.rewritten(
+          container.nodesIterator,
+          container.waysIterator.map(
+            updateWays(_, container.nodeStore.contains)._2
+          ),
+          container.relationsIterator.map(
+            updateRelations(
+              _,
+              (entityId: Long) =>
+                container.wayStore.contains(entityId) ||
+                  container.nodeStore.contains(entityId) ||
+                  container.relationStore.contains(entityId)
+            )._2
+          )
+        )
     }
   }
 
-  /** Asynchronous representation of [[reduce]]
+  /** Asynchronous representation of [[reduce]], that runs on the global
+    * execution context
     *
     * @param osmContainer
     *   the [[OsmContainer]] instance that should be reduced
     * @return
     *   a reduced copy of the provided original container instance as future
     */
-  def reducePar(osmContainer: OsmContainer): Future[OsmContainer] = {
-    import concurrent.ExecutionContext.Implicits.global
-
-    def futWayUpdates(ways: Iterable[Way], contains: Long => Boolean) =
-      Future
-        .traverse(ways)(wayEntity => Future(updateWays(wayEntity, contains)))
-        .map(_.toMap)
-
-    def futRelUpdates(
-        relations: Iterable[Relation],
-        contains: Long => Boolean
-    ) =
-      Future
-        .traverse(relations)(relationEntity =>
-          Future(updateRelations(relationEntity, contains))
-        )
-        .map(_.toMap)
+  def reducePar(osmContainer: OsmContainer): Future[OsmContainer] =
+    reducePar(osmContainer, ExecutionContext.global, DefaultChunkSize)
+
+  /** Asynchronous representation of [[reduce]]. Ways and relations are updated
+    * in chunks of the given size, each chunk being one task of the given
+    * execution context. The ids of the available entities are collected into
+    * [[IdBitSet]] s up front, so that the containment checks neither box ids
+    * nor need a combined map of all entities.
+    *
+    * @param osmContainer
+    *   the [[OsmContainer]] instance that should be reduced
+    * @param executionContext
+    *   the execution context to run the tasks on
+    * @param chunkSize
+    *   the number of ways or relations, that are updated by one task
+    * @return
+    *   a reduced copy of the provided original container instance as future
+    */
+  def reducePar(
+      osmContainer: OsmContainer,
+      executionContext: ExecutionContext,
+      chunkSize: Int
+  ): Future[OsmContainer] = {
+    implicit val ec: ExecutionContext = executionContext
+    require(chunkSize > 0, s"Chunk size has to be positive, but is $chunkSize.")
+
+    def reduceEntities(
+        nodeIds: => Iterator[Long],
+        wayIds: => Iterator[Long],
+        relationIds: => Iterator[Long],
+        ways: Array[Way],
+        relations: Array[Relation]
+    ): Future[(Array[(Long, Way)], Array[(Long, Relation)])] = {
+      val availableNodes = Future(IdBitSet.from(nodeIds))
+      val availableWaysAndRelations =
+        Future(IdBitSet.from(wayIds ++ relationIds))
+      val updatedWays = availableNodes.flatMap(ids =>
+        inChunks(ways, chunkSize)(updateWays(_, ids.contains))
+      )
+      val updatedRelations =
+        availableNodes.zip(availableWaysAndRelations).flatMap {
+          case (nodeIds, otherIds) =>
+            inChunks(relations, chunkSize)(
+              updateRelations(
+                _,
+                (entityId: Long) =>
+                  nodeIds.contains(entityId) || otherIds.contains(entityId)
+              )
+            )
+        }
+      updatedWays.zip(updatedRelations)
+    }
 
     osmContainer match {
       case container @ SeqOsmContainer(nodes, ways, relations) =>
-        val updatedWays: Future[Map[Long, Way]] =
-          futWayUpdates(ways.values, (nodeId: Long) => nodes.contains(nodeId))
-        val allEntities: Map[Long, OsmEntity] = ways ++ nodes ++ relations
-        val updatedRelations: Future[Map[Long, Relation]] = futRelUpdates(
-          relations.values,
-          (entityId: Long) => allEntities.contains(entityId)
+        reduceEntities(
+          nodes.keysIterator,
+          ways.keysIterator,
+          relations.keysIterator,
+          ways.values.toArray,
+          relations.values.toArray
+        ).map { case (updatedWays, updatedRelations) =>
+          container.copy(
+            ways = updatedWays.toMap,
+            relations = updatedRelations.toMap
+          )
+        }
+      case container @ ParOsmContainer(nodes, ways, relations) =>
+        reduceEntities(
+          nodes.keysIterator,
+          ways.keysIterator,
+          relations.keysIterator,
+          ways.values.toArray,
+          relations.values.toArray
+        ).map { case (updatedWays, updatedRelations) =>
+          container.copy(
+            ways = updatedWays.toMap.par,
+            relations = updatedRelations.toMap.par
+          )
+        }
+      case container: PrimitiveOsmContainer =>
+        reduceEntities(
+          container.nodes.idIterator,
+          container.ways.keysIterator,
+          container.relations.keysIterator,
+          container.ways.valuesIterator.toArray,
+          container.relations.valuesIterator.toArray
+        ).map { case (updatedWays, updatedRelations) =>
+          container.copy(
+            ways = SortedLongMap.from(updatedWays),
+            relations = SortedLongMap.from(updatedRelations)
+          )
+        }
+      case container: MappedOsmContainer =>
+        // the files are read front to back, which is not split into tasks
+        Future(reduce(container))
+    }
+  }
+
+  /** Applies the given function to all values in chunks, that are processed in
+    * parallel. Every task writes a disjoint range of the result array.
+    */
+  private def inChunks[A, B: ClassTag](values: Array[A], chunkSize: Int)(
+      f: A => B
+  )(implicit ec: ExecutionContext): Future[Array[B]] = {
+    val results = new Array[B](values.length)
+    Future
+      .traverse(Iterator.range(0, values.length, chunkSize).toSeq) { start =>
+        Future {
+          val end = math.min(start + chunkSize, values.length)
+          var idx = start
+          while (idx < end) {
+            results(idx) = f(values(idx))
+            idx += 1
+          }
+        }
+      }
+      .map(_ => results)
+  }
+
+  /** Cuts the entities within the given envelope out of the container. Apart
+    * from the area, it works like clipping by a polygon.
+    *
+    * @param osmContainer
+    *   the container to clip
+    * @param envelope
+    *   the area of interest in longitude (x) and latitude (y)
+    * @param mode
+    *   how to treat ways, that cross the border of the area
+    * @return
+    *   a new container of the same type holding the clipped entities
+    */
+  def clip(
+      osmContainer: OsmContainer,
+      envelope: Envelope,
+      mode: ClipMode
+  ): OsmContainer =
+    clip(
+      osmContainer,
+      (latitude: Double, longitude: Double) =>
+        envelope.contains(longitude, latitude),
+      mode
+    )
+
+  /** Cuts the entities within the given polygon out of the container. Nodes on
+    * the border of the polygon are inside.
+    *
+    * Ways are kept, if at least one of their nodes is inside. Which of their
+    * nodes are kept depends on the given [[ClipMode]]. Relations are kept, if
+    * at least one of their node or way members or one of their member relations
+    * is kept. Their members are reduced to the kept entities.
+    *
+    * Nodes are tested against a prepared geometry of the polygon and ways and
+    * relations are fixed up in a single parallel pass each. Only the kept
+    * entities are copied into the new container. A [[MappedOsmContainer]] is
+    * copied into a new directory next to its own one, that is deleted, when the
+    * result is closed.
+    *
+    * Note: like [[reduce]], this does not adapt
+    * [[edu.ie3.util.osm.model.OsmEntity.Way.ClosedWay]] s, that become open due
+    * to strict clipping.
+    *
+    * @param osmContainer
+    *   the container to clip
+    * @param polygon
+    *   the area of interest in longitude (x) and latitude (y)
+    * @param mode
+    *   how to treat ways, that cross the border of the area
+    * @return
+    *   a new container of the same type holding the clipped entities
+    */
+  def clip(
+      osmContainer: OsmContainer,
+      polygon: Polygon,
+      mode: ClipMode
+  ): OsmContainer = {
+    val envelope = polygon.getEnvelopeInternal
+    val prepared = PreparedGeometryFactory.prepare(polygon)
+    val factory = polygon.getFactory
+    clip(
+      osmContainer,
+      (latitude: Double, longitude: Double) =>
+        envelope.contains(longitude, latitude) &&
+          prepared.covers(
+            factory.createPoint(new Coordinate(longitude, latitude))
+          ),
+      mode
+    )
+  }
+
+  private def clip(
+      osmContainer: OsmContainer,
+      inside: (Double, Double) => Boolean,
+      mode: ClipMode
+  ): OsmContainer = osmContainer match {
+    case SeqOsmContainer(nodes, ways, relations) =>
+      val insideNodes = IdBitSet(
+        nodes.values.toArray.par.collect {
+          case node if inside(node.latitude, node.longitude) => node.id
+        }.toArray
+      )
+      val clipped = clipWaysAndRelations(
+        insideNodes,
+        nodes.contains,
+        ways.values.toArray,
+        relations.values.toArray,
+        mode
+      )
+      SeqOsmContainer(
+        nodes.filter { case (nodeId, _) => clipped.nodeIds.contains(nodeId) },
+        clipped.ways.map(way => way.id -> way).toMap,
+        clipped.relations.map(relation => relation.id -> relation).toMap
+      )
+    case ParOsmContainer(nodes, ways, relations) =>
+      val insideNodes = IdBitSet(
+        nodes.values.collect {
+          case node if inside(node.latitude, node.longitude) => node.id
+        }.toArray
+      )
+      val clipped = clipWaysAndRelations(
+        insideNodes,
+        nodes.contains,
+        ways.values.toArray,
+        relations.values.toArray,
+        mode
+      )
+      ParOsmContainer(
+        nodes.filter { case (nodeId, _) => clipped.nodeIds.contains(nodeId) },
+        clipped.ways.map(way => way.id -> way).toMap.par,
+        clipped.relations.map(relation => relation.id -> relation).toMap.par
+      )
+    case PrimitiveOsmContainer(nodes, ways, relations) =>
+      val insideNodes = IdBitSet(
+        (0 until nodes.size).par.collect {
+          case idx if inside(nodes.latitudeAt(idx), nodes.longitudeAt(idx)) =>
+            nodes.idAt(idx)
+        }.toArray
+      )
+      val clipped = clipWaysAndRelations(
+        insideNodes,
+        nodes.contains,
+        ways.valuesIterator.toArray,
+        relations.valuesIterator.toArray,
+        mode
+      )
+      PrimitiveOsmContainer(
+        nodes.filterIds(clipped.nodeIds.contains),
+        SortedLongMap.fromValues(clipped.ways)(_.id),
+        SortedLongMap.fromValues(clipped.relations)(_.id)
+      )
+    case container: MappedOsmContainer =>
+      val insideNodes = IdBitSet(
+        container.nodesIterator.collect {
+          case node if inside(node.latitude, node.longitude) => node.id
+        }.toArray
+      )
+      val clipped = clipWaysAndRelations(
+        insideNodes,
+        container.nodeStore.contains,
+        container.waysIterator.toArray,
+        container.relationsIterator.toArray,
+        mode
+      )
+      container.rewritten(
+        container.nodesIterator.filter(node =>
+          clipped.nodeIds.contains(node.id)
+        ),
+        clipped.ways.sortBy(_.id).iterator,
+        clipped.relations.sortBy(_.id).iterator
+      )
+  }
+
+  /** Determines the entities kept by [[clip]]. Only nodes, that are contained
+    * in the container, are kept, even if kept ways refer to missing ones.
+    */
+  private def clipWaysAndRelations(
+      insideNodes: IdBitSet,
+      containsNode: Long => Boolean,
+      ways: Array[Way],
+      relations: Array[Relation],
+      mode: ClipMode
+  ): Clipped = {
+    val keptWays = ways.par.collect {
+      case way if way.nodes.exists(insideNodes.contains) =>
+        mode match {
+          case ClipMode.Strict       => updateWays(way, insideNodes.contains)._2
+          case ClipMode.CompleteWays => way
+        }
+    }.toArray
+    val keptNodes = mode match {
+      case ClipMode.Strict => insideNodes
+      case ClipMode.CompleteWays =>
+        IdBitSet.from(
+          insideNodes.iterator ++
+            keptWays.iterator.flatMap(_.nodes).filter(containsNode)
         )
+    }
+    val keptWayIds = IdBitSet.from(keptWays.iterator.map(_.id))
+
+    def isKept(member: RelationMember, keptRelations: Long => Boolean) =
+      member.relationType match {
+        case RelationMemberType.Node     => keptNodes.contains(member.id)
+        case RelationMemberType.Way      => keptWayIds.contains(member.id)
+        case RelationMemberType.Relation => keptRelations(member.id)
+        case _                           => false
+      }
 
-        updatedWays.zip(updatedRelations).map {
-          case (updatedWays, updatedRelations) =>
-            container.copy(ways = updatedWays, relations = updatedRelations)
+    // relations with kept nodes or ways and all of their parent relations
+    val keptRelationIds = mutable.HashSet.from(
+      relations.par.collect {
+        case relation if relation.members.exists(isKept(_, _ => false)) =>
+          relation.id
+      }.seq
+    )
+    val parents = relations.iterator
+      .flatMap(relation =>
+        relation.members.collect {
+          case member if member.relationType == RelationMemberType.Relation =>
+            member.id -> relation.id
         }
-      case container @ ParOsmContainer(nodes, ways, relations) =>
-        val updatedWays: Future[ParMap[Long, Way]] = futWayUpdates(
-          ways.values.seq,
-          (nodeId: Long) => nodes.contains(nodeId)
-        ).map(_.par)
+      )
+      .toSeq
+      .groupMap(_._1)(_._2)
+    val pending = mutable.Queue.from(keptRelationIds)
+    while (pending.nonEmpty)
+      parents.getOrElse(pending.dequeue(), Seq.empty).foreach { parent =>
+        if (keptRelationIds.add(parent)) pending.enqueue(parent)
+      }
+    val keptRelations = IdBitSet.from(keptRelationIds)
+
+    Clipped(
+      keptNodes,
+      keptWays,
+      relations.par.collect {
+        case relation if keptRelations.contains(relation.id) =>
+          relation.copy(members =
+            relation.members.filter(isKept(_, keptRelations.contains))
+          )
+      }.toArray
+    )
+  }
+
+  /** Merges the given containers, e.g. of neighbouring extracts, into one.
+    * Entities, that are contained in several containers, are kept once as
+    * decided by the given resolution.
+    *
+    * The ids of every container are sorted and the sorted streams are merged in
+    * parallel ranges of ids, which directly yields the entities of the result,
+    * so that no intermediate containers are built.
+    *
+    * Ways and relations, that are contained in several containers, cross the
+    * border between the extracts. Only their references are checked for
+    * entities, that are missing in the result, which are removed like by
+    * [[reduce]]. References of all other entities are kept as they are in their
+    * container, hence the containers should not be reduced before merging them.
+    *
+    * @param containers
+    *   the containers to merge
+    * @param resolution
+    *   the treatment of entities contained in several containers
+    * @return
+    *   the merged container
+    */
+  def merge(
+      containers: Seq[SeqOsmContainer],
+      resolution: DuplicateResolution = DuplicateResolution.HighestVersion
+  ): SeqOsmContainer = {
+    val (nodes, ways, relations) = mergeSources(
+      containers.map(container => mergeSource(container.nodes)),
+      containers.map(container => mergeSource(container.ways)),
+      containers.map(container => mergeSource(container.relations)),
+      resolution
+    )
+    SeqOsmContainer(Map.from(nodes), Map.from(ways), Map.from(relations))
+  }
+
+  /** Merges the given containers like [[merge]], but holds the result in
+    * parallel collections
+    *
+    * @param containers
+    *   the containers to merge
+    * @param resolution
+    *   the treatment of entities contained in several containers
+    * @return
+    *   the merged container
+    */
+  def mergePar(
+      containers: Seq[ParOsmContainer],
+      resolution: DuplicateResolution = DuplicateResolution.HighestVersion
+  ): ParOsmContainer = {
+    val (nodes, ways, relations) = mergeSources(
+      containers.map(container => mergeSource(container.nodes)),
+      containers.map(container => mergeSource(container.ways)),
+      containers.map(container => mergeSource(container.relations)),
+      resolution
+    )
+    ParOsmContainer(
+      ParArray.handoff(nodes).toMap,
+      ParArray.handoff(ways).toMap,
+      ParArray.handoff(relations).toMap
+    )
+  }
 
-        val allEntities: ParMap[Long, OsmEntity] = ways ++ nodes ++ relations
-        val updatedRelations: Future[ParMap[Long, Relation]] = futRelUpdates(
-          relations.values.seq,
-          (entityId: Long) => allEntities.contains(entityId)
-        ).map(_.par)
+  private def mergeSource[E](
+      entities: scala.collection.Map[Long, E]
+  ): MergeSource[E] = {
+    val ids = entities.keysIterator.toArray
+    java.util.Arrays.parallelSort(ids)
+    MergeSource(ids, entities)
+  }
 
-        updatedWays.zip(updatedRelations).map {
-          case (updatedWays, updatedRelations) =>
-            container.copy(ways = updatedWays, relations = updatedRelations)
+  private def mergeSource[E](entities: ParMap[Long, E]): MergeSource[E] = {
+    val ids = entities.keys.toArray
+    java.util.Arrays.parallelSort(ids)
+    MergeSource(ids, entities.apply)
+  }
+
+  /** Merges the entities of all types and removes the missing references of
+    * ways and relations, that have been contained in several containers
+    */
+  private def mergeSources(
+      nodeSources: Seq[MergeSource[Node]],
+      waySources: Seq[MergeSource[Way]],
+      relationSources: Seq[MergeSource[Relation]],
+      resolution: DuplicateResolution
+  ): (Array[(Long, Node)], Array[(Long, Way)], Array[(Long, Relation)]) = {
+    val nodes = mergeSorted(nodeSources.toIndexedSeq, resolution)
+    val ways = mergeSorted(waySources.toIndexedSeq, resolution)
+    val relations = mergeSorted(relationSources.toIndexedSeq, resolution)
 
+    if (ways.duplicates.nonEmpty || relations.duplicates.nonEmpty) {
+      val nodeIds = IdBitSet(nodes.entities.map(_._1))
+      ways.duplicates.par.foreach { idx =>
+        ways.entities(idx) = updateWays(ways.entities(idx)._2, nodeIds.contains)
+      }
+      if (relations.duplicates.nonEmpty) {
+        val otherIds = IdBitSet(
+          ways.entities.map(_._1) ++ relations.entities.map(_._1)
+        )
+        relations.duplicates.par.foreach { idx =>
+          relations.entities(idx) = updateRelations(
+            relations.entities(idx)._2,
+            (entityId: Long) =>
+              nodeIds.contains(entityId) || otherIds.contains(entityId)
+          )
         }
+      }
     }
+    (nodes.entities, ways.entities, relations.entities)
   }
 
+  /** Merges the sorted ids of the sources. The range of ids is split at ids of
+    * the largest source into partitions, that are merged in parallel.
+    */
+  private def mergeSorted[E <: OsmEntity](
+      sources: IndexedSeq[MergeSource[E]],
+      resolution: DuplicateResolution
+  ): Merged[E] = {
+    val largest =
+      sources.map(_.ids).maxByOption(_.length).getOrElse(Array.emptyLongArray)
+    val partitions = math.max(
+      1,
+      math.min(MergePartitions, largest.length / MinMergePartitionSize)
+    )
+    val pivots = Iterator
+      .range(1, partitions)
+      .map(partition => largest(partition * largest.length / partitions))
+      .distinct
+      .toArray
+
+    // first position of every partition within every source
+    def start(partition: Int, ids: Array[Long]): Int =
+      if (partition == 0) 0
+      else if (partition > pivots.length) ids.length
+      else {
+        val idx = java.util.Arrays.binarySearch(ids, pivots(partition - 1))
+        if (idx >= 0) idx else -idx - 1
+      }
+
+    val merged = Array
+      .range(0, pivots.length + 1)
+      .par
+      .map { partition =>
+        val positions = sources.map(source => start(partition, source.ids))
+        val ends = sources.map(source => start(partition + 1, source.ids))
+        mergeRange(sources, positions.toArray, ends.toArray, resolution)
+      }
+      .seq
+
+    // concatenate the partitions
+    val entities = new Array[(Long, E)](merged.map(_.entities.length).sum)
+    val duplicates = mutable.ArrayBuilder.make[Int]
+    var offset = 0
+    merged.foreach { partition =>
+      System.arraycopy(
+        partition.entities,
+        0,
+        entities,
+        offset,
+        partition.entities.length
+      )
+      partition.duplicates.foreach(duplicates += _ + offset)
+      offset += partition.entities.length
+    }
+    Merged(entities, duplicates.result())
+  }
+
+  /** Merges the given ranges of the sorted ids of the sources
+    */
+  private def mergeRange[E <: OsmEntity](
+      sources: IndexedSeq[MergeSource[E]],
+      positions: Array[Int],
+      ends: Array[Int],
+      resolution: DuplicateResolution
+  ): Merged[E] = {
+    val entities = mutable.ArrayBuilder.make[(Long, E)]
+    val duplicates = mutable.ArrayBuilder.make[Int]
+    var count = 0
+    var exhausted = false
+    while (!exhausted) {
+      // the smallest id, that is not merged yet
+      var id = Long.MaxValue
+      exhausted = true
+      sources.indices.foreach { source =>
+        if (positions(source) < ends(source)) {
+          id = math.min(id, sources(source).ids(positions(source)))
+          exhausted = false
+        }
+      }
+      if (!exhausted) {
+        var entity: Option[E] = None
+        var occurrences = 0
+        sources.indices.foreach { source =>
+          if (
+            positions(source) < ends(source) &&
+            sources(source).ids(positions(source)) == id
+          ) {
+            val candidate = sources(source).entity(id)
+            entity = Some(
+              entity.fold(candidate)(resolved(_, candidate, resolution))
+            )
+            occurrences += 1
+            positions(source) += 1
+          }
+        }
+        entity.foreach(entities += id -> _)
+        if (occurrences > 1) duplicates += count
+        count += 1
+      }
+    }
+    Merged(entities.result(), duplicates.result())
+  }
+
+  /** @return
+    *   which of the two entities with the same id is kept, the candidate
+    *   stemming from the later container
+    */
+  private def resolved[E <: OsmEntity](
+      current: E,
+      candidate: E,
+      resolution: DuplicateResolution
+  ): E = resolution match {
+    case DuplicateResolution.HighestVersion =>
+      def version(entity: E): Int =
+        entity.metaInformation.flatMap(_.version).getOrElse(Int.MinValue)
+      if (version(candidate) >= version(current)) candidate else current
+    case DuplicateResolution.LastContainer => candidate
+  }
+
+  /** Drops the [[edu.ie3.util.osm.model.OsmEntity.MetaInformation]] of all
+    * entities, which is not needed by most applications. The entities of
+    * [[SeqOsmContainer]] s and [[ParOsmContainer]] s are copied in parallel,
+    * entities without meta information are shared with the result.
+    * [[MappedOsmContainer]] s are copied into a new directory next to their own
+    * one, that is deleted, when the result is closed.
+    *
+    * Note: to not read the meta information in the first place, use the
+    * `readMetaInformation` parameter of the readers.
+    *
+    * @param osmContainer
+    *   the container to strip
+    * @return
+    *   a new container of the same type without any meta information
+    */
+  def stripMetaInformation(osmContainer: OsmContainer): OsmContainer =
+    osmContainer match {
+      case SeqOsmContainer(nodes, ways, relations) =>
+        SeqOsmContainer(
+          nodes.par.map { case (id, node) => id -> stripped(node) }.seq.toMap,
+          ways.par.map { case (id, way) => id -> stripped(way) }.seq.toMap,
+          relations.par
+            .map { case (id, relation) =>
+              id -> stripped(relation)
+            }
+            .seq
+            .toMap
+        )
+      case ParOsmContainer(nodes, ways, relations) =>
+        ParOsmContainer(
+          nodes.map { case (id, node) => id -> stripped(node) },
+          ways.map { case (id, way) => id -> stripped(way) },
+          relations.map { case (id, relation) => id -> stripped(relation) }
+        )
+      case container: PrimitiveOsmContainer =>
+        PrimitiveOsmContainer(
+          container.nodes.withoutMetaInformation,
+          container.ways.mapValues(stripped),
+          container.relations.mapValues(stripped)
+        )
+      case container: MappedOsmContainer =>
+        container.rewritten(
+          container.nodesIterator.map(stripped),
+          container.waysIterator.map(stripped),
+          container.relationsIterator.map(stripped)
+        )
+    }
+
+  /** Moves the [[edu.ie3.util.osm.model.OsmEntity.MetaInformation]] of all
+    * entities into a columnar [[MetaInformationStore]], from which it can be
+    * requested by entity id, if needed at all.
+    *
+    * @param osmContainer
+    *   the container to strip
+    * @return
+    *   a new container of the same type without any meta information and the
+    *   store holding it
+    */
+  def detachMetaInformation(
+      osmContainer: OsmContainer
+  ): (OsmContainer, MetaInformationStore) = {
+    def columns(entities: IterableOnce[OsmEntity]) =
+      MetaInformationColumns.from(entities.iterator.flatMap { entity =>
+        entity.metaInformation.map(entity.id -> _)
+      })
+
+    val store = osmContainer match {
+      case SeqOsmContainer(nodes, ways, relations) =>
+        MetaInformationStore(
+          columns(nodes.values),
+          columns(ways.values),
+          columns(relations.values)
+        )
+      case ParOsmContainer(nodes, ways, relations) =>
+        MetaInformationStore(
+          columns(nodes.valuesIterator),
+          columns(ways.valuesIterator),
+          columns(relations.valuesIterator)
+        )
+      case container: PrimitiveOsmContainer =>
+        MetaInformationStore(
+          MetaInformationColumns.from(container.nodes.metaInformationIterator),
+          columns(container.ways.valuesIterator),
+          columns(container.relations.valuesIterator)
+        )
+      case container: MappedOsmContainer =>
+        MetaInformationStore(
+          columns(container.nodesIterator),
+          columns(container.waysIterator),
+          columns(container.relationsIterator)
+        )
+    }
+    (stripMetaInformation(osmContainer), store)
+  }
+
+  /** @return
+    *   the entity without meta information, which is the given instance, if it
+    *   has none
+    */
+  private def stripped[E <: OsmEntity](entity: E): E =
+    if (entity.metaInformation.isEmpty) entity
+    else
+      (entity match {
+        case node: Node           => node.copy(metaInformation = None)
+        case openWay: Way.OpenWay => openWay.copy(metaInformation = None)
+        case closedWay: Way.ClosedWay =>
+          closedWay.copy(metaInformation = None)
+        case relation: Relation => relation.copy(metaInformation = None)
+      }).asInstanceOf[E]
+
+  private def reducedWays(
+      container: PrimitiveOsmContainer
+  ): SortedLongMap[Way] =
+    container.ways.mapValues(
+      updateWays(_, (nodeId: Long) => container.nodes.contains(nodeId))._2
+    )
+
+  private def reducedRelations(
+      container: PrimitiveOsmContainer
+  ): SortedLongMap[Relation] =
+    container.relations.mapValues(
+      updateRelations(
+        _,
+        (entityId: Long) =>
+          container.ways.contains(entityId) ||
+            container.nodes.contains(entityId) ||
+            container.relations.contains(entityId)
+      )._2
+    )
+
   private def updateRelations(
       relation: Relation,
       contains: Long => Boolean
@@ -140,9 +899,13 @@ object OsmContainerUtils {
     )
   }
 
+  /** Drops the unavailable nodes of the way. Ways, whose nodes are all
+    * available, are kept as they are.
+    */
   private def updateWays(way: Way, contains: Long => Boolean): (Long, Way) = {
-    val availableNodes = way.nodes.filter(contains)
+    val availableNodes = Way.filterNodes(way.nodes, contains)
     way match {
+      case _ if availableNodes eq way.nodes => way.id -> way
       case openWay: Way.OpenWay =>
         openWay.id -> openWay.copy(nodes = availableNodes)
       case closedWay: Way.ClosedWay =>
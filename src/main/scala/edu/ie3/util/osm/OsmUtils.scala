@@ -9,11 +9,18 @@ import com.typesafe.scalalogging.LazyLogging
 import edu.ie3.util.exceptions.OsmException
 import edu.ie3.util.geo.GeoUtils
 import edu.ie3.util.osm.model.CommonOsmKey.{Building, Highway, Landuse}
-import edu.ie3.util.osm.model.OsmEntity
+import edu.ie3.util.osm.model.{
+  CompiledTagFilter,
+  NodeColumns,
+  OsmEntity,
+  TagFilter,
+  TagIndex
+}
 import edu.ie3.util.osm.model.OsmEntity.Node
 import edu.ie3.util.osm.model.OsmEntity.Way.ClosedWay
 import org.locationtech.jts.geom.{Coordinate, Polygon}
 
+import scala.collection.parallel.CollectionConverters._
 import scala.collection.parallel.immutable.ParSeq
 import scala.util.{Failure, Success, Try}
 
@@ -46,12 +53,46 @@ object OsmUtils extends LazyLogging {
         osmKey: String,
         specificTagValues: Option[Set[String]] = None
     ): ParSeq[OsmEntity] =
-      specificTagValues match {
-        case Some(tagValues) =>
-          entities.filter(_.hasKeyValuesPairOr(osmKey, tagValues))
-        case None =>
-          entities.filter(_.hasKey(osmKey))
-      }
+      entitiesByKey(
+        entities,
+        TagFilter.key(osmKey, specificTagValues.getOrElse(Set.empty)).compile
+      )
+
+    /** Filters the entities by a compiled [[TagFilter]] in parallel
+      */
+    def entitiesByKey(
+        entities: ParSeq[OsmEntity],
+        filter: CompiledTagFilter
+    ): ParSeq[OsmEntity] =
+      entities.filter(filter)
+
+    def extractBuildings(
+        index: TagIndex,
+        specificTagValues: Option[Set[String]]
+    ): ParSeq[OsmEntity] =
+      entitiesByKey(index, Building.toString, specificTagValues)
+
+    def extractLanduses(
+        index: TagIndex,
+        specificTagValues: Option[Set[String]]
+    ): ParSeq[OsmEntity] =
+      entitiesByKey(index, Landuse.toString, specificTagValues)
+
+    def extractHighways(
+        index: TagIndex,
+        specificTagValues: Option[Set[String]]
+    ): ParSeq[OsmEntity] =
+      entitiesByKey(index, Highway.toString, specificTagValues)
+
+    /** Looks up the entities with the given key via a prebuilt index instead of
+      * testing every entity
+      */
+    def entitiesByKey(
+        index: TagIndex,
+        osmKey: String,
+        specificTagValues: Option[Set[String]]
+    ): ParSeq[OsmEntity] =
+      index.entitiesByKey(osmKey, specificTagValues).par
 
   }
 
@@ -78,12 +119,69 @@ object OsmUtils extends LazyLogging {
       osmKey: String,
       specificTagValues: Option[Set[String]] = None
   ): Seq[OsmEntity] =
-    specificTagValues match {
-      case Some(tagValues) =>
-        entities.filter(_.hasKeyValuesPairOr(osmKey, tagValues))
-      case None =>
-        entities.filter(_.hasKey(osmKey))
-    }
+    entitiesByKey(
+      entities,
+      TagFilter.key(osmKey, specificTagValues.getOrElse(Set.empty)).compile
+    )
+
+  /** Filters the entities by a compiled [[TagFilter]], e.g. one matching
+    * several keys at once
+    * {{{
+    * val filter = TagFilter.anyOf(keyTagValues).compile
+    * OsmUtils.entitiesByKey(entities, filter)
+    * }}}
+    *
+    * @param entities
+    *   the entities to filter
+    * @param filter
+    *   the compiled filter, that is to be reused for several calls
+    * @return
+    *   the matching entities
+    */
+  def entitiesByKey(
+      entities: Seq[OsmEntity],
+      filter: CompiledTagFilter
+  ): Seq[OsmEntity] =
+    entities.filter(filter)
+
+  def extractBuildings(
+      index: TagIndex,
+      specificTagValues: Option[Set[String]]
+  ): Seq[OsmEntity] =
+    entitiesByKey(index, Building.toString, specificTagValues)
+
+  def extractLanduses(
+      index: TagIndex,
+      specificTagValues: Option[Set[String]]
+  ): Seq[OsmEntity] =
+    entitiesByKey(index, Landuse.toString, specificTagValues)
+
+  def extractHighways(
+      index: TagIndex,
+      specificTagValues: Option[Set[String]]
+  ): Seq[OsmEntity] =
+    entitiesByKey(index, Highway.toString, specificTagValues)
+
+  /** Looks up the entities with the given key via a prebuilt index instead of
+    * testing every entity. Build the index once via [[TagIndex.apply]], if
+    * several extractions are done on the same entities.
+    *
+    * @param index
+    *   the index of the entities
+    * @param osmKey
+    *   the key to match
+    * @param specificTagValues
+    *   optional values to match, an empty set matches any value
+    * @return
+    *   the matching entities
+    */
+  def entitiesByKey(
+      index: TagIndex,
+      osmKey: String,
+      specificTagValues: Option[Set[String]]
+  ): Seq[OsmEntity] =
+    index.entitiesByKey(osmKey, specificTagValues)
+
   object GeometryUtils {
 
     /** Build a polygon from a closed way.
@@ -112,6 +210,32 @@ object OsmUtils extends LazyLogging {
       Success(GeoUtils.buildPolygon(coordinates.toArray))
     }
 
+    /** Build a polygon from a closed way, reading the node coordinates straight
+      * from the columns of a [[NodeColumns]] instance.
+      *
+      * @param closedWay
+      *   the closed way
+      * @param nodeColumns
+      *   the columnar node storage
+      * @return
+      *   the polygon or a failure, if a node is not available
+      */
+    def buildPolygon(
+        closedWay: ClosedWay,
+        nodeColumns: NodeColumns
+    ): Try[Polygon] =
+      nodeColumns.coordinates(closedWay.nodes) match {
+        case Some(coordinates) =>
+          Success(GeoUtils.buildPolygon(coordinates))
+        case None =>
+          val missingNode = closedWay.nodes.find(!nodeColumns.contains(_))
+          Failure(
+            OsmException(
+              s"Couldn't convert the closed way since node with id ${missingNode.getOrElse("")} wasn't found."
+            )
+          )
+      }
+
     /** Builds a polygon from a sequence of Nodes
       *
       * @param nodes
@@ -0,0 +1,151 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.graph
+
+import edu.ie3.util.osm.OsmContainerUtils
+import edu.ie3.util.osm.model.OsmEntity.Way
+import edu.ie3.util.osm.model.{CommonOsmKey, OsmContainer}
+
+import java.util.concurrent.atomic.AtomicIntegerArray
+import scala.collection.parallel.CollectionConverters._
+
+/** Connectivity analysis of networks of ways, e.g. power lines or highways. Two
+  * ways are connected, if they share a node. The nodes are numbered densely and
+  * joined in a lock free union-find structure, while the ways are processed in
+  * parallel chunks. Hence, the analysis takes nearly linear time and does not
+  * recurse, even for the networks of whole countries.
+  */
+object ConnectedComponents {
+
+  /** @param wayIds
+    *   ascending ids of the ways of the component
+    * @param nodeCount
+    *   number of distinct nodes referenced by the ways of the component
+    */
+  final case class Component(wayIds: Seq[Long], nodeCount: Int)
+
+  /** @return
+    *   the components of all highways of the container
+    */
+  def highways(osmContainer: OsmContainer): Seq[Component] =
+    apply(osmContainer, _.hasKey(CommonOsmKey.Highway))
+
+  /** @return
+    *   the components of all ways of the container, that are tagged with the
+    *   key `power`
+    */
+  def power(osmContainer: OsmContainer): Seq[Component] =
+    apply(osmContainer, _.hasKey(CommonOsmKey.Power))
+
+  def apply(
+      osmContainer: OsmContainer,
+      filter: Way => Boolean
+  ): Seq[Component] =
+    apply(RoutingGraph.allWays(osmContainer).filter(filter))
+
+  /** Determines the connected components of the given ways. The topology is
+    * solely derived from the node references of the ways, hence nodes need not
+    * be available. Ways without nodes are no part of any component.
+    *
+    * @param ways
+    *   the ways to analyse
+    * @return
+    *   the components, largest number of nodes first
+    */
+  def apply(ways: Iterable[Way]): Seq[Component] = {
+    val wayArray = ways.filter(_.nodes.nonEmpty).toArray
+    val referenced = Array.newBuilder[Long]
+    wayArray.foreach(way => referenced ++= way.nodeArray)
+    val nodeIds = RoutingGraph.distinctSorted(referenced.result())
+
+    val parents = new AtomicIntegerArray(nodeIds.length)
+    nodeIds.indices.foreach(idx => parents.set(idx, idx))
+    Iterator
+      .range(0, wayArray.length, OsmContainerUtils.DefaultChunkSize)
+      .toArray
+      .par
+      .foreach { start =>
+        val end =
+          math.min(start + OsmContainerUtils.DefaultChunkSize, wayArray.length)
+        var idx = start
+        while (idx < end) {
+          val nodes = wayArray(idx).nodeArray
+          val first = index(nodeIds, nodes(0))
+          var node = 1
+          while (node < nodes.length) {
+            union(parents, first, index(nodeIds, nodes(node)))
+            node += 1
+          }
+          idx += 1
+        }
+      }
+
+    val roots = new Array[Int](nodeIds.length)
+    val nodeCounts = new Array[Int](nodeIds.length)
+    nodeIds.indices.foreach { idx =>
+      roots(idx) = find(parents, idx)
+      nodeCounts(roots(idx)) += 1
+    }
+
+    // group the ways by the root of their first node
+    val offsets = new Array[Int](nodeIds.length + 1)
+    val wayRoots = wayArray.map(way => roots(index(nodeIds, way.nodeArray(0))))
+    wayRoots.foreach(root => offsets(root + 1) += 1)
+    nodeIds.indices.foreach(idx => offsets(idx + 1) += offsets(idx))
+    val fill = java.util.Arrays.copyOf(offsets, nodeIds.length)
+    val wayIds = new Array[Long](wayArray.length)
+    wayArray.indices.foreach { idx =>
+      val root = wayRoots(idx)
+      wayIds(fill(root)) = wayArray(idx).id
+      fill(root) += 1
+    }
+
+    nodeIds.indices
+      .filter(idx => roots(idx) == idx)
+      .map { root =>
+        val componentWayIds =
+          java.util.Arrays.copyOfRange(wayIds, offsets(root), offsets(root + 1))
+        java.util.Arrays.sort(componentWayIds)
+        Component(componentWayIds.toSeq, nodeCounts(root))
+      }
+      .sortBy(component => (-component.nodeCount, component.wayIds.head))
+  }
+
+  private def index(nodeIds: Array[Long], nodeId: Long): Int =
+    java.util.Arrays.binarySearch(nodeIds, nodeId)
+
+  /** Finds the root of the given node and halves the path to it on the way
+    */
+  private def find(parents: AtomicIntegerArray, node: Int): Int = {
+    var current = node
+    var parent = parents.get(current)
+    while (parent != current) {
+      val grandparent = parents.get(parent)
+      if (grandparent != parent)
+        parents.compareAndSet(current, parent, grandparent)
+      current = grandparent
+      parent = parents.get(current)
+    }
+    current
+  }
+
+  /** Links the roots of the given nodes. The root with the larger index is
+    * always linked to the one with the smaller index, so that concurrent links
+    * cannot form cycles.
+    */
+  private def union(parents: AtomicIntegerArray, a: Int, b: Int): Unit = {
+    var linked = false
+    while (!linked) {
+      val rootA = find(parents, a)
+      val rootB = find(parents, b)
+      linked = rootA == rootB || parents.compareAndSet(
+        math.max(rootA, rootB),
+        math.max(rootA, rootB),
+        math.min(rootA, rootB)
+      )
+    }
+  }
+}
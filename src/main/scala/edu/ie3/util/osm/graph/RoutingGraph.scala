@@ -0,0 +1,275 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.graph
+
+import edu.ie3.util.geo.GeoUtils
+import edu.ie3.util.osm.model.OsmContainer.{
+  MappedOsmContainer,
+  ParOsmContainer,
+  PrimitiveOsmContainer,
+  SeqOsmContainer
+}
+import edu.ie3.util.osm.model.OsmEntity.Way
+import edu.ie3.util.osm.model.{CommonOsmKey, OsmContainer}
+import tech.units.indriya.unit.Units
+
+/** Undirected graph of the segments of OSM ways in compressed sparse row
+  * layout. The OSM nodes are numbered densely by ascending id, the edges of
+  * node `i` are the entries `offsets(i)` until `offsets(i + 1)` of the target
+  * and weight arrays. Weights are the haversine distances in metres. Apart from
+  * a handful of primitive arrays, the graph holds no objects, hence it is cheap
+  * to keep and fast to traverse even for whole countries.
+  *
+  * Shortest paths are searched by [[ShortestPathSearch]] instances, that are
+  * created by [[newSearch]]. The graph itself is immutable and may be shared
+  * between threads.
+  */
+final class RoutingGraph private (
+    nodeIds: Array[Long], // strictly ascending
+    latitudes: Array[Double],
+    longitudes: Array[Double],
+    private[graph] val offsets: Array[Int],
+    private[graph] val targets: Array[Int],
+    private[graph] val weights: Array[Float]
+) {
+
+  def nodeCount: Int = nodeIds.length
+
+  /** @return
+    *   the number of undirected edges
+    */
+  def edgeCount: Int = targets.length / 2
+
+  /** @param nodeId
+    *   the OSM id of the node of interest
+    * @return
+    *   the index of the node or -1, if the node is not part of the graph
+    */
+  def indexOf(nodeId: Long): Int = {
+    val idx = java.util.Arrays.binarySearch(nodeIds, nodeId)
+    if (idx >= 0) idx else -1
+  }
+
+  def nodeId(index: Int): Long = nodeIds(index)
+
+  def latitude(index: Int): Double = latitudes(index)
+
+  def longitude(index: Int): Double = longitudes(index)
+
+  def degree(index: Int): Int = offsets(index + 1) - offsets(index)
+
+  /** @return
+    *   the indices of the neighbours of the given node
+    */
+  def neighbours(index: Int): Array[Int] =
+    java.util.Arrays.copyOfRange(targets, offsets(index), offsets(index + 1))
+
+  /** @return
+    *   a new search with its own working memory, that may be used for many
+    *   subsequent queries of one thread
+    */
+  def newSearch(): ShortestPathSearch = new ShortestPathSearch(this)
+
+  // unit vectors of the nodes on the sphere
+  private val xs = new Array[Double](nodeCount)
+  private val ys = new Array[Double](nodeCount)
+  private val zs = new Array[Double](nodeCount)
+  latitudes.indices.foreach { idx =>
+    val lat = math.toRadians(latitudes(idx))
+    val lon = math.toRadians(longitudes(idx))
+    xs(idx) = math.cos(lat) * math.cos(lon)
+    ys(idx) = math.cos(lat) * math.sin(lon)
+    zs(idx) = math.sin(lat)
+  }
+
+  /** Length of the straight line through the earth between two nodes in metres.
+    * It never exceeds the great circle distance, but is much cheaper to
+    * compute, which makes it the lower bound of choice for goal directed
+    * searches.
+    */
+  private[graph] def chord(from: Int, to: Int): Double = {
+    val dx = xs(from) - xs(to)
+    val dy = ys(from) - ys(to)
+    val dz = zs(from) - zs(to)
+    RoutingGraph.EarthRadius * math.sqrt(dx * dx + dy * dy + dz * dz)
+  }
+
+  override def toString: String =
+    s"RoutingGraph(nodes = $nodeCount, edges = $edgeCount)"
+}
+
+object RoutingGraph {
+
+  private val EarthRadius =
+    GeoUtils.EARTH_RADIUS.to(Units.METRE).getValue.doubleValue
+
+  /** Builds the graph of all highways of the given container
+    */
+  def highways(osmContainer: OsmContainer): RoutingGraph =
+    apply(
+      osmContainer,
+      allWays(osmContainer).filter(_.hasKey(CommonOsmKey.Highway))
+    )
+
+  /** Builds the graph of the given ways. Each pair of subsequent nodes of a way
+    * becomes an edge. Segments with nodes, that are not part of the container,
+    * are skipped.
+    *
+    * @param osmContainer
+    *   the container holding the nodes of the ways
+    * @param ways
+    *   the ways to build the graph of
+    * @return
+    *   the graph
+    */
+  def apply(osmContainer: OsmContainer, ways: Iterable[Way]): RoutingGraph = {
+    val coordinates = coordinateLookup(osmContainer)
+
+    val referenced = Array.newBuilder[Long]
+    ways.foreach(way => referenced ++= way.nodeArray)
+    val nodeIds = distinctSorted(referenced.result())
+    val latitudes = new Array[Double](nodeIds.length)
+    val longitudes = new Array[Double](nodeIds.length)
+    val available = new Array[Boolean](nodeIds.length)
+    nodeIds.indices.foreach { idx =>
+      available(idx) = coordinates(nodeIds(idx), idx, latitudes, longitudes)
+    }
+
+    // undirected segments between available nodes as pairs of indices
+    val segments = Array.newBuilder[Int]
+    ways.foreach { way =>
+      val nodes = way.nodeArray
+      var idx = 1
+      while (idx < nodes.length) {
+        val previous = index(nodeIds, nodes(idx - 1))
+        val current = index(nodeIds, nodes(idx))
+        if (previous != current && available(previous) && available(current)) {
+          segments += previous
+          segments += current
+        }
+        idx += 1
+      }
+    }
+    val pairs = segments.result()
+
+    // compact the nodes to the ones with coordinates
+    val compacted = new Array[Int](nodeIds.length)
+    var count = 0
+    nodeIds.indices.foreach { idx =>
+      compacted(idx) = count
+      if (available(idx)) count += 1
+    }
+    val keep = nodeIds.indices.filter(available).toArray
+
+    val offsets = new Array[Int](count + 1)
+    pairs.foreach(idx => offsets(compacted(idx) + 1) += 1)
+    var idx = 0
+    while (idx < count) {
+      offsets(idx + 1) += offsets(idx)
+      idx += 1
+    }
+    val fill = java.util.Arrays.copyOf(offsets, count)
+    val targets = new Array[Int](pairs.length)
+    val weights = new Array[Float](pairs.length)
+    idx = 0
+    while (idx < pairs.length) {
+      val from = pairs(idx)
+      val to = pairs(idx + 1)
+      val weight = haversine(
+        latitudes(from),
+        longitudes(from),
+        latitudes(to),
+        longitudes(to)
+      ).toFloat
+      val a = compacted(from)
+      val b = compacted(to)
+      targets(fill(a)) = b
+      weights(fill(a)) = weight
+      fill(a) += 1
+      targets(fill(b)) = a
+      weights(fill(b)) = weight
+      fill(b) += 1
+      idx += 2
+    }
+
+    new RoutingGraph(
+      keep.map(nodeIds),
+      keep.map(latitudes),
+      keep.map(longitudes),
+      offsets,
+      targets,
+      weights
+    )
+  }
+
+  private def haversine(
+      latA: Double,
+      lonA: Double,
+      latB: Double,
+      lonB: Double
+  ): Double = {
+    val sinLat = math.sin(math.toRadians(latB - latA) / 2)
+    val sinLon = math.sin(math.toRadians(lonB - lonA) / 2)
+    val a = sinLat * sinLat +
+      math.cos(math.toRadians(latA)) * math.cos(math.toRadians(latB)) *
+      sinLon * sinLon
+    EarthRadius * 2 * math.atan2(math.sqrt(a), math.sqrt(1 - a))
+  }
+
+  private def index(nodeIds: Array[Long], nodeId: Long): Int =
+    java.util.Arrays.binarySearch(nodeIds, nodeId)
+
+  private[graph] def distinctSorted(ids: Array[Long]): Array[Long] = {
+    java.util.Arrays.sort(ids)
+    var count = 0
+    ids.indices.foreach { idx =>
+      if (count == 0 || ids(count - 1) != ids(idx)) {
+        ids(count) = ids(idx)
+        count += 1
+      }
+    }
+    java.util.Arrays.copyOf(ids, count)
+  }
+
+  private[graph] def allWays(osmContainer: OsmContainer): Iterable[Way] =
+    osmContainer match {
+      case SeqOsmContainer(_, ways, _)       => ways.values
+      case ParOsmContainer(_, ways, _)       => ways.values.seq
+      case PrimitiveOsmContainer(_, ways, _) => ways.values
+      case container: MappedOsmContainer =>
+        new Iterable[Way] {
+          override def iterator: Iterator[Way] = container.waysIterator
+        }
+    }
+
+  /** Writes the coordinate of the given node to the given position of the
+    * arrays
+    *
+    * @return
+    *   whether or not the node is available
+    */
+  private def coordinateLookup(
+      osmContainer: OsmContainer
+  ): (Long, Int, Array[Double], Array[Double]) => Boolean =
+    osmContainer match {
+      case PrimitiveOsmContainer(nodes, _, _) =>
+        (nodeId, idx, latitudes, longitudes) => {
+          val row = nodes.indexOf(nodeId)
+          if (row >= 0) {
+            latitudes(idx) = nodes.latitudeAt(row)
+            longitudes(idx) = nodes.longitudeAt(row)
+          }
+          row >= 0
+        }
+      case container =>
+        (nodeId, idx, latitudes, longitudes) =>
+          container.node(nodeId).exists { node =>
+            latitudes(idx) = node.latitude
+            longitudes(idx) = node.longitude
+            true
+          }
+    }
+}
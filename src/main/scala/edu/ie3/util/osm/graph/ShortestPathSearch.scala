@@ -0,0 +1,254 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.graph
+
+import edu.ie3.util.osm.graph.ShortestPathSearch.Path
+import edu.ie3.util.quantities.QuantityUtils.asMetre
+import tech.units.indriya.ComparableQuantity
+
+import javax.measure.quantity.Length
+
+/** Shortest path queries on a [[RoutingGraph]]. The search owns working arrays
+  * sized to the graph, that are reused by all queries. They are invalidated by
+  * incrementing a stamp instead of clearing them, hence a query only touches
+  * the nodes it visits and does not allocate, apart from growing the priority
+  * queue and the result of the query.
+  *
+  * A search is not thread safe. Create one search per thread via
+  * [[RoutingGraph.newSearch]].
+  */
+final class ShortestPathSearch private[graph] (graph: RoutingGraph) {
+
+  private val distances = new Array[Float](graph.nodeCount)
+  private val predecessors = new Array[Int](graph.nodeCount)
+  // a node has been reached by the current query, if its stamp equals the
+  // reached stamp, and it is settled, if its stamp is one above
+  private val stamps = new Array[Int](graph.nodeCount)
+  private var reachedStamp = 0
+  private val queue = new IntFloatHeap(64)
+
+  /** @return
+    *   the length of the shortest path between the given nodes in metres or
+    *   [[Float.PositiveInfinity]], if the target is not reachable
+    */
+  def distance(source: Int, target: Int): Float = {
+    aStar(source, target)
+    if (isReached(target)) distances(target) else Float.PositiveInfinity
+  }
+
+  /** @param sourceNodeId
+    *   OSM id of the node to start at
+    * @param targetNodeId
+    *   OSM id of the node to end at
+    * @return
+    *   the shortest path or None, if one of the nodes is not part of the graph
+    *   or the target is not reachable
+    */
+  def shortestPath(sourceNodeId: Long, targetNodeId: Long): Option[Path] = {
+    val source = graph.indexOf(sourceNodeId)
+    val target = graph.indexOf(targetNodeId)
+    Option
+      .when(source >= 0 && target >= 0)(shortestPath(source, target))
+      .flatten
+  }
+
+  /** @return
+    *   the shortest path between the nodes with the given indices or None, if
+    *   the target is not reachable
+    */
+  def shortestPath(source: Int, target: Int): Option[Path] = {
+    aStar(source, target)
+    Option.when(isReached(target)) {
+      val nodes = Array.newBuilder[Long]
+      var current = target
+      while (current != source) {
+        nodes += graph.nodeId(current)
+        current = predecessors(current)
+      }
+      nodes += graph.nodeId(source)
+      Path(
+        nodes.result().reverse.toSeq,
+        distances(target).toDouble.asMetre
+      )
+    }
+  }
+
+  /** Distances of all nodes to the nearest of the given sources, e.g. to find
+    * the closest substation for every node of the street network
+    *
+    * @param sources
+    *   indices of the nodes to start at
+    * @param maxDistance
+    *   the distance in metres, after which the search is stopped
+    * @return
+    *   the distance in metres to the nearest source by node index,
+    *   [[Float.PositiveInfinity]] for nodes, that are not reachable within the
+    *   maximum distance
+    */
+  def distancesFrom(
+      sources: Array[Int],
+      maxDistance: Float = Float.PositiveInfinity
+  ): Array[Float] = {
+    start()
+    sources.foreach(relax(_, -1, 0f, 0f))
+    var done = false
+    while (!done && queue.nonEmpty) {
+      val node = queue.pop()
+      if (!isSettled(node)) {
+        stamps(node) = reachedStamp + 1
+        if (distances(node) > maxDistance) done = true
+        else expand(node, -1)
+      }
+    }
+    Array.tabulate(graph.nodeCount)(idx =>
+      if (isSettled(idx) && distances(idx) <= maxDistance)
+        distances(idx)
+      else Float.PositiveInfinity
+    )
+  }
+
+  /** A* search towards the target, that stops once the target is settled.
+    * Without the heuristic, this is Dijkstra's algorithm.
+    */
+  private def aStar(source: Int, target: Int): Unit = {
+    start()
+    relax(source, -1, 0f, estimate(source, target))
+    var done = false
+    while (!done && queue.nonEmpty) {
+      val node = queue.pop()
+      if (!isSettled(node)) {
+        stamps(node) = reachedStamp + 1
+        if (node == target) done = true
+        else expand(node, target)
+      }
+    }
+  }
+
+  private def expand(node: Int, target: Int): Unit = {
+    val offsets = graph.offsets
+    val targets = graph.targets
+    val weights = graph.weights
+    var edge = offsets(node)
+    val end = offsets(node + 1)
+    while (edge < end) {
+      val next = targets(edge)
+      if (!isSettled(next)) {
+        val distance = distances(node) + weights(edge)
+        if (!isReached(next) || distance < distances(next))
+          relax(next, node, distance, estimate(next, target))
+      }
+      edge += 1
+    }
+  }
+
+  private def relax(
+      node: Int,
+      predecessor: Int,
+      distance: Float,
+      estimate: Float
+  ): Unit = {
+    stamps(node) = reachedStamp
+    distances(node) = distance
+    predecessors(node) = predecessor
+    queue.push(node, distance + estimate)
+  }
+
+  /** Lower bound of the remaining distance. It is scaled down slightly, so that
+    * rounding of the edge weights to floats cannot render the heuristic
+    * inconsistent.
+    */
+  private def estimate(node: Int, target: Int): Float =
+    if (target < 0) 0f
+    else (graph.chord(node, target) * ShortestPathSearch.Tightness).toFloat
+
+  private def isReached(node: Int): Boolean = stamps(node) >= reachedStamp
+
+  private def isSettled(node: Int): Boolean = stamps(node) > reachedStamp
+
+  private def start(): Unit = {
+    if (reachedStamp >= Int.MaxValue - 2) {
+      java.util.Arrays.fill(stamps, 0)
+      reachedStamp = 0
+    }
+    reachedStamp += 2
+    queue.clear()
+  }
+}
+
+object ShortestPathSearch {
+
+  private val Tightness = 0.999
+
+  /** @param nodeIds
+    *   OSM ids of the nodes along the path from source to target
+    * @param length
+    *   length of the path
+    */
+  final case class Path(
+      nodeIds: Seq[Long],
+      length: ComparableQuantity[Length]
+  )
+}
+
+/** Binary min heap of int values with float keys in primitive arrays. Values
+  * may be pushed several times, stale entries have to be skipped by the caller.
+  */
+private[graph] final class IntFloatHeap(initialCapacity: Int) {
+
+  private var values = new Array[Int](initialCapacity)
+  private var keys = new Array[Float](initialCapacity)
+  private var size = 0
+
+  def nonEmpty: Boolean = size > 0
+
+  def clear(): Unit = size = 0
+
+  def push(value: Int, key: Float): Unit = {
+    if (size == values.length) {
+      values = java.util.Arrays.copyOf(values, size * 2)
+      keys = java.util.Arrays.copyOf(keys, size * 2)
+    }
+    var idx = size
+    size += 1
+    while (idx > 0 && keys((idx - 1) >>> 1) > key) {
+      val parent = (idx - 1) >>> 1
+      values(idx) = values(parent)
+      keys(idx) = keys(parent)
+      idx = parent
+    }
+    values(idx) = value
+    keys(idx) = key
+  }
+
+  /** Removes the value with the smallest key
+    */
+  def pop(): Int = {
+    val result = values(0)
+    size -= 1
+    val value = values(size)
+    val key = keys(size)
+    var idx = 0
+    var done = size == 0
+    while (!done) {
+      var child = 2 * idx + 1
+      if (child >= size) done = true
+      else {
+        if (child + 1 < size && keys(child + 1) < keys(child)) child += 1
+        if (keys(child) >= key) done = true
+        else {
+          values(idx) = values(child)
+          keys(idx) = keys(child)
+          idx = child
+        }
+      }
+    }
+    if (size > 0) {
+      values(idx) = value
+      keys(idx) = key
+    }
+    result
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.io
+
+import edu.ie3.util.exceptions.OsmException
+import edu.ie3.util.osm.model.{OsmChangeSet, OsmEntity}
+
+import java.io.{BufferedInputStream, InputStream}
+import java.nio.file.{Files, Path}
+import java.util.zip.GZIPInputStream
+import scala.util.{Try, Using}
+
+/** Reader for OpenStreetMap change files (.osc), e.g. the daily diffs of
+  * regional extracts. The operations are streamed and condensed into the net
+  * change per entity, which is then applied to an existing container via
+  * [[edu.ie3.util.osm.model.OsmContainer.applyChanges]].
+  *
+  * @param readMetaInformation
+  *   whether or not the [[OsmEntity.MetaInformation]] of created and modified
+  *   entities shall be read
+  */
+final class OsmChangeReader(readMetaInformation: Boolean = false) {
+
+  private val xmlReader =
+    new OsmXmlReader(readMetaInformation = readMetaInformation)
+
+  /** Reads the given change file. Files ending with `.gz` are decompressed.
+    *
+    * @param file
+    *   the .osc or .osc.gz file to read
+    * @return
+    *   the net changes or a failure, if the file cannot be read
+    */
+  def read(file: Path): Try[OsmChangeSet] =
+    Using(new BufferedInputStream(Files.newInputStream(file))) { input =>
+      if (file.getFileName.toString.endsWith(".gz"))
+        Using.resource(new GZIPInputStream(input))(readChanges)
+      else readChanges(input)
+    }
+
+  /** Reads the changes of the given stream in .osc format. The stream is not
+    * closed.
+    */
+  def read(input: InputStream): Try[OsmChangeSet] = Try(readChanges(input))
+
+  private def readChanges(input: InputStream): OsmChangeSet = {
+    val builder = OsmChangeSet.newBuilder
+    xmlReader.changeIterator(input).foreach {
+      case ("create" | "modify", entity) => builder.put(entity)
+      case ("delete", entity)            => builder.delete(entity)
+      case (_, entity) =>
+        throw OsmException(
+          s"Entity ${entity.id} is not enclosed by a create, modify or delete operation."
+        )
+    }
+    builder.result()
+  }
+}
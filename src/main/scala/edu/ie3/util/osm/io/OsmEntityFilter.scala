@@ -0,0 +1,97 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.io
+
+import edu.ie3.util.osm.model.{CommonOsmKey, CompiledTagFilter, TagFilter}
+
+/** Filter, that is applied by readers to decide whether or not an entity is of
+  * interest. It is applied to the decoded id and tags only, so that dropped
+  * entities are never materialised.
+  *
+  * Note: Readers process the file in a single pass. If ways are kept, but their
+  * untagged nodes are dropped by the filter, the way's node references remain
+  * dangling.
+  */
+trait OsmEntityFilter {
+
+  def acceptNode(id: Long, tags: Map[String, String]): Boolean
+
+  def acceptWay(id: Long, tags: Map[String, String]): Boolean
+
+  def acceptRelation(id: Long, tags: Map[String, String]): Boolean
+
+}
+
+object OsmEntityFilter {
+
+  /** Filter, that accepts every entity
+    */
+  val acceptAll: OsmEntityFilter = apply(_ => true, _ => true, _ => true)
+
+  /** Builds a filter from predicates on the tags of the different entity types
+    *
+    * @param node
+    *   predicate on the tags of nodes
+    * @param way
+    *   predicate on the tags of ways
+    * @param relation
+    *   predicate on the tags of relations
+    * @return
+    *   the filter
+    */
+  def apply(
+      node: Map[String, String] => Boolean,
+      way: Map[String, String] => Boolean,
+      relation: Map[String, String] => Boolean
+  ): OsmEntityFilter = new OsmEntityFilter {
+    override def acceptNode(id: Long, tags: Map[String, String]): Boolean =
+      node(tags)
+
+    override def acceptWay(id: Long, tags: Map[String, String]): Boolean =
+      way(tags)
+
+    override def acceptRelation(id: Long, tags: Map[String, String]): Boolean =
+      relation(tags)
+  }
+
+  /** Builds a filter, that keeps all nodes as well as all ways and relations
+    * with at least one of the given keys. Nodes are kept, so that the geometry
+    * of the kept ways can still be built.
+    *
+    * @param keys
+    *   keys of which at least one has to be present
+    * @return
+    *   the filter
+    */
+  def withAnyKey(keys: CommonOsmKey*): OsmEntityFilter =
+    withAnyKeyValues(keys.map(_.toString -> Set.empty[String]).toMap)
+
+  /** Builds a filter, that keeps all nodes as well as all ways and relations
+    * with a tag matching one of the given key value combinations. An empty set
+    * of values matches any value of the key. Nodes are kept, so that the
+    * geometry of the kept ways can still be built.
+    *
+    * @param keyValues
+    *   mapping from key to accepted values
+    * @return
+    *   the filter
+    */
+  def withAnyKeyValues(keyValues: Map[String, Set[String]]): OsmEntityFilter =
+    withTags(TagFilter.anyOf(keyValues).compile)
+
+  /** Builds a filter, that keeps all nodes as well as all ways and relations
+    * matched by the given tag filter. Nodes are kept, so that the geometry of
+    * the kept ways can still be built.
+    *
+    * @param filter
+    *   the compiled filter on the tags of ways and relations
+    * @return
+    *   the filter
+    */
+  def withTags(filter: CompiledTagFilter): OsmEntityFilter =
+    apply(_ => true, filter.matches, filter.matches)
+
+}
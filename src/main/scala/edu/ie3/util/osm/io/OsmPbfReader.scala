@@ -0,0 +1,186 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.io
+
+import edu.ie3.util.exceptions.OsmException
+import edu.ie3.util.osm.io.PbfBlockDecoder.EntityBatch
+import edu.ie3.util.osm.model.OsmContainer.{
+  PrimitiveOsmContainer,
+  SeqOsmContainer
+}
+import edu.ie3.util.osm.model.{OsmContainer, OsmContainerBuilder, OsmEntity}
+
+import java.io.{BufferedInputStream, DataInputStream, EOFException, InputStream}
+import java.nio.file.{Files, Path}
+import java.util.concurrent.ForkJoinPool
+import scala.collection.mutable
+import scala.concurrent.duration.Duration
+import scala.concurrent.{Await, ExecutionContext, Future}
+import scala.util.{Try, Using}
+
+/** Streaming reader for OpenStreetMap .osm.pbf files. Blobs are read
+  * sequentially, but inflated and decoded in parallel. The number of blobs
+  * being decoded at the same time is bounded, so that only a limited part of
+  * the file is held in memory apart from the entities, that are handed over to
+  * the consumer in file order.
+  *
+  * Supported are uncompressed and zlib compressed blobs as well as plain and
+  * dense nodes. Files requiring other features (e.g. history files) are
+  * rejected.
+  *
+  * @param filter
+  *   filter to drop uninteresting entities before they are created
+  * @param readMetaInformation
+  *   whether or not the [[OsmEntity.MetaInformation]] of the entities shall be
+  *   read
+  * @param parallelism
+  *   number of blobs, that are decoded in parallel
+  */
+final class OsmPbfReader(
+    filter: OsmEntityFilter = OsmEntityFilter.acceptAll,
+    readMetaInformation: Boolean = false,
+    parallelism: Int = Runtime.getRuntime.availableProcessors()
+) {
+
+  import OsmPbfReader._
+
+  /** Reads all entities of the given file and hands them over to the consumer
+    * in file order.
+    *
+    * @param file
+    *   the .osm.pbf file to read
+    * @param consumer
+    *   consumer of the read entities
+    * @return
+    *   a failure, if the file cannot be read
+    */
+  def read(file: Path)(consumer: OsmEntity => Unit): Try[Unit] =
+    Using(new BufferedInputStream(Files.newInputStream(file))) { input =>
+      readBatches(input)(_.entities.foreach(consumer))
+    }
+
+  /** Reads all entities of the given stream and hands them over to the consumer
+    * in stream order. The stream is not closed.
+    *
+    * @param input
+    *   the stream in .osm.pbf format
+    * @param consumer
+    *   consumer of the read entities
+    * @return
+    *   a failure, if the stream cannot be read
+    */
+  def read(input: InputStream)(consumer: OsmEntity => Unit): Try[Unit] =
+    Try(readBatches(input)(_.entities.foreach(consumer)))
+
+  /** Reads the given file into a [[SeqOsmContainer]]
+    */
+  def readSeqContainer(file: Path): Try[SeqOsmContainer] =
+    readContainer(file, OsmContainerBuilder.seq())
+
+  /** Reads the given file into a [[PrimitiveOsmContainer]]. Nodes are directly
+    * written into the columns of the container without creating
+    * [[OsmEntity.Node]] instances.
+    */
+  def readPrimitiveContainer(file: Path): Try[PrimitiveOsmContainer] =
+    readContainer(file, OsmContainerBuilder.primitive())
+
+  /** Reads the given file into the container, that is created by the given
+    * builder
+    */
+  def readContainer[C <: OsmContainer](
+      file: Path,
+      builder: OsmContainerBuilder[C]
+  ): Try[C] =
+    Using(new BufferedInputStream(Files.newInputStream(file))) { input =>
+      readBatches(input)(_.addTo(builder))
+      builder.result()
+    }
+
+  private def readBatches(input: InputStream)(
+      consumer: EntityBatch => Unit
+  ): Unit = {
+    val pool = new ForkJoinPool(parallelism)
+    implicit val ec: ExecutionContext = ExecutionContext.fromExecutor(pool)
+    val pending = mutable.Queue.empty[Future[EntityBatch]]
+    try {
+      val data = new DataInputStream(input)
+      var blob = nextBlob(data)
+      while (blob.isDefined) {
+        blob.foreach {
+          case (HeaderType, content) =>
+            PbfBlockDecoder.checkHeaderBlock(
+              PbfBlockDecoder.decodeBlob(content)
+            )
+          case (DataType, content) =>
+            pending.enqueue(Future {
+              PbfBlockDecoder.decodePrimitiveBlock(
+                PbfBlockDecoder.decodeBlob(content),
+                filter,
+                readMetaInformation
+              )
+            })
+          case _ =>
+          // unknown blob types are to be skipped according to the specification
+        }
+        while (pending.size > 2 * parallelism)
+          consumer(Await.result(pending.dequeue(), Duration.Inf))
+        blob = nextBlob(data)
+      }
+      while (pending.nonEmpty)
+        consumer(Await.result(pending.dequeue(), Duration.Inf))
+    } finally pool.shutdownNow()
+  }
+
+  /** Reads the next blob header and blob
+    *
+    * @return
+    *   the type and the serialized blob or [[None]] at the end of the stream
+    */
+  private def nextBlob(data: DataInputStream): Option[(String, Array[Byte])] = {
+    val firstByte = data.read()
+    if (firstByte < 0) None
+    else {
+      val headerLength =
+        (firstByte << 24) | (data.readUnsignedByte() << 16) |
+          (data.readUnsignedShort())
+      if (headerLength < 0 || headerLength > MaxBlobHeaderSize)
+        throw OsmException(s"Invalid blob header size $headerLength.")
+      val header = readFully(data, headerLength)
+
+      val reader = new ProtobufReader(header)
+      var blobType = ""
+      var dataSize = -1
+      while (reader.hasNext) {
+        reader.nextField() match {
+          case 1 => blobType = reader.readString()
+          case 3 => dataSize = reader.readVarint32()
+          case _ => reader.skipField()
+        }
+      }
+      if (dataSize < 0 || dataSize > MaxBlobSize)
+        throw OsmException(s"Invalid blob size $dataSize.")
+      Some(blobType -> readFully(data, dataSize))
+    }
+  }
+
+  private def readFully(data: DataInputStream, length: Int): Array[Byte] = {
+    val bytes = new Array[Byte](length)
+    try data.readFully(bytes)
+    catch {
+      case e: EOFException =>
+        throw OsmException("Unexpected end of the pbf file.", e)
+    }
+    bytes
+  }
+}
+
+object OsmPbfReader {
+  private val HeaderType = "OSMHeader"
+  private val DataType = "OSMData"
+
+  private val MaxBlobHeaderSize = 64 * 1024
+  private val MaxBlobSize = 32 * 1024 * 1024
+}
@@ -0,0 +1,178 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.io
+
+import edu.ie3.util.exceptions.OsmException
+import edu.ie3.util.osm.model.OsmEntity.Relation.RelationMemberType
+import edu.ie3.util.osm.model.OsmEntity.Relation.RelationMemberType.RelationMemberType
+
+import java.io.OutputStream
+import java.nio.MappedByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.charset.StandardCharsets
+
+/** Layout of the binary snapshot files written by [[OsmSnapshotWriter]] and
+  * read by [[OsmSnapshotReader]]. A snapshot consists of
+  *   - the magic bytes, the format version and flags,
+  *   - the string table with all tag keys and values, member roles and user
+  *     names, that are referred to by their position in the table,
+  *   - the nodes, ways and relations, each section starting with its size.
+  *
+  * Entities are ordered by id and their ids are delta encoded, just like the
+  * coordinates of subsequent nodes, the node references of a way and the member
+  * ids of a relation. Coordinates are stored as fixed-point integers with a
+  * precision of 1e-7 degrees, the precision of OpenStreetMap itself. All
+  * integers are written as (zig-zag) varints, so that small deltas only take
+  * one or two bytes.
+  */
+private[io] object OsmSnapshotFormat {
+
+  val Magic: Array[Byte] = "OSMSNAPS".getBytes(StandardCharsets.US_ASCII)
+
+  /** Current version of the format. Readers reject snapshots of other versions,
+    * hence it has to be increased with every change of the layout.
+    */
+  val Version = 1
+
+  val FlagMetaInformation = 1
+
+  val CoordinateScale = 1e7
+
+  // flags of the meta information of a single entity
+  val MetaPresent = 1
+  val MetaVersion = 2
+  val MetaTimestamp = 4
+  val MetaChangeSet = 8
+  val MetaUserId = 16
+  val MetaUserName = 32
+  val MetaVisible = 64
+  val MetaVisibleValue = 128
+
+  def memberTypeCode(memberType: RelationMemberType): Int = memberType match {
+    case RelationMemberType.Node     => 0
+    case RelationMemberType.Way      => 1
+    case RelationMemberType.Relation => 2
+    case _                           => 3
+  }
+
+  def memberType(code: Int): RelationMemberType = code match {
+    case 0 => RelationMemberType.Node
+    case 1 => RelationMemberType.Way
+    case 2 => RelationMemberType.Relation
+    case 3 => RelationMemberType.Unrecognized
+    case other =>
+      throw OsmException(s"Invalid relation member type $other in snapshot.")
+  }
+
+  def toFixedPoint(degrees: Double): Long =
+    math.round(degrees * CoordinateScale)
+
+  def fromFixedPoint(fixedPoint: Long): Double = fixedPoint / CoordinateScale
+
+  def encodeZigZag(value: Long): Long = (value << 1) ^ (value >> 63)
+
+  def decodeZigZag(value: Long): Long = (value >>> 1) ^ -(value & 1)
+
+  /** Writes varints to the given stream, that should be buffered
+    */
+  final class SnapshotOutput(out: OutputStream) {
+
+    def writeBytes(bytes: Array[Byte]): Unit = out.write(bytes)
+
+    def writeVarint(value: Long): Unit = {
+      var remaining = value
+      while ((remaining & ~0x7fL) != 0) {
+        out.write(((remaining & 0x7f) | 0x80).toInt)
+        remaining >>>= 7
+      }
+      out.write(remaining.toInt)
+    }
+
+    def writeSignedVarint(value: Long): Unit = writeVarint(encodeZigZag(value))
+
+    def writeString(string: String): Unit = {
+      val bytes = string.getBytes(StandardCharsets.UTF_8)
+      writeVarint(bytes.length)
+      out.write(bytes)
+    }
+  }
+
+  /** Reads varints from a memory mapped file. Files larger than a single
+    * mapping are mapped window by window.
+    *
+    * @param channel
+    *   the channel of the snapshot file
+    * @param windowSize
+    *   the maximum number of bytes mapped at once
+    */
+  final class SnapshotInput(channel: FileChannel, windowSize: Long) {
+
+    private val fileSize = channel.size()
+    private var windowStart = 0L
+    private var window: MappedByteBuffer = map(0L)
+
+    private def map(start: Long): MappedByteBuffer =
+      channel.map(
+        FileChannel.MapMode.READ_ONLY,
+        start,
+        math.min(windowSize, fileSize - start)
+      )
+
+    def readByte(): Byte = {
+      if (!window.hasRemaining) {
+        windowStart += window.capacity()
+        if (windowStart >= fileSize)
+          throw OsmException("Unexpected end of the snapshot file.")
+        window = map(windowStart)
+      }
+      window.get()
+    }
+
+    def readBytes(length: Int): Array[Byte] = {
+      val bytes = new Array[Byte](length)
+      var idx = 0
+      while (idx < length) {
+        if (!window.hasRemaining) {
+          // moves to the next window
+          bytes(idx) = readByte()
+          idx += 1
+        } else {
+          val chunk = math.min(length - idx, window.remaining())
+          window.get(bytes, idx, chunk)
+          idx += chunk
+        }
+      }
+      bytes
+    }
+
+    def readVarint(): Long = {
+      var result = 0L
+      var shift = 0
+      while (shift < 64) {
+        val b = readByte()
+        result |= (b & 0x7f).toLong << shift
+        if ((b & 0x80) == 0) return result
+        shift += 7
+      }
+      throw OsmException("Malformed snapshot file: varint too long.")
+    }
+
+    def readInt(): Int = {
+      val value = readVarint()
+      if (value < 0 || value > Int.MaxValue)
+        throw OsmException(s"Malformed snapshot file: invalid size $value.")
+      value.toInt
+    }
+
+    def readSignedVarint(): Long = decodeZigZag(readVarint())
+
+    def readString(): String =
+      new String(readBytes(readInt()), StandardCharsets.UTF_8)
+
+    def isExhausted: Boolean =
+      windowStart + window.position() >= fileSize
+  }
+}
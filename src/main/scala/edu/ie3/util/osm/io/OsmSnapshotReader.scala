@@ -0,0 +1,179 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.io
+
+import edu.ie3.util.exceptions.OsmException
+import edu.ie3.util.osm.io.OsmSnapshotFormat._
+import edu.ie3.util.osm.model.OsmContainer.{
+  ParOsmContainer,
+  PrimitiveOsmContainer,
+  SeqOsmContainer
+}
+import edu.ie3.util.osm.model.OsmEntity.Relation.RelationMember
+import edu.ie3.util.osm.model.OsmEntity.{MetaInformation, Relation, Way}
+import edu.ie3.util.osm.model.{OsmContainer, OsmContainerBuilder}
+
+import java.nio.channels.FileChannel
+import java.nio.file.{Path, StandardOpenOption}
+import java.time.Instant
+import scala.collection.immutable.ArraySeq
+import scala.util.{Try, Using}
+
+/** Reads binary snapshots written by [[OsmSnapshotWriter]]. The file is memory
+  * mapped instead of being read through a stream, so that reloading a container
+  * is bound by decoding only. See [[OsmSnapshotFormat]] for the layout.
+  *
+  * @param readMetaInformation
+  *   whether or not the [[MetaInformation]] of the entities shall be read, if
+  *   the snapshot contains it
+  * @param mappingWindowSize
+  *   the maximum number of bytes, that are mapped at once
+  */
+final class OsmSnapshotReader(
+    readMetaInformation: Boolean = true,
+    mappingWindowSize: Long = OsmSnapshotReader.DefaultMappingWindowSize
+) {
+
+  /** Reads the given snapshot into a [[SeqOsmContainer]]
+    */
+  def readSeqContainer(file: Path): Try[SeqOsmContainer] =
+    readContainer(file, OsmContainerBuilder.seq())
+
+  /** Reads the given snapshot into a [[ParOsmContainer]]
+    */
+  def readParContainer(file: Path): Try[ParOsmContainer] =
+    readSeqContainer(file).map(_.par())
+
+  /** Reads the given snapshot into a [[PrimitiveOsmContainer]]
+    */
+  def readPrimitiveContainer(file: Path): Try[PrimitiveOsmContainer] =
+    readContainer(file, OsmContainerBuilder.primitive())
+
+  /** Reads the given snapshot into the container, that is created by the given
+    * builder
+    *
+    * @param file
+    *   the snapshot file
+    * @param builder
+    *   builder of the container
+    * @return
+    *   the container or a failure, if the file is no valid snapshot of the
+    *   supported version
+    */
+  def readContainer[C <: OsmContainer](
+      file: Path,
+      builder: OsmContainerBuilder[C]
+  ): Try[C] =
+    Using(FileChannel.open(file, StandardOpenOption.READ)) { channel =>
+      val in = new SnapshotInput(channel, mappingWindowSize)
+
+      val isSnapshot = channel.size() >= Magic.length &&
+        in.readBytes(Magic.length).sameElements(Magic)
+      if (!isSnapshot)
+        throw OsmException(s"The file '$file' is no OSM snapshot.")
+      val version = in.readVarint()
+      if (version != Version)
+        throw OsmException(
+          s"Unsupported snapshot version $version, expected version $Version."
+        )
+      val hasMetaInformation = (in.readVarint() & FlagMetaInformation) != 0
+
+      val strings = Array.fill(in.readInt())(in.readString())
+      def string(code: Long): String =
+        if (code >= 0 && code < strings.length) strings(code.toInt)
+        else throw OsmException(s"Invalid string reference $code in snapshot.")
+
+      def readTags(): Map[String, String] = {
+        val count = in.readInt()
+        if (count == 0) Map.empty
+        else {
+          val tags = Map.newBuilder[String, String]
+          var idx = 0
+          while (idx < count) {
+            tags += string(in.readVarint()) -> string(in.readVarint())
+            idx += 1
+          }
+          tags.result()
+        }
+      }
+
+      def readMeta(): Option[MetaInformation] =
+        if (!hasMetaInformation) None
+        else {
+          val flags = in.readInt()
+          def ifSet[T](flag: Int)(read: => T): Option[T] =
+            if ((flags & flag) != 0) Some(read) else None
+          val meta = MetaInformation(
+            ifSet(MetaVersion)(in.readSignedVarint().toInt),
+            ifSet(MetaTimestamp)(
+              Instant.ofEpochSecond(in.readSignedVarint(), in.readVarint())
+            ),
+            ifSet(MetaChangeSet)(in.readSignedVarint()),
+            ifSet(MetaUserId)(in.readSignedVarint().toInt),
+            ifSet(MetaUserName)(string(in.readVarint())),
+            ifSet(MetaVisible)((flags & MetaVisibleValue) != 0)
+          )
+          Option.when(readMetaInformation && (flags & MetaPresent) != 0)(meta)
+        }
+
+      val nodeCount = in.readInt()
+      var id = 0L
+      var latitude = 0L
+      var longitude = 0L
+      Iterator.range(0, nodeCount).foreach { _ =>
+        id += in.readSignedVarint()
+        latitude += in.readSignedVarint()
+        longitude += in.readSignedVarint()
+        builder.addNode(
+          id,
+          fromFixedPoint(latitude),
+          fromFixedPoint(longitude),
+          readTags(),
+          readMeta()
+        )
+      }
+
+      val wayCount = in.readInt()
+      id = 0L
+      Iterator.range(0, wayCount).foreach { _ =>
+        id += in.readSignedVarint()
+        val nodes = new Array[Long](in.readInt())
+        var nodeId = 0L
+        nodes.indices.foreach { idx =>
+          nodeId += in.readSignedVarint()
+          nodes(idx) = nodeId
+        }
+        builder.addWay(
+          Way(id, ArraySeq.unsafeWrapArray(nodes), readTags(), readMeta())
+        )
+      }
+
+      val relationCount = in.readInt()
+      id = 0L
+      Iterator.range(0, relationCount).foreach { _ =>
+        id += in.readSignedVarint()
+        var memberId = 0L
+        val members = Seq.fill(in.readInt()) {
+          val memberType = OsmSnapshotFormat.memberType(in.readInt())
+          memberId += in.readSignedVarint()
+          RelationMember(memberId, memberType, string(in.readVarint()))
+        }
+        builder.addRelation(Relation(id, members, readTags(), readMeta()))
+      }
+
+      if (!in.isExhausted)
+        throw OsmException(
+          s"Unexpected data after the end of snapshot '$file'."
+        )
+      builder.result()
+    }
+}
+
+object OsmSnapshotReader {
+
+  val DefaultMappingWindowSize: Long = 1L << 30
+
+}
@@ -0,0 +1,167 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.io
+
+import edu.ie3.util.osm.io.OsmSnapshotFormat._
+import edu.ie3.util.osm.model.OsmContainer.PrimitiveOsmContainer
+import edu.ie3.util.osm.model.OsmEntity.MetaInformation
+import edu.ie3.util.osm.model.{OsmContainer, OsmEntity, TagDictionary}
+
+import java.io.BufferedOutputStream
+import java.nio.file.{Files, Path}
+import scala.util.{Try, Using}
+
+/** Writes an [[OsmContainer]] into a compact binary snapshot, that can be
+  * reloaded by [[OsmSnapshotReader]] much faster than the original extract can
+  * be parsed. See [[OsmSnapshotFormat]] for the layout.
+  *
+  * @param writeMetaInformation
+  *   whether or not the [[OsmEntity.MetaInformation]] of the entities shall be
+  *   written
+  */
+final class OsmSnapshotWriter(writeMetaInformation: Boolean = true) {
+
+  /** Writes the given container to the given file. An existing file is
+    * replaced.
+    *
+    * @param osmContainer
+    *   the container to write
+    * @param file
+    *   the target file
+    * @return
+    *   a failure, if the file cannot be written
+    */
+  def write(osmContainer: OsmContainer, file: Path): Try[Unit] = {
+    // entities have to be ordered by id for the delta encoding
+    val container = PrimitiveOsmContainer(osmContainer)
+    Using(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+      stream =>
+        val out = new SnapshotOutput(stream)
+        val strings = stringTable(container)
+
+        out.writeBytes(Magic)
+        out.writeVarint(Version)
+        out.writeVarint(if (writeMetaInformation) FlagMetaInformation else 0)
+
+        out.writeVarint(strings.size)
+        Iterator.range(0, strings.size).foreach { code =>
+          out.writeString(strings.string(code))
+        }
+
+        out.writeVarint(container.nodes.size)
+        var previousId = 0L
+        var previousLatitude = 0L
+        var previousLongitude = 0L
+        container.nodes.nodesIterator.foreach { node =>
+          val latitude = toFixedPoint(node.latitude)
+          val longitude = toFixedPoint(node.longitude)
+          out.writeSignedVarint(node.id - previousId)
+          out.writeSignedVarint(latitude - previousLatitude)
+          out.writeSignedVarint(longitude - previousLongitude)
+          writeCommon(out, strings, node)
+          previousId = node.id
+          previousLatitude = latitude
+          previousLongitude = longitude
+        }
+
+        out.writeVarint(container.ways.size)
+        previousId = 0L
+        container.ways.valuesIterator.foreach { way =>
+          out.writeSignedVarint(way.id - previousId)
+          out.writeVarint(way.nodes.size)
+          var previousNode = 0L
+          way.nodes.foreach { nodeId =>
+            out.writeSignedVarint(nodeId - previousNode)
+            previousNode = nodeId
+          }
+          writeCommon(out, strings, way)
+          previousId = way.id
+        }
+
+        out.writeVarint(container.relations.size)
+        previousId = 0L
+        container.relations.valuesIterator.foreach { relation =>
+          out.writeSignedVarint(relation.id - previousId)
+          out.writeVarint(relation.members.size)
+          var previousMember = 0L
+          relation.members.foreach { member =>
+            out.writeVarint(memberTypeCode(member.relationType))
+            out.writeSignedVarint(member.id - previousMember)
+            out.writeVarint(strings.lookup(member.role))
+            previousMember = member.id
+          }
+          writeCommon(out, strings, relation)
+          previousId = relation.id
+        }
+    }
+  }
+
+  /** Collects all strings of the container, that are written to the string
+    * table
+    */
+  private def stringTable(container: PrimitiveOsmContainer): TagDictionary = {
+    val strings = new TagDictionary
+    def add(entity: OsmEntity): Unit = {
+      entity.tags.foreach { case (key, value) =>
+        strings.code(key)
+        strings.code(value)
+      }
+      if (writeMetaInformation)
+        entity.metaInformation.flatMap(_.userName).foreach(strings.code)
+    }
+    container.nodes.nodesIterator.foreach(add)
+    container.ways.valuesIterator.foreach(add)
+    container.relations.valuesIterator.foreach { relation =>
+      add(relation)
+      relation.members.foreach(member => strings.code(member.role))
+    }
+    strings
+  }
+
+  private def writeCommon(
+      out: SnapshotOutput,
+      strings: TagDictionary,
+      entity: OsmEntity
+  ): Unit = {
+    out.writeVarint(entity.tags.size)
+    entity.tags.foreach { case (key, value) =>
+      out.writeVarint(strings.lookup(key))
+      out.writeVarint(strings.lookup(value))
+    }
+    if (writeMetaInformation)
+      writeMeta(out, strings, entity.metaInformation)
+  }
+
+  private def writeMeta(
+      out: SnapshotOutput,
+      strings: TagDictionary,
+      metaInformation: Option[MetaInformation]
+  ): Unit = metaInformation match {
+    case None => out.writeVarint(0)
+    case Some(meta) =>
+      def flag(isDefined: Boolean, flag: Int): Int = if (isDefined) flag else 0
+      out.writeVarint(
+        MetaPresent |
+          flag(meta.version.isDefined, MetaVersion) |
+          flag(meta.timestamp.isDefined, MetaTimestamp) |
+          flag(meta.changeSet.isDefined, MetaChangeSet) |
+          flag(meta.userId.isDefined, MetaUserId) |
+          flag(meta.userName.isDefined, MetaUserName) |
+          flag(meta.visible.isDefined, MetaVisible) |
+          flag(meta.visible.contains(true), MetaVisibleValue)
+      )
+      meta.version.foreach(version => out.writeSignedVarint(version))
+      meta.timestamp.foreach { timestamp =>
+        out.writeSignedVarint(timestamp.getEpochSecond)
+        out.writeVarint(timestamp.getNano)
+      }
+      meta.changeSet.foreach(out.writeSignedVarint)
+      meta.userId.foreach(userId => out.writeSignedVarint(userId))
+      meta.userName.foreach(userName =>
+        out.writeVarint(strings.lookup(userName))
+      )
+  }
+}
@@ -0,0 +1,311 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.io
+
+import edu.ie3.util.exceptions.OsmException
+import edu.ie3.util.osm.model.OsmContainer.{
+  PrimitiveOsmContainer,
+  SeqOsmContainer
+}
+import edu.ie3.util.osm.model.OsmEntity.Relation.{
+  RelationMember,
+  RelationMemberType
+}
+import edu.ie3.util.osm.model.OsmEntity.{MetaInformation, Node, Relation, Way}
+import edu.ie3.util.osm.model.{OsmContainer, OsmContainerBuilder, OsmEntity}
+
+import java.io.{BufferedInputStream, InputStream}
+import java.nio.file.{Files, Path}
+import java.time.Instant
+import javax.xml.stream.{
+  XMLInputFactory,
+  XMLStreamConstants,
+  XMLStreamException,
+  XMLStreamReader
+}
+import scala.collection.immutable.ArraySeq
+import scala.util.{Try, Using}
+
+/** Streaming reader for OpenStreetMap .osm XML files based on StAX. Only the
+  * entity, that is currently parsed, is held in memory, so that files of
+  * arbitrary size can be processed as long as the consumer does not collect all
+  * entities.
+  *
+  * @param filter
+  *   filter to drop uninteresting entities before they are created
+  * @param readMetaInformation
+  *   whether or not the [[OsmEntity.MetaInformation]] of the entities shall be
+  *   read
+  */
+final class OsmXmlReader(
+    filter: OsmEntityFilter = OsmEntityFilter.acceptAll,
+    readMetaInformation: Boolean = false
+) {
+
+  import OsmXmlReader._
+
+  /** Reads all entities of the given file and hands them over to the consumer
+    * in file order.
+    *
+    * @param file
+    *   the .osm file to read
+    * @param consumer
+    *   consumer of the read entities
+    * @return
+    *   a failure, if the file cannot be read
+    */
+  def read(file: Path)(consumer: OsmEntity => Unit): Try[Unit] =
+    Using(new BufferedInputStream(Files.newInputStream(file))) { input =>
+      iterator(input).foreach(consumer)
+    }
+
+  /** Reads all entities of the given stream and hands them over to the consumer
+    * in stream order. The stream is not closed.
+    *
+    * @param input
+    *   the stream in .osm XML format
+    * @param consumer
+    *   consumer of the read entities
+    * @return
+    *   a failure, if the stream cannot be read
+    */
+  def read(input: InputStream)(consumer: OsmEntity => Unit): Try[Unit] =
+    Try(iterator(input).foreach(consumer))
+
+  /** Lazily parses the entities of the given stream. Entities are only parsed
+    * when they are requested from the iterator. The stream is not closed.
+    *
+    * Note: Malformed input results in an [[OsmException]] being thrown by the
+    * iterator.
+    *
+    * @param input
+    *   the stream in .osm XML format
+    * @return
+    *   an iterator over the accepted entities
+    */
+  def iterator(input: InputStream): Iterator[OsmEntity] =
+    new EntityIterator(
+      wrapXmlException(inputFactory.createXMLStreamReader(input))
+    )
+
+  /** Lazily parses the entities of the given stream in .osc format together
+    * with the operation (`create`, `modify` or `delete`), whose element
+    * encloses them. Deleted nodes may lack their coordinates, which are then
+    * set to [[Double.NaN]].
+    */
+  private[io] def changeIterator(
+      input: InputStream
+  ): Iterator[(String, OsmEntity)] = {
+    val entities = new EntityIterator(
+      wrapXmlException(inputFactory.createXMLStreamReader(input))
+    )
+    entities.map(entity => entities.operation -> entity)
+  }
+
+  /** Reads the given file into a [[SeqOsmContainer]]
+    */
+  def readSeqContainer(file: Path): Try[SeqOsmContainer] =
+    readContainer(file, OsmContainerBuilder.seq())
+
+  /** Reads the given file into a [[PrimitiveOsmContainer]]
+    */
+  def readPrimitiveContainer(file: Path): Try[PrimitiveOsmContainer] =
+    readContainer(file, OsmContainerBuilder.primitive())
+
+  /** Reads the given file into the container, that is created by the given
+    * builder
+    */
+  def readContainer[C <: OsmContainer](
+      file: Path,
+      builder: OsmContainerBuilder[C]
+  ): Try[C] =
+    Using(new BufferedInputStream(Files.newInputStream(file))) { input =>
+      iterator(input).foreach(builder.add)
+      builder.result()
+    }
+
+  /** Iterator, that always parses ahead to the next accepted entity
+    */
+  private final class EntityIterator(reader: XMLStreamReader)
+      extends Iterator[OsmEntity] {
+    // enclosing change operation of the next and the last returned entity
+    private var nextOperation = ""
+    private var _operation = ""
+    private var nextEntity: Option[OsmEntity] = wrapXmlException(advance())
+
+    override def hasNext: Boolean = nextEntity.isDefined
+
+    /** @return
+      *   the change operation, that encloses the last returned entity, or an
+      *   empty string, if there is none
+      */
+    def operation: String = _operation
+
+    override def next(): OsmEntity = nextEntity match {
+      case Some(entity) =>
+        _operation = nextOperation
+        nextEntity = wrapXmlException(advance())
+        entity
+      case None =>
+        throw new NoSuchElementException("No more osm entities to read.")
+    }
+
+    private def advance(): Option[OsmEntity] = {
+      var entity: Option[OsmEntity] = None
+      while (entity.isEmpty && reader.hasNext) {
+        if (reader.next() == XMLStreamConstants.START_ELEMENT)
+          entity = reader.getLocalName match {
+            case "node"     => parseNode()
+            case "way"      => parseWay()
+            case "relation" => parseRelation()
+            case operation @ ("create" | "modify" | "delete") =>
+              nextOperation = operation
+              None
+            case _ => None
+          }
+      }
+      if (entity.isEmpty) reader.close()
+      entity
+    }
+
+    private def parseNode(): Option[Node] = {
+      val id = longAttribute("id")
+      val latitude = coordinateAttribute("lat")
+      val longitude = coordinateAttribute("lon")
+      val metaInformation = parseMetaInformation()
+      val tags = Map.newBuilder[String, String]
+      forEachChild {
+        case "tag" => tags += tag()
+        case _     =>
+      }
+      val nodeTags = tags.result()
+      Option.when(OsmXmlReader.this.filter.acceptNode(id, nodeTags))(
+        Node(id, latitude, longitude, nodeTags, metaInformation)
+      )
+    }
+
+    private def parseWay(): Option[Way] = {
+      val id = longAttribute("id")
+      val metaInformation = parseMetaInformation()
+      val nodes = ArraySeq.newBuilder[Long]
+      val tags = Map.newBuilder[String, String]
+      forEachChild {
+        case "nd"  => nodes += longAttribute("ref")
+        case "tag" => tags += tag()
+        case _     =>
+      }
+      val wayTags = tags.result()
+      Option.when(OsmXmlReader.this.filter.acceptWay(id, wayTags))(
+        Way(id, nodes.result(), wayTags, metaInformation)
+      )
+    }
+
+    private def parseRelation(): Option[Relation] = {
+      val id = longAttribute("id")
+      val metaInformation = parseMetaInformation()
+      val members = Vector.newBuilder[RelationMember]
+      val tags = Map.newBuilder[String, String]
+      forEachChild {
+        case "member" =>
+          members += RelationMember(
+            longAttribute("ref"),
+            attribute("type") match {
+              case Some("node")     => RelationMemberType.Node
+              case Some("way")      => RelationMemberType.Way
+              case Some("relation") => RelationMemberType.Relation
+              case _                => RelationMemberType.Unrecognized
+            },
+            attribute("role").getOrElse("")
+          )
+        case "tag" => tags += tag()
+        case _     =>
+      }
+      val relationTags = tags.result()
+      Option.when(OsmXmlReader.this.filter.acceptRelation(id, relationTags))(
+        Relation(id, members.result(), relationTags, metaInformation)
+      )
+    }
+
+    /** Calls the handler with the name of every child element of the current
+      * element and leaves the reader at the end of the current element
+      */
+    private def forEachChild(handler: String => Unit): Unit = {
+      var depth = 1
+      while (depth > 0) {
+        reader.next() match {
+          case XMLStreamConstants.START_ELEMENT =>
+            if (depth == 1) handler(reader.getLocalName)
+            depth += 1
+          case XMLStreamConstants.END_ELEMENT => depth -= 1
+          case _                              =>
+        }
+      }
+    }
+
+    private def parseMetaInformation(): Option[MetaInformation] =
+      if (!readMetaInformation) None
+      else
+        Some(
+          MetaInformation(
+            attribute("version").map(parse(_, "version")(_.toInt)),
+            attribute("timestamp").map(parse(_, "timestamp")(Instant.parse)),
+            attribute("changeset").map(parse(_, "changeset")(_.toLong)),
+            attribute("uid").map(parse(_, "uid")(_.toInt)),
+            attribute("user"),
+            attribute("visible").map(parse(_, "visible")(_.toBoolean))
+          )
+        )
+
+    private def tag(): (String, String) =
+      requiredAttribute("k") -> requiredAttribute("v")
+
+    private def attribute(name: String): Option[String] =
+      Option(reader.getAttributeValue(null, name))
+
+    private def requiredAttribute(name: String): String =
+      attribute(name).getOrElse(
+        throw OsmException(
+          s"Element '${reader.getLocalName}' at line ${reader.getLocation.getLineNumber} is missing the attribute '$name'."
+        )
+      )
+
+    private def longAttribute(name: String): Long =
+      parse(requiredAttribute(name), name)(_.toLong)
+
+    private def doubleAttribute(name: String): Double =
+      parse(requiredAttribute(name), name)(_.toDouble)
+
+    private def coordinateAttribute(name: String): Double =
+      if (nextOperation == "delete")
+        attribute(name).map(parse(_, name)(_.toDouble)).getOrElse(Double.NaN)
+      else doubleAttribute(name)
+
+    private def parse[T](value: String, name: String)(parser: String => T): T =
+      Try(parser(value)).getOrElse(
+        throw OsmException(
+          s"Invalid value '$value' of attribute '$name' at line ${reader.getLocation.getLineNumber}."
+        )
+      )
+  }
+}
+
+object OsmXmlReader {
+
+  private val inputFactory: XMLInputFactory = {
+    val factory = XMLInputFactory.newFactory()
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false)
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false)
+    factory.setProperty(XMLInputFactory.IS_COALESCING, false)
+    factory
+  }
+
+  private def wrapXmlException[T](block: => T): T =
+    try block
+    catch {
+      case e: XMLStreamException =>
+        throw OsmException(s"Malformed osm xml: ${e.getMessage}", e)
+    }
+}
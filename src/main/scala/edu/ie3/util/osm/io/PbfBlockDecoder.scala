@@ -0,0 +1,541 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.io
+
+import edu.ie3.util.exceptions.OsmException
+import edu.ie3.util.osm.io.ProtobufReader.{LongArrayBuilder, plain, zigZag}
+import edu.ie3.util.osm.model.{OsmContainerBuilder, OsmEntity}
+import edu.ie3.util.osm.model.OsmEntity.Relation.{
+  RelationMember,
+  RelationMemberType
+}
+import edu.ie3.util.osm.model.OsmEntity.{MetaInformation, Node, Relation, Way}
+
+import java.time.Instant
+import java.util.zip.{DataFormatException, Inflater}
+import scala.collection.immutable.ArraySeq
+import scala.collection.mutable.ArrayBuffer
+
+/** Decoder for the blobs of an OSM PBF file, see
+  * https://wiki.openstreetmap.org/wiki/PBF_Format for the format specification.
+  */
+private[io] object PbfBlockDecoder {
+
+  val supportedFeatures: Set[String] = Set("OsmSchema-V0.6", "DenseNodes")
+
+  /** Entities decoded from one primitive block. Nodes are kept column wise, so
+    * that they only need to be materialised on demand.
+    */
+  final class EntityBatch(
+      nodeIds: Array[Long],
+      latitudes: Array[Double],
+      longitudes: Array[Double],
+      nodeTags: Array[Map[String, String]],
+      nodeMetaInformation: Array[Option[MetaInformation]],
+      val ways: Seq[Way],
+      val relations: Seq[Relation]
+  ) {
+
+    def nodeCount: Int = nodeIds.length
+
+    def node(idx: Int): Node =
+      Node(
+        nodeIds(idx),
+        latitudes(idx),
+        longitudes(idx),
+        nodeTags(idx),
+        nodeMetaInformation(idx)
+      )
+
+    def entities: Iterator[OsmEntity] =
+      Iterator.range(0, nodeCount).map(node) ++ ways ++ relations
+
+    def addTo(builder: OsmContainerBuilder[?]): Unit = {
+      var idx = 0
+      while (idx < nodeCount) {
+        builder.addNode(
+          nodeIds(idx),
+          latitudes(idx),
+          longitudes(idx),
+          nodeTags(idx),
+          nodeMetaInformation(idx)
+        )
+        idx += 1
+      }
+      ways.foreach(builder.addWay)
+      relations.foreach(builder.addRelation)
+    }
+  }
+
+  /** Decompresses the content of a blob
+    *
+    * @param blob
+    *   the serialized blob message
+    * @return
+    *   the uncompressed content
+    */
+  def decodeBlob(blob: Array[Byte]): Array[Byte] = {
+    val reader = new ProtobufReader(blob)
+    var raw: Option[Array[Byte]] = None
+    var rawSize = -1
+    var zlibData: Option[Array[Byte]] = None
+    while (reader.hasNext) {
+      reader.nextField() match {
+        case 1 => raw = Some(reader.readBytes())
+        case 2 => rawSize = reader.readVarint32()
+        case 3 => zlibData = Some(reader.readBytes())
+        case 4 | 5 | 6 | 7 =>
+          throw OsmException(
+            "Unsupported blob compression. Only uncompressed and zlib compressed blobs are supported."
+          )
+        case _ => reader.skipField()
+      }
+    }
+    (raw, zlibData) match {
+      case (Some(bytes), _) => bytes
+      case (None, Some(compressed)) if rawSize >= 0 =>
+        inflate(compressed, rawSize)
+      case _ =>
+        throw OsmException("Blob without content or uncompressed size.")
+    }
+  }
+
+  private def inflate(compressed: Array[Byte], rawSize: Int): Array[Byte] = {
+    val inflater = new Inflater()
+    try {
+      inflater.setInput(compressed)
+      val result = new Array[Byte](rawSize)
+      var offset = 0
+      while (offset < rawSize && !inflater.finished()) {
+        val inflated = inflater.inflate(result, offset, rawSize - offset)
+        if (
+          inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())
+        )
+          throw OsmException("Truncated zlib data in blob.")
+        offset += inflated
+      }
+      if (offset != rawSize)
+        throw OsmException(
+          s"Blob inflated to $offset bytes instead of the announced $rawSize bytes."
+        )
+      result
+    } catch {
+      case e: DataFormatException =>
+        throw OsmException("Invalid zlib data in blob.", e)
+    } finally inflater.end()
+  }
+
+  /** Decodes the header block and checks, that all required features are
+    * supported.
+    *
+    * @param bytes
+    *   the uncompressed header block
+    */
+  def checkHeaderBlock(bytes: Array[Byte]): Unit = {
+    val reader = new ProtobufReader(bytes)
+    val requiredFeatures = ArrayBuffer.empty[String]
+    while (reader.hasNext) {
+      reader.nextField() match {
+        case 4 => requiredFeatures += reader.readString()
+        case _ => reader.skipField()
+      }
+    }
+    val unsupported = requiredFeatures.filterNot(supportedFeatures.contains)
+    if (unsupported.nonEmpty)
+      throw OsmException(
+        s"The file requires the unsupported features ${unsupported.mkString(", ")}."
+      )
+  }
+
+  /** Decodes a primitive block.
+    *
+    * @param bytes
+    *   the uncompressed primitive block
+    * @param filter
+    *   filter, that is applied before entities are created
+    * @param readMetaInformation
+    *   whether or not to decode meta information
+    * @return
+    *   the decoded entities
+    */
+  def decodePrimitiveBlock(
+      bytes: Array[Byte],
+      filter: OsmEntityFilter,
+      readMetaInformation: Boolean
+  ): EntityBatch = {
+    val reader = new ProtobufReader(bytes)
+    var strings = Array.empty[String]
+    val groups = ArrayBuffer.empty[ProtobufReader]
+    var granularity = 100
+    var latOffset = 0L
+    var lonOffset = 0L
+    var dateGranularity = 1000
+    while (reader.hasNext) {
+      reader.nextField() match {
+        case 1  => strings = decodeStringTable(reader.readMessage())
+        case 2  => groups += reader.readMessage()
+        case 17 => granularity = reader.readVarint32()
+        case 18 => dateGranularity = reader.readVarint32()
+        case 19 => latOffset = reader.readVarint64()
+        case 20 => lonOffset = reader.readVarint64()
+        case _  => reader.skipField()
+      }
+    }
+
+    val block = new BlockContext(
+      strings,
+      granularity,
+      latOffset,
+      lonOffset,
+      dateGranularity,
+      filter,
+      readMetaInformation
+    )
+    groups.foreach(block.decodeGroup)
+    block.result()
+  }
+
+  private def decodeStringTable(reader: ProtobufReader): Array[String] = {
+    val strings = ArrayBuffer.empty[String]
+    while (reader.hasNext) {
+      reader.nextField() match {
+        case 1 => strings += reader.readString()
+        case _ => reader.skipField()
+      }
+    }
+    strings.toArray
+  }
+
+  /** Holds the block wide settings and collects the decoded entities
+    */
+  private final class BlockContext(
+      strings: Array[String],
+      granularity: Int,
+      latOffset: Long,
+      lonOffset: Long,
+      dateGranularity: Int,
+      filter: OsmEntityFilter,
+      readMetaInformation: Boolean
+  ) {
+    private val nodeIds = new LongArrayBuilder
+    private val rawLatitudes = new LongArrayBuilder
+    private val rawLongitudes = new LongArrayBuilder
+    private val nodeTags = ArrayBuffer.empty[Map[String, String]]
+    private val nodeMetaInformation = ArrayBuffer.empty[Option[MetaInformation]]
+    private val ways = ArrayBuffer.empty[Way]
+    private val relations = ArrayBuffer.empty[Relation]
+
+    def result(): EntityBatch =
+      new EntityBatch(
+        nodeIds.result(),
+        Array.tabulate(rawLatitudes.size)(idx => latitude(rawLatitudes(idx))),
+        Array.tabulate(rawLongitudes.size)(idx =>
+          longitude(rawLongitudes(idx))
+        ),
+        nodeTags.toArray,
+        nodeMetaInformation.toArray,
+        ways.toSeq,
+        relations.toSeq
+      )
+
+    def decodeGroup(reader: ProtobufReader): Unit =
+      while (reader.hasNext) {
+        reader.nextField() match {
+          case 1 => decodeNode(reader.readMessage())
+          case 2 => decodeDenseNodes(reader.readMessage())
+          case 3 => decodeWay(reader.readMessage())
+          case 4 => decodeRelation(reader.readMessage())
+          case _ => reader.skipField()
+        }
+      }
+
+    private def latitude(raw: Long): Double =
+      (latOffset + granularity * raw) / 1e9
+
+    private def longitude(raw: Long): Double =
+      (lonOffset + granularity * raw) / 1e9
+
+    private def string(idx: Long): String =
+      if (idx >= 0 && idx < strings.length) strings(idx.toInt)
+      else throw OsmException(s"String table index $idx out of bounds.")
+
+    private def tags(
+        keys: LongArrayBuilder,
+        values: LongArrayBuilder
+    ): Map[String, String] =
+      if (keys.size == 0) Map.empty
+      else if (keys.size != values.size)
+        throw OsmException("Number of tag keys and values differ.")
+      else {
+        val builder = Map.newBuilder[String, String]
+        var idx = 0
+        while (idx < keys.size) {
+          builder += string(keys(idx)) -> string(values(idx))
+          idx += 1
+        }
+        builder.result()
+      }
+
+    private def addNode(
+        id: Long,
+        rawLat: Long,
+        rawLon: Long,
+        tags: Map[String, String],
+        metaInformation: => Option[MetaInformation]
+    ): Unit =
+      if (filter.acceptNode(id, tags)) {
+        nodeIds.add(id)
+        rawLatitudes.add(rawLat)
+        rawLongitudes.add(rawLon)
+        nodeTags += tags
+        nodeMetaInformation += (if (readMetaInformation) metaInformation
+                                else None)
+      }
+
+    private def decodeNode(reader: ProtobufReader): Unit = {
+      var id = 0L
+      var lat = 0L
+      var lon = 0L
+      val keys = new LongArrayBuilder
+      val values = new LongArrayBuilder
+      var info: Option[ProtobufReader] = None
+      while (reader.hasNext) {
+        reader.nextField() match {
+          case 1 => id = reader.readSInt64()
+          case 2 => reader.readVarints(keys, plain)
+          case 3 => reader.readVarints(values, plain)
+          case 4 => info = Some(reader.readMessage())
+          case 8 => lat = reader.readSInt64()
+          case 9 => lon = reader.readSInt64()
+          case _ => reader.skipField()
+        }
+      }
+      addNode(id, lat, lon, tags(keys, values), info.map(decodeInfo))
+    }
+
+    private def decodeDenseNodes(reader: ProtobufReader): Unit = {
+      val ids = new LongArrayBuilder
+      val lats = new LongArrayBuilder
+      val lons = new LongArrayBuilder
+      val keysValues = new LongArrayBuilder
+      var denseInfo: Option[ProtobufReader] = None
+      while (reader.hasNext) {
+        reader.nextField() match {
+          case 1  => reader.readVarints(ids, zigZag)
+          case 5  => denseInfo = Some(reader.readMessage())
+          case 8  => reader.readVarints(lats, zigZag)
+          case 9  => reader.readVarints(lons, zigZag)
+          case 10 => reader.readVarints(keysValues, plain)
+          case _  => reader.skipField()
+        }
+      }
+      if (ids.size != lats.size || ids.size != lons.size)
+        throw OsmException("Dense nodes with differing number of attributes.")
+
+      val metaInformation =
+        if (readMetaInformation) denseInfo.map(decodeDenseInfo(_, ids.size))
+        else None
+
+      var id = 0L
+      var lat = 0L
+      var lon = 0L
+      var keyValueIdx = 0
+      var idx = 0
+      while (idx < ids.size) {
+        id += ids(idx)
+        lat += lats(idx)
+        lon += lons(idx)
+
+        val nodeTags =
+          if (keyValueIdx >= keysValues.size) Map.empty[String, String]
+          else {
+            val builder = Map.newBuilder[String, String]
+            while (
+              keyValueIdx < keysValues.size && keysValues(keyValueIdx) != 0
+            ) {
+              builder += string(keysValues(keyValueIdx)) -> string(
+                keysValues(keyValueIdx + 1)
+              )
+              keyValueIdx += 2
+            }
+            keyValueIdx += 1
+            builder.result()
+          }
+
+        val nodeIdx = idx
+        addNode(id, lat, lon, nodeTags, metaInformation.map(_(nodeIdx)))
+        idx += 1
+      }
+    }
+
+    private def decodeWay(reader: ProtobufReader): Unit = {
+      var id = 0L
+      val keys = new LongArrayBuilder
+      val values = new LongArrayBuilder
+      val refs = new LongArrayBuilder
+      var info: Option[ProtobufReader] = None
+      while (reader.hasNext) {
+        reader.nextField() match {
+          case 1 => id = reader.readVarint64()
+          case 2 => reader.readVarints(keys, plain)
+          case 3 => reader.readVarints(values, plain)
+          case 4 => info = Some(reader.readMessage())
+          case 8 => reader.readVarints(refs, zigZag)
+          case _ => reader.skipField()
+        }
+      }
+      val wayTags = tags(keys, values)
+      if (filter.acceptWay(id, wayTags)) {
+        val nodes = refs.result()
+        var idx = 1
+        while (idx < nodes.length) {
+          nodes(idx) += nodes(idx - 1)
+          idx += 1
+        }
+        ways += Way(
+          id,
+          ArraySeq.unsafeWrapArray(nodes),
+          wayTags,
+          if (readMetaInformation) info.map(decodeInfo) else None
+        )
+      }
+    }
+
+    private def decodeRelation(reader: ProtobufReader): Unit = {
+      var id = 0L
+      val keys = new LongArrayBuilder
+      val values = new LongArrayBuilder
+      val roles = new LongArrayBuilder
+      val memberIds = new LongArrayBuilder
+      val types = new LongArrayBuilder
+      var info: Option[ProtobufReader] = None
+      while (reader.hasNext) {
+        reader.nextField() match {
+          case 1  => id = reader.readVarint64()
+          case 2  => reader.readVarints(keys, plain)
+          case 3  => reader.readVarints(values, plain)
+          case 4  => info = Some(reader.readMessage())
+          case 8  => reader.readVarints(roles, plain)
+          case 9  => reader.readVarints(memberIds, zigZag)
+          case 10 => reader.readVarints(types, plain)
+          case _  => reader.skipField()
+        }
+      }
+      if (roles.size != memberIds.size || roles.size != types.size)
+        throw OsmException(
+          s"Relation $id with differing number of member attributes."
+        )
+      val relationTags = tags(keys, values)
+      if (filter.acceptRelation(id, relationTags)) {
+        var memberId = 0L
+        val members = Vector.tabulate(memberIds.size) { idx =>
+          memberId += memberIds(idx)
+          RelationMember(
+            memberId,
+            types(idx) match {
+              case 0 => RelationMemberType.Node
+              case 1 => RelationMemberType.Way
+              case 2 => RelationMemberType.Relation
+              case _ => RelationMemberType.Unrecognized
+            },
+            string(roles(idx))
+          )
+        }
+        relations += Relation(
+          id,
+          members,
+          relationTags,
+          if (readMetaInformation) info.map(decodeInfo) else None
+        )
+      }
+    }
+
+    private def decodeInfo(reader: ProtobufReader): MetaInformation = {
+      var metaInformation = MetaInformation()
+      while (reader.hasNext) {
+        reader.nextField() match {
+          case 1 =>
+            metaInformation =
+              metaInformation.copy(version = Some(reader.readVarint32()))
+          case 2 =>
+            metaInformation = metaInformation.copy(timestamp =
+              Some(
+                Instant.ofEpochMilli(reader.readVarint64() * dateGranularity)
+              )
+            )
+          case 3 =>
+            metaInformation =
+              metaInformation.copy(changeSet = Some(reader.readVarint64()))
+          case 4 =>
+            metaInformation =
+              metaInformation.copy(userId = Some(reader.readVarint32()))
+          case 5 =>
+            metaInformation = metaInformation.copy(userName =
+              Some(string(reader.readVarint32() & 0xffffffffL))
+            )
+          case 6 =>
+            metaInformation =
+              metaInformation.copy(visible = Some(reader.readBool()))
+          case _ => reader.skipField()
+        }
+      }
+      metaInformation
+    }
+
+    private def decodeDenseInfo(
+        reader: ProtobufReader,
+        count: Int
+    ): Array[MetaInformation] = {
+      val versions = new LongArrayBuilder
+      val timestamps = new LongArrayBuilder
+      val changeSets = new LongArrayBuilder
+      val userIds = new LongArrayBuilder
+      val userNames = new LongArrayBuilder
+      val visible = new LongArrayBuilder
+      while (reader.hasNext) {
+        reader.nextField() match {
+          case 1 => reader.readVarints(versions, plain)
+          case 2 => reader.readVarints(timestamps, zigZag)
+          case 3 => reader.readVarints(changeSets, zigZag)
+          case 4 => reader.readVarints(userIds, zigZag)
+          case 5 => reader.readVarints(userNames, zigZag)
+          case 6 => reader.readVarints(visible, plain)
+          case _ => reader.skipField()
+        }
+      }
+
+      var timestamp = 0L
+      var changeSet = 0L
+      var userId = 0L
+      var userName = 0L
+      Array.tabulate(count) { idx =>
+        def deltaDecoded(
+            values: LongArrayBuilder,
+            previous: Long
+        ): Option[Long] =
+          Option.when(idx < values.size)(previous + values(idx))
+
+        val nodeTimestamp = deltaDecoded(timestamps, timestamp)
+        val nodeChangeSet = deltaDecoded(changeSets, changeSet)
+        val nodeUserId = deltaDecoded(userIds, userId)
+        val nodeUserName = deltaDecoded(userNames, userName)
+        nodeTimestamp.foreach(timestamp = _)
+        nodeChangeSet.foreach(changeSet = _)
+        nodeUserId.foreach(userId = _)
+        nodeUserName.foreach(userName = _)
+
+        MetaInformation(
+          Option.when(idx < versions.size)(versions(idx).toInt),
+          nodeTimestamp.map(ts => Instant.ofEpochMilli(ts * dateGranularity)),
+          nodeChangeSet,
+          nodeUserId.map(_.toInt),
+          nodeUserName.map(string),
+          Option.when(idx < visible.size)(visible(idx) != 0)
+        )
+      }
+    }
+  }
+}
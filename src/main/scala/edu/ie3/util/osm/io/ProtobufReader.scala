@@ -0,0 +1,153 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.io
+
+import edu.ie3.util.exceptions.OsmException
+
+import java.nio.charset.StandardCharsets
+
+/** Minimal reader of the protocol buffers wire format, sufficient to decode the
+  * messages of the OSM PBF format without any code generation.
+  *
+  * @param buffer
+  *   the buffer to read from
+  * @param start
+  *   the first position of the message
+  * @param limit
+  *   the position after the last byte of the message
+  */
+private[io] final class ProtobufReader(
+    buffer: Array[Byte],
+    start: Int,
+    limit: Int
+) {
+
+  import ProtobufReader._
+
+  private var pos: Int = start
+  private var lastTag: Int = 0
+
+  def this(buffer: Array[Byte]) = this(buffer, 0, buffer.length)
+
+  def hasNext: Boolean = pos < limit
+
+  /** Reads the next field tag
+    *
+    * @return
+    *   the number of the next field
+    */
+  def nextField(): Int = {
+    lastTag = readVarint32()
+    lastTag >>> 3
+  }
+
+  def wireType: Int = lastTag & 0x7
+
+  def readVarint64(): Long = {
+    var result = 0L
+    var shift = 0
+    while (shift < 64) {
+      if (pos >= limit)
+        throw OsmException("Malformed protobuf message: truncated varint.")
+      val b = buffer(pos)
+      pos += 1
+      result |= (b & 0x7f).toLong << shift
+      if ((b & 0x80) == 0) return result
+      shift += 7
+    }
+    throw OsmException("Malformed protobuf message: varint too long.")
+  }
+
+  def readVarint32(): Int = readVarint64().toInt
+
+  def readSInt64(): Long = decodeZigZag(readVarint64())
+
+  def readSInt32(): Int = decodeZigZag(readVarint64()).toInt
+
+  def readBool(): Boolean = readVarint64() != 0
+
+  /** Reads a length delimited field and returns a reader for its content
+    */
+  def readMessage(): ProtobufReader = {
+    val length = readLength()
+    val reader = new ProtobufReader(buffer, pos, pos + length)
+    pos += length
+    reader
+  }
+
+  def readBytes(): Array[Byte] = {
+    val length = readLength()
+    val bytes = java.util.Arrays.copyOfRange(buffer, pos, pos + length)
+    pos += length
+    bytes
+  }
+
+  def readString(): String = {
+    val length = readLength()
+    val string = new String(buffer, pos, length, StandardCharsets.UTF_8)
+    pos += length
+    string
+  }
+
+  /** Reads a repeated varint field, that may be encoded packed or unpacked.
+    * Values of unpacked fields are appended to the given builder one at a time.
+    */
+  def readVarints(target: LongArrayBuilder, decode: Long => Long): Unit =
+    if (wireType == WireTypeLengthDelimited) {
+      val packed = readMessage()
+      while (packed.hasNext) target.add(decode(packed.readVarint64()))
+    } else target.add(decode(readVarint64()))
+
+  def skipField(): Unit = wireType match {
+    case WireTypeVarint  => readVarint64()
+    case WireTypeFixed64 => pos += 8
+    case WireTypeLengthDelimited =>
+      val length = readLength()
+      pos += length
+    case WireTypeFixed32 => pos += 4
+    case other =>
+      throw OsmException(s"Unsupported protobuf wire type '$other'.")
+  }
+
+  private def readLength(): Int = {
+    val length = readVarint32()
+    if (length < 0 || pos + length > limit)
+      throw OsmException("Malformed protobuf message: invalid field length.")
+    length
+  }
+}
+
+private[io] object ProtobufReader {
+  val WireTypeVarint = 0
+  val WireTypeFixed64 = 1
+  val WireTypeLengthDelimited = 2
+  val WireTypeFixed32 = 5
+
+  val plain: Long => Long = identity
+  val zigZag: Long => Long = decodeZigZag
+
+  def decodeZigZag(value: Long): Long = (value >>> 1) ^ -(value & 1)
+
+  /** Growable array of primitive longs
+    */
+  final class LongArrayBuilder {
+    private var values = new Array[Long](16)
+    private var count = 0
+
+    def add(value: Long): Unit = {
+      if (count == values.length)
+        values = java.util.Arrays.copyOf(values, count * 2)
+      values(count) = value
+      count += 1
+    }
+
+    def size: Int = count
+
+    def apply(idx: Int): Long = values(idx)
+
+    def result(): Array[Long] = java.util.Arrays.copyOf(values, count)
+  }
+}
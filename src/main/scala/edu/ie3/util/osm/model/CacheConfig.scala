@@ -0,0 +1,46 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+/** Configuration of the caches, that [[OsmContainer]] s use to keep derived
+  * information like way nodes, way polygons or relation entities
+  */
+sealed trait CacheConfig
+
+object CacheConfig {
+
+  /** Cache every entry as long as the container lives
+    */
+  case object Unbounded extends CacheConfig
+
+  /** Do not cache at all, every request is computed anew
+    */
+  case object Disabled extends CacheConfig
+
+  /** Keep at most the given number of entries. Entries to evict are chosen by
+    * the W-TinyLFU policy, that takes recency as well as frequency of access
+    * into account.
+    *
+    * @param maximumEntries
+    *   the maximum number of cached entries
+    */
+  final case class SizeBounded(maximumEntries: Long) extends CacheConfig {
+    require(maximumEntries >= 0, "The maximum number of entries is negative.")
+  }
+
+  /** Keep entries up to the given total weight. The weight of an entry is the
+    * number of elements it holds, e.g. the number of nodes of a way or the
+    * number of points of a polygon. Entries to evict are chosen by the
+    * W-TinyLFU policy.
+    *
+    * @param maximumWeight
+    *   the maximum total weight of all cached entries
+    */
+  final case class WeightBounded(maximumWeight: Long) extends CacheConfig {
+    require(maximumWeight >= 0, "The maximum weight is negative.")
+  }
+
+}
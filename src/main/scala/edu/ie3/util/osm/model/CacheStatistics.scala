@@ -0,0 +1,36 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+/** Statistics of a cache of an [[OsmContainer]]
+  *
+  * @param hits
+  *   number of requests answered from the cache
+  * @param misses
+  *   number of requests, that had to be computed
+  * @param evictions
+  *   number of entries evicted due to the bound of the cache
+  * @param evictedWeight
+  *   total weight of the evicted entries
+  * @param size
+  *   estimated number of entries currently held
+  */
+final case class CacheStatistics(
+    hits: Long,
+    misses: Long,
+    evictions: Long,
+    evictedWeight: Long,
+    size: Long
+) {
+
+  def requests: Long = hits + misses
+
+  /** @return
+    *   share of requests answered from the cache, 1 if there were no requests
+    */
+  def hitRate: Double = if (requests == 0) 1d else hits.toDouble / requests
+
+}
@@ -0,0 +1,117 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+/** Tags encoded by a [[TagDictionary]]. The codes are held as key value pairs
+  * in a single int array, that is sorted by the key code, so that tags can be
+  * tested with integer comparisons only. The codes of the keys and values to
+  * test for are determined once from the dictionary, e.g.
+  * {{{
+  * val building = dictionary.lookup(CommonOsmKey.Building)
+  * val yes = dictionary.lookup("yes")
+  * compactTags.hasKeyValuePair(building, yes)
+  * }}}
+  * Strings unknown to the dictionary have the code [[TagDictionary.NoCode]],
+  * which is never matched.
+  */
+final class CompactTags private (
+    private val pairs: Array[Int] // key code, value code, ... by key code
+) {
+
+  /** @return
+    *   number of tags
+    */
+  def size: Int = pairs.length / 2
+
+  def isEmpty: Boolean = pairs.isEmpty
+
+  def nonEmpty: Boolean = pairs.nonEmpty
+
+  def keyCodeAt(idx: Int): Int = pairs(2 * idx)
+
+  def valueCodeAt(idx: Int): Int = pairs(2 * idx + 1)
+
+  /** Searches the value of the given key
+    *
+    * @param keyCode
+    *   code of the key to look for
+    * @return
+    *   code of the value or [[TagDictionary.NoCode]], if the key is not present
+    */
+  def valueCode(keyCode: Int): Int = {
+    var low = 0
+    var high = size - 1
+    while (low <= high) {
+      val mid = (low + high) >>> 1
+      val midKey = pairs(2 * mid)
+      if (midKey < keyCode) low = mid + 1
+      else if (midKey > keyCode) high = mid - 1
+      else return pairs(2 * mid + 1)
+    }
+    TagDictionary.NoCode
+  }
+
+  /** Checks whether or not the tags contain the given key
+    */
+  def hasKey(keyCode: Int): Boolean = valueCode(keyCode) != TagDictionary.NoCode
+
+  /** Checks whether or not the tags contain the given key value pair
+    */
+  def hasKeyValuePair(keyCode: Int, valueCode: Int): Boolean =
+    valueCode != TagDictionary.NoCode && this.valueCode(keyCode) == valueCode
+
+  /** Checks whether or not the tags contain the given key with one of the given
+    * values. NOTE: If an empty values set is given it matches any value.
+    */
+  def hasKeyValuesPairOr(keyCode: Int, valueCodes: Set[Int]): Boolean = {
+    val value = valueCode(keyCode)
+    value != TagDictionary.NoCode &&
+    (valueCodes.isEmpty || valueCodes.contains(value))
+  }
+
+  override def equals(obj: Any): Boolean = obj match {
+    case that: CompactTags => java.util.Arrays.equals(pairs, that.pairs)
+    case _                 => false
+  }
+
+  override def hashCode(): Int = java.util.Arrays.hashCode(pairs)
+
+  override def toString: String =
+    Iterator
+      .range(0, size)
+      .map(idx => s"${keyCodeAt(idx)} -> ${valueCodeAt(idx)}")
+      .mkString("CompactTags(", ", ", ")")
+}
+
+object CompactTags {
+
+  val empty: CompactTags = new CompactTags(Array.emptyIntArray)
+
+  /** Builds tags from unordered key value pairs with distinct keys
+    *
+    * @param pairs
+    *   key code, value code, key code, ... - will be sorted in place
+    */
+  private[model] def fromPairs(pairs: Array[Int]): CompactTags = {
+    // tags are small, hence insertion sort of the pairs is sufficient
+    var idx = 2
+    while (idx < pairs.length) {
+      val key = pairs(idx)
+      val value = pairs(idx + 1)
+      var pos = idx - 2
+      while (pos >= 0 && pairs(pos) > key) {
+        pairs(pos + 2) = pairs(pos)
+        pairs(pos + 3) = pairs(pos + 1)
+        pos -= 2
+      }
+      pairs(pos + 2) = key
+      pairs(pos + 3) = value
+      idx += 2
+    }
+    new CompactTags(pairs)
+  }
+
+}
@@ -0,0 +1,262 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.osm.model.TagFilter.{And, Key, Not, Or}
+
+import java.util
+
+/** Predicate compiled from a [[TagFilter]]. Nested conjunctions and
+  * disjunctions are flattened and the key conditions of a disjunction are
+  * merged into a hash of the filter keys. Such a disjunction is tested by
+  * looking up the few tags of an entity in the hash, instead of looking up
+  * every filter key in the tags, which makes filters with many keys cheap.
+  *
+  * @param filter
+  *   the filter, that has been compiled
+  */
+final class CompiledTagFilter private (
+    val filter: TagFilter,
+    matcher: CompiledTagFilter.Matcher
+) extends (OsmEntity => Boolean) {
+
+  import CompiledTagFilter._
+
+  override def apply(entity: OsmEntity): Boolean = matcher.matches(entity.tags)
+
+  def matches(tags: Map[String, String]): Boolean = matcher.matches(tags)
+
+  /** Translates the filter to the codes of the given dictionary, so that
+    * [[CompactTags]] encoded by it are tested without decoding them. Strings,
+    * that are unknown to the dictionary, never match. Hence, the dictionary
+    * should be complete, before the filter is translated.
+    *
+    * @param dictionary
+    *   the dictionary, that encodes the tags to test
+    * @return
+    *   the predicate on the encoded tags
+    */
+  def forDictionary(dictionary: TagDictionary): CompactTags => Boolean = {
+    val codeMatcher = matcher.encode(dictionary)
+    tags => codeMatcher.matches(tags)
+  }
+
+  override def toString: String = s"CompiledTagFilter($filter)"
+}
+
+object CompiledTagFilter {
+
+  def apply(filter: TagFilter): CompiledTagFilter =
+    new CompiledTagFilter(filter, compile(filter))
+
+  private def compile(filter: TagFilter): Matcher = filter match {
+    case Key(key, values) => KeyMatcher(key, values)
+    case Not(Not(inner))  => compile(inner)
+    case Not(inner)       => NotMatcher(compile(inner))
+    case And(filters) =>
+      flatten(filters) { case And(nested) => nested }.map(compile) match {
+        case Seq()        => ConstantMatcher(true)
+        case Seq(matcher) => matcher
+        case matchers     => AllMatcher(matchers.toArray)
+      }
+    case Or(filters) =>
+      val flattened = flatten(filters) { case Or(nested) => nested }
+      val keys = flattened.collect { case key: Key => key }
+      val others = flattened.filterNot(_.isInstanceOf[Key]).map(compile)
+      val merged =
+        if (keys.sizeIs > 1) Seq(AnyKeyMatcher(keys))
+        else keys.map(key => KeyMatcher(key.key, key.values))
+      (merged ++ others) match {
+        case Seq()        => ConstantMatcher(false)
+        case Seq(matcher) => matcher
+        case matchers     => AnyMatcher(matchers.toArray)
+      }
+  }
+
+  private def flatten(filters: Seq[TagFilter])(
+      nested: PartialFunction[TagFilter, Seq[TagFilter]]
+  ): Seq[TagFilter] =
+    filters.flatMap(filter =>
+      nested.lift(filter).map(flatten(_)(nested)).getOrElse(Seq(filter))
+    )
+
+  private sealed trait Matcher {
+    def matches(tags: Map[String, String]): Boolean
+
+    def encode(dictionary: TagDictionary): CodeMatcher
+  }
+
+  private final case class ConstantMatcher(result: Boolean) extends Matcher {
+    override def matches(tags: Map[String, String]): Boolean = result
+
+    override def encode(dictionary: TagDictionary): CodeMatcher =
+      ConstantCodeMatcher(result)
+  }
+
+  private final case class KeyMatcher(key: String, values: Set[String])
+      extends Matcher {
+    override def matches(tags: Map[String, String]): Boolean =
+      tags.get(key) match {
+        case Some(value) => values.isEmpty || values.contains(value)
+        case None        => false
+      }
+
+    override def encode(dictionary: TagDictionary): CodeMatcher =
+      AnyKeyCodeMatcher(Seq(Key(key, values)), dictionary)
+  }
+
+  private final case class NotMatcher(matcher: Matcher) extends Matcher {
+    override def matches(tags: Map[String, String]): Boolean =
+      !matcher.matches(tags)
+
+    override def encode(dictionary: TagDictionary): CodeMatcher =
+      NotCodeMatcher(matcher.encode(dictionary))
+  }
+
+  private final case class AllMatcher(matchers: Array[Matcher])
+      extends Matcher {
+    override def matches(tags: Map[String, String]): Boolean = {
+      var idx = 0
+      while (idx < matchers.length) {
+        if (!matchers(idx).matches(tags)) return false
+        idx += 1
+      }
+      true
+    }
+
+    override def encode(dictionary: TagDictionary): CodeMatcher =
+      AllCodeMatcher(matchers.map(_.encode(dictionary)))
+  }
+
+  private final case class AnyMatcher(matchers: Array[Matcher])
+      extends Matcher {
+    override def matches(tags: Map[String, String]): Boolean = {
+      var idx = 0
+      while (idx < matchers.length) {
+        if (matchers(idx).matches(tags)) return true
+        idx += 1
+      }
+      false
+    }
+
+    override def encode(dictionary: TagDictionary): CodeMatcher =
+      AnyCodeMatcher(matchers.map(_.encode(dictionary)))
+  }
+
+  /** Disjunction of several key conditions. Conditions on the same key are
+    * merged, an empty value set wins.
+    */
+  private final case class AnyKeyMatcher(keys: Seq[Key]) extends Matcher {
+    private val keyValues = {
+      val keyValues = new util.HashMap[String, Set[String]]
+      keys.foreach { case Key(key, values) =>
+        keyValues.merge(
+          key,
+          values,
+          (known, added) =>
+            if (known.isEmpty || added.isEmpty) Set.empty else known ++ added
+        )
+      }
+      keyValues
+    }
+
+    override def matches(tags: Map[String, String]): Boolean =
+      if (tags.size <= keyValues.size) {
+        // look up the few tags in the filter keys
+        val entries = tags.iterator
+        while (entries.hasNext) {
+          val (key, value) = entries.next()
+          val values = keyValues.get(key)
+          if (values != null && (values.isEmpty || values.contains(value)))
+            return true
+        }
+        false
+      } else
+        keys.exists { case Key(key, _) =>
+          tags.get(key).exists { value =>
+            val values = keyValues.get(key)
+            values.isEmpty || values.contains(value)
+          }
+        }
+
+    override def encode(dictionary: TagDictionary): CodeMatcher =
+      AnyKeyCodeMatcher(keys, dictionary)
+  }
+
+  private sealed trait CodeMatcher {
+    def matches(tags: CompactTags): Boolean
+  }
+
+  private final case class ConstantCodeMatcher(result: Boolean)
+      extends CodeMatcher {
+    override def matches(tags: CompactTags): Boolean = result
+  }
+
+  private final case class NotCodeMatcher(matcher: CodeMatcher)
+      extends CodeMatcher {
+    override def matches(tags: CompactTags): Boolean = !matcher.matches(tags)
+  }
+
+  private final case class AllCodeMatcher(matchers: Array[CodeMatcher])
+      extends CodeMatcher {
+    override def matches(tags: CompactTags): Boolean =
+      matchers.forall(_.matches(tags))
+  }
+
+  private final case class AnyCodeMatcher(matchers: Array[CodeMatcher])
+      extends CodeMatcher {
+    override def matches(tags: CompactTags): Boolean =
+      matchers.exists(_.matches(tags))
+  }
+
+  /** Disjunction of key conditions on codes. The key codes are sorted, so that
+    * every tag is looked up by a binary search. The accepted value codes of the
+    * key at the same position are sorted as well, `null` accepts any value.
+    */
+  private final class AnyKeyCodeMatcher(
+      keyCodes: Array[Int],
+      valueCodes: Array[Array[Int]]
+  ) extends CodeMatcher {
+    override def matches(tags: CompactTags): Boolean = {
+      var idx = 0
+      while (idx < tags.size) {
+        val key = util.Arrays.binarySearch(keyCodes, tags.keyCodeAt(idx))
+        if (
+          key >= 0 && (valueCodes(key) == null ||
+            util.Arrays.binarySearch(
+              valueCodes(key),
+              tags.valueCodeAt(idx)
+            ) >= 0)
+        ) return true
+        idx += 1
+      }
+      false
+    }
+  }
+
+  private object AnyKeyCodeMatcher {
+    def apply(keys: Seq[Key], dictionary: TagDictionary): CodeMatcher = {
+      // unknown keys are dropped, unknown values keep the code NoCode, which
+      // never matches
+      val byCode = keys
+        .groupMapReduce(key => dictionary.lookup(key.key))(_.values) {
+          (known, added) =>
+            if (known.isEmpty || added.isEmpty) Set.empty else known ++ added
+        }
+        .collect {
+          case (keyCode, values) if keyCode != TagDictionary.NoCode =>
+            keyCode -> Option.when(values.nonEmpty)(
+              values.toArray.map(dictionary.lookup).sorted
+            )
+        }
+        .toArray
+        .sortBy(_._1)
+      if (byCode.isEmpty) ConstantCodeMatcher(false)
+      else
+        new AnyKeyCodeMatcher(byCode.map(_._1), byCode.map(_._2.orNull))
+    }
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import scala.collection.immutable.AbstractMap
+
+/** Read only map view on [[CompactTags]], that lets entities hold their tags as
+  * codes of a [[TagDictionary]], while still exposing them as a map of strings.
+  * Lookups translate the requested key into its code once and search the codes,
+  * the tag tests of [[OsmEntity]] compare codes only. Updating the view yields
+  * a plain map.
+  *
+  * @param compact
+  *   the encoded tags
+  * @param dictionary
+  *   the dictionary, that encoded the tags
+  */
+final class DictionaryTags private[model] (
+    val compact: CompactTags,
+    val dictionary: TagDictionary
+) extends AbstractMap[String, String] {
+
+  override def get(key: String): Option[String] = {
+    val valueCode = compact.valueCode(dictionary.lookup(key))
+    Option.when(valueCode != TagDictionary.NoCode)(dictionary.string(valueCode))
+  }
+
+  override def iterator: Iterator[(String, String)] =
+    Iterator
+      .range(0, compact.size)
+      .map(idx =>
+        dictionary.string(compact.keyCodeAt(idx)) ->
+          dictionary.string(compact.valueCodeAt(idx))
+      )
+
+  override def size: Int = compact.size
+
+  override def knownSize: Int = compact.size
+
+  override def isEmpty: Boolean = compact.isEmpty
+
+  override def removed(key: String): Map[String, String] =
+    dictionary.decode(compact).removed(key)
+
+  override def updated[V1 >: String](key: String, value: V1): Map[String, V1] =
+    dictionary.decode(compact).updated(key, value)
+
+  /** Checks whether or not the tags contain the given key
+    */
+  def hasKey(key: String): Boolean =
+    compact.hasKey(dictionary.lookup(key))
+
+  /** Checks whether or not the tags contain the given key value pair
+    */
+  def hasKeyValuePair(key: String, value: String): Boolean =
+    compact.hasKeyValuePair(dictionary.lookup(key), dictionary.lookup(value))
+
+  /** Checks whether or not the tags contain the given key with one of the given
+    * values. NOTE: If an empty values set is given it matches any value.
+    */
+  def hasKeyValuesPairOr(key: String, values: Set[String]): Boolean = {
+    val valueCode = compact.valueCode(dictionary.lookup(key))
+    valueCode != TagDictionary.NoCode &&
+    (values.isEmpty || values.exists(dictionary.lookup(_) == valueCode))
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import com.github.benmanes.caffeine.cache.{Cache, Caffeine, Weigher}
+import edu.ie3.util.osm.model.CacheConfig.{
+  Disabled,
+  SizeBounded,
+  Unbounded,
+  WeightBounded
+}
+
+import java.time.Duration
+import java.util.concurrent.Executor
+import java.util.concurrent.atomic.LongAdder
+import scala.jdk.CollectionConverters._
+
+/** Thread safe cache of information derived from the entities of an
+  * [[OsmContainer]], keyed by entity id
+  *
+  * @param config
+  *   the configuration of the cache
+  * @param weight
+  *   weight of an entry, only used for [[CacheConfig.WeightBounded]] caches
+  * @param executor
+  *   the executor of evictions, Caffeine's default asynchronous one if not
+  *   given
+  * @tparam V
+  *   type of the cached values
+  */
+private[model] final class EntityCache[V <: AnyRef](
+    val config: CacheConfig,
+    weight: V => Int,
+    executor: Option[Executor] = None
+) {
+
+  private val cache: Option[Cache[java.lang.Long, V]] = {
+    val builder = Caffeine.newBuilder().recordStats()
+    executor.foreach(builder.executor)
+    config match {
+      case Disabled  => None
+      case Unbounded => Some(builder.build[java.lang.Long, V]())
+      case SizeBounded(maximumEntries) =>
+        Some(builder.maximumSize(maximumEntries).build[java.lang.Long, V]())
+      case WeightBounded(maximumWeight) =>
+        val weigher: Weigher[java.lang.Long, V] = (_, value) => weight(value)
+        Some(
+          builder
+            .maximumWeight(maximumWeight)
+            .weigher(weigher)
+            .build[java.lang.Long, V]()
+        )
+    }
+  }
+
+  // requests to a disabled cache are all misses
+  private val uncachedRequests = new LongAdder
+  private val computeNanos = new LongAdder
+
+  /** Returns the cached value or computes it. Only defined values are cached.
+    * The computation may request other entries of this cache.
+    *
+    * @param key
+    *   the id of the entity
+    * @param compute
+    *   computation of the value, if it is not cached
+    * @return
+    *   the cached or computed value
+    */
+  def getOrCompute(key: Long)(compute: => Option[V]): Option[V] =
+    cache match {
+      case Some(cache) =>
+        Option(cache.getIfPresent(key)).orElse {
+          val value = timed(compute)
+          value.foreach(cache.asMap().putIfAbsent(key, _))
+          value
+        }
+      case None =>
+        uncachedRequests.increment()
+        timed(compute)
+    }
+
+  /** Evaluates the given computation of values and adds its duration to the
+    * [[computeTime]]
+    */
+  def timed[T](computation: => T): T = {
+    val start = System.nanoTime()
+    try computation
+    finally computeNanos.add(System.nanoTime() - start)
+  }
+
+  /** @return
+    *   the time spent computing values since the creation of the cache, summed
+    *   up over all threads. Computations requesting other entries include the
+    *   time of computing them.
+    */
+  def computeTime: Duration = Duration.ofNanos(computeNanos.sum())
+
+  /** Returns the cached value without affecting the statistics
+    */
+  def peek(key: Long): Option[V] =
+    cache.flatMap(cache => Option(cache.asMap().get(key)))
+
+  /** @return
+    *   the cached values without affecting the statistics
+    */
+  def values: Iterator[V] =
+    cache.iterator.flatMap(_.asMap().values().asScala)
+
+  /** Adds a value, that has been computed alongside another one
+    */
+  def put(key: Long, value: V): Unit =
+    cache.foreach(_.asMap().putIfAbsent(key, value))
+
+  def invalidateAll(): Unit = cache.foreach(_.invalidateAll())
+
+  /** @param keep
+    *   whether or not an entry remains valid
+    * @return
+    *   a new cache with the same configuration, that holds the entries of this
+    *   cache, which remain valid
+    */
+  def retained(keep: (Long, V) => Boolean): EntityCache[V] = {
+    val retained = new EntityCache[V](config, weight, executor)
+    cache.foreach(
+      _.asMap().forEach((key, value) =>
+        if (keep(key, value)) retained.put(key, value)
+      )
+    )
+    retained
+  }
+
+  def statistics: CacheStatistics = cache match {
+    case Some(cache) =>
+      // apply pending evictions first
+      cache.cleanUp()
+      val stats = cache.stats()
+      CacheStatistics(
+        stats.hitCount(),
+        stats.missCount(),
+        stats.evictionCount(),
+        stats.evictionWeight(),
+        cache.estimatedSize()
+      )
+    case None =>
+      CacheStatistics(0, uncachedRequests.sum(), 0, 0, 0)
+  }
+
+}
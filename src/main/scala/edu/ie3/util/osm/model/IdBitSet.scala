@@ -0,0 +1,126 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+/** Immutable set of entity ids backed by primitive bitsets. Ids are grouped
+  * into pages of 2^16 ids, that share the same high bits. Pages with few ids
+  * hold their low bits as sorted char array, dense pages as bitmap. Hence,
+  * neither sparse nor dense id ranges take much memory and ids are tested
+  * without boxing, which makes the set suitable for containment checks of
+  * millions of ids from several threads.
+  *
+  * @param pageKeys
+  *   ascending high bits of the pages
+  * @param pages
+  *   the pages, either an Array[Char] or an Array[Long] bitmap
+  */
+final class IdBitSet private (
+    pageKeys: Array[Long],
+    pages: Array[AnyRef],
+    val size: Int
+) {
+
+  import IdBitSet._
+
+  def isEmpty: Boolean = size == 0
+
+  def contains(id: Long): Boolean = {
+    val page = java.util.Arrays.binarySearch(pageKeys, id >> PageBits)
+    page >= 0 && (pages(page) match {
+      case bitmap: Array[Long] =>
+        val low = (id & PageMask).toInt
+        (bitmap(low >>> 6) & (1L << low)) != 0
+      case sparse: Array[Char] =>
+        java.util.Arrays.binarySearch(sparse, (id & PageMask).toChar) >= 0
+    })
+  }
+
+  /** @return
+    *   the ids in ascending order
+    */
+  def iterator: Iterator[Long] =
+    pageKeys.indices.iterator.flatMap { page =>
+      val high = pageKeys(page) << PageBits
+      pages(page) match {
+        case bitmap: Array[Long] =>
+          Iterator
+            .range(0, PageSize)
+            .filter(low => (bitmap(low >>> 6) & (1L << low)) != 0)
+            .map(high | _)
+        case sparse: Array[Char] => sparse.iterator.map(high | _)
+      }
+    }
+
+  override def toString: String = s"IdBitSet(size = $size)"
+}
+
+object IdBitSet {
+
+  private val PageBits = 16
+  private val PageSize = 1 << PageBits
+  private val PageMask = PageSize - 1L
+
+  /** Pages with at least this number of ids are stored as bitmap, which then
+    * takes less memory than the sorted char array
+    */
+  private val BitmapThreshold = PageSize / 16
+
+  val empty: IdBitSet =
+    new IdBitSet(Array.emptyLongArray, Array.empty[AnyRef], 0)
+
+  def from(ids: IterableOnce[Long]): IdBitSet = {
+    val builder = Array.newBuilder[Long]
+    builder.sizeHint(ids.knownSize)
+    builder ++= ids
+    apply(builder.result())
+  }
+
+  /** Builds a set from the given ids, that may be unordered and contain
+    * duplicates. The given array is sorted in place.
+    */
+  def apply(ids: Array[Long]): IdBitSet = {
+    java.util.Arrays.sort(ids)
+    val pageKeys = Array.newBuilder[Long]
+    val pages = Array.newBuilder[AnyRef]
+    var size = 0
+
+    var start = 0
+    while (start < ids.length) {
+      val high = ids(start) >> PageBits
+      var end = start
+      while (end < ids.length && (ids(end) >> PageBits) == high) end += 1
+
+      val lows = new Array[Char](end - start)
+      var count = 0
+      var idx = start
+      while (idx < end) {
+        val low = (ids(idx) & PageMask).toChar
+        if (count == 0 || lows(count - 1) != low) {
+          lows(count) = low
+          count += 1
+        }
+        idx += 1
+      }
+
+      pageKeys += high
+      pages += (
+        if (count >= BitmapThreshold) {
+          val bitmap = new Array[Long](PageSize / 64)
+          var pos = 0
+          while (pos < count) {
+            bitmap(lows(pos) >>> 6) |= 1L << lows(pos)
+            pos += 1
+          }
+          bitmap
+        } else java.util.Arrays.copyOf(lows, count)
+      )
+      size += count
+      start = end
+    }
+
+    new IdBitSet(pageKeys.result(), pages.result(), size)
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.exceptions.OsmException
+import edu.ie3.util.osm.model.OsmEntity.Relation.{
+  RelationMember,
+  RelationMemberType
+}
+import edu.ie3.util.osm.model.OsmEntity.{MetaInformation, Node, Relation, Way}
+
+import java.io.{ByteArrayOutputStream, DataOutputStream}
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+import java.time.Instant
+import scala.collection.immutable.ArraySeq
+
+/** Encoding of single entity records of a [[MappedOsmContainer]]. The id is not
+  * part of the record, as it is held by the id index. Other than the snapshot
+  * format, records are self-contained: strings are written inline, so that a
+  * record is decoded without any table on heap, and coordinates are written as
+  * doubles, so that they are read back exactly.
+  */
+private[model] object MappedEntityCodec {
+
+  // flags of the meta information
+  private val MetaVersion = 1
+  private val MetaTimestamp = 2
+  private val MetaChangeSet = 4
+  private val MetaUserId = 8
+  private val MetaUserName = 16
+  private val MetaVisible = 32
+  private val MetaVisibleValue = 64
+  private val MetaPresent = 128
+
+  def encodeNode(
+      latitude: Double,
+      longitude: Double,
+      tags: Map[String, String],
+      metaInformation: Option[MetaInformation]
+  ): Array[Byte] = encode { out =>
+    out.writeDouble(latitude)
+    out.writeDouble(longitude)
+    writeCommon(out, tags, metaInformation)
+  }
+
+  def encodeWay(way: Way): Array[Byte] = encode { out =>
+    val nodes = way.nodeArray
+    out.writeInt(nodes.length)
+    nodes.foreach(out.writeLong)
+    writeCommon(out, way.tags, way.metaInformation)
+  }
+
+  def encodeRelation(relation: Relation): Array[Byte] = encode { out =>
+    out.writeInt(relation.members.size)
+    relation.members.foreach { member =>
+      out.writeByte(member.relationType.id)
+      out.writeLong(member.id)
+      writeString(out, member.role)
+    }
+    writeCommon(out, relation.tags, relation.metaInformation)
+  }
+
+  def decodeNode(id: Long, in: ByteBuffer): Node = {
+    val latitude = in.getDouble()
+    val longitude = in.getDouble()
+    Node(id, latitude, longitude, readTags(in), readMeta(in))
+  }
+
+  def decodeWay(id: Long, in: ByteBuffer): Way = {
+    val nodes = Array.fill(readSize(in))(in.getLong())
+    Way(id, ArraySeq.unsafeWrapArray(nodes), readTags(in), readMeta(in))
+  }
+
+  def decodeRelation(id: Long, in: ByteBuffer): Relation = {
+    val members = Vector.fill(readSize(in)) {
+      val code = in.get().toInt
+      if (code < 0 || code >= RelationMemberType.maxId)
+        throw OsmException(s"Invalid relation member type $code in record.")
+      RelationMember(in.getLong(), RelationMemberType(code), readString(in))
+    }
+    Relation(id, members, readTags(in), readMeta(in))
+  }
+
+  private def encode(write: DataOutputStream => Unit): Array[Byte] = {
+    val bytes = new ByteArrayOutputStream(64)
+    val out = new DataOutputStream(bytes)
+    write(out)
+    out.flush()
+    bytes.toByteArray
+  }
+
+  private def writeCommon(
+      out: DataOutputStream,
+      tags: Map[String, String],
+      metaInformation: Option[MetaInformation]
+  ): Unit = {
+    out.writeInt(tags.size)
+    tags.foreach { case (key, value) =>
+      writeString(out, key)
+      writeString(out, value)
+    }
+    metaInformation match {
+      case None => out.writeByte(0)
+      case Some(meta) =>
+        def flag(isDefined: Boolean, flag: Int): Int =
+          if (isDefined) flag else 0
+        out.writeByte(
+          MetaPresent |
+            flag(meta.version.isDefined, MetaVersion) |
+            flag(meta.timestamp.isDefined, MetaTimestamp) |
+            flag(meta.changeSet.isDefined, MetaChangeSet) |
+            flag(meta.userId.isDefined, MetaUserId) |
+            flag(meta.userName.isDefined, MetaUserName) |
+            flag(meta.visible.isDefined, MetaVisible) |
+            flag(meta.visible.contains(true), MetaVisibleValue)
+        )
+        meta.version.foreach(out.writeInt)
+        meta.timestamp.foreach { timestamp =>
+          out.writeLong(timestamp.getEpochSecond)
+          out.writeInt(timestamp.getNano)
+        }
+        meta.changeSet.foreach(out.writeLong)
+        meta.userId.foreach(out.writeInt)
+        meta.userName.foreach(writeString(out, _))
+    }
+  }
+
+  private def writeString(out: DataOutputStream, string: String): Unit = {
+    val bytes = string.getBytes(StandardCharsets.UTF_8)
+    out.writeInt(bytes.length)
+    out.write(bytes)
+  }
+
+  private def readSize(in: ByteBuffer): Int = {
+    val size = in.getInt()
+    if (size < 0 || size > in.remaining())
+      throw OsmException(s"Malformed record: invalid size $size.")
+    size
+  }
+
+  private def readString(in: ByteBuffer): String = {
+    val bytes = new Array[Byte](readSize(in))
+    in.get(bytes)
+    new String(bytes, StandardCharsets.UTF_8)
+  }
+
+  private def readTags(in: ByteBuffer): Map[String, String] = {
+    val count = readSize(in)
+    if (count == 0) Map.empty
+    else {
+      val tags = Map.newBuilder[String, String]
+      var idx = 0
+      while (idx < count) {
+        tags += readString(in) -> readString(in)
+        idx += 1
+      }
+      tags.result()
+    }
+  }
+
+  private def readMeta(in: ByteBuffer): Option[MetaInformation] = {
+    val flags = in.get() & 0xff
+    def ifSet[T](flag: Int)(read: => T): Option[T] =
+      if ((flags & flag) != 0) Some(read) else None
+    Option.when((flags & MetaPresent) != 0)(
+      MetaInformation(
+        ifSet(MetaVersion)(in.getInt()),
+        ifSet(MetaTimestamp)(Instant.ofEpochSecond(in.getLong(), in.getInt())),
+        ifSet(MetaChangeSet)(in.getLong()),
+        ifSet(MetaUserId)(in.getInt()),
+        ifSet(MetaUserName)(readString(in)),
+        ifSet(MetaVisible)((flags & MetaVisibleValue) != 0)
+      )
+    )
+  }
+}
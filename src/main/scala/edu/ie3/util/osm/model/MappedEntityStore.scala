@@ -0,0 +1,450 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.exceptions.OsmException
+
+import java.io.{
+  BufferedInputStream,
+  BufferedOutputStream,
+  DataInputStream,
+  DataOutputStream
+}
+import java.nio.channels.FileChannel
+import java.nio.file.{Files, Path, StandardOpenOption}
+import java.nio.charset.StandardCharsets
+import java.nio.{ByteBuffer, MappedByteBuffer}
+import java.util.concurrent.Executor
+import java.util.concurrent.atomic.LongAdder
+import scala.collection.immutable.ArraySeq
+import scala.collection.mutable
+
+/** Entities of one type, that are stored on disk sorted by id and read through
+  * memory mapped files. The index file holds the pairs of id and record offset
+  * as fixed-width longs, so that an id is looked up by a binary search on the
+  * mapped file. The data file holds the length prefixed records encoded by
+  * [[MappedEntityCodec]]. Recently requested entities are kept in a bounded hot
+  * set on heap.
+  *
+  * @param index
+  *   the mapped index file
+  * @param data
+  *   the mapped data file
+  * @param decode
+  *   decoding of a record given the id of the entity
+  * @param hotSet
+  *   the configuration of the hot set
+  * @tparam E
+  *   type of the stored entities
+  */
+private[osm] final class MappedEntityStore[E <: OsmEntity](
+    index: MappedEntityStore.MappedRegion,
+    data: MappedEntityStore.MappedRegion,
+    decode: (Long, ByteBuffer) => E,
+    hotSet: CacheConfig
+) extends AutoCloseable {
+
+  import MappedEntityStore._
+
+  // evictions are applied by the requesting thread instead of asynchronously,
+  // so that the hot set never outgrows its bound
+  private val cache = new EntityCache[E](hotSet, _ => 1, Some(SameThread))
+  private val recordReads = new LongAdder
+
+  val size: Long = index.size / IndexEntryBytes
+
+  def idAt(position: Long): Long = index.getLong(position * IndexEntryBytes)
+
+  /** @return
+    *   the position of the id in the index or `-(insertion point) - 1`, if it
+    *   is not contained, just like [[java.util.Arrays.binarySearch]]
+    */
+  private def search(id: Long, from: Long): Long = {
+    var low = from
+    var high = size - 1
+    while (low <= high) {
+      val mid = (low + high) >>> 1
+      val midId = idAt(mid)
+      if (midId < id) low = mid + 1
+      else if (midId > id) high = mid - 1
+      else return mid
+    }
+    -(low + 1)
+  }
+
+  private def read(position: Long): E = {
+    recordReads.increment()
+    val offset = index.getLong(position * IndexEntryBytes + 8)
+    val length = data.getInt(offset)
+    decode(idAt(position), ByteBuffer.wrap(data.getBytes(offset + 4, length)))
+  }
+
+  def contains(id: Long): Boolean =
+    cache.peek(id).isDefined || search(id, 0) >= 0
+
+  def get(id: Long): Option[E] =
+    cache.getOrCompute(id) {
+      val position = search(id, 0)
+      Option.when(position >= 0)(read(position))
+    }
+
+  /** Looks up the entities in the order of their ids, so that the index and the
+    * data file are read front to back. Every search starts at the position of
+    * the previous one.
+    *
+    * @param ids
+    *   the ids of interest in arbitrary order
+    * @return
+    *   the entities in the order of the given ids
+    */
+  def getAll(ids: Seq[Long]): Seq[Option[E]] = {
+    val idArray = ids.toArray
+    val order = idArray.indices.sortBy(idArray(_))
+    val result = new Array[Option[E]](idArray.length)
+    var from = 0L
+    order.foreach { idx =>
+      val id = idArray(idx)
+      result(idx) = cache.getOrCompute(id) {
+        val position = search(id, from)
+        if (position >= 0) {
+          from = position
+          Some(read(position))
+        } else {
+          from = -position - 1
+          None
+        }
+      }
+    }
+    ArraySeq.unsafeWrapArray(result)
+  }
+
+  /** @return
+    *   all entities in the order of their ids, that are read sequentially
+    *   without passing the hot set
+    */
+  def iterator: Iterator[E] =
+    Iterator.range(0L, size).map(read)
+
+  /** @return
+    *   the statistics of the hot set
+    */
+  def hotSetStatistics: CacheStatistics = cache.statistics
+
+  /** @return
+    *   the number of records, that have been read from the data file
+    */
+  def reads: Long = recordReads.sum()
+
+  private[model] def hotSetEntries: Iterator[E] = cache.values
+
+  override def close(): Unit = {
+    index.close()
+    data.close()
+  }
+}
+
+private[osm] object MappedEntityStore {
+
+  private val Magic = "OSMMAPPD".getBytes(StandardCharsets.US_ASCII)
+
+  /** Current version of the data files. Stores of other versions are rejected.
+    */
+  private val Version = 1
+
+  private val HeaderBytes = Magic.length + 4L
+
+  private val IndexEntryBytes = 16L
+
+  private val SameThread: Executor = (task: Runnable) => task.run()
+
+  val DefaultSegmentSize: Long = 1L << 30
+
+  val DefaultRunEntries: Int = 1 << 20
+
+  private def indexFile(directory: Path, name: String): Path =
+    directory.resolve(s"$name.idx")
+
+  private def dataFile(directory: Path, name: String): Path =
+    directory.resolve(s"$name.dat")
+
+  /** Opens the store with the given name in the directory
+    *
+    * @param directory
+    *   the directory holding the files of the store
+    * @param name
+    *   the name of the store
+    * @param decode
+    *   decoding of a record given the id of the entity
+    * @param hotSet
+    *   the configuration of the hot set
+    * @param segmentSize
+    *   the maximum number of bytes, that are mapped at once
+    * @return
+    *   the opened store
+    */
+  private[model] def open[E <: OsmEntity](
+      directory: Path,
+      name: String,
+      decode: (Long, ByteBuffer) => E,
+      hotSet: CacheConfig,
+      segmentSize: Long
+  ): MappedEntityStore[E] = {
+    val index = MappedRegion(indexFile(directory, name), segmentSize)
+    val data =
+      try MappedRegion(dataFile(directory, name), segmentSize)
+      catch {
+        case e: Exception =>
+          index.close()
+          throw e
+      }
+    val isStore = data.size >= HeaderBytes &&
+      data.getBytes(0, Magic.length).sameElements(Magic)
+    val version = if (isStore) data.getInt(Magic.length) else -1
+    if (!isStore || version != Version || index.size % IndexEntryBytes != 0) {
+      index.close()
+      data.close()
+      throw OsmException(
+        s"The files of '$name' in '$directory' are no mapped entity store of version $Version."
+      )
+    }
+    new MappedEntityStore[E](index, data, decode, hotSet)
+  }
+
+  /** Writes the records of a store. Records are appended to the data file in
+    * the order they are added. As long as the ids ascend, as they do in sorted
+    * extracts, the index is written straight away. Otherwise, the index entries
+    * are sorted in runs of bounded size, that are merged when the writer is
+    * closed. If an id is added several times, the last record wins.
+    *
+    * @param directory
+    *   the directory holding the files of the store
+    * @param name
+    *   the name of the store
+    * @param runEntries
+    *   the maximum number of index entries, that are sorted on heap at once
+    */
+  private[model] final class Writer(
+      directory: Path,
+      name: String,
+      runEntries: Int = DefaultRunEntries
+  ) extends AutoCloseable {
+    require(runEntries > 0, "The number of entries per run has to be positive.")
+
+    private var index = output(indexFile(directory, name))
+    private val data = output(dataFile(directory, name))
+    data.write(Magic)
+    data.writeInt(Version)
+
+    private var dataSize = HeaderBytes
+    private var pending = false
+    private var pendingId = 0L
+    private var pendingOffset = 0L
+
+    // index entries, that did not arrive in order
+    private var isSorted = true
+    private val runs = mutable.ArrayBuffer.empty[Path]
+    private val runIds = new Array[Long](runEntries)
+    private val runOffsets = new Array[Long](runEntries)
+    private var runSize = 0
+
+    def add(id: Long, record: Array[Byte]): Unit = {
+      val offset = dataSize
+      data.writeInt(record.length)
+      data.write(record)
+      dataSize += 4L + record.length
+
+      if (isSorted && pending && id < pendingId) {
+        // the entries written so far form the first sorted run
+        flushPending()
+        index.close()
+        val run = runFile(0)
+        Files.move(indexFile(directory, name), run)
+        runs += run
+        isSorted = false
+      }
+      if (isSorted) {
+        if (pending && id != pendingId) flushPending()
+        pending = true
+        pendingId = id
+        pendingOffset = offset
+      } else {
+        runIds(runSize) = id
+        runOffsets(runSize) = offset
+        runSize += 1
+        if (runSize == runEntries) writeRun()
+      }
+    }
+
+    private def flushPending(): Unit = {
+      index.writeLong(pendingId)
+      index.writeLong(pendingOffset)
+    }
+
+    private def runFile(idx: Int): Path =
+      directory.resolve(s"$name.idx.run$idx")
+
+    /** Sorts the collected entries by id and writes them as a run. Of several
+      * entries of an id, the one with the highest offset, that was added last,
+      * is kept.
+      */
+    private def writeRun(): Unit = {
+      val order = Array.range(0, runSize).sortBy(idx => runIds(idx))
+      val run = runFile(runs.size)
+      val out = output(run)
+      try
+        order.indices.foreach { position =>
+          val idx = order(position)
+          val isLast = position == order.length - 1 ||
+            runIds(order(position + 1)) != runIds(idx)
+          // stable sorting keeps the entries of an id in the order of adding
+          if (isLast) {
+            out.writeLong(runIds(idx))
+            out.writeLong(runOffsets(idx))
+          }
+        }
+      finally out.close()
+      runs += run
+      runSize = 0
+    }
+
+    /** Merges the sorted runs into the index file
+      */
+    private def mergeRuns(): Unit = {
+      val inputs = runs.map(run =>
+        new DataInputStream(
+          new BufferedInputStream(Files.newInputStream(run), 1 << 16)
+        )
+      )
+      try {
+        val remaining = runs.map(run => Files.size(run) / IndexEntryBytes)
+        val smallestFirst = Ordering
+          .by[(Long, Long, Int), (Long, Long)] { case (id, offset, _) =>
+            (id, offset)
+          }
+          .reverse
+        val heads =
+          mutable.PriorityQueue.empty[(Long, Long, Int)](using smallestFirst)
+        def advance(run: Int): Unit =
+          if (remaining(run) > 0) {
+            remaining(run) -= 1
+            heads.enqueue(
+              (inputs(run).readLong(), inputs(run).readLong(), run)
+            )
+          }
+        inputs.indices.foreach(advance)
+
+        index = output(indexFile(directory, name))
+        while (heads.nonEmpty) {
+          val (id, offset, run) = heads.dequeue()
+          advance(run)
+          // entries of the same id are dequeued by ascending offset
+          if (heads.isEmpty || heads.head._1 != id) {
+            index.writeLong(id)
+            index.writeLong(offset)
+          }
+        }
+      } finally inputs.foreach(_.close())
+      runs.foreach(Files.delete)
+    }
+
+    override def close(): Unit =
+      try {
+        if (isSorted) {
+          if (pending) flushPending()
+        } else {
+          if (runSize > 0) writeRun()
+          mergeRuns()
+        }
+      } finally {
+        try index.close()
+        finally data.close()
+      }
+  }
+
+  private def output(file: Path): DataOutputStream =
+    new DataOutputStream(
+      new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)
+    )
+
+  /** Read-only file, that is mapped in segments, as a single mapping is limited
+    * to 2 GiB. Values crossing the border of two segments are assembled from
+    * both of them. All reads are absolute, so that the region can be read
+    * concurrently.
+    */
+  private[model] final class MappedRegion private (
+      channel: FileChannel,
+      segmentSize: Long
+  ) extends AutoCloseable {
+
+    val size: Long = channel.size()
+
+    private val segments: Array[MappedByteBuffer] =
+      Array.tabulate(((size + segmentSize - 1) / segmentSize).toInt) { idx =>
+        val start = idx * segmentSize
+        channel.map(
+          FileChannel.MapMode.READ_ONLY,
+          start,
+          math.min(segmentSize, size - start)
+        )
+      }
+
+    private def checkBounds(position: Long, length: Int): Unit =
+      if (position < 0 || length < 0 || position + length > size)
+        throw OsmException(
+          s"Malformed mapped file: $length bytes at $position exceed its size of $size bytes."
+        )
+
+    def getLong(position: Long): Long = {
+      checkBounds(position, 8)
+      val offset = position % segmentSize
+      if (offset + 8 <= segmentSize)
+        segments((position / segmentSize).toInt).getLong(offset.toInt)
+      else ByteBuffer.wrap(getBytes(position, 8)).getLong
+    }
+
+    def getInt(position: Long): Int = {
+      checkBounds(position, 4)
+      val offset = position % segmentSize
+      if (offset + 4 <= segmentSize)
+        segments((position / segmentSize).toInt).getInt(offset.toInt)
+      else ByteBuffer.wrap(getBytes(position, 4)).getInt
+    }
+
+    def getBytes(position: Long, length: Int): Array[Byte] = {
+      checkBounds(position, length)
+      val bytes = new Array[Byte](length)
+      var copied = 0
+      while (copied < length) {
+        val current = position + copied
+        val offset = (current % segmentSize).toInt
+        val chunk = math.min(length - copied, segmentSize - offset).toInt
+        segments((current / segmentSize).toInt).get(
+          offset,
+          bytes,
+          copied,
+          chunk
+        )
+        copied += chunk
+      }
+      bytes
+    }
+
+    override def close(): Unit = channel.close()
+  }
+
+  private[model] object MappedRegion {
+    def apply(file: Path, segmentSize: Long): MappedRegion = {
+      require(segmentSize > 0, "The segment size has to be positive.")
+      val channel = FileChannel.open(file, StandardOpenOption.READ)
+      try new MappedRegion(channel, segmentSize)
+      catch {
+        case e: Exception =>
+          channel.close()
+          throw e
+      }
+    }
+  }
+}
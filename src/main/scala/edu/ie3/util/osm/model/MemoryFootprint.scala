@@ -0,0 +1,215 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.osm.model.OsmContainer.{
+  MappedOsmContainer,
+  ParOsmContainer,
+  PrimitiveOsmContainer,
+  SeqOsmContainer
+}
+import edu.ie3.util.osm.model.OsmEntity.{MetaInformation, Node, Relation, Way}
+
+import scala.collection.immutable.ArraySeq
+
+/** Estimated retained bytes of the entities of an [[OsmContainer]] per
+  * category, e.g. to size the heap for an extract. The estimate assumes a
+  * 64-bit JVM with compressed references and counts every referenced string
+  * once per reference, hence strings shared between entities are overestimated.
+  * Caches are not included. Of a [[MappedOsmContainer]], only the entities of
+  * the hot set are retained on heap and estimated.
+  *
+  * @param nodes
+  *   bytes of the nodes without their tags and meta information
+  * @param ways
+  *   bytes of the ways including their node ids
+  * @param relations
+  *   bytes of the relations including their members
+  * @param tags
+  *   bytes of the tags of all entities including the tag dictionary
+  * @param metaInformation
+  *   bytes of the meta information of all entities
+  */
+final case class MemoryFootprint(
+    nodes: Long,
+    ways: Long,
+    relations: Long,
+    tags: Long,
+    metaInformation: Long
+) {
+
+  def total: Long = nodes + ways + relations + tags + metaInformation
+
+}
+
+object MemoryFootprint {
+
+  private val Header = 12L
+  private val Reference = 4L
+  // boxed primitives as well as Some instances
+  private val Wrapper = 16L
+  // entry of an immutable hash map including its boxed key
+  private val MapEntry = 32L
+  // entry of a parallel hash map, which holds one trie node per entry
+  private val ParMapEntry = 56L
+  // key and value reference of a SortedLongMap entry
+  private val SortedEntry = 8L + Reference
+
+  // id, coordinates, tags, meta information and the lazy point
+  private val NodeBytes = aligned(Header + 3 * 8 + 3 * Reference + 1)
+  private val WayBytes = aligned(Header + 8 + 3 * Reference)
+  private val RelationBytes = aligned(Header + 8 + 3 * Reference)
+  private val MemberBytes = aligned(Header + 8 + 2 * Reference)
+  private val MetaInformationBytes = aligned(Header + 6 * Reference)
+
+  /** Estimates the footprint of the given container in one pass over all
+    * entities
+    */
+  def estimate(container: OsmContainer): MemoryFootprint = container match {
+    case SeqOsmContainer(nodes, ways, relations) =>
+      ofEntities(
+        nodes.valuesIterator,
+        ways.valuesIterator,
+        relations.valuesIterator,
+        MapEntry
+      )
+    case ParOsmContainer(nodes, ways, relations) =>
+      ofEntities(
+        nodes.valuesIterator,
+        ways.valuesIterator,
+        relations.valuesIterator,
+        ParMapEntry
+      )
+    case container: PrimitiveOsmContainer =>
+      ofPrimitive(container)
+    case container: MappedOsmContainer =>
+      ofEntities(
+        container.nodeStore.hotSetEntries,
+        container.wayStore.hotSetEntries,
+        container.relationStore.hotSetEntries,
+        MapEntry
+      )
+  }
+
+  private def ofEntities(
+      nodes: Iterator[Node],
+      ways: Iterator[Way],
+      relations: Iterator[Relation],
+      entryBytes: Long
+  ): MemoryFootprint = {
+    var tagBytes = 0L
+    var metaBytes = 0L
+    def count(entity: OsmEntity): Unit = {
+      tagBytes += tagMap(entity.tags)
+      metaBytes += entity.metaInformation
+        .map(Wrapper + metaInformation(_))
+        .getOrElse(0L)
+    }
+
+    var nodeBytes = 0L
+    nodes.foreach { node =>
+      nodeBytes += entryBytes + NodeBytes
+      count(node)
+    }
+    var wayBytes = 0L
+    ways.foreach { way =>
+      wayBytes += entryBytes + WayBytes + nodeIds(way.nodes)
+      count(way)
+    }
+    var relationBytes = 0L
+    relations.foreach { relation =>
+      relationBytes += entryBytes + RelationBytes + members(relation)
+      count(relation)
+    }
+    MemoryFootprint(nodeBytes, wayBytes, relationBytes, tagBytes, metaBytes)
+  }
+
+  private def ofPrimitive(container: PrimitiveOsmContainer): MemoryFootprint = {
+    val nodes = container.nodes
+    val dictionary = nodes.tagDictionary
+    // codes, strings and the entries of the lookup map
+    var tagBytes = (0 until dictionary.size).foldLeft(0L) { (bytes, code) =>
+      bytes + Reference + string(dictionary.string(code)) + Wrapper + 32
+    }
+    nodes.taggedNodeIds.foreach { nodeId =>
+      tagBytes += SortedEntry + nodes
+        .compactTags(nodeId)
+        .map(tags => Wrapper + array(2 * tags.size, 4))
+        .getOrElse(0L)
+    }
+    var metaBytes = nodes.metaInformationIterator.foldLeft(0L) {
+      case (bytes, (_, meta)) =>
+        bytes + SortedEntry + metaInformation(meta)
+    }
+    def count(entity: OsmEntity): Unit = {
+      tagBytes += tagMap(entity.tags)
+      metaBytes += entity.metaInformation
+        .map(Wrapper + metaInformation(_))
+        .getOrElse(0L)
+    }
+
+    var wayBytes = 0L
+    container.ways.valuesIterator.foreach { way =>
+      wayBytes += SortedEntry + WayBytes + nodeIds(way.nodes)
+      count(way)
+    }
+    var relationBytes = 0L
+    container.relations.valuesIterator.foreach { relation =>
+      relationBytes += SortedEntry + RelationBytes + members(relation)
+      count(relation)
+    }
+    MemoryFootprint(
+      3 * array(nodes.size, 8),
+      wayBytes,
+      relationBytes,
+      tagBytes,
+      metaBytes
+    )
+  }
+
+  private def nodeIds(nodes: Seq[Long]): Long = nodes match {
+    case primitive: ArraySeq.ofLong =>
+      Wrapper + array(primitive.length, 8)
+    case _ =>
+      // e.g. the cells of a list with the boxed ids
+      nodes.size * (Wrapper + Wrapper)
+  }
+
+  private def members(relation: Relation): Long =
+    Wrapper + array(relation.members.size, Reference) +
+      relation.members.size * MemberBytes
+
+  private def tagMap(tags: Map[String, String]): Long = tags match {
+    case _ if tags.isEmpty => 0L
+    // the strings are held by the dictionary
+    case encoded: DictionaryTags =>
+      aligned(Header + 2 * Reference) + Wrapper + array(2 * encoded.size, 4)
+    case _ =>
+      // Map1 to Map4 hold their pairs in fields, larger maps are tries
+      val mapBytes =
+        if (tags.size <= 4) aligned(Header + 2 * Reference * tags.size)
+        else 32 + 16L * tags.size
+      tags.foldLeft(mapBytes) { case (bytes, (key, value)) =>
+        bytes + string(key) + string(value)
+      }
+  }
+
+  private def metaInformation(meta: MetaInformation): Long =
+    MetaInformationBytes +
+      meta.version.map(_ => Wrapper + Wrapper).getOrElse(0L) +
+      meta.timestamp.map(_ => Wrapper + 24).getOrElse(0L) +
+      meta.changeSet.map(_ => Wrapper + Wrapper).getOrElse(0L) +
+      meta.userId.map(_ => Wrapper + Wrapper).getOrElse(0L) +
+      meta.userName.map(Wrapper + string(_)).getOrElse(0L) +
+      meta.visible.map(_ => Wrapper).getOrElse(0L)
+
+  private def string(value: String): Long = 24 + array(value.length, 1)
+
+  private def array(length: Int, elementBytes: Long): Long =
+    aligned(16 + length * elementBytes)
+
+  private def aligned(bytes: Long): Long = (bytes + 7) & ~7L
+}
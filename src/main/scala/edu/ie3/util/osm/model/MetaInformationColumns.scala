@@ -0,0 +1,173 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.osm.model.OsmEntity.MetaInformation
+
+import java.time.Instant
+import scala.collection.mutable
+
+/** Columnar storage of [[MetaInformation]] by entity id. Every field is held in
+  * a primitive array with a sentinel for absent values and user names are
+  * stored once per distinct name, which takes less than a fifth of the memory
+  * of [[MetaInformation]] instances with their [[Option]] s, boxed values and
+  * [[Instant]] s. Instances are created on demand. Timestamps are split into
+  * epoch seconds and nanoseconds, so that they are kept without loss.
+  */
+final class MetaInformationColumns private (
+    private val ids: Array[Long], // strictly ascending
+    private val versions: Array[Int],
+    private val timestamps: Array[Long], // epoch seconds
+    private val timestampNanos: Array[Int],
+    private val changeSets: Array[Long],
+    private val userIds: Array[Int],
+    private val userNameCodes: Array[Int],
+    private val userNames: Array[String],
+    private val visibilities: Array[Byte]
+) {
+
+  import MetaInformationColumns._
+
+  def size: Int = ids.length
+
+  def isEmpty: Boolean = ids.isEmpty
+
+  def contains(entityId: Long): Boolean = indexOf(entityId) >= 0
+
+  def get(entityId: Long): Option[MetaInformation] = {
+    val idx = indexOf(entityId)
+    if (idx >= 0) Some(metaInformationAt(idx)) else None
+  }
+
+  def idIterator: Iterator[Long] = ids.iterator
+
+  def iterator: Iterator[(Long, MetaInformation)] =
+    Iterator.range(0, size).map(idx => ids(idx) -> metaInformationAt(idx))
+
+  private def indexOf(entityId: Long): Int =
+    java.util.Arrays.binarySearch(ids, entityId)
+
+  private def metaInformationAt(idx: Int): MetaInformation =
+    MetaInformation(
+      Option.when(versions(idx) != AbsentInt)(versions(idx)),
+      Option.when(timestamps(idx) != AbsentLong)(
+        Instant.ofEpochSecond(timestamps(idx), timestampNanos(idx))
+      ),
+      Option.when(changeSets(idx) != AbsentLong)(changeSets(idx)),
+      Option.when(userIds(idx) != AbsentInt)(userIds(idx)),
+      Option.when(userNameCodes(idx) >= 0)(userNames(userNameCodes(idx))),
+      visibilities(idx) match {
+        case Visible   => Some(true)
+        case Invisible => Some(false)
+        case _         => None
+      }
+    )
+
+  override def equals(obj: Any): Boolean = obj match {
+    case that: MetaInformationColumns =>
+      iterator.sameElements(that.iterator)
+    case _ => false
+  }
+
+  override def hashCode(): Int = java.util.Arrays.hashCode(ids)
+
+  override def toString: String =
+    s"MetaInformationColumns(size = $size, users = ${userNames.length})"
+}
+
+object MetaInformationColumns {
+
+  private val AbsentInt = Int.MinValue
+  private val AbsentLong = Long.MinValue
+  private val Invisible: Byte = 1
+  private val Visible: Byte = 2
+
+  val empty: MetaInformationColumns = newBuilder.result()
+
+  def from(
+      entries: IterableOnce[(Long, MetaInformation)]
+  ): MetaInformationColumns = {
+    val builder = newBuilder
+    entries.iterator.foreach { case (entityId, metaInformation) =>
+      builder.add(entityId, metaInformation)
+    }
+    builder.result()
+  }
+
+  def newBuilder: Builder = new Builder
+
+  /** Mutable builder for [[MetaInformationColumns]]. Entries may be added in
+    * any order. If an entity id is added several times, the last entry wins.
+    */
+  final class Builder private[MetaInformationColumns] {
+    private var ids = new Array[Long](16)
+    private var versions = new Array[Int](16)
+    private var timestamps = new Array[Long](16)
+    private var timestampNanos = new Array[Int](16)
+    private var changeSets = new Array[Long](16)
+    private var userIds = new Array[Int](16)
+    private var userNameCodes = new Array[Int](16)
+    private var visibilities = new Array[Byte](16)
+    private var count = 0
+    private val userNames = mutable.ArrayBuffer.empty[String]
+    private val userNameCode = mutable.HashMap.empty[String, Int]
+
+    def add(entityId: Long, metaInformation: MetaInformation): Builder = {
+      if (count == ids.length) {
+        val newLength = count + (count >> 1)
+        ids = java.util.Arrays.copyOf(ids, newLength)
+        versions = java.util.Arrays.copyOf(versions, newLength)
+        timestamps = java.util.Arrays.copyOf(timestamps, newLength)
+        timestampNanos = java.util.Arrays.copyOf(timestampNanos, newLength)
+        changeSets = java.util.Arrays.copyOf(changeSets, newLength)
+        userIds = java.util.Arrays.copyOf(userIds, newLength)
+        userNameCodes = java.util.Arrays.copyOf(userNameCodes, newLength)
+        visibilities = java.util.Arrays.copyOf(visibilities, newLength)
+      }
+      ids(count) = entityId
+      versions(count) = metaInformation.version.getOrElse(AbsentInt)
+      timestamps(count) =
+        metaInformation.timestamp.map(_.getEpochSecond).getOrElse(AbsentLong)
+      timestampNanos(count) =
+        metaInformation.timestamp.map(_.getNano).getOrElse(0)
+      changeSets(count) = metaInformation.changeSet.getOrElse(AbsentLong)
+      userIds(count) = metaInformation.userId.getOrElse(AbsentInt)
+      userNameCodes(count) = metaInformation.userName.map(code).getOrElse(-1)
+      visibilities(count) = metaInformation.visible match {
+        case Some(true)  => Visible
+        case Some(false) => Invisible
+        case None        => 0
+      }
+      count += 1
+      this
+    }
+
+    def size: Int = count
+
+    private def code(userName: String): Int =
+      userNameCode.getOrElseUpdate(
+        userName, {
+          userNames += userName
+          userNames.size - 1
+        }
+      )
+
+    def result(): MetaInformationColumns = {
+      val rows = PrimitiveArrays.distinctSortedIndices(ids, count)
+      new MetaInformationColumns(
+        rows.map(ids),
+        rows.map(versions),
+        rows.map(timestamps),
+        rows.map(timestampNanos),
+        rows.map(changeSets),
+        rows.map(userIds),
+        rows.map(userNameCodes),
+        userNames.toArray,
+        rows.map(visibilities)
+      )
+    }
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.osm.model.OsmEntity.{MetaInformation, Node, Relation, Way}
+
+/** Side store for the [[MetaInformation]] of a container, whose entities do not
+  * carry it themselves (see
+  * [[edu.ie3.util.osm.OsmContainerUtils.detachMetaInformation]]). The
+  * information of an entity is only created, when it is requested by its id.
+  *
+  * @param nodes
+  *   the meta information of the nodes
+  * @param ways
+  *   the meta information of the ways
+  * @param relations
+  *   the meta information of the relations
+  */
+final case class MetaInformationStore(
+    nodes: MetaInformationColumns,
+    ways: MetaInformationColumns,
+    relations: MetaInformationColumns
+) {
+
+  def size: Int = nodes.size + ways.size + relations.size
+
+  def node(nodeId: Long): Option[MetaInformation] = nodes.get(nodeId)
+
+  def way(wayId: Long): Option[MetaInformation] = ways.get(wayId)
+
+  def relation(relationId: Long): Option[MetaInformation] =
+    relations.get(relationId)
+
+  /** @return
+    *   the meta information of the given entity, which is looked up by the type
+    *   and id of the entity
+    */
+  def of(entity: OsmEntity): Option[MetaInformation] = entity match {
+    case _: Node     => node(entity.id)
+    case _: Way      => way(entity.id)
+    case _: Relation => relation(entity.id)
+  }
+}
+
+object MetaInformationStore {
+
+  val empty: MetaInformationStore = MetaInformationStore(
+    MetaInformationColumns.empty,
+    MetaInformationColumns.empty,
+    MetaInformationColumns.empty
+  )
+}
@@ -0,0 +1,199 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.exceptions.OsmException
+import edu.ie3.util.geo.GeoUtils
+import edu.ie3.util.osm.model.OsmEntity.Relation.RelationMemberType
+import edu.ie3.util.osm.model.OsmEntity.{Relation, Way}
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory
+import org.locationtech.jts.geom.{LinearRing, MultiPolygon}
+import org.locationtech.jts.index.strtree.STRtree
+
+import scala.collection.mutable
+import scala.collection.parallel.CollectionConverters._
+import scala.jdk.CollectionConverters._
+import scala.util.Try
+
+/** Trait to be used for [[OsmContainer]] instances to assemble the areas of
+  * relations tagged `type=multipolygon`. The member ways are stitched into
+  * rings by matching their end nodes through a hash map, so that assembly is
+  * linear in the number of member ways. Inner rings are assigned to the
+  * smallest outer ring covering them, that is found through a spatial index.
+  */
+trait MultipolygonSupport extends RelationEntitiesSupport {
+
+  /** Assembles the area of the given multipolygon relation. Way members with
+    * the role `outer` or without role form the shells, way members with the
+    * role `inner` the holes. Other members are ignored.
+    *
+    * @param relationId
+    *   the identifier of the relation of interest
+    * @return
+    *   the area or a failure, if the relation is no multipolygon, members are
+    *   not available or the rings cannot be closed
+    */
+  def multiPolygon(relationId: Long): Try[MultiPolygon] = Try {
+    val relation = _getRelation(relationId).getOrElse(
+      throw OsmException(s"Relation $relationId is not available.")
+    )
+    if (!MultipolygonSupport.isMultipolygon(relation))
+      throw OsmException(s"Relation $relationId is no multipolygon.")
+    val ways = relationEntities(relationId).map(_.ways).getOrElse(Map.empty)
+
+    val (outerWays, innerWays) = relation.members
+      .filter(_.relationType == RelationMemberType.Way)
+      .filter(member => MultipolygonSupport.Roles.contains(member.role))
+      .map { member =>
+        member.role -> ways.getOrElse(
+          member.id,
+          throw OsmException(
+            s"Way ${member.id} of multipolygon relation $relationId is not available."
+          )
+        )
+      }
+      .partition { case (role, _) => role != MultipolygonSupport.InnerRole }
+
+    val shells = stitchRings(relationId, outerWays.map(_._2))
+    if (shells.isEmpty)
+      throw OsmException(
+        s"Multipolygon relation $relationId has no outer ring."
+      )
+    assemble(relationId, shells, stitchRings(relationId, innerWays.map(_._2)))
+  }
+
+  /** Assembles the areas of all multipolygon relations of the container in
+    * parallel
+    *
+    * @return
+    *   the area or the failure of each multipolygon relation by its id
+    */
+  def multiPolygons(): Map[Long, Try[MultiPolygon]] =
+    _allRelations
+      .filter(MultipolygonSupport.isMultipolygon)
+      .map(_.id)
+      .toArray
+      .par
+      .map(relationId => relationId -> multiPolygon(relationId))
+      .seq
+      .toMap
+
+  /** Stitches the given ways into closed rings. Closed ways form a ring on
+    * their own, open ways are appended to each other, wherever the last node of
+    * the ring matches one of their end nodes.
+    */
+  private def stitchRings(
+      relationId: Long,
+      ways: Seq[Way]
+  ): Seq[LinearRing] = {
+    val (closedWays, openWays) = ways.toIndexedSeq
+      .filter(_.nodes.nonEmpty)
+      .partition(way => Way.isClosedWay(way.nodes) && way.nodes.size > 1)
+
+    val endpoints = mutable.HashMap.empty[Long, List[Int]]
+    openWays.indices.foreach { idx =>
+      val nodes = openWays(idx).nodes
+      endpoints(nodes.head) = idx :: endpoints.getOrElse(nodes.head, Nil)
+      endpoints(nodes.last) = idx :: endpoints.getOrElse(nodes.last, Nil)
+    }
+    val used = new Array[Boolean](openWays.size)
+
+    val stitched = openWays.indices.iterator
+      .filterNot(used)
+      .map { start =>
+        used(start) = true
+        val ring = mutable.ArrayBuffer.from(openWays(start).nodes)
+        var next = nextWay(endpoints, used, ring.last)
+        while (ring.head != ring.last && next.isDefined) {
+          next.foreach { idx =>
+            used(idx) = true
+            val nodes = openWays(idx).nodes
+            if (nodes.head == ring.last) ring ++= nodes.iterator.drop(1)
+            else ring ++= nodes.reverseIterator.drop(1)
+          }
+          next = nextWay(endpoints, used, ring.last)
+        }
+        if (ring.head != ring.last)
+          throw OsmException(
+            s"Ring of multipolygon relation $relationId is not closed at node ${ring.last}."
+          )
+        ring.toSeq
+      }
+      .toSeq
+
+    (closedWays.map(_.nodes) ++ stitched).map(linearRing(relationId, _))
+  }
+
+  private def nextWay(
+      endpoints: mutable.HashMap[Long, List[Int]],
+      used: Array[Boolean],
+      nodeId: Long
+  ): Option[Int] =
+    endpoints.getOrElse(nodeId, Nil).find(!used(_))
+
+  private def linearRing(relationId: Long, nodeIds: Seq[Long]): LinearRing = {
+    val coordinates = nodeIds.map { nodeId =>
+      nodeCoordinate(nodeId).getOrElse(
+        throw OsmException(
+          s"Node $nodeId of multipolygon relation $relationId is not available."
+        )
+      )
+    }
+    GeoUtils.DEFAULT_GEOMETRY_FACTORY.createLinearRing(coordinates.toArray)
+  }
+
+  /** Assigns every hole to the smallest shell, that covers it
+    */
+  private def assemble(
+      relationId: Long,
+      shellRings: Seq[LinearRing],
+      holeRings: Seq[LinearRing]
+  ): MultiPolygon = {
+    val factory = GeoUtils.DEFAULT_GEOMETRY_FACTORY
+    val shells = shellRings.map(factory.createPolygon).sortBy(_.getArea)
+    val preparedShells = shells.map(PreparedGeometryFactory.prepare)
+    val index = new STRtree()
+    shells.indices.foreach(idx =>
+      index.insert(shells(idx).getEnvelopeInternal, idx)
+    )
+
+    val holes = Array.fill(shells.size)(mutable.ArrayBuffer.empty[LinearRing])
+    holeRings.foreach { hole =>
+      index
+        .query(hole.getEnvelopeInternal)
+        .asScala
+        .map(_.asInstanceOf[Int])
+        .sorted
+        .find(idx => preparedShells(idx).covers(hole)) match {
+        case Some(idx) => holes(idx) += hole
+        case None =>
+          throw OsmException(
+            s"Inner ring of multipolygon relation $relationId is not within any outer ring."
+          )
+      }
+    }
+
+    factory.createMultiPolygon(
+      shells.indices.map { idx =>
+        factory.createPolygon(
+          shells(idx).getExteriorRing,
+          holes(idx).toArray
+        )
+      }.toArray
+    )
+  }
+}
+
+object MultipolygonSupport {
+
+  private val InnerRole = "inner"
+
+  private val Roles = Set("outer", InnerRole, "")
+
+  def isMultipolygon(relation: Relation): Boolean =
+    relation.hasKeyValuePair("type", "multipolygon")
+
+}
@@ -0,0 +1,344 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.osm.model.OsmEntity.{MetaInformation, Node, Way}
+import org.locationtech.jts.geom.Coordinate
+
+/** Columnar storage of [[Node]] s. Most nodes of an OSM extract are untagged
+  * vertices of ways, hence only their id and position are held in primitive
+  * arrays. Tags and [[MetaInformation]] are kept in sparse side tables, that
+  * only contain entries for nodes actually having them. Tags are encoded by the
+  * [[tagDictionary]]. [[Node]] instances are created on demand, coordinates can
+  * be read without creating them.
+  */
+final class NodeColumns private (
+    private val ids: Array[Long], // strictly ascending
+    private val latitudes: Array[Double],
+    private val longitudes: Array[Double],
+    private val tags: SortedLongMap[CompactTags],
+    private val metaInformation: SortedLongMap[MetaInformation],
+    val tagDictionary: TagDictionary
+) {
+
+  def size: Int = ids.length
+
+  def isEmpty: Boolean = ids.isEmpty
+
+  /** Searches the column index of the given node id.
+    *
+    * @param nodeId
+    *   the node id to look for
+    * @return
+    *   the index of the node or a negative number, if it is not contained
+    */
+  def indexOf(nodeId: Long): Int =
+    java.util.Arrays.binarySearch(ids, nodeId)
+
+  def contains(nodeId: Long): Boolean = indexOf(nodeId) >= 0
+
+  def idAt(idx: Int): Long = ids(idx)
+
+  def latitudeAt(idx: Int): Double = latitudes(idx)
+
+  def longitudeAt(idx: Int): Double = longitudes(idx)
+
+  /** Creates a [[Node]] view of the column entry at the given index
+    */
+  def nodeAt(idx: Int): Node = {
+    val nodeId = ids(idx)
+    Node(
+      nodeId,
+      latitudes(idx),
+      longitudes(idx),
+      tags.get(nodeId).map(tagDictionary.view).getOrElse(Map.empty),
+      metaInformation.get(nodeId)
+    )
+  }
+
+  def node(nodeId: Long): Option[Node] = {
+    val idx = indexOf(nodeId)
+    if (idx >= 0) Some(nodeAt(idx)) else None
+  }
+
+  def coordinate(nodeId: Long): Option[Coordinate] = {
+    val idx = indexOf(nodeId)
+    if (idx >= 0) Some(new Coordinate(longitudes(idx), latitudes(idx)))
+    else None
+  }
+
+  /** Reads the coordinates of all given nodes without creating any [[Node]]
+    * instance.
+    *
+    * @param nodeIds
+    *   the ids of the nodes of interest
+    * @return
+    *   the coordinates in the order of the given ids or [[None]], if at least
+    *   one of the nodes is not contained
+    */
+  def coordinates(nodeIds: Seq[Long]): Option[Array[Coordinate]] =
+    coordinates(Way.nodeArray(nodeIds))
+
+  /** Reads the coordinates of all given nodes without boxing their ids
+    */
+  def coordinates(nodeIds: Array[Long]): Option[Array[Coordinate]] = {
+    val coordinates = new Array[Coordinate](nodeIds.length)
+    var pos = 0
+    while (pos < nodeIds.length) {
+      val idx = indexOf(nodeIds(pos))
+      if (idx < 0) return None
+      coordinates(pos) = new Coordinate(longitudes(idx), latitudes(idx))
+      pos += 1
+    }
+    Some(coordinates)
+  }
+
+  /** @return
+    *   the encoded tags of the given node or [[None]], if the node is untagged
+    *   or not contained
+    */
+  def compactTags(nodeId: Long): Option[CompactTags] = tags.get(nodeId)
+
+  /** @return
+    *   ids of all nodes, that carry at least one tag
+    */
+  def taggedNodeIds: Iterator[Long] = tags.keysIterator
+
+  /** Keeps the nodes at the given column indices. The encoded tags and the
+    * [[tagDictionary]] are shared with the result.
+    *
+    * @param indices
+    *   strictly ascending column indices
+    */
+  private[model] def select(indices: Array[Int]): NodeColumns = {
+    val selectedIds = indices.map(ids)
+    def selected[V](sparse: SortedLongMap[V]): SortedLongMap[V] = {
+      val builder = SortedLongMap.newBuilder[V]
+      if (sparse.nonEmpty)
+        selectedIds.foreach(id => sparse.get(id).foreach(builder.add(id, _)))
+      builder.result()
+    }
+    new NodeColumns(
+      selectedIds,
+      indices.map(latitudes),
+      indices.map(longitudes),
+      selected(tags),
+      selected(metaInformation),
+      tagDictionary
+    )
+  }
+
+  /** @return
+    *   the meta information of all nodes, that carry it, in id order
+    */
+  def metaInformationIterator: Iterator[(Long, MetaInformation)] =
+    metaInformation.iterator
+
+  /** Drops the [[MetaInformation]] of all nodes. The columns and the encoded
+    * tags are shared with the result.
+    */
+  def withoutMetaInformation: NodeColumns =
+    if (metaInformation.isEmpty) this
+    else
+      new NodeColumns(
+        ids,
+        latitudes,
+        longitudes,
+        tags,
+        SortedLongMap.empty,
+        tagDictionary
+      )
+
+  def idIterator: Iterator[Long] = ids.iterator
+
+  def nodesIterator: Iterator[Node] = Iterator.range(0, size).map(nodeAt)
+
+  def values: Iterable[Node] = new Iterable[Node] {
+    override def iterator: Iterator[Node] = nodesIterator
+    override def knownSize: Int = NodeColumns.this.size
+  }
+
+  /** Keeps the nodes with the accepted ids. The encoded tags and the
+    * [[tagDictionary]] are shared with the result.
+    */
+  def filterIds(keep: Long => Boolean): NodeColumns = {
+    val kept = ids.indices.filter(idx => keep(ids(idx))).toArray
+    new NodeColumns(
+      kept.map(ids),
+      kept.map(latitudes),
+      kept.map(longitudes),
+      tags.filterKeys(keep),
+      metaInformation.filterKeys(keep),
+      tagDictionary
+    )
+  }
+
+  /** Applies the given changes in time linear to the number of nodes. Nodes
+    * changed to [[None]] are removed. Tags of changed nodes are encoded by the
+    * [[tagDictionary]], that is shared with the result.
+    *
+    * @param changes
+    *   the new state of the changed nodes by id
+    * @return
+    *   the updated columns
+    */
+  def updated(changes: Map[Long, Option[Node]]): NodeColumns =
+    if (changes.isEmpty) this
+    else {
+      val changedIds = changes.keys.toArray.sorted
+      val changedNodes = changedIds.map(changes(_).orNull)
+      val sources = PrimitiveArrays.mergeChanges(
+        ids,
+        changedIds,
+        change => changedNodes(change) == null
+      )
+      new NodeColumns(
+        sources.map(src => if (src >= 0) ids(src) else changedIds(~src)),
+        sources.map(src =>
+          if (src >= 0) latitudes(src) else changedNodes(~src).latitude
+        ),
+        sources.map(src =>
+          if (src >= 0) longitudes(src) else changedNodes(~src).longitude
+        ),
+        tags.updated(changes.view.mapValues {
+          _.filter(_.tags.nonEmpty).map(node => tagDictionary.encode(node.tags))
+        }.toMap),
+        metaInformation.updated(
+          changes.view.mapValues(_.flatMap(_.metaInformation)).toMap
+        ),
+        tagDictionary
+      )
+    }
+
+  def toMap: Map[Long, Node] = nodesIterator.map(node => node.id -> node).toMap
+
+  override def equals(obj: Any): Boolean = obj match {
+    case that: NodeColumns =>
+      java.util.Arrays.equals(ids, that.ids) &&
+        java.util.Arrays.equals(latitudes, that.latitudes) &&
+        java.util.Arrays.equals(longitudes, that.longitudes) &&
+        decodedTags == that.decodedTags &&
+        metaInformation == that.metaInformation
+    case _ => false
+  }
+
+  override def hashCode(): Int =
+    31 * java.util.Arrays.hashCode(ids) + decodedTags.hashCode()
+
+  // codes of equal tags differ between dictionaries
+  private def decodedTags: SortedLongMap[Map[String, String]] =
+    tags.mapValues(tagDictionary.decode)
+
+  override def toString: String =
+    s"NodeColumns(size = $size, tagged = ${tags.size})"
+}
+
+object NodeColumns {
+
+  val empty: NodeColumns = newBuilder.result()
+
+  def from(nodes: IterableOnce[Node]): NodeColumns = {
+    val builder = newBuilder
+    nodes.iterator.foreach(builder.add)
+    builder.result()
+  }
+
+  def newBuilder: Builder = newBuilder(new TagDictionary)
+
+  /** @param tagDictionary
+    *   dictionary to encode the tags with, e.g. one shared by the whole extract
+    * @return
+    *   a builder, that encodes tags with the given dictionary
+    */
+  def newBuilder(tagDictionary: TagDictionary): Builder =
+    new Builder(tagDictionary)
+
+  /** Mutable builder for [[NodeColumns]]. Nodes may be added in any order. If a
+    * node id is added several times, the last node wins.
+    */
+  final class Builder private[NodeColumns] (tagDictionary: TagDictionary) {
+    private var ids = new Array[Long](16)
+    private var latitudes = new Array[Double](16)
+    private var longitudes = new Array[Double](16)
+    private var count = 0
+    // sparse side tables, keyed by the (ascending) row of the node
+    private val tags = new SparseRows[CompactTags]
+    private val metaInformation = new SparseRows[MetaInformation]
+
+    def add(node: Node): Builder =
+      add(
+        node.id,
+        node.latitude,
+        node.longitude,
+        node.tags,
+        node.metaInformation
+      )
+
+    def add(
+        nodeId: Long,
+        latitude: Double,
+        longitude: Double,
+        tags: Map[String, String] = Map.empty,
+        metaInformation: Option[MetaInformation] = None
+    ): Builder = {
+      if (count == ids.length) {
+        val newLength = count + (count >> 1)
+        ids = java.util.Arrays.copyOf(ids, newLength)
+        latitudes = java.util.Arrays.copyOf(latitudes, newLength)
+        longitudes = java.util.Arrays.copyOf(longitudes, newLength)
+      }
+      ids(count) = nodeId
+      latitudes(count) = latitude
+      longitudes(count) = longitude
+      if (tags.nonEmpty) this.tags.add(count, tagDictionary.encode(tags))
+      metaInformation.foreach(this.metaInformation.add(count, _))
+      count += 1
+      this
+    }
+
+    def size: Int = count
+
+    def result(): NodeColumns = {
+      val rows = PrimitiveArrays.distinctSortedIndices(ids, count)
+      new NodeColumns(
+        rows.map(ids),
+        rows.map(latitudes),
+        rows.map(longitudes),
+        tags.result(rows, ids),
+        metaInformation.result(rows, ids),
+        tagDictionary
+      )
+    }
+  }
+
+  private final class SparseRows[V] {
+    private var rows = new Array[Int](16)
+    private var values = new Array[AnyRef](16)
+    private var count = 0
+
+    def add(row: Int, value: V): Unit = {
+      if (count == rows.length) {
+        val newLength = count + (count >> 1)
+        rows = java.util.Arrays.copyOf(rows, newLength)
+        values = java.util.Arrays.copyOf(values, newLength)
+      }
+      rows(count) = row
+      values(count) = value.asInstanceOf[AnyRef]
+      count += 1
+    }
+
+    /** Keep the values of the given rows only and key them by their node id
+      */
+    def result(keptRows: Array[Int], ids: Array[Long]): SortedLongMap[V] = {
+      val builder = SortedLongMap.newBuilder[V]
+      keptRows.foreach { row =>
+        val idx = java.util.Arrays.binarySearch(rows, 0, count, row)
+        if (idx >= 0) builder.add(ids(row), values(idx).asInstanceOf[V])
+      }
+      builder.result()
+    }
+  }
+}
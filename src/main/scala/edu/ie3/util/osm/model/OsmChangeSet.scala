@@ -0,0 +1,95 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.osm.model.OsmEntity.Relation.RelationMemberType
+import edu.ie3.util.osm.model.OsmEntity.{Node, Relation, Way}
+
+import scala.collection.mutable
+
+/** The net effect of an OSM change file (.osc) per entity, e.g. of a daily
+  * diff. Created and modified entities are mapped to their new state, deleted
+  * entities to [[None]]. Apply it via [[OsmContainer.applyChanges]].
+  *
+  * @param nodes
+  *   the new state of the changed nodes by id
+  * @param ways
+  *   the new state of the changed ways by id
+  * @param relations
+  *   the new state of the changed relations by id
+  */
+final case class OsmChangeSet(
+    nodes: Map[Long, Option[Node]],
+    ways: Map[Long, Option[Way]],
+    relations: Map[Long, Option[Relation]]
+) {
+
+  def isEmpty: Boolean = nodes.isEmpty && ways.isEmpty && relations.isEmpty
+
+  def size: Int = nodes.size + ways.size + relations.size
+
+  /** @return
+    *   whether or not the given way itself or one of its nodes is changed
+    */
+  private[model] def affects(way: Way): Boolean =
+    ways.contains(way.id) || way.nodes.exists(nodes.contains)
+
+  /** @return
+    *   whether or not the given relation itself or one of its members is
+    *   changed
+    */
+  private[model] def affects(relation: Relation): Boolean =
+    relations.contains(relation.id) || relation.members.exists { member =>
+      member.relationType match {
+        case RelationMemberType.Node     => nodes.contains(member.id)
+        case RelationMemberType.Way      => ways.contains(member.id)
+        case RelationMemberType.Relation => relations.contains(member.id)
+        case _                           => false
+      }
+    }
+}
+
+object OsmChangeSet {
+
+  val empty: OsmChangeSet = OsmChangeSet(Map.empty, Map.empty, Map.empty)
+
+  def newBuilder: Builder = new Builder
+
+  /** Mutable builder for [[OsmChangeSet]] s. Operations are to be added in file
+    * order, so that the last operation on an entity determines its state.
+    */
+  final class Builder private[OsmChangeSet] {
+    private val nodes = mutable.HashMap.empty[Long, Option[Node]]
+    private val ways = mutable.HashMap.empty[Long, Option[Way]]
+    private val relations =
+      mutable.HashMap.empty[Long, Option[Relation]]
+
+    /** Adds a created or modified entity
+      */
+    def put(entity: OsmEntity): Builder = {
+      entity match {
+        case node: Node         => nodes(node.id) = Some(node)
+        case way: Way           => ways(way.id) = Some(way)
+        case relation: Relation => relations(relation.id) = Some(relation)
+      }
+      this
+    }
+
+    /** Adds a deleted entity
+      */
+    def delete(entity: OsmEntity): Builder = {
+      entity match {
+        case node: Node         => nodes(node.id) = None
+        case way: Way           => ways(way.id) = None
+        case relation: Relation => relations(relation.id) = None
+      }
+      this
+    }
+
+    def result(): OsmChangeSet =
+      OsmChangeSet(nodes.toMap, ways.toMap, relations.toMap)
+  }
+}
@@ -5,11 +5,19 @@
 */
 package edu.ie3.util.osm.model
 
-import edu.ie3.util.osm.model.OsmContainer.{ParOsmContainer, SeqOsmContainer}
+import edu.ie3.util.osm.model.OsmContainer.{
+  ParOsmContainer,
+  PrimitiveOsmContainer,
+  SeqOsmContainer
+}
 import edu.ie3.util.osm.model.OsmEntity.{Node, Relation, Way}
 
+import org.locationtech.jts.geom.Coordinate
+
+import java.nio.file.{Files, Path}
 import scala.collection.parallel.CollectionConverters._
 import scala.collection.parallel.immutable.{ParMap, ParSeq}
+import scala.util.Try
 
 /** A container entity holding all entities (nodes, ways, relations) related to
   * OpenStreetMap data. This container class is intended to represent an area of
@@ -33,10 +41,53 @@ sealed trait OsmContainer {
 
   def seq(): SeqOsmContainer
 
+  /** Applies the changes of e.g. a daily OSM diff. Unchanged entities are
+    * shared with the resulting container of the same type. Cached way nodes,
+    * way polygons and relation entities, that are not affected by the changes,
+    * are taken over as well.
+    *
+    * @param changes
+    *   the changes to apply, e.g. read by
+    *   [[edu.ie3.util.osm.io.OsmChangeReader]]
+    * @return
+    *   the updated container
+    */
+  def applyChanges(changes: OsmChangeSet): OsmContainer
+
+  /** @return
+    *   the entity counts, cache statistics and computation times of this
+    *   container, which are only read from counters
+    */
+  def statistics: OsmContainerStatistics = OsmContainerStatistics(this)
+
+  /** Estimates the retained bytes of the entities by category, which takes one
+    * pass over all of them
+    */
+  def estimateMemoryFootprint(): MemoryFootprint =
+    MemoryFootprint.estimate(this)
+
 }
 
 object OsmContainer {
 
+  private def updated[V](
+      entities: Map[Long, V],
+      changes: Map[Long, Option[V]]
+  ): Map[Long, V] =
+    changes.foldLeft(entities) {
+      case (entities, (id, Some(entity))) => entities.updated(id, entity)
+      case (entities, (id, None))         => entities - id
+    }
+
+  private def updated[V](
+      entities: ParMap[Long, V],
+      changes: Map[Long, Option[V]]
+  ): ParMap[Long, V] =
+    changes.foldLeft(entities) {
+      case (entities, (id, Some(entity))) => entities.updated(id, entity)
+      case (entities, (id, None))         => entities - id
+    }
+
   /** Concrete implementation of [[OsmContainer]] with sequential collections.
     *
     * @param nodes
@@ -52,7 +103,8 @@ object OsmContainer {
       relations: Map[Long, Relation]
   ) extends OsmContainer
       with RichClosedWaySupport
-      with RelationEntitiesSupport {
+      with SpatialIndexSupport
+      with MultipolygonSupport {
 
     override def node(nodeId: Long): Option[Node] =
       nodes.get(nodeId)
@@ -76,6 +128,18 @@ object OsmContainer {
 
     override def seq(): SeqOsmContainer = this
 
+    override def applyChanges(changes: OsmChangeSet): SeqOsmContainer =
+      if (changes.isEmpty) this
+      else {
+        val updated = SeqOsmContainer(
+          OsmContainer.updated(nodes, changes.nodes),
+          OsmContainer.updated(ways, changes.ways),
+          OsmContainer.updated(relations, changes.relations)
+        )
+        updated.inheritCaches(this, changes)
+        updated
+      }
+
     override protected def _getNode: Long => Option[Node] = (nodeId: Long) =>
       nodes.get(nodeId)
 
@@ -85,6 +149,11 @@ object OsmContainer {
     override protected def _getRelation: Long => Option[Relation] =
       (nodeId: Long) => relations.get(nodeId)
 
+    override protected def _allWays: Iterator[Way] = ways.valuesIterator
+
+    override protected def _allRelations: Iterator[Relation] =
+      relations.valuesIterator
+
   }
 
   object SeqOsmContainer {
@@ -115,7 +184,8 @@ object OsmContainer {
       relations: ParMap[Long, Relation]
   ) extends OsmContainer
       with RichClosedWaySupport
-      with RelationEntitiesSupport {
+      with SpatialIndexSupport
+      with MultipolygonSupport {
 
     override def node(nodeId: Long): Option[Node] =
       nodes.get(nodeId)
@@ -140,6 +210,18 @@ object OsmContainer {
     override def seq(): SeqOsmContainer =
       SeqOsmContainer(nodes.seq, ways.seq, relations.seq)
 
+    override def applyChanges(changes: OsmChangeSet): ParOsmContainer =
+      if (changes.isEmpty) this
+      else {
+        val updated = ParOsmContainer(
+          OsmContainer.updated(nodes, changes.nodes),
+          OsmContainer.updated(ways, changes.ways),
+          OsmContainer.updated(relations, changes.relations)
+        )
+        updated.inheritCaches(this, changes)
+        updated
+      }
+
     override protected def _getNode: Long => Option[Node] = (nodeId: Long) =>
       nodes.get(nodeId)
 
@@ -149,6 +231,11 @@ object OsmContainer {
     override protected def _getRelation: Long => Option[Relation] =
       (nodeId: Long) => relations.get(nodeId)
 
+    override protected def _allWays: Iterator[Way] = ways.seq.valuesIterator
+
+    override protected def _allRelations: Iterator[Relation] =
+      relations.seq.valuesIterator
+
   }
 
   object ParOsmContainer {
@@ -165,4 +252,506 @@ object OsmContainer {
 
   }
 
+  /** Concrete implementation of [[OsmContainer]] backed by primitive arrays.
+    * Entity ids are held in sorted `long[]`s and looked up by binary search,
+    * which avoids boxed [[java.lang.Long]] keys and the overhead of hash tries.
+    * Nodes are stored column wise (see [[NodeColumns]]), so that way geometries
+    * are built without creating [[Node]] instances. This makes this container
+    * the preferred choice for large extracts.
+    *
+    * @param nodes
+    *   nodes in the area of investigation
+    * @param ways
+    *   ways in the area of investigation
+    * @param relations
+    *   relations in the area of investigation
+    */
+  final case class PrimitiveOsmContainer(
+      nodes: NodeColumns,
+      ways: SortedLongMap[Way],
+      relations: SortedLongMap[Relation]
+  ) extends OsmContainer
+      with RichClosedWaySupport
+      with SpatialIndexSupport
+      with MultipolygonSupport {
+
+    override def node(nodeId: Long): Option[Node] =
+      nodes.node(nodeId)
+
+    override def nodes(nodeIds: Seq[Long]): Seq[Option[Node]] =
+      nodeIds.map(nodes.node)
+
+    override def way(wayId: Long): Option[Way] = ways.get(wayId)
+
+    override def ways(wayIds: Seq[Long]): Seq[Option[Way]] =
+      wayIds.map(ways.get)
+
+    override def relation(relationId: Long): Option[Relation] =
+      relations.get(relationId)
+
+    override def relations(relationIds: Seq[Long]): Seq[Option[Relation]] =
+      relationIds.map(relations.get)
+
+    /** @return
+      *   the dictionary, that encodes the tags of all entities
+      */
+    def tagDictionary: TagDictionary = nodes.tagDictionary
+
+    override def par(): ParOsmContainer =
+      ParOsmContainer(nodes.toMap.par, ways.toMap.par, relations.toMap.par)
+
+    override def seq(): SeqOsmContainer =
+      SeqOsmContainer(nodes.toMap, ways.toMap, relations.toMap)
+
+    /** Updates the primitive arrays by merging them with the changes, which
+      * takes linear time, but does not need to sort the entities again
+      */
+    override def applyChanges(changes: OsmChangeSet): PrimitiveOsmContainer =
+      if (changes.isEmpty) this
+      else {
+        val updated = PrimitiveOsmContainer(
+          nodes.updated(changes.nodes),
+          ways.updated(changes.ways.map { case (id, way) =>
+            id -> way.map(tagDictionary.encoded)
+          }),
+          relations.updated(changes.relations.map { case (id, relation) =>
+            id -> relation.map(tagDictionary.encoded)
+          })
+        )
+        updated.inheritCaches(this, changes)
+        updated
+      }
+
+    override protected def _getNode: Long => Option[Node] = (nodeId: Long) =>
+      nodes.node(nodeId)
+
+    override protected def _getWay: Long => Option[Way] = (wayId: Long) =>
+      ways.get(wayId)
+
+    override protected def _getRelation: Long => Option[Relation] =
+      (relationId: Long) => relations.get(relationId)
+
+    override protected def _allWays: Iterator[Way] = ways.valuesIterator
+
+    override protected def _allRelations: Iterator[Relation] =
+      relations.valuesIterator
+
+    override protected def nodeCoordinate(nodeId: Long): Option[Coordinate] =
+      nodes.coordinate(nodeId)
+
+    override protected def wayCoordinates(way: Way): Option[Array[Coordinate]] =
+      nodes.coordinates(way.nodeArray)
+
+  }
+
+  object PrimitiveOsmContainer {
+
+    def apply(
+        nodes: Seq[Node],
+        ways: Seq[Way],
+        relations: Seq[Relation]
+    ): PrimitiveOsmContainer =
+      encoded(
+        NodeColumns.from(nodes),
+        SortedLongMap.fromValues(ways)(_.id),
+        SortedLongMap.fromValues(relations)(_.id)
+      )
+
+    /** Converts an arbitrary [[OsmContainer]] into a [[PrimitiveOsmContainer]]
+      *
+      * @param osmContainer
+      *   the container to convert
+      * @return
+      *   a primitive backed container holding the same entities
+      */
+    def apply(osmContainer: OsmContainer): PrimitiveOsmContainer =
+      osmContainer match {
+        case container: PrimitiveOsmContainer =>
+          container
+        case container =>
+          val seqContainer = container.seq()
+          encoded(
+            NodeColumns.from(seqContainer.nodes.values),
+            SortedLongMap.from(seqContainer.ways),
+            SortedLongMap.from(seqContainer.relations)
+          )
+      }
+
+    /** Encodes the tags of the ways and relations by the dictionary of the
+      * nodes
+      */
+    private def encoded(
+        nodes: NodeColumns,
+        ways: SortedLongMap[Way],
+        relations: SortedLongMap[Relation]
+    ): PrimitiveOsmContainer =
+      new PrimitiveOsmContainer(
+        nodes,
+        ways.mapValues(nodes.tagDictionary.encoded),
+        relations.mapValues(nodes.tagDictionary.encoded)
+      )
+
+  }
+
+  /** Concrete implementation of [[OsmContainer]] for extracts larger than the
+    * heap. The entities are held on disk in files sorted by id and read through
+    * memory mappings (see [[MappedEntityStore]]), while only a bounded hot set
+    * of recently requested entities stays on heap. The caches of way nodes, way
+    * polygons and relation entities are bounded by the same configuration.
+    * Batch requests like [[nodes]] look up the ids in ascending order, so that
+    * the files are read front to back.
+    *
+    * The container is created by the builder of [[OsmContainerBuilder.mapped]],
+    * which may directly be handed to the readers, or by
+    * [[MappedOsmContainer.write]], and reopened by [[MappedOsmContainer.open]].
+    * Derived containers, e.g. by applying changes or by [[OsmContainerUtils]],
+    * are written to new directories next to the one of this container. A
+    * derived container owns its directory and deletes it, when it is closed, so
+    * callers have to close derived containers they do not need anymore. The
+    * directories of opened or explicitly written containers, as well as those
+    * passed to
+    * [[applyChanges(changes:edu\.ie3\.util\.osm\.model\.OsmChangeSet,directory:java\.nio\.file\.Path)*]],
+    * are never deleted. Note, that [[par]], [[seq]] and the spatial index load
+    * all entities onto the heap.
+    *
+    * @param directory
+    *   the directory holding the files of the container
+    * @param hotSet
+    *   the configuration of the hot set of each entity type and of the caches
+    * @param ownsDirectory
+    *   whether or not the directory is deleted, when the container is closed
+    */
+  final class MappedOsmContainer private[model] (
+      val directory: Path,
+      private[osm] val nodeStore: MappedEntityStore[Node],
+      private[osm] val wayStore: MappedEntityStore[Way],
+      private[osm] val relationStore: MappedEntityStore[Relation],
+      val hotSet: CacheConfig,
+      val ownsDirectory: Boolean = false
+  ) extends OsmContainer
+      with RichClosedWaySupport
+      with SpatialIndexSupport
+      with MultipolygonSupport
+      with AutoCloseable {
+
+    configureWayNodeCache(hotSet)
+    configureWayPolygonCache(hotSet)
+    configureRelationEntityCache(hotSet)
+
+    def nodeCount: Long = nodeStore.size
+
+    def wayCount: Long = wayStore.size
+
+    def relationCount: Long = relationStore.size
+
+    /** @return
+      *   all nodes in the order of their ids, that are read sequentially
+      */
+    def nodesIterator: Iterator[Node] = nodeStore.iterator
+
+    /** @return
+      *   all ways in the order of their ids, that are read sequentially
+      */
+    def waysIterator: Iterator[Way] = wayStore.iterator
+
+    /** @return
+      *   all relations in the order of their ids, that are read sequentially
+      */
+    def relationsIterator: Iterator[Relation] = relationStore.iterator
+
+    override def node(nodeId: Long): Option[Node] = nodeStore.get(nodeId)
+
+    override def nodes(nodeIds: Seq[Long]): Seq[Option[Node]] =
+      nodeStore.getAll(nodeIds)
+
+    override def way(wayId: Long): Option[Way] = wayStore.get(wayId)
+
+    override def ways(wayIds: Seq[Long]): Seq[Option[Way]] =
+      wayStore.getAll(wayIds)
+
+    override def relation(relationId: Long): Option[Relation] =
+      relationStore.get(relationId)
+
+    override def relations(relationIds: Seq[Long]): Seq[Option[Relation]] =
+      relationStore.getAll(relationIds)
+
+    def nodeHotSetStatistics: CacheStatistics = nodeStore.hotSetStatistics
+
+    def wayHotSetStatistics: CacheStatistics = wayStore.hotSetStatistics
+
+    def relationHotSetStatistics: CacheStatistics =
+      relationStore.hotSetStatistics
+
+    override def par(): ParOsmContainer = seq().par()
+
+    override def seq(): SeqOsmContainer = {
+      val builder = OsmContainerBuilder.seq()
+      nodesIterator.foreach(builder.add)
+      waysIterator.foreach(builder.add)
+      relationsIterator.foreach(builder.add)
+      builder.result()
+    }
+
+    /** Merges the files with the changes into a new directory next to the one
+      * of this container, which takes linear time, but does not need to sort
+      * the entities again. The updated container owns the new directory and
+      * deletes it, when it is closed.
+      *
+      * @throws java.io.IOException
+      *   if the files cannot be written
+      */
+    override def applyChanges(changes: OsmChangeSet): MappedOsmContainer =
+      if (changes.isEmpty) this
+      else updated(changes, derivedDirectory(), ownsDirectory = true)
+
+    /** Merges the files with the changes into the given directory like
+      * [[applyChanges(changes:edu\.ie3\.util\.osm\.model\.OsmChangeSet)*]]. The
+      * directory is left to the caller and not deleted, when the updated
+      * container is closed.
+      *
+      * @param changes
+      *   the changes to apply
+      * @param directory
+      *   the target directory, which is created if necessary. The files of a
+      *   container in the directory are replaced.
+      * @return
+      *   the updated container or a failure, if the files cannot be written
+      */
+    def applyChanges(
+        changes: OsmChangeSet,
+        directory: Path
+    ): Try[MappedOsmContainer] =
+      Try(updated(changes, directory, ownsDirectory = false))
+
+    private def updated(
+        changes: OsmChangeSet,
+        target: Path,
+        ownsDirectory: Boolean
+    ): MappedOsmContainer = {
+      val written = MappedOsmContainer.write(
+        MappedOsmContainer.merged(nodesIterator, changes.nodes),
+        MappedOsmContainer.merged(waysIterator, changes.ways),
+        MappedOsmContainer.merged(relationsIterator, changes.relations),
+        target,
+        hotSet
+      )
+      val updated = if (ownsDirectory) written.owningDirectory else written
+      updated.inheritCaches(this, changes)
+      updated
+    }
+
+    /** Writes the given entities, that have to be sorted by id, into a new
+      * directory next to the one of this container, that is owned by the
+      * resulting container
+      */
+    private[osm] def rewritten(
+        nodes: Iterator[Node],
+        ways: Iterator[Way],
+        relations: Iterator[Relation]
+    ): MappedOsmContainer =
+      MappedOsmContainer
+        .write(nodes, ways, relations, derivedDirectory(), hotSet)
+        .owningDirectory
+
+    private def derivedDirectory(): Path =
+      Files.createTempDirectory(
+        directory.toAbsolutePath.getParent,
+        s"${directory.getFileName}-"
+      )
+
+    /** @return
+      *   the same container, that deletes its directory, when it is closed
+      */
+    private def owningDirectory: MappedOsmContainer =
+      new MappedOsmContainer(
+        directory,
+        nodeStore,
+        wayStore,
+        relationStore,
+        hotSet,
+        ownsDirectory = true
+      )
+
+    /** Closes the files and deletes the directory, if it is owned by this
+      * container
+      *
+      * @throws java.io.IOException
+      *   if the owned directory cannot be deleted
+      */
+    override def close(): Unit =
+      try nodeStore.close()
+      finally {
+        try wayStore.close()
+        finally {
+          relationStore.close()
+          if (ownsDirectory && Files.exists(directory))
+            Files
+              .walk(directory)
+              .sorted(java.util.Comparator.reverseOrder[Path]())
+              .forEach(path => Files.delete(path))
+        }
+      }
+
+    override protected def _getNode: Long => Option[Node] = (nodeId: Long) =>
+      nodeStore.get(nodeId)
+
+    override protected def _getWay: Long => Option[Way] = (wayId: Long) =>
+      wayStore.get(wayId)
+
+    override protected def _getRelation: Long => Option[Relation] =
+      (relationId: Long) => relationStore.get(relationId)
+
+    override protected def _allWays: Iterator[Way] = wayStore.iterator
+
+    override protected def _allRelations: Iterator[Relation] =
+      relationStore.iterator
+
+    override protected def wayCoordinates(
+        way: Way
+    ): Option[Array[Coordinate]] = {
+      val nodes = nodeStore.getAll(way.nodes)
+      Option.when(nodes.forall(_.isDefined))(
+        nodes.flatten
+          .map(node => new Coordinate(node.longitude, node.latitude))
+          .toArray
+      )
+    }
+
+    override def toString: String =
+      s"MappedOsmContainer($directory, $nodeCount nodes, $wayCount ways, $relationCount relations)"
+
+  }
+
+  object MappedOsmContainer {
+
+    val DefaultHotSet: CacheConfig = CacheConfig.SizeBounded(100000)
+
+    /** Opens a container, that has been written before
+      *
+      * @param directory
+      *   the directory holding the files of the container
+      * @param hotSet
+      *   the configuration of the hot set of each entity type and of the caches
+      * @return
+      *   the container or a failure, if the files cannot be read
+      */
+    def open(
+        directory: Path,
+        hotSet: CacheConfig = DefaultHotSet
+    ): Try[MappedOsmContainer] =
+      Try(open(directory, hotSet, MappedEntityStore.DefaultSegmentSize))
+
+    private[model] def open(
+        directory: Path,
+        hotSet: CacheConfig,
+        segmentSize: Long
+    ): MappedOsmContainer = {
+      val nodes = MappedEntityStore.open(
+        directory,
+        "nodes",
+        MappedEntityCodec.decodeNode,
+        hotSet,
+        segmentSize
+      )
+      try {
+        val ways = MappedEntityStore.open(
+          directory,
+          "ways",
+          MappedEntityCodec.decodeWay,
+          hotSet,
+          segmentSize
+        )
+        try {
+          val relations = MappedEntityStore.open(
+            directory,
+            "relations",
+            MappedEntityCodec.decodeRelation,
+            hotSet,
+            segmentSize
+          )
+          new MappedOsmContainer(directory, nodes, ways, relations, hotSet)
+        } catch {
+          case e: Exception =>
+            ways.close()
+            throw e
+        }
+      } catch {
+        case e: Exception =>
+          nodes.close()
+          throw e
+      }
+    }
+
+    /** Writes the given container to the directory, which is created if
+      * necessary. The files of a container in the directory are replaced.
+      *
+      * @param osmContainer
+      *   the container to write
+      * @param directory
+      *   the target directory
+      * @param hotSet
+      *   the configuration of the hot set of each entity type and of the caches
+      * @return
+      *   the written container or a failure, if the files cannot be written
+      */
+    def write(
+        osmContainer: OsmContainer,
+        directory: Path,
+        hotSet: CacheConfig = DefaultHotSet
+    ): Try[MappedOsmContainer] = Try {
+      osmContainer match {
+        case container: MappedOsmContainer =>
+          write(
+            container.nodesIterator,
+            container.waysIterator,
+            container.relationsIterator,
+            directory,
+            hotSet
+          )
+        case container =>
+          // entities have to be ordered by id
+          val primitive = PrimitiveOsmContainer(container)
+          write(
+            primitive.nodes.nodesIterator,
+            primitive.ways.valuesIterator,
+            primitive.relations.valuesIterator,
+            directory,
+            hotSet
+          )
+      }
+    }
+
+    private def write(
+        nodes: Iterator[Node],
+        ways: Iterator[Way],
+        relations: Iterator[Relation],
+        directory: Path,
+        hotSet: CacheConfig
+    ): MappedOsmContainer = {
+      val builder = OsmContainerBuilder.mapped(directory, hotSet)
+      nodes.foreach(builder.add)
+      ways.foreach(builder.add)
+      relations.foreach(builder.add)
+      builder.result()
+    }
+
+    /** Merges the entities sorted by id with the changes of the same type
+      */
+    private def merged[E <: OsmEntity](
+        entities: Iterator[E],
+        changes: Map[Long, Option[E]]
+    ): Iterator[E] = {
+      val kept =
+        entities.filterNot(entity => changes.contains(entity.id)).buffered
+      val changed = changes.toSeq.sortBy(_._1).flatMap(_._2).iterator.buffered
+      Iterator.unfold(()) { _ =>
+        if (!kept.hasNext && !changed.hasNext) None
+        else if (
+          !changed.hasNext || kept.hasNext && kept.head.id < changed.head.id
+        ) Some(kept.next(), ())
+        else Some(changed.next(), ())
+      }
+    }
+  }
+
 }
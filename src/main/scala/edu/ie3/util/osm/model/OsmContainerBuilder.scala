@@ -0,0 +1,186 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.osm.model.OsmContainer.{
+  MappedOsmContainer,
+  PrimitiveOsmContainer,
+  SeqOsmContainer
+}
+import edu.ie3.util.osm.model.OsmEntity.{MetaInformation, Node, Relation, Way}
+
+import java.nio.file.{Files, Path}
+
+/** Mutable builder, that collects entities one by one and finally creates an
+  * [[OsmContainer]]. Nodes can be added from their plain attributes, so that
+  * builders of column based containers never need to create [[Node]] instances.
+  * If an entity id is added several times, the last entity wins.
+  *
+  * @tparam C
+  *   type of the resulting container
+  */
+trait OsmContainerBuilder[C <: OsmContainer] {
+
+  def addNode(
+      id: Long,
+      latitude: Double,
+      longitude: Double,
+      tags: Map[String, String],
+      metaInformation: Option[MetaInformation]
+  ): Unit
+
+  def addWay(way: Way): Unit
+
+  def addRelation(relation: Relation): Unit
+
+  def add(entity: OsmEntity): Unit = entity match {
+    case Node(id, latitude, longitude, tags, metaInformation) =>
+      addNode(id, latitude, longitude, tags, metaInformation)
+    case way: Way           => addWay(way)
+    case relation: Relation => addRelation(relation)
+  }
+
+  def result(): C
+
+}
+
+object OsmContainerBuilder {
+
+  /** @return
+    *   a builder for a [[SeqOsmContainer]]
+    */
+  def seq(): OsmContainerBuilder[SeqOsmContainer] =
+    new OsmContainerBuilder[SeqOsmContainer] {
+      private val nodes = Map.newBuilder[Long, Node]
+      private val ways = Map.newBuilder[Long, Way]
+      private val relations = Map.newBuilder[Long, Relation]
+
+      override def addNode(
+          id: Long,
+          latitude: Double,
+          longitude: Double,
+          tags: Map[String, String],
+          metaInformation: Option[MetaInformation]
+      ): Unit =
+        nodes += id -> Node(id, latitude, longitude, tags, metaInformation)
+
+      override def addWay(way: Way): Unit = ways += way.id -> way
+
+      override def addRelation(relation: Relation): Unit =
+        relations += relation.id -> relation
+
+      override def result(): SeqOsmContainer =
+        SeqOsmContainer(nodes.result(), ways.result(), relations.result())
+    }
+
+  /** @param tagDictionary
+    *   dictionary to encode the tags of all entities with
+    * @return
+    *   a builder for a [[PrimitiveOsmContainer]]
+    */
+  def primitive(
+      tagDictionary: TagDictionary = new TagDictionary
+  ): OsmContainerBuilder[PrimitiveOsmContainer] =
+    new OsmContainerBuilder[PrimitiveOsmContainer] {
+      private val nodes = NodeColumns.newBuilder(tagDictionary)
+      private val ways = SortedLongMap.newBuilder[Way]
+      private val relations = SortedLongMap.newBuilder[Relation]
+
+      override def addNode(
+          id: Long,
+          latitude: Double,
+          longitude: Double,
+          tags: Map[String, String],
+          metaInformation: Option[MetaInformation]
+      ): Unit =
+        nodes.add(id, latitude, longitude, tags, metaInformation)
+
+      override def addWay(way: Way): Unit =
+        ways.add(way.id, tagDictionary.encoded(way))
+
+      override def addRelation(relation: Relation): Unit =
+        relations.add(relation.id, tagDictionary.encoded(relation))
+
+      override def result(): PrimitiveOsmContainer =
+        PrimitiveOsmContainer(
+          nodes.result(),
+          ways.result(),
+          relations.result()
+        )
+    }
+
+  /** Builder, that writes the entities to disk as they are added, so that
+    * extracts larger than the heap can be read. Entities, that are added in
+    * ascending order of their ids, as in sorted extracts, are indexed straight
+    * away. Otherwise, their ids are sorted in runs of bounded size, that are
+    * merged when the container is built.
+    *
+    * @param directory
+    *   the directory to write the files to, which is created if necessary. The
+    *   files of a container in the directory are replaced.
+    * @param hotSet
+    *   the configuration of the hot set of the resulting container
+    * @return
+    *   a builder for a [[MappedOsmContainer]]
+    */
+  def mapped(
+      directory: Path,
+      hotSet: CacheConfig = MappedOsmContainer.DefaultHotSet
+  ): OsmContainerBuilder[MappedOsmContainer] =
+    mapped(directory, hotSet, MappedEntityStore.DefaultRunEntries)
+
+  private[model] def mapped(
+      directory: Path,
+      hotSet: CacheConfig,
+      runEntries: Int
+  ): OsmContainerBuilder[MappedOsmContainer] =
+    new OsmContainerBuilder[MappedOsmContainer] {
+      Files.createDirectories(directory)
+      private val nodes =
+        new MappedEntityStore.Writer(directory, "nodes", runEntries)
+      private val ways =
+        new MappedEntityStore.Writer(directory, "ways", runEntries)
+      private val relations =
+        new MappedEntityStore.Writer(directory, "relations", runEntries)
+
+      override def addNode(
+          id: Long,
+          latitude: Double,
+          longitude: Double,
+          tags: Map[String, String],
+          metaInformation: Option[MetaInformation]
+      ): Unit =
+        nodes.add(
+          id,
+          MappedEntityCodec.encodeNode(
+            latitude,
+            longitude,
+            tags,
+            metaInformation
+          )
+        )
+
+      override def addWay(way: Way): Unit =
+        ways.add(way.id, MappedEntityCodec.encodeWay(way))
+
+      override def addRelation(relation: Relation): Unit =
+        relations.add(relation.id, MappedEntityCodec.encodeRelation(relation))
+
+      override def result(): MappedOsmContainer = {
+        try nodes.close()
+        finally {
+          try ways.close()
+          finally relations.close()
+        }
+        MappedOsmContainer.open(
+          directory,
+          hotSet,
+          MappedEntityStore.DefaultSegmentSize
+        )
+      }
+    }
+
+}
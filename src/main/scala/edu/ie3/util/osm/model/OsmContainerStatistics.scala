@@ -0,0 +1,101 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.osm.model.OsmContainer.{
+  MappedOsmContainer,
+  ParOsmContainer,
+  PrimitiveOsmContainer,
+  SeqOsmContainer
+}
+
+import java.time.Duration
+
+/** Snapshot of the counters of an [[OsmContainer]], e.g. to be logged or
+  * published as metrics. Taking it only reads counters, hence it is cheap
+  * enough to be taken regularly. The estimated memory footprint, which needs a
+  * pass over all entities, is provided by
+  * [[OsmContainer.estimateMemoryFootprint]].
+  *
+  * @param nodes
+  *   number of nodes
+  * @param ways
+  *   number of ways
+  * @param relations
+  *   number of relations
+  * @param wayNodeCache
+  *   statistics of the cache of way nodes
+  * @param wayPolygonCache
+  *   statistics of the cache of way polygons
+  * @param relationEntityCache
+  *   statistics of the cache of relation entities
+  * @param wayPolygonBuildTime
+  *   time spent building way polygons, summed up over all threads
+  * @param relationResolutionTime
+  *   time spent resolving relation entities, summed up over all threads
+  */
+final case class OsmContainerStatistics(
+    nodes: Long,
+    ways: Long,
+    relations: Long,
+    wayNodeCache: CacheStatistics,
+    wayPolygonCache: CacheStatistics,
+    relationEntityCache: CacheStatistics,
+    wayPolygonBuildTime: Duration,
+    relationResolutionTime: Duration
+)
+
+object OsmContainerStatistics {
+
+  def apply(container: OsmContainer): OsmContainerStatistics =
+    container match {
+      case container: SeqOsmContainer =>
+        of(
+          container,
+          container.nodes.size,
+          container.ways.size,
+          container.relations.size
+        )
+      case container: ParOsmContainer =>
+        of(
+          container,
+          container.nodes.size,
+          container.ways.size,
+          container.relations.size
+        )
+      case container: PrimitiveOsmContainer =>
+        of(
+          container,
+          container.nodes.size,
+          container.ways.size,
+          container.relations.size
+        )
+      case container: MappedOsmContainer =>
+        of(
+          container,
+          container.nodeCount,
+          container.wayCount,
+          container.relationCount
+        )
+    }
+
+  private def of(
+      container: RichClosedWaySupport & RelationEntitiesSupport,
+      nodes: Long,
+      ways: Long,
+      relations: Long
+  ): OsmContainerStatistics =
+    OsmContainerStatistics(
+      nodes,
+      ways,
+      relations,
+      container.wayNodeCacheStatistics,
+      container.wayPolygonCacheStatistics,
+      container.relationEntityCacheStatistics,
+      container.wayPolygonBuildTime,
+      container.relationResolutionTime
+    )
+}
@@ -12,6 +12,7 @@ import edu.ie3.util.osm.model.OsmEntity.Relation.RelationMemberType.RelationMemb
 import org.locationtech.jts.geom.{Coordinate, Point}
 
 import java.time.Instant
+import scala.collection.immutable.ArraySeq
 
 /** Base trait for all different OSM entities
   */
@@ -43,8 +44,10 @@ sealed trait OsmEntity {
     * @return
     *   whether or not it contains the key value pair
     */
-  def hasKeyValuePair(key: String, value: String): Boolean =
-    tags.get(key).contains(value)
+  def hasKeyValuePair(key: String, value: String): Boolean = tags match {
+    case encoded: DictionaryTags => encoded.hasKeyValuePair(key, value)
+    case _                       => tags.get(key).contains(value)
+  }
 
   /** Checks whether or not the entity has a tag that matches the given key and
     * one of the set of given values. NOTE: If an empty values set is given it
@@ -72,12 +75,16 @@ sealed trait OsmEntity {
     *   whether or not the entity has a matching key value pair
     */
   def hasKeyValuesPairOr(key: String, values: Set[String]): Boolean =
-    tags.get(key) match {
-      case Some(tagValue) if values.nonEmpty =>
-        values.contains(tagValue)
-      case Some(_) =>
-        true
-      case None => false
+    tags match {
+      case encoded: DictionaryTags => encoded.hasKeyValuesPairOr(key, values)
+      case _ =>
+        tags.get(key) match {
+          case Some(tagValue) if values.nonEmpty =>
+            values.contains(tagValue)
+          case Some(_) =>
+            true
+          case None => false
+        }
     }
 
   /** Checks whether or not the entity has a tag that matches one of the given
@@ -112,8 +119,10 @@ sealed trait OsmEntity {
     * @return
     *   whether or not the tags contain the key
     */
-  def hasKey(key: String): Boolean =
-    hasKeyValuesPairOr(key, Set.empty)
+  def hasKey(key: String): Boolean = tags match {
+    case encoded: DictionaryTags => encoded.hasKey(key)
+    case _                       => tags.contains(key)
+  }
 
 }
 
@@ -184,6 +193,11 @@ object OsmEntity {
     */
   sealed trait Way extends OsmEntity {
     val nodes: Seq[Long]
+
+    /** The node ids as primitive array, that is shared with [[nodes]], if they
+      * are backed by one (see [[Way.nodeSeq]]). Hence, it must not be modified.
+      */
+    private[osm] def nodeArray: Array[Long] = Way.nodeArray(nodes)
   }
 
   object Way {
@@ -233,12 +247,60 @@ object OsmEntity {
         nodes: Seq[Long],
         tags: Map[String, String],
         metaInformation: Option[MetaInformation]
-    ): Way =
-      if (isClosedWay(nodes)) {
-        ClosedWay(id, nodes, tags, metaInformation)
+    ): Way = {
+      val nodeIds = nodeSeq(nodes)
+      if (isClosedWay(nodeIds)) {
+        ClosedWay(id, nodeIds, tags, metaInformation)
       } else {
-        OpenWay(id, nodes, tags, metaInformation)
+        OpenWay(id, nodeIds, tags, metaInformation)
+      }
+    }
+
+    /** Node ids in a sequence, that is backed by a `long[]`. Compared to a
+      * [[List]] or [[Vector]] of boxed ids, this takes a fifth to less than
+      * half of the memory. All readers and [[Way.apply]] create ways with such
+      * sequences.
+      *
+      * @param nodes
+      *   the node ids
+      * @return
+      *   the given sequence, if it is backed by a `long[]` already, a copy
+      *   otherwise
+      */
+    def nodeSeq(nodes: Seq[Long]): Seq[Long] = nodes match {
+      case primitive: ArraySeq.ofLong => primitive
+      case _                          => ArraySeq.unsafeWrapArray(nodes.toArray)
+    }
+
+    private[osm] def nodeArray(nodes: Seq[Long]): Array[Long] = nodes match {
+      case primitive: ArraySeq.ofLong => primitive.unsafeArray
+      case _                          => nodes.toArray
+    }
+
+    /** Keeps the node ids accepted by the given filter without boxing them, if
+      * they are backed by a `long[]`
+      *
+      * @return
+      *   the given sequence, if all ids are accepted
+      */
+    private[osm] def filterNodes(
+        nodes: Seq[Long],
+        keep: Long => Boolean
+    ): Seq[Long] = {
+      val array = nodeArray(nodes)
+      val kept = new Array[Long](array.length)
+      var count = 0
+      var idx = 0
+      while (idx < array.length) {
+        if (keep(array(idx))) {
+          kept(count) = array(idx)
+          count += 1
+        }
+        idx += 1
       }
+      if (count == array.length) nodeSeq(nodes)
+      else ArraySeq.unsafeWrapArray(java.util.Arrays.copyOf(kept, count))
+    }
 
     /** Checks if a way is closed by assessing if the first and last nodes are
       * identical.
@@ -248,10 +310,15 @@ object OsmEntity {
       * @return
       *   whether or not the way is closed
       */
-    def isClosedWay(nodes: Seq[Long]): Boolean =
-      nodes.headOption.zip(nodes.lastOption).exists { case (head, last) =>
-        head == last
-      }
+    def isClosedWay(nodes: Seq[Long]): Boolean = nodes match {
+      case primitive: ArraySeq.ofLong =>
+        val array = primitive.unsafeArray
+        array.nonEmpty && array(0) == array(array.length - 1)
+      case _ =>
+        nodes.headOption.zip(nodes.lastOption).exists { case (head, last) =>
+          head == last
+        }
+    }
   }
 
   /** A [[Relation]] implementation.
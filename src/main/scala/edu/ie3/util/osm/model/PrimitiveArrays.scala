@@ -0,0 +1,133 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+/** Helpers to handle primitive arrays of entity ids
+  */
+private[osm] object PrimitiveArrays {
+
+  /** Checks if the first elements of the given array are strictly ascending
+    */
+  def isStrictlyAscending(keys: Array[Long], length: Int): Boolean = {
+    var idx = 1
+    while (idx < length) {
+      if (keys(idx - 1) >= keys(idx)) return false
+      idx += 1
+    }
+    true
+  }
+
+  /** Determines the permutation, that sorts the first elements of the given
+    * keys ascending. The sort is stable, so that the order of equal keys is
+    * kept.
+    *
+    * @param keys
+    *   the keys to sort
+    * @param length
+    *   the number of keys to consider
+    * @return
+    *   the indices of the keys in sorted order
+    */
+  def sortedPermutation(keys: Array[Long], length: Int): Array[Int] = {
+    var src = Array.tabulate(length)(identity)
+    var dst = new Array[Int](length)
+    var width = 1
+    while (width < length) {
+      var left = 0
+      while (left < length) {
+        val mid = math.min(left + width, length)
+        val right = math.min(left + 2 * width, length)
+        var i = left
+        var j = mid
+        var k = left
+        while (k < right) {
+          if (j >= right || (i < mid && keys(src(i)) <= keys(src(j)))) {
+            dst(k) = src(i)
+            i += 1
+          } else {
+            dst(k) = src(j)
+            j += 1
+          }
+          k += 1
+        }
+        left += 2 * width
+      }
+      val tmp = src
+      src = dst
+      dst = tmp
+      width *= 2
+    }
+    src
+  }
+
+  /** Determines the indices of the sorted permutation, that remain if
+    * duplicated keys are collapsed to their last occurrence.
+    *
+    * @param keys
+    *   the keys, that have been added
+    * @param length
+    *   the number of keys to consider
+    * @return
+    *   indices into the keys array, whose keys are strictly ascending
+    */
+  def distinctSortedIndices(keys: Array[Long], length: Int): Array[Int] = {
+    val permutation =
+      if (isStrictlyAscending(keys, length)) Array.tabulate(length)(identity)
+      else sortedPermutation(keys, length)
+    var write = 0
+    var read = 0
+    while (read < length) {
+      if (write > 0 && keys(permutation(write - 1)) == keys(permutation(read)))
+        permutation(write - 1) = permutation(read)
+      else {
+        permutation(write) = permutation(read)
+        write += 1
+      }
+      read += 1
+    }
+    java.util.Arrays.copyOf(permutation, write)
+  }
+
+  /** Merges strictly ascending keys with a set of changed keys in linear time.
+    * Entries, whose key is changed, are replaced by the change or dropped, if
+    * the change is a removal.
+    *
+    * @param keys
+    *   the strictly ascending keys of the existing entries
+    * @param changedKeys
+    *   the strictly ascending keys of the changes
+    * @param isRemoval
+    *   whether or not the change with the given index removes its entry
+    * @return
+    *   the sources of the merged entries in ascending key order. Non-negative
+    *   values are indices into the keys, negative values `~idx` are indices
+    *   into the changed keys.
+    */
+  def mergeChanges(
+      keys: Array[Long],
+      changedKeys: Array[Long],
+      isRemoval: Int => Boolean
+  ): Array[Int] = {
+    val sources = Array.newBuilder[Int]
+    sources.sizeHint(keys.length + changedKeys.length)
+    var idx = 0
+    var change = 0
+    while (idx < keys.length || change < changedKeys.length) {
+      if (
+        change == changedKeys.length ||
+        (idx < keys.length && keys(idx) < changedKeys(change))
+      ) {
+        sources += idx
+        idx += 1
+      } else {
+        if (idx < keys.length && keys(idx) == changedKeys(change)) idx += 1
+        if (!isRemoval(change)) sources += ~change
+        change += 1
+      }
+    }
+    sources.result()
+  }
+}
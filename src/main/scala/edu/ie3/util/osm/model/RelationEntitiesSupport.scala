@@ -8,7 +8,12 @@ package edu.ie3.util.osm.model
 import com.typesafe.scalalogging.LazyLogging
 import edu.ie3.util.osm.model.OsmEntity.Relation.RelationMemberType
 import edu.ie3.util.osm.model.OsmEntity.{Node, Relation, Way}
-import edu.ie3.util.osm.model.RelationEntitiesSupport.RelationEntities
+import edu.ie3.util.osm.model.RelationEntitiesSupport.{Frame, RelationEntities}
+
+import java.time.Duration
+import scala.collection.immutable.HashMap
+import scala.collection.mutable
+import scala.collection.parallel.CollectionConverters._
 
 /** Trait to be used for [[OsmContainer]] instances to add support for
   * [[RelationEntities]] provision
@@ -17,79 +22,252 @@ trait RelationEntitiesSupport extends WayCache with LazyLogging {
 
   protected def _getRelation: Long => Option[Relation]
 
+  /** @return
+    *   all relations of the container
+    */
+  protected def _allRelations: Iterator[Relation]
+
   type RelationId = Long
 
-  private val _relationEntityCache =
-    new java.util.concurrent.ConcurrentHashMap[RelationId, RelationEntities]()
+  @volatile private var _relationEntityCache =
+    new EntityCache[RelationEntities](CacheConfig.Unbounded, weight)
+
+  /** Replaces the cache of relation entities by an empty one with the given
+    * configuration. By default, the entities of all requested relations are
+    * cached.
+    *
+    * @param config
+    *   the configuration of the new cache
+    */
+  def configureRelationEntityCache(config: CacheConfig): Unit =
+    _relationEntityCache = new EntityCache[RelationEntities](config, weight)
+
+  /** @return
+    *   the statistics of the relation entity cache since its configuration
+    */
+  def relationEntityCacheStatistics: CacheStatistics =
+    _relationEntityCache.statistics
+
+  /** @return
+    *   the time spent resolving relation entities since the configuration of
+    *   the relation entity cache, summed up over all threads
+    */
+  def relationResolutionTime: Duration = _relationEntityCache.computeTime
+
+  /** Relation entities are taken over, if neither the relation nor any of the
+    * member relations nor their members are changed
+    */
+  override protected[model] def inheritCaches(
+      previous: WayCache,
+      changes: OsmChangeSet
+  ): Unit = {
+    super.inheritCaches(previous, changes)
+    previous match {
+      case previous: RelationEntitiesSupport =>
+        _relationEntityCache = previous._relationEntityCache.retained {
+          (relationId, entities) =>
+            _getRelation(relationId).exists(relation =>
+              !changes.affects(relation) &&
+                entities.relations.values.forall(!changes.affects(_))
+            )
+        }
+      case _ =>
+    }
+  }
+
+  private def weight(relationEntities: RelationEntities): Int =
+    relationEntities.nodes.size + relationEntities.ways.size +
+      relationEntities.relations.size
 
   /** Tries to create a [[RelationEntities]] instance based on the provided
-    * identifier of the requested [[Relation]]
+    * identifier of the requested [[Relation]]. Member relations are resolved
+    * iteratively, hence neither deep hierarchies nor cyclic memberships
+    * overflow the stack. A relation, that is part of a membership cycle, is
+    * contained in its own [[RelationEntities]]. The entities of all relations
+    * visited on the way are cached as well.
     *
     * @param relationId
     *   the identifier of the relation of interest
     * @return
     *   an optional instance of [[RelationEntities]]
     */
-  def relationEntities(relationId: Long): Option[RelationEntities] = {
-
-    _relationEntityCache.safeGet(relationId) match {
-      case relationEntities @ Some(_) =>
-        relationEntities
-      case None =>
-        _getRelation(relationId)
-          .map(relation => {
-            val (nodes, ways, relations) = relation.members.foldLeft(
-              Map.empty[Long, Node],
-              Map.empty[Long, Way],
-              Map.empty[Long, Relation]
-            ) { case ((nodes, ways, relations), relationMember) =>
-              relationMember.relationType match {
-                case RelationMemberType.Node =>
-                  _getNode(relationMember.id) match {
-                    case Some(node) =>
-                      (nodes + (node.id -> node), ways, relations)
-                    case None =>
-                      (nodes, ways, relations)
-                  }
-                case RelationMemberType.Way =>
-                  _getWay(relationMember.id) match {
-                    case Some(way) =>
-                      (nodes, ways + (way.id -> way), relations)
-                    case None =>
-                      (nodes, ways, relations)
-                  }
-
-                case RelationMemberType.Relation =>
-                  relationEntities(relationMember.id)
-                    .zip(_getRelation(relationMember.id)) match {
-                    case Some((entities, relation)) =>
-                      (
-                        nodes ++ entities.nodes,
-                        ways ++ entities.ways,
-                        relations ++ entities.relations + (relation.id -> relation)
-                      )
-                    case None =>
-                      (nodes, ways, relations)
-                  }
-                case RelationMemberType.Unrecognized =>
-                  logger.warn(
-                    s"RelationMember '$relationMember' has type 'Unrecognized'."
-                  )
-                  (nodes, ways, relations)
+  def relationEntities(relationId: Long): Option[RelationEntities] =
+    _relationEntityCache.getOrCompute(relationId)(
+      _getRelation(relationId).map { relation =>
+        val resolved = resolveRelationEntities(relationId, relation)
+        resolved.foreach { case (id, entities) =>
+          if (id != relationId) _relationEntityCache.put(id, entities)
+        }
+        resolved(relationId)
+      }
+    )
+
+  /** Resolves the [[RelationEntities]] of several relations in parallel.
+    * Intermediate results of shared member relations are exchanged via the
+    * relation entity cache, unless it is disabled.
+    *
+    * @param relationIds
+    *   the identifiers of the relations of interest
+    * @return
+    *   the optional [[RelationEntities]] in the order of the given identifiers
+    */
+  def relationEntities(
+      relationIds: Seq[Long]
+  ): Seq[Option[RelationEntities]] =
+    relationIds.par.map(relationEntities).seq
+
+  /** Determines the strongly connected components of the membership graph, that
+    * is reachable from the given relation, with Tarjan's algorithm. The
+    * components are completed children first, so that the entities of a
+    * component are merged from its direct members and the already known
+    * entities of its member relations. Relations with cached entities are not
+    * visited again.
+    *
+    * @return
+    *   the entities of all visited relations
+    */
+  private def resolveRelationEntities(
+      rootId: Long,
+      root: Relation
+  ): mutable.HashMap[Long, RelationEntities] = {
+    val resolved = mutable.HashMap.empty[Long, RelationEntities]
+
+    val indices = mutable.HashMap.empty[Long, Int]
+    val lowLinks = mutable.HashMap.empty[Long, Int]
+    val componentStack = mutable.Stack.empty[Frame]
+    val onStack = mutable.HashSet.empty[Long]
+    val callStack = mutable.Stack.empty[Frame]
+
+    def visit(id: Long, relation: Relation): Unit = {
+      val frame = new Frame(id, relation)
+      indices(id) = indices.size
+      lowLinks(id) = indices(id)
+      componentStack.push(frame)
+      onStack += id
+      callStack.push(frame)
+    }
+
+    visit(rootId, root)
+    while (callStack.nonEmpty) {
+      val frame = callStack.top
+      if (frame.children.hasNext) {
+        val child = frame.children.next()
+        if (onStack.contains(child))
+          lowLinks(frame.id) = math.min(lowLinks(frame.id), indices(child))
+        else if (!indices.contains(child) && !resolved.contains(child))
+          // cached entities are kept, as they may be evicted meanwhile
+          _relationEntityCache.peek(child) match {
+            case Some(entities) => resolved(child) = entities
+            case None           => _getRelation(child).foreach(visit(child, _))
+          }
+      } else {
+        callStack.pop()
+        callStack.headOption.foreach { parent =>
+          lowLinks(parent.id) =
+            math.min(lowLinks(parent.id), lowLinks(frame.id))
+        }
+        if (lowLinks(frame.id) == indices(frame.id)) {
+          val component = mutable.ArrayBuffer.empty[Frame]
+          while (component.lastOption.forall(_.id != frame.id)) {
+            val member = componentStack.pop()
+            onStack -= member.id
+            component += member
+          }
+          val entities = componentEntities(component.toSeq, resolved.get)
+          component.foreach { member =>
+            resolved(member.id) = entities.copy(relationId = member.id)
+          }
+        }
+      }
+    }
+    resolved
+  }
+
+  /** Merges the entities of the relations of one strongly connected component.
+    * The entities of the largest member relation serve as base, that the
+    * entities of the other member relations and the direct members are added to
+    * in a single pass. As the maps are persistent, the base is shared instead
+    * of being copied and only nodes of the base touched by the added entities
+    * are copied once, which keeps time and memory linear in the added entities
+    * for deep as well as wide hierarchies.
+    */
+  private def componentEntities(
+      component: Seq[Frame],
+      known: Long => Option[RelationEntities]
+  ): RelationEntities = {
+    val componentIds = component.map(_.id).toSet
+    val nodes = Map.newBuilder[Long, Node]
+    val ways = Map.newBuilder[Long, Way]
+    val relations = Map.newBuilder[Long, Relation]
+    val children = mutable.ArrayBuffer.empty[RelationEntities]
+    var cyclic = component.size > 1
+
+    component.foreach { member =>
+      member.relation.members.foreach { relationMember =>
+        relationMember.relationType match {
+          case RelationMemberType.Node =>
+            _getNode(relationMember.id).foreach(node =>
+              nodes += node.id -> node
+            )
+          case RelationMemberType.Way =>
+            _getWay(relationMember.id).foreach(way => ways += way.id -> way)
+          case RelationMemberType.Relation
+              if componentIds.contains(relationMember.id) =>
+            cyclic = true
+          case RelationMemberType.Relation =>
+            known(relationMember.id)
+              .zip(_getRelation(relationMember.id))
+              .foreach { case (entities, relation) =>
+                children += entities
+                relations += relation.id -> relation
               }
-            }
-            RelationEntities(relationId, nodes, ways, relations)
-          })
-          .map(relationEntities => {
-            _relationEntityCache.putIfAbsent(relationId, relationEntities)
-            relationEntities
-          })
+          case RelationMemberType.Unrecognized =>
+            logger.warn(
+              s"RelationMember '$relationMember' has type 'Unrecognized'."
+            )
+        }
+      }
     }
+    if (cyclic)
+      component.foreach(member => relations += member.id -> member.relation)
+
+    val base = children.maxByOption(entities =>
+      entities.nodes.size + entities.ways.size + entities.relations.size
+    )
+    val others = children.filterNot(child => base.exists(_ eq child))
+    def merge[V](
+        baseEntities: Map[Long, V],
+        otherEntities: RelationEntities => Map[Long, V],
+        direct: Map[Long, V]
+    ): Map[Long, V] =
+      HashMap
+        .from(baseEntities)
+        .concat(others.iterator.flatMap(otherEntities) ++ direct)
+
+    RelationEntities(
+      component.head.id,
+      merge(base.map(_.nodes).getOrElse(Map.empty), _.nodes, nodes.result()),
+      merge(base.map(_.ways).getOrElse(Map.empty), _.ways, ways.result()),
+      merge(
+        base.map(_.relations).getOrElse(Map.empty),
+        _.relations,
+        relations.result()
+      )
+    )
   }
 }
 
 object RelationEntitiesSupport {
 
+  /** A relation visited while resolving relation entities together with its not
+    * yet visited member relations
+    */
+  private final class Frame(val id: Long, val relation: Relation) {
+    val children: Iterator[Long] = relation.members.iterator
+      .filter(_.relationType == RelationMemberType.Relation)
+      .map(_.id)
+  }
+
   /** Class holding all instances of [[Node]] s, [[Way]] s, and [[Relation]] s
     * inside a specific [[Relation]]. This class is intended to be recursive and
     * comprehensive. That means, if it holds [[Relation]] instances, all
@@ -6,15 +6,23 @@
 package edu.ie3.util.osm.model
 
 import com.typesafe.scalalogging.LazyLogging
+import edu.ie3.util.geo.GeoUtils
 import edu.ie3.util.geo.RichGeometries._
-import edu.ie3.util.osm.OsmUtils
 import edu.ie3.util.osm.model.OsmEntity.Way
 import edu.ie3.util.osm.model.OsmEntity.Way.ClosedWay
+import edu.ie3.util.osm.model.RichClosedWaySupport.{
+  InvalidRing,
+  MissingNodes,
+  WayPolygonReport
+}
 import org.locationtech.jts.geom.{Point, Polygon}
 import tech.units.indriya.ComparableQuantity
 import tech.units.indriya.unit.Units
 
+import java.time.Duration
 import javax.measure.quantity.Area
+import scala.collection.parallel.CollectionConverters._
+import scala.util.{Failure, Success, Try}
 
 /** Trait to support calculations for ways located inside a [[OsmContainer]]
   * instance
@@ -113,25 +121,131 @@ trait RichClosedWaySupport extends WayCache with LazyLogging {
     *   the optional polygon of the provided way
     */
   def wayPolygon(wayId: Long): Option[Polygon] =
-    _wayPolygonCache
-      .safeGet(wayId)
-      .orElse(
-        _getWay(wayId).flatMap {
-          case Way.OpenWay(_, _, _, _) =>
-            logger
-              .error(s"Cannot create polygon for OpenWay with id '$wayId'!")
-            None
-          case way @ (closedWay: Way.ClosedWay) =>
-            wayNodes(way)
-              .map(OsmUtils.GeometryUtils.buildPolygon)
-              .map(polygon => {
-                _wayPolygonCache.putIfAbsent(wayId, polygon)
-                polygon
-              })
-        }
-      )
-
-  private val _wayPolygonCache =
-    new java.util.concurrent.ConcurrentHashMap[Long, Polygon]()
+    _getWay(wayId).flatMap {
+      case Way.OpenWay(_, _, _, _) =>
+        logger
+          .error(s"Cannot create polygon for OpenWay with id '$wayId'!")
+        None
+      case way @ (closedWay: Way.ClosedWay) =>
+        _wayPolygonCache.getOrCompute(wayId)(
+          wayCoordinates(way).map(GeoUtils.buildPolygon)
+        )
+    }
 
+  /** Builds the polygons of all [[ClosedWay]] s accepted by the given filter in
+    * parallel and puts them into the way polygon cache, so that subsequent
+    * calls of e.g. [[wayPolygon]] or [[wayAreaOnEarth]] do not need to build
+    * them one after another. Polygons, that are cached already, are not built
+    * again. If the cache is bounded, polygons may be evicted again. Ways, whose
+    * polygon cannot be built, are reported instead of being logged, e.g.
+    * {{{
+    * val report = container.precomputeWayPolygons(_.hasKey(CommonOsmKey.Building))
+    * report.failures.foreach(...)
+    * }}}
+    *
+    * @param filter
+    *   filter of the ways of interest, e.g. by their tags
+    * @return
+    *   the number of available polygons and the failures
+    */
+  def precomputeWayPolygons(filter: Way => Boolean): WayPolygonReport = {
+    val closedWays = _allWays.collect {
+      case way: ClosedWay if filter(way) => way
+    }.toArray
+    val failures = closedWays.par
+      .flatMap { way =>
+        if (_wayPolygonCache.peek(way.id).isDefined) None
+        else
+          _wayPolygonCache.timed(wayCoordinates(way) match {
+            case None =>
+              Some(
+                MissingNodes(
+                  way.id,
+                  way.nodes.filter(nodeCoordinate(_).isEmpty).distinct
+                )
+              )
+            case Some(coordinates) =>
+              Try(GeoUtils.buildPolygon(coordinates)) match {
+                case Success(polygon) =>
+                  _wayPolygonCache.put(way.id, polygon)
+                  None
+                case Failure(exception) =>
+                  Some(InvalidRing(way.id, exception.getMessage))
+              }
+          })
+      }
+      .seq
+      .toSeq
+      .sortBy(_.wayId)
+    WayPolygonReport(closedWays.length - failures.size, failures)
+  }
+
+  @volatile private var _wayPolygonCache =
+    new EntityCache[Polygon](CacheConfig.Unbounded, _.getNumPoints)
+
+  /** Replaces the cache of way polygons by an empty one with the given
+    * configuration. By default, the polygons of all requested ways are cached.
+    *
+    * @param config
+    *   the configuration of the new cache
+    */
+  def configureWayPolygonCache(config: CacheConfig): Unit =
+    _wayPolygonCache = new EntityCache[Polygon](config, _.getNumPoints)
+
+  override protected[model] def inheritCaches(
+      previous: WayCache,
+      changes: OsmChangeSet
+  ): Unit = {
+    super.inheritCaches(previous, changes)
+    previous match {
+      case previous: RichClosedWaySupport =>
+        _wayPolygonCache = previous._wayPolygonCache.retained((wayId, _) =>
+          isUnaffectedWay(wayId, changes)
+        )
+      case _ =>
+    }
+  }
+
+  /** @return
+    *   the statistics of the way polygon cache since its configuration
+    */
+  def wayPolygonCacheStatistics: CacheStatistics = _wayPolygonCache.statistics
+
+  /** @return
+    *   the time spent building way polygons since the configuration of the way
+    *   polygon cache, summed up over all threads
+    */
+  def wayPolygonBuildTime: Duration = _wayPolygonCache.computeTime
+
+}
+
+object RichClosedWaySupport {
+
+  /** Result of [[RichClosedWaySupport.precomputeWayPolygons]]
+    *
+    * @param polygons
+    *   number of ways, whose polygon is available
+    * @param failures
+    *   ways, whose polygon cannot be built, ordered by id
+    */
+  final case class WayPolygonReport(
+      polygons: Int,
+      failures: Seq[WayPolygonFailure]
+  )
+
+  /** Reason, why the polygon of a way cannot be built
+    */
+  sealed trait WayPolygonFailure {
+    val wayId: Long
+  }
+
+  /** Some nodes of the way are not part of the container
+    */
+  final case class MissingNodes(wayId: Long, nodeIds: Seq[Long])
+      extends WayPolygonFailure
+
+  /** The nodes of the way do not form a valid ring, e.g. as there are too few
+    */
+  final case class InvalidRing(wayId: Long, reason: String)
+      extends WayPolygonFailure
 }
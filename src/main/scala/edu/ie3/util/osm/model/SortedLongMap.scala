@@ -0,0 +1,196 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+/** An immutable map with primitive long keys. The keys are held in a sorted
+  * `long[]`, the values in an array of the same length, so that a lookup is a
+  * binary search without any boxing of the key. Compared to a
+  * [[scala.collection.immutable.Map]] of boxed [[java.lang.Long]] keys, this
+  * saves the key objects as well as the trie nodes and keeps the entries in id
+  * order, which makes ordered iteration and merging cheap.
+  *
+  * @tparam V
+  *   type of the values
+  */
+final class SortedLongMap[V] private (
+    private val _keys: Array[Long], // strictly ascending
+    private val _values: Array[AnyRef]
+) {
+
+  def size: Int = _keys.length
+
+  def isEmpty: Boolean = _keys.isEmpty
+
+  def nonEmpty: Boolean = !isEmpty
+
+  /** Searches the index of the given key.
+    *
+    * @param key
+    *   the key to look for
+    * @return
+    *   the index of the key or a negative number, if the key is not contained
+    */
+  def indexOf(key: Long): Int =
+    java.util.Arrays.binarySearch(_keys, key)
+
+  def contains(key: Long): Boolean = indexOf(key) >= 0
+
+  def get(key: Long): Option[V] = {
+    val idx = indexOf(key)
+    if (idx >= 0) Some(valueAt(idx)) else None
+  }
+
+  def getOrElse[V1 >: V](key: Long, default: => V1): V1 = {
+    val idx = indexOf(key)
+    if (idx >= 0) valueAt(idx) else default
+  }
+
+  def keyAt(idx: Int): Long = _keys(idx)
+
+  def valueAt(idx: Int): V = _values(idx).asInstanceOf[V]
+
+  /** @return
+    *   a copy of all keys in ascending order
+    */
+  def keyArray: Array[Long] = _keys.clone()
+
+  def keysIterator: Iterator[Long] = _keys.iterator
+
+  def valuesIterator: Iterator[V] = _values.iterator.map(_.asInstanceOf[V])
+
+  def iterator: Iterator[(Long, V)] =
+    Iterator.range(0, size).map(idx => (_keys(idx), valueAt(idx)))
+
+  def values: Iterable[V] = _values.view.map(_.asInstanceOf[V])
+
+  def foreach[U](f: (Long, V) => U): Unit = {
+    var idx = 0
+    while (idx < _keys.length) {
+      f(_keys(idx), valueAt(idx))
+      idx += 1
+    }
+  }
+
+  /** Transform all values while keeping the keys. As the key array is shared
+    * with the result, this does not require any sorting.
+    */
+  def mapValues[W](f: V => W): SortedLongMap[W] =
+    new SortedLongMap[W](
+      _keys,
+      _values.map(value => f(value.asInstanceOf[V]).asInstanceOf[AnyRef])
+    )
+
+  /** Keeps the entries with the accepted keys. As the keys are filtered in
+    * order, this does not require any sorting.
+    */
+  def filterKeys(keep: Long => Boolean): SortedLongMap[V] = {
+    val kept = _keys.indices.filter(idx => keep(_keys(idx))).toArray
+    new SortedLongMap[V](kept.map(_keys), kept.map(_values))
+  }
+
+  /** Applies the given changes in time linear to the size of the map. Entries
+    * changed to [[None]] are removed, the values of unchanged entries are
+    * shared with the result.
+    *
+    * @param changes
+    *   the new values by key
+    * @return
+    *   the updated map
+    */
+  def updated(changes: Map[Long, Option[V]]): SortedLongMap[V] =
+    if (changes.isEmpty) this
+    else {
+      val changedKeys = changes.keys.toArray.sorted
+      val changedValues =
+        changedKeys.map(key => changes(key).orNull.asInstanceOf[AnyRef])
+      val sources = PrimitiveArrays.mergeChanges(
+        _keys,
+        changedKeys,
+        change => changedValues(change) == null
+      )
+      new SortedLongMap[V](
+        sources.map(src => if (src >= 0) _keys(src) else changedKeys(~src)),
+        sources.map(src => if (src >= 0) _values(src) else changedValues(~src))
+      )
+    }
+
+  def toMap: Map[Long, V] = iterator.toMap
+
+  override def equals(obj: Any): Boolean = obj match {
+    case that: SortedLongMap[_] =>
+      java.util.Arrays.equals(_keys, that._keys) &&
+        java.util.Arrays.equals(_values, that._values)
+    case _ => false
+  }
+
+  override def hashCode(): Int =
+    31 * java.util.Arrays.hashCode(_keys) + java.util.Arrays.hashCode(_values)
+
+  override def toString: String =
+    iterator.mkString("SortedLongMap(", ", ", ")")
+}
+
+object SortedLongMap {
+
+  def empty[V]: SortedLongMap[V] =
+    new SortedLongMap[V](Array.emptyLongArray, Array.empty[AnyRef])
+
+  def apply[V](entries: (Long, V)*): SortedLongMap[V] =
+    from(entries)
+
+  def from[V](entries: IterableOnce[(Long, V)]): SortedLongMap[V] = {
+    val builder = newBuilder[V]
+    entries.iterator.foreach { case (key, value) => builder.add(key, value) }
+    builder.result()
+  }
+
+  /** Build a map from values, that carry their own key.
+    *
+    * @param values
+    *   the values to put into the map
+    * @param key
+    *   function to derive the key of a value
+    */
+  def fromValues[V](
+      values: IterableOnce[V]
+  )(key: V => Long): SortedLongMap[V] = {
+    val builder = newBuilder[V]
+    values.iterator.foreach(value => builder.add(key(value), value))
+    builder.result()
+  }
+
+  def newBuilder[V]: Builder[V] = new Builder[V]
+
+  /** Mutable builder for [[SortedLongMap]] s. Entries may be added in any
+    * order. If a key is added several times, the last value wins. Adding
+    * entries in ascending key order (as found in OSM extracts) avoids the
+    * sorting step.
+    */
+  final class Builder[V] private[SortedLongMap] {
+    private var keys = new Array[Long](16)
+    private var values = new Array[AnyRef](16)
+    private var count = 0
+
+    def add(key: Long, value: V): Builder[V] = {
+      if (count == keys.length) {
+        val newLength = count + (count >> 1)
+        keys = java.util.Arrays.copyOf(keys, newLength)
+        values = java.util.Arrays.copyOf(values, newLength)
+      }
+      keys(count) = key
+      values(count) = value.asInstanceOf[AnyRef]
+      count += 1
+      this
+    }
+
+    def size: Int = count
+
+    def result(): SortedLongMap[V] = {
+      val indices = PrimitiveArrays.distinctSortedIndices(keys, count)
+      new SortedLongMap[V](indices.map(keys), indices.map(values))
+    }
+  }
+}
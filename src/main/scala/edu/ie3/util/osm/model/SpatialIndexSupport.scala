@@ -0,0 +1,235 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.geo.GeoUtils
+import edu.ie3.util.osm.model.OsmEntity.{Relation, Way}
+import edu.ie3.util.osm.model.SpatialIndexSupport.{
+  Indexed,
+  envelopeOf,
+  distanceInMetres
+}
+import org.locationtech.jts.geom.{Coordinate, Envelope, Point}
+import org.locationtech.jts.index.strtree.STRtree
+import tech.units.indriya.ComparableQuantity
+import tech.units.indriya.unit.Units
+
+import javax.measure.quantity.Length
+import scala.jdk.CollectionConverters._
+
+/** Trait to be used for [[OsmContainer]] instances to find ways and relations
+  * by their location. The spatial indices are built lazily on first use from
+  * the envelopes of the node coordinates, polygons are not built. Once built,
+  * the indices are only read, hence they can be queried concurrently.
+  */
+trait SpatialIndexSupport extends RelationEntitiesSupport {
+
+  private lazy val _waySpatialIndex: STRtree =
+    buildIndex(_allWays.flatMap { way =>
+      envelopeOf(way.nodes.iterator.flatMap(nodeCoordinate))
+        .map(Indexed(way, _))
+    })
+
+  private lazy val _relationSpatialIndex: STRtree =
+    buildIndex(_allRelations.flatMap { relation =>
+      relationEntities(relation.id).flatMap { entities =>
+        val coordinates = entities.nodes.keysIterator ++
+          entities.ways.valuesIterator.flatMap(_.nodes)
+        envelopeOf(coordinates.flatMap(nodeCoordinate))
+          .map(Indexed(relation, _))
+      }
+    })
+
+  /** Finds all ways, whose envelope intersects the given envelope
+    *
+    * @param envelope
+    *   envelope in longitude (x) and latitude (y)
+    * @return
+    *   the ways ordered by id
+    */
+  def waysIntersecting(envelope: Envelope): Seq[Way] =
+    query[Way](_waySpatialIndex, envelope)
+
+  /** Finds all ways with the given key, whose envelope intersects the given
+    * envelope. NOTE: If an empty values set is given it matches any value.
+    *
+    * @param envelope
+    *   envelope in longitude (x) and latitude (y)
+    * @param osmKey
+    *   the key to match
+    * @param specificTagValues
+    *   optional values to match
+    * @return
+    *   the ways ordered by id
+    */
+  def waysIntersecting(
+      envelope: Envelope,
+      osmKey: String,
+      specificTagValues: Option[Set[String]]
+  ): Seq[Way] =
+    waysIntersecting(envelope).filter(
+      _.hasKeyValuesPairOr(osmKey, specificTagValues.getOrElse(Set.empty))
+    )
+
+  /** Finds all ways, that pass the given point within the given distance. Only
+    * segments between consecutive nodes, that are both contained, are taken
+    * into account, as a missing node, e.g. of a clipped container, may lie
+    * anywhere. Contained nodes without contained neighbours count as points.
+    *
+    * @param point
+    *   the point of interest
+    * @param distance
+    *   the maximum distance between the point and the way
+    * @return
+    *   the ways ordered by id
+    */
+  def waysNear(point: Point, distance: ComparableQuantity[Length]): Seq[Way] = {
+    val maxDistance = distance.to(Units.METRE).getValue.doubleValue
+    val center = point.getCoordinate
+    waysIntersecting(GeoUtils.calculateBoundingBox(point, distance)).filter {
+      way =>
+        val coordinates = way.nodes.map(nodeCoordinate).toIndexedSeq
+        coordinates.indices.exists { idx =>
+          coordinates(idx).exists { coordinate =>
+            coordinates.lift(idx + 1).flatten match {
+              case Some(next) =>
+                distanceInMetres(center, coordinate, next) <= maxDistance
+              case None =>
+                coordinates.lift(idx - 1).flatten.isEmpty &&
+                  distanceInMetres(center, coordinate) <= maxDistance
+            }
+          }
+        }
+    }
+  }
+
+  /** Finds all ways with the given key, that pass the given point within the
+    * given distance. NOTE: If an empty values set is given it matches any
+    * value.
+    *
+    * @param point
+    *   the point of interest
+    * @param distance
+    *   the maximum distance between the point and the way
+    * @param osmKey
+    *   the key to match
+    * @param specificTagValues
+    *   optional values to match
+    * @return
+    *   the ways ordered by id
+    */
+  def waysNear(
+      point: Point,
+      distance: ComparableQuantity[Length],
+      osmKey: String,
+      specificTagValues: Option[Set[String]]
+  ): Seq[Way] =
+    waysNear(point, distance).filter(
+      _.hasKeyValuesPairOr(osmKey, specificTagValues.getOrElse(Set.empty))
+    )
+
+  /** Finds all relations, whose envelope intersects the given envelope. The
+    * envelope of a relation covers all nodes and ways of its
+    * [[RelationEntitiesSupport.RelationEntities]].
+    *
+    * @param envelope
+    *   envelope in longitude (x) and latitude (y)
+    * @return
+    *   the relations ordered by id
+    */
+  def relationsIntersecting(envelope: Envelope): Seq[Relation] =
+    query[Relation](_relationSpatialIndex, envelope)
+
+  /** Finds all relations with the given key, whose envelope intersects the
+    * given envelope. NOTE: If an empty values set is given it matches any
+    * value.
+    *
+    * @param envelope
+    *   envelope in longitude (x) and latitude (y)
+    * @param osmKey
+    *   the key to match
+    * @param specificTagValues
+    *   optional values to match
+    * @return
+    *   the relations ordered by id
+    */
+  def relationsIntersecting(
+      envelope: Envelope,
+      osmKey: String,
+      specificTagValues: Option[Set[String]]
+  ): Seq[Relation] =
+    relationsIntersecting(envelope).filter(
+      _.hasKeyValuesPairOr(osmKey, specificTagValues.getOrElse(Set.empty))
+    )
+
+  private def buildIndex(entries: Iterator[Indexed]): STRtree = {
+    val index = new STRtree()
+    entries.foreach(entry => index.insert(entry.envelope, entry))
+    // building up front makes subsequent queries read only
+    index.build()
+    index
+  }
+
+  private def query[E <: OsmEntity](
+      index: STRtree,
+      envelope: Envelope
+  ): Seq[E] =
+    index
+      .query(envelope)
+      .asScala
+      .collect {
+        case Indexed(entity, entityEnvelope)
+            if entityEnvelope.intersects(envelope) =>
+          entity.asInstanceOf[E]
+      }
+      .sortBy(_.id)
+      .toSeq
+}
+
+object SpatialIndexSupport {
+
+  private final case class Indexed(entity: OsmEntity, envelope: Envelope)
+
+  private def envelopeOf(coordinates: Iterator[Coordinate]): Option[Envelope] =
+    if (!coordinates.hasNext) None
+    else {
+      val envelope = new Envelope()
+      coordinates.foreach(envelope.expandToInclude)
+      Some(envelope)
+    }
+
+  private def distanceInMetres(a: Coordinate, b: Coordinate): Double =
+    GeoUtils.calcHaversine(a, b).to(Units.METRE).getValue.doubleValue
+
+  /** Distance between a point and a segment. The closest point of the segment
+    * is determined in a local equirectangular projection around the point, the
+    * distance to it is calculated by the haversine formula.
+    */
+  private def distanceInMetres(
+      point: Coordinate,
+      segmentStart: Coordinate,
+      segmentEnd: Coordinate
+  ): Double = {
+    val lonScale = math.cos(math.toRadians(point.y))
+    val startX = (segmentStart.x - point.x) * lonScale
+    val startY = segmentStart.y - point.y
+    val deltaX = (segmentEnd.x - segmentStart.x) * lonScale
+    val deltaY = segmentEnd.y - segmentStart.y
+    val lengthSquared = deltaX * deltaX + deltaY * deltaY
+    val fraction =
+      if (lengthSquared == 0) 0d
+      else
+        math.max(
+          0d,
+          math.min(1d, -(startX * deltaX + startY * deltaY) / lengthSquared)
+        )
+    val closest = new Coordinate(
+      segmentStart.x + fraction * (segmentEnd.x - segmentStart.x),
+      segmentStart.y + fraction * (segmentEnd.y - segmentStart.y)
+    )
+    distanceInMetres(point, closest)
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.osm.model.OsmEntity.Way.{ClosedWay, OpenWay}
+import edu.ie3.util.osm.model.OsmEntity.{Relation, Way}
+
+import java.util.concurrent.ConcurrentHashMap
+
+/** Dictionary, that assigns dense int codes to tag keys and values. Within an
+  * OSM extract the same keys and values (e.g. "building" -> "yes") occur over
+  * and over again, hence every string is only held once by the dictionary and
+  * tags can be stored as [[CompactTags]] consisting of codes only.
+  *
+  * Entities hold encoded tags through the map view [[DictionaryTags]], see
+  * [[encoded]]. The dictionary is meant to be built once per extract. It only
+  * grows and is safe to be shared between threads, e.g. by parallel readers.
+  */
+final class TagDictionary {
+
+  import TagDictionary._
+
+  private val codes = new ConcurrentHashMap[String, Integer]()
+  @volatile private var strings = new Array[String](64)
+  private var count = 0
+
+  def size: Int = codes.size()
+
+  /** Determines the code of the given string and adds it to the dictionary, if
+    * it is unknown yet
+    *
+    * @param string
+    *   the key or value to encode
+    * @return
+    *   the code of the string
+    */
+  def code(string: String): Int = {
+    val known = codes.get(string)
+    if (known != null) known
+    else
+      synchronized {
+        val existing = codes.get(string)
+        if (existing != null) existing
+        else {
+          if (count == strings.length)
+            strings = java.util.Arrays.copyOf(strings, count * 2)
+          strings(count) = string
+          codes.put(string, count)
+          count += 1
+          count - 1
+        }
+      }
+  }
+
+  /** Looks up the code of the given string without adding it
+    *
+    * @param string
+    *   the key or value to look for
+    * @return
+    *   the code of the string or [[TagDictionary.NoCode]], if the string is
+    *   unknown
+    */
+  def lookup(string: String): Int = {
+    val known = codes.get(string)
+    if (known != null) known else NoCode
+  }
+
+  def lookup(key: CommonOsmKey): Int = lookup(key.toString)
+
+  /** @return
+    *   the string with the given code
+    */
+  def string(code: Int): String =
+    if (code >= 0 && code < size) strings(code)
+    else throw new IndexOutOfBoundsException(s"Unknown tag code $code.")
+
+  /** @return
+    *   the instance of the string held by the dictionary, that can be shared
+    *   instead of the given one
+    */
+  def intern(string: String): String = this.string(code(string))
+
+  /** Encodes the given tags
+    */
+  def encode(tags: Map[String, String]): CompactTags = tags match {
+    case encoded: DictionaryTags if encoded.dictionary eq this =>
+      encoded.compact
+    case _ if tags.isEmpty => CompactTags.empty
+    case _ =>
+      val pairs = new Array[Int](2 * tags.size)
+      var idx = 0
+      tags.foreach { case (key, value) =>
+        pairs(idx) = code(key)
+        pairs(idx + 1) = code(value)
+        idx += 2
+      }
+      CompactTags.fromPairs(pairs)
+  }
+
+  /** @return
+    *   a map view on the given tags encoded by this dictionary
+    */
+  def view(tags: CompactTags): Map[String, String] =
+    if (tags.isEmpty) Map.empty else new DictionaryTags(tags, this)
+
+  /** Encodes the given tags, but still exposes them as map
+    */
+  def encoded(tags: Map[String, String]): Map[String, String] = tags match {
+    case encoded: DictionaryTags if encoded.dictionary eq this => encoded
+    case _ => view(encode(tags))
+  }
+
+  /** @return
+    *   the way holding its tags encoded by this dictionary
+    */
+  def encoded(way: Way): Way = way match {
+    case openWay: OpenWay     => openWay.copy(tags = encoded(openWay.tags))
+    case closedWay: ClosedWay => closedWay.copy(tags = encoded(closedWay.tags))
+  }
+
+  /** @return
+    *   the relation holding its tags encoded by this dictionary
+    */
+  def encoded(relation: Relation): Relation =
+    relation.copy(tags = encoded(relation.tags))
+
+  /** Decodes the given tags, that have been encoded by this dictionary
+    */
+  def decode(tags: CompactTags): Map[String, String] =
+    if (tags.isEmpty) Map.empty
+    else {
+      val builder = Map.newBuilder[String, String]
+      var idx = 0
+      while (idx < tags.size) {
+        builder += string(tags.keyCodeAt(idx)) -> string(tags.valueCodeAt(idx))
+        idx += 1
+      }
+      builder.result()
+    }
+
+  override def toString: String = s"TagDictionary(size = $size)"
+}
+
+object TagDictionary {
+
+  /** Code denoting a string, that is not part of a dictionary
+    */
+  val NoCode: Int = -1
+
+}
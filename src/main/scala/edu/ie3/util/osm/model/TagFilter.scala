@@ -0,0 +1,62 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+/** Description of a filter on the tags of [[OsmEntity]] s, that is built from
+  * key value conditions, negations and conjunctions or disjunctions, e.g.
+  * {{{
+  * val filter = (TagFilter.key("building") || TagFilter.key("landuse", Set("residential"))) &&
+  *   !TagFilter.key("disused", Set("yes"))
+  * }}}
+  * Filters are to be compiled once via [[compile]] before they are applied to
+  * many entities.
+  */
+sealed trait TagFilter {
+
+  def unary_! : TagFilter = TagFilter.Not(this)
+
+  def &&(that: TagFilter): TagFilter = TagFilter.And(Seq(this, that))
+
+  def ||(that: TagFilter): TagFilter = TagFilter.Or(Seq(this, that))
+
+  def compile: CompiledTagFilter = CompiledTagFilter(this)
+
+}
+
+object TagFilter {
+
+  /** Matches entities, that have a tag with the given key and one of the given
+    * values. NOTE: If an empty values set is given it matches any value.
+    */
+  final case class Key(key: String, values: Set[String]) extends TagFilter
+
+  final case class Not(filter: TagFilter) extends TagFilter
+
+  /** Matches entities, that match all of the filters, hence every entity, if
+    * there are none
+    */
+  final case class And(filters: Seq[TagFilter]) extends TagFilter
+
+  /** Matches entities, that match at least one of the filters, hence no entity,
+    * if there are none
+    */
+  final case class Or(filters: Seq[TagFilter]) extends TagFilter
+
+  def key(key: String, values: Set[String] = Set.empty): TagFilter =
+    Key(key, values)
+
+  def key(key: CommonOsmKey): TagFilter = Key(key.toString, Set.empty)
+
+  /** Builds the filter equivalent to [[OsmEntity.hasKeysValuesPairOr]]
+    *
+    * @param keyTagValues
+    *   mapping from key to possible values to match against, an empty set of
+    *   values matches any value
+    */
+  def anyOf(keyTagValues: Map[String, Set[String]]): TagFilter =
+    Or(keyTagValues.map { case (key, values) => Key(key, values) }.toSeq)
+
+}
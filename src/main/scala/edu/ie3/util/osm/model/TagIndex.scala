@@ -0,0 +1,175 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.osm.model.OsmContainer.{
+  MappedOsmContainer,
+  ParOsmContainer,
+  PrimitiveOsmContainer,
+  SeqOsmContainer
+}
+
+import scala.collection.immutable.ArraySeq
+import scala.collection.mutable
+
+/** Inverted index from tag key and value to the entities carrying the tag. It
+  * is built once over a sequence of entities or a container, afterwards queries
+  * like [[entitiesByKey]] are answered by a lookup instead of testing the tags
+  * of every entity.
+  *
+  * Entities are referred to by their position within [[entities]], which is
+  * held in primitive int arrays. Results keep the order of [[entities]]. Only
+  * tagged entities are indexed, as untagged ones never match any query.
+  *
+  * @param entities
+  *   the indexed entities
+  * @param keyPostings
+  *   ascending positions of all entities per key
+  * @param valuePostings
+  *   ascending positions of all entities per key and value
+  */
+final class TagIndex private (
+    val entities: IndexedSeq[OsmEntity],
+    keyPostings: Map[String, Array[Int]],
+    valuePostings: Map[String, Map[String, Array[Int]]]
+) {
+
+  def keys: Set[String] = keyPostings.keySet
+
+  /** @return
+    *   all values of the given key
+    */
+  def values(key: String): Set[String] =
+    valuePostings.get(key).map(_.keySet).getOrElse(Set.empty)
+
+  /** Determines the positions of the entities, that have the given key and one
+    * of the given values. NOTE: If no or an empty values set is given it
+    * matches any value.
+    *
+    * @param key
+    *   the key to match
+    * @param specificTagValues
+    *   optional values to match
+    * @return
+    *   ascending positions within [[entities]]
+    */
+  def positions(
+      key: String,
+      specificTagValues: Option[Set[String]] = None
+  ): Array[Int] = specificTagValues match {
+    case Some(tagValues) if tagValues.nonEmpty =>
+      val byValue = valuePostings.getOrElse(key, Map.empty)
+      tagValues.toSeq.flatMap(byValue.get) match {
+        case Seq()       => Array.emptyIntArray
+        case Seq(single) => single.clone()
+        case several     =>
+          // an entity has a single value per key, hence postings are disjoint
+          val merged = several.toArray.flatten
+          java.util.Arrays.sort(merged)
+          merged
+      }
+    case _ =>
+      keyPostings.get(key).map(_.clone()).getOrElse(Array.emptyIntArray)
+  }
+
+  /** Number of entities, that have the given key and value
+    */
+  def count(key: String, value: String): Int =
+    valuePostings.get(key).flatMap(_.get(value)).map(_.length).getOrElse(0)
+
+  /** Number of entities, that have the given key
+    */
+  def count(key: String): Int = keyPostings.get(key).map(_.length).getOrElse(0)
+
+  /** Looks up the entities, that have the given key and one of the given
+    * values. NOTE: If no or an empty values set is given it matches any value.
+    *
+    * @param osmKey
+    *   the key to match
+    * @param specificTagValues
+    *   optional values to match
+    * @return
+    *   the matching entities in the order of [[entities]]
+    */
+  def entitiesByKey(
+      osmKey: String,
+      specificTagValues: Option[Set[String]] = None
+  ): IndexedSeq[OsmEntity] =
+    ArraySeq.unsafeWrapArray(
+      positions(osmKey, specificTagValues).map(entities)
+    )
+
+  def entitiesByKey(
+      osmKey: CommonOsmKey,
+      specificTagValues: Option[Set[String]]
+  ): IndexedSeq[OsmEntity] =
+    entitiesByKey(osmKey.toString, specificTagValues)
+
+  override def toString: String =
+    s"TagIndex(entities = ${entities.size}, keys = ${keys.size})"
+}
+
+object TagIndex {
+
+  /** Builds the index over the given entities
+    *
+    * @param entities
+    *   the entities to index
+    * @return
+    *   the index
+    */
+  def apply(entities: IterableOnce[OsmEntity]): TagIndex = {
+    val indexed = ArraySeq.newBuilder[OsmEntity]
+    val byKey = mutable.HashMap.empty[String, mutable.ArrayBuilder.ofInt]
+    val byValue = mutable.HashMap
+      .empty[String, mutable.HashMap[String, mutable.ArrayBuilder.ofInt]]
+
+    var position = 0
+    entities.iterator.filter(_.tags.nonEmpty).foreach { entity =>
+      indexed += entity
+      entity.tags.foreach { case (key, value) =>
+        byKey.getOrElseUpdate(key, new mutable.ArrayBuilder.ofInt) += position
+        byValue
+          .getOrElseUpdate(key, mutable.HashMap.empty)
+          .getOrElseUpdate(value, new mutable.ArrayBuilder.ofInt) += position
+      }
+      position += 1
+    }
+
+    new TagIndex(
+      indexed.result(),
+      byKey.view.mapValues(_.result()).toMap,
+      byValue.view.mapValues(_.view.mapValues(_.result()).toMap).toMap
+    )
+  }
+
+  /** Builds the index over all nodes, ways and relations of the given container
+    *
+    * @param osmContainer
+    *   the container to index
+    * @return
+    *   the index
+    */
+  def apply(osmContainer: OsmContainer): TagIndex = osmContainer match {
+    case SeqOsmContainer(nodes, ways, relations) =>
+      apply(
+        nodes.valuesIterator ++ ways.valuesIterator ++ relations.valuesIterator
+      )
+    case container: ParOsmContainer =>
+      apply(container.seq())
+    case PrimitiveOsmContainer(nodes, ways, relations) =>
+      apply(
+        nodes.taggedNodeIds.flatMap(nodes.node) ++ ways.valuesIterator ++
+          relations.valuesIterator
+      )
+    case container: MappedOsmContainer =>
+      apply(
+        container.nodesIterator ++ container.waysIterator ++
+          container.relationsIterator
+      )
+  }
+
+}
@@ -0,0 +1,430 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.osm.model.OsmContainer.PrimitiveOsmContainer
+import edu.ie3.util.osm.model.OsmEntity.Relation.RelationMemberType
+import edu.ie3.util.osm.model.OsmEntity.{Node, Relation, Way}
+import org.locationtech.jts.geom.Envelope
+
+import java.util.concurrent.ForkJoinPool
+import scala.collection.mutable
+import scala.collection.parallel.CollectionConverters._
+import scala.collection.parallel.ForkJoinTaskSupport
+
+/** The entities of a container partitioned into the tiles of a regular grid
+  * over the extent of its nodes, so that analyses can run one task per tile on
+  * all cores, each touching the data of its tile only, e.g.
+  * {{{
+  * val tiled = TiledOsmContainer(container, columns = 8, rows = 8)
+  * val buildingArea = tiled.mapTiles { tile =>
+  *   tile.ownWays.collect {
+  *     case way: ClosedWay if way.hasKey(CommonOsmKey.Building) =>
+  *       tile.container.wayAreaOnEarth(way)
+  *   }.flatten.map(_.getValue.doubleValue).sum
+  * }.sum
+  * }}}
+  *
+  * Entities, that cross the border of tiles, are present in every tile their
+  * envelope intersects, but owned by exactly one of them: nodes by the tile
+  * containing them, ways and relations by the tile containing the centre of
+  * their envelope. Aggregations are to consider the owned entities only, while
+  * spatial joins, e.g. of the owned nodes with the ways covering them, find all
+  * partners within the tile. Every tile holds the nodes of its ways as well as
+  * the members of its relations, including those of nested relations, so that
+  * their geometry can be built within the tile. Ways and relations without any
+  * locatable node are put into the first tile.
+  *
+  * More tiles than cores balance the load of unevenly dense areas, as idle
+  * workers of the pool take over the remaining tiles.
+  *
+  * @param tiles
+  *   the tiles row by row, starting in the south west
+  */
+final class TiledOsmContainer private (
+    val tiles: IndexedSeq[TiledOsmContainer.Tile],
+    grid: TiledOsmContainer.Grid,
+    pool: ForkJoinPool
+) {
+
+  import TiledOsmContainer._
+
+  def columns: Int = grid.columns
+
+  def rows: Int = grid.rows
+
+  /** Applies the function to all tiles in parallel on the pool of this
+    * container
+    *
+    * @return
+    *   the results in the order of the [[tiles]]
+    */
+  def mapTiles[T](f: Tile => T): IndexedSeq[T] =
+    parallelTiles.map(f).seq.toIndexedSeq
+
+  /** Applies the function to all tiles in parallel on the pool of this
+    * container
+    */
+  def foreachTile(f: Tile => Unit): Unit = parallelTiles.foreach(f)
+
+  /** @return
+    *   the tile, that owns the nodes at the given position
+    */
+  def tileAt(latitude: Double, longitude: Double): Tile =
+    tiles(grid.tileOf(longitude, latitude))
+
+  /** @return
+    *   a container sharing the tiles with this one, that processes them on the
+    *   given pool
+    */
+  def withPool(pool: ForkJoinPool): TiledOsmContainer =
+    new TiledOsmContainer(tiles, grid, pool)
+
+  private def parallelTiles = {
+    val parallel = tiles.toArray.par
+    parallel.tasksupport = new ForkJoinTaskSupport(pool)
+    parallel
+  }
+
+  override def toString: String =
+    s"TiledOsmContainer(columns = $columns, rows = $rows)"
+}
+
+object TiledOsmContainer {
+
+  /** A tile of a [[TiledOsmContainer]]
+    *
+    * @param index
+    *   the index of the tile within [[TiledOsmContainer.tiles]]
+    * @param envelope
+    *   the area of the tile in longitude (x) and latitude (y)
+    * @param container
+    *   all entities present in the tile
+    */
+  final class Tile private[TiledOsmContainer] (
+      val index: Int,
+      val envelope: Envelope,
+      val container: PrimitiveOsmContainer,
+      ownNodeIds: IdBitSet,
+      ownWayIds: IdBitSet,
+      ownRelationIds: IdBitSet
+  ) {
+
+    def ownsNode(nodeId: Long): Boolean = ownNodeIds.contains(nodeId)
+
+    def ownsWay(wayId: Long): Boolean = ownWayIds.contains(wayId)
+
+    def ownsRelation(relationId: Long): Boolean =
+      ownRelationIds.contains(relationId)
+
+    def ownNodes: Iterator[Node] =
+      container.nodes.nodesIterator.filter(node => ownsNode(node.id))
+
+    def ownWays: Iterator[Way] =
+      container.ways.valuesIterator.filter(way => ownsWay(way.id))
+
+    def ownRelations: Iterator[Relation] =
+      container.relations.valuesIterator.filter(relation =>
+        ownsRelation(relation.id)
+      )
+
+    override def toString: String =
+      s"Tile(index = $index, nodes = ${container.nodes.size}, ways = ${container.ways.size}, relations = ${container.relations.size})"
+  }
+
+  /** Partitions the entities of the given container into a grid of tiles. The
+    * tiles are built in parallel on the given pool.
+    *
+    * @param container
+    *   the container to partition
+    * @param columns
+    *   the number of tiles from west to east
+    * @param rows
+    *   the number of tiles from south to north
+    * @param pool
+    *   the pool to build and process the tiles on
+    * @return
+    *   the tiled container
+    */
+  def apply(
+      container: OsmContainer,
+      columns: Int,
+      rows: Int,
+      pool: ForkJoinPool = ForkJoinPool.commonPool()
+  ): TiledOsmContainer = {
+    require(
+      columns > 0 && rows > 0,
+      s"The grid needs at least one column and row, but has $columns columns and $rows rows."
+    )
+    val primitive = PrimitiveOsmContainer(container)
+    val nodes = primitive.nodes
+    val ways = primitive.ways
+    val relations = primitive.relations
+    val taskSupport = new ForkJoinTaskSupport(pool)
+    def parallel(size: Int) = {
+      val indices = (0 until size).par
+      indices.tasksupport = taskSupport
+      indices
+    }
+
+    val bounds = new Envelope()
+    (0 until nodes.size).foreach(idx =>
+      bounds.expandToInclude(nodes.longitudeAt(idx), nodes.latitudeAt(idx))
+    )
+    if (bounds.isNull) bounds.init(0d, 0d, 0d, 0d)
+    val grid = Grid(bounds, columns, rows)
+
+    val wayEnvelopes = parallel(ways.size).map { idx =>
+      val envelope = new Envelope()
+      ways.valueAt(idx).nodeArray.foreach { nodeId =>
+        val node = nodes.indexOf(nodeId)
+        if (node >= 0)
+          envelope.expandToInclude(
+            nodes.longitudeAt(node),
+            nodes.latitudeAt(node)
+          )
+      }
+      envelope
+    }.toArray
+    val relationEnvelopes = parallel(relations.size).map { idx =>
+      val envelope = new Envelope()
+      relations.valueAt(idx).members.foreach { member =>
+        member.relationType match {
+          case RelationMemberType.Node =>
+            val node = nodes.indexOf(member.id)
+            if (node >= 0)
+              envelope.expandToInclude(
+                nodes.longitudeAt(node),
+                nodes.latitudeAt(node)
+              )
+          case RelationMemberType.Way =>
+            val way = ways.indexOf(member.id)
+            if (way >= 0) envelope.expandToInclude(wayEnvelopes(way))
+          case _ =>
+        }
+      }
+      envelope
+    }.toArray
+    expandByMemberRelations(relations, relationEnvelopes)
+
+    val nodeBuckets = buckets(grid.size)
+    (0 until nodes.size).foreach(idx =>
+      nodeBuckets(grid.tileOf(nodes.longitudeAt(idx), nodes.latitudeAt(idx))) +=
+        idx
+    )
+    val wayBuckets = buckets(grid.size)
+    wayEnvelopes.indices.foreach(idx =>
+      grid.tilesIntersecting(wayEnvelopes(idx)).foreach(wayBuckets(_) += idx)
+    )
+    val relationBuckets = buckets(grid.size)
+    relationEnvelopes.indices.foreach(idx =>
+      grid
+        .tilesIntersecting(relationEnvelopes(idx))
+        .foreach(relationBuckets(_) += idx)
+    )
+
+    val tiles = parallel(grid.size).map { tile =>
+      val presentRelations = relationBuckets(tile).result()
+      val presentWays = wayBuckets(tile).result()
+      val ownNodes = nodeBuckets(tile).result()
+
+      // members of the relations, nested relations are resolved as well
+      val wayIndices = mutable.ArrayBuilder.make[Int]
+      val nodeIndices = mutable.ArrayBuilder.make[Int]
+      wayIndices ++= presentWays
+      nodeIndices ++= ownNodes
+      val tileRelations = mutable.BitSet.fromSpecific(presentRelations)
+      val pending = mutable.Stack.from(presentRelations)
+      while (pending.nonEmpty) {
+        relations.valueAt(pending.pop()).members.foreach { member =>
+          member.relationType match {
+            case RelationMemberType.Node =>
+              addIndex(nodeIndices, nodes.indexOf(member.id))
+            case RelationMemberType.Way =>
+              addIndex(wayIndices, ways.indexOf(member.id))
+            case RelationMemberType.Relation =>
+              val relation = relations.indexOf(member.id)
+              if (relation >= 0 && tileRelations.add(relation))
+                pending.push(relation)
+            case _ =>
+          }
+        }
+      }
+      val tileWays = distinctSorted(wayIndices.result())
+      tileWays.foreach(idx =>
+        ways
+          .valueAt(idx)
+          .nodeArray
+          .foreach(nodeId => addIndex(nodeIndices, nodes.indexOf(nodeId)))
+      )
+
+      new Tile(
+        tile,
+        grid.envelopeOf(tile),
+        PrimitiveOsmContainer(
+          nodes.select(distinctSorted(nodeIndices.result())),
+          SortedLongMap.fromValues(tileWays.map(ways.valueAt))(_.id),
+          SortedLongMap.fromValues(
+            tileRelations.toArray.map(relations.valueAt)
+          )(_.id)
+        ),
+        IdBitSet(ownNodes.map(nodes.idAt)),
+        IdBitSet(
+          presentWays
+            .filter(idx => grid.owner(wayEnvelopes(idx)) == tile)
+            .map(ways.keyAt)
+        ),
+        IdBitSet(
+          presentRelations
+            .filter(idx => grid.owner(relationEnvelopes(idx)) == tile)
+            .map(relations.keyAt)
+        )
+      )
+    }.toIndexedSeq
+
+    new TiledOsmContainer(tiles, grid, pool)
+  }
+
+  private def buckets(count: Int): Array[mutable.ArrayBuilder[Int]] =
+    Array.fill(count)(mutable.ArrayBuilder.make[Int])
+
+  private def addIndex(indices: mutable.ArrayBuilder[Int], idx: Int): Unit =
+    if (idx >= 0) indices += idx
+
+  private def distinctSorted(indices: Array[Int]): Array[Int] = {
+    java.util.Arrays.sort(indices)
+    var count = 0
+    var idx = 0
+    while (idx < indices.length) {
+      if (count == 0 || indices(count - 1) != indices(idx)) {
+        indices(count) = indices(idx)
+        count += 1
+      }
+      idx += 1
+    }
+    java.util.Arrays.copyOf(indices, count)
+  }
+
+  /** Expands the envelopes of the relations by the envelopes of their member
+    * relations. The membership graph is traversed depth first, so that member
+    * relations are completed before the relations containing them. Relations of
+    * a membership cycle are expanded by each other afterwards, until their
+    * envelopes do not grow anymore.
+    */
+  private def expandByMemberRelations(
+      relations: SortedLongMap[Relation],
+      envelopes: Array[Envelope]
+  ): Unit = {
+    def memberRelations(idx: Int): Iterator[Int] =
+      relations
+        .valueAt(idx)
+        .members
+        .iterator
+        .filter(_.relationType == RelationMemberType.Relation)
+        .map(member => relations.indexOf(member.id))
+        .filter(_ >= 0)
+
+    val visited = mutable.BitSet.empty
+    val completed = mutable.BitSet.empty
+    envelopes.indices.foreach { root =>
+      if (visited.add(root)) {
+        val pending = mutable.Stack(root -> memberRelations(root))
+        while (pending.nonEmpty) {
+          val (idx, children) = pending.top
+          if (children.hasNext) {
+            val child = children.next()
+            if (completed.contains(child))
+              envelopes(idx).expandToInclude(envelopes(child))
+            else if (visited.add(child))
+              pending.push(child -> memberRelations(child))
+          } else {
+            pending.pop()
+            completed += idx
+            pending.headOption.foreach { case (parent, _) =>
+              envelopes(parent).expandToInclude(envelopes(idx))
+            }
+          }
+        }
+      }
+    }
+
+    var grown = true
+    while (grown) {
+      grown = false
+      envelopes.indices.foreach { idx =>
+        memberRelations(idx).foreach { child =>
+          val envelope = envelopes(child)
+          if (!envelope.isNull && !envelopes(idx).covers(envelope)) {
+            envelopes(idx).expandToInclude(envelope)
+            grown = true
+          }
+        }
+      }
+    }
+  }
+
+  /** Regular grid of tiles over the given bounds. Positions outside of them are
+    * assigned to the tiles at the border.
+    */
+  private final case class Grid(bounds: Envelope, columns: Int, rows: Int) {
+    private val width = math.max(bounds.getWidth, MinimumExtent)
+    private val height = math.max(bounds.getHeight, MinimumExtent)
+
+    def size: Int = columns * rows
+
+    private def column(longitude: Double): Int =
+      math.min(
+        math.max(((longitude - bounds.getMinX) / width * columns).toInt, 0),
+        columns - 1
+      )
+
+    private def row(latitude: Double): Int =
+      math.min(
+        math.max(((latitude - bounds.getMinY) / height * rows).toInt, 0),
+        rows - 1
+      )
+
+    def tileOf(longitude: Double, latitude: Double): Int =
+      row(latitude) * columns + column(longitude)
+
+    /** @return
+      *   the tile containing the centre of the given envelope, the first tile
+      *   for an empty envelope
+      */
+    def owner(envelope: Envelope): Int =
+      if (envelope.isNull) 0
+      else tileOf(envelope.centre().x, envelope.centre().y)
+
+    /** @return
+      *   the tiles intersecting the given envelope, the first tile for an empty
+      *   envelope
+      */
+    def tilesIntersecting(envelope: Envelope): Iterator[Int] =
+      if (envelope.isNull) Iterator.single(0)
+      else
+        for {
+          r <- Iterator.range(row(envelope.getMinY), row(envelope.getMaxY) + 1)
+          c <- Iterator.range(
+            column(envelope.getMinX),
+            column(envelope.getMaxX) + 1
+          )
+        } yield r * columns + c
+
+    def envelopeOf(tile: Int): Envelope = {
+      val c = tile % columns
+      val r = tile / columns
+      new Envelope(
+        bounds.getMinX + c * width / columns,
+        bounds.getMinX + (c + 1) * width / columns,
+        bounds.getMinY + r * height / rows,
+        bounds.getMinY + (r + 1) * height / rows
+      )
+    }
+  }
+
+  // extent of grids over a single position
+  private val MinimumExtent = 1e-9
+}
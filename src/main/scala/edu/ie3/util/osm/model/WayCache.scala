@@ -5,11 +5,11 @@
 */
 package edu.ie3.util.osm.model
 
-import cats.implicits._
 import edu.ie3.util.osm.model.OsmEntity.{Node, Way}
 
-import java.util.concurrent.ConcurrentMap
-import scala.util.Try
+import org.locationtech.jts.geom.Coordinate
+
+import scala.collection.immutable.ArraySeq
 
 /** A cache to speed up retrieval of nodes of a specific way
   */
@@ -19,27 +19,88 @@ private[model] trait WayCache {
 
   protected def _getWay: Long => Option[Way]
 
-  implicit class RichConcurrentMap[K, V](concurrentMap: ConcurrentMap[K, V]) {
-
-    def safeGet(key: K): Option[V] =
-      Try(Option(concurrentMap.get(key))).toOption.flatten
-  }
+  /** @return
+    *   all ways of the container
+    */
+  protected def _allWays: Iterator[Way]
 
   type WayId = Long
 
-  private val _wayNodeCache =
-    new java.util.concurrent.ConcurrentHashMap[WayId, Seq[Node]]()
+  @volatile private var _wayNodeCache =
+    new EntityCache[Seq[Node]](CacheConfig.Unbounded, _.size)
+
+  /** Replaces the cache of way nodes by an empty one with the given
+    * configuration. By default, the nodes of every requested way are cached.
+    *
+    * @param config
+    *   the configuration of the new cache
+    */
+  def configureWayNodeCache(config: CacheConfig): Unit =
+    _wayNodeCache = new EntityCache[Seq[Node]](config, _.size)
+
+  /** @return
+    *   the statistics of the way node cache since its configuration
+    */
+  def wayNodeCacheStatistics: CacheStatistics = _wayNodeCache.statistics
+
+  /** Takes over the cached entries of the given container, that this container
+    * emerged from by applying the given changes. Entries, that are affected by
+    * the changes, are dropped.
+    *
+    * @param previous
+    *   the container before the changes
+    * @param changes
+    *   the applied changes
+    */
+  protected[model] def inheritCaches(
+      previous: WayCache,
+      changes: OsmChangeSet
+  ): Unit =
+    _wayNodeCache = previous._wayNodeCache.retained((wayId, _) =>
+      isUnaffectedWay(wayId, changes)
+    )
+
+  protected def isUnaffectedWay(wayId: Long, changes: OsmChangeSet): Boolean =
+    _getWay(wayId).exists(!changes.affects(_))
 
   protected def wayNodes(way: Way): Option[Seq[Node]] =
-    _wayNodeCache
-      .safeGet(way.id)
-      .orElse(
-        way.nodes
-          .collect(_getNode(_))
-          .traverse(identity)
-          .map(nodes => {
-            _wayNodeCache.putIfAbsent(way.id, nodes)
-            nodes
-          })
-      )
+    _wayNodeCache.getOrCompute(way.id) {
+      val nodeIds = way.nodeArray
+      val nodes = new Array[Node](nodeIds.length)
+      var missing = false
+      var idx = 0
+      while (!missing && idx < nodeIds.length) {
+        _getNode(nodeIds(idx)) match {
+          case Some(node) => nodes(idx) = node
+          case None       => missing = true
+        }
+        idx += 1
+      }
+      Option.when(!missing)(ArraySeq.unsafeWrapArray(nodes))
+    }
+
+  /** Coordinate of a single node. Containers with a columnar node storage
+    * override this to read the coordinate without creating a [[Node]].
+    *
+    * @param nodeId
+    *   the node of interest
+    * @return
+    *   the coordinate or [[None]], if the node is not available
+    */
+  protected def nodeCoordinate(nodeId: Long): Option[Coordinate] =
+    _getNode(nodeId).map(node => new Coordinate(node.longitude, node.latitude))
+
+  /** Coordinates of all nodes of a way. Containers with a columnar node storage
+    * override this to read the coordinates without creating [[Node]] instances.
+    *
+    * @param way
+    *   the way of interest
+    * @return
+    *   the coordinates of the way's nodes or [[None]], if at least one node is
+    *   not available
+    */
+  protected def wayCoordinates(way: Way): Option[Array[Coordinate]] =
+    wayNodes(way).map(
+      _.map(node => new Coordinate(node.longitude, node.latitude)).toArray
+    )
 }
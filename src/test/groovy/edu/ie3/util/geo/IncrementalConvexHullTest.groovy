@@ -0,0 +1,95 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+ */
+package edu.ie3.util.geo
+
+import edu.ie3.util.exceptions.GeoException
+import org.locationtech.jts.geom.Coordinate
+import spock.lang.Specification
+
+class IncrementalConvexHullTest extends Specification {
+
+    def "An IncrementalConvexHull built in batches equals the convex hull of all coordinates"() {
+        given:
+            def random = new Random(42)
+            def batches = (0..<10).collect {
+                (0..<100).collect { new Coordinate(7 + random.nextDouble(), 51 + random.nextDouble()) }
+            }
+            def hull = new IncrementalConvexHull()
+
+        when:
+            batches.each { hull.addAll(it) }
+            def expected = GeoUtils.buildConvexHull(batches.flatten() as Set<Coordinate>)
+
+        then:
+            (hull.toPolygon().coordinates as Set) == (expected.coordinates as Set)
+            Math.abs(hull.toPolygon().area - expected.area) < 1e-12
+    }
+
+    def "An IncrementalConvexHull does not keep covered or collinear coordinates"() {
+        given:
+            def topLeft = new Coordinate(7, 50)
+            def topRight = new Coordinate(8, 50)
+            def bottomRight = new Coordinate(8, 48)
+            def bottomLeft = new Coordinate(7, 48)
+            def hull = new IncrementalConvexHull([
+                topLeft,
+                topRight,
+                bottomRight,
+                bottomLeft
+            ])
+
+        when:
+            hull.add(new Coordinate(7.5, 49))
+            hull.addAll([
+                new Coordinate(7.5, 50),
+                new Coordinate(7.5, 48),
+                topLeft
+            ])
+
+        then:
+            hull.numberOfVertices == 4
+            hull.covers(new Coordinate(7.5, 49))
+            hull.covers(new Coordinate(7, 49))
+            !hull.covers(new Coordinate(9, 49))
+            (hull.coordinates as Set) == [topLeft, topRight, bottomRight, bottomLeft] as Set
+    }
+
+    def "An IncrementalConvexHull grows, if coordinates outside of it are added"() {
+        given:
+            def hull = new IncrementalConvexHull([
+                new Coordinate(7, 50),
+                new Coordinate(8, 50),
+                new Coordinate(8, 48),
+                new Coordinate(7, 48)
+            ])
+
+        when:
+            hull.add(new Coordinate(9, 49))
+
+        then:
+            hull.numberOfVertices == 5
+            hull.covers(new Coordinate(8.5, 49))
+            hull.toPolygon().coordinates.length == 6
+    }
+
+    def "An IncrementalConvexHull refuses to build a polygon from degenerated input"() {
+        given:
+            def hull = new IncrementalConvexHull(coordinates)
+
+        when:
+            hull.toPolygon()
+
+        then:
+            def ex = thrown(GeoException)
+            ex.message == message
+
+        where:
+            coordinates                                                                    || message
+            []                                                                             || "Cannot build a convex hull polygon, as no coordinates were added."
+            [new Coordinate(7, 50), new Coordinate(7, 50)]                                 || "Cannot build a convex hull polygon, as all added coordinates are identical."
+            [new Coordinate(7, 50), new Coordinate(7.5, 50), new Coordinate(8, 50)]        || "Cannot build a convex hull polygon, as all added coordinates are collinear."
+    }
+}
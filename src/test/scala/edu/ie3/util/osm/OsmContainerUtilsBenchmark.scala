@@ -0,0 +1,142 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm
+
+import edu.ie3.util.osm.model.OsmContainer
+import edu.ie3.util.osm.model.OsmContainer.SeqOsmContainer
+import edu.ie3.util.osm.model.OsmEntity.Relation.{
+  RelationMember,
+  RelationMemberType
+}
+import edu.ie3.util.osm.model.OsmEntity.{Node, Relation, Way}
+
+import java.util.concurrent.ForkJoinPool
+import scala.concurrent.duration.Duration
+import scala.concurrent.{Await, ExecutionContext, Future}
+import scala.util.Random
+
+/** Compares [[OsmContainerUtils.reducePar]] with the former implementation,
+  * that created one future per entity on the global execution context and
+  * checked relation members against a combined map of all entities. It is no
+  * test suite, but is meant to be run manually, e.g. with
+  * {{{
+  * OsmContainerUtilsBenchmark.main(Array("2000000", "5"))
+  * }}}
+  * where the arguments denote the number of nodes and the number of runs.
+  */
+object OsmContainerUtilsBenchmark {
+
+  def main(args: Array[String]): Unit = {
+    val nodeCount = args.headOption.map(_.toInt).getOrElse(1000000)
+    val runs = args.lift(1).map(_.toInt).getOrElse(5)
+    val container = syntheticContainer(nodeCount)
+    val pool = new ForkJoinPool()
+    val executionContext = ExecutionContext.fromExecutor(pool)
+
+    try {
+      val chunked = measure(runs) {
+        OsmContainerUtils.reducePar(
+          container,
+          executionContext,
+          OsmContainerUtils.DefaultChunkSize
+        )
+      }
+      val perEntity = measure(runs)(reduceParPerEntity(container))
+      println(
+        s"reducePar of ${container.nodes.size} nodes, ${container.ways.size} ways and ${container.relations.size} relations (median of $runs runs): " +
+          f"chunked ${chunked / 1e6}%.1f ms, one future per entity ${perEntity / 1e6}%.1f ms"
+      )
+    } finally pool.shutdown()
+  }
+
+  /** @return
+    *   the median duration in nanoseconds after one warm up run
+    */
+  private def measure(runs: Int)(reduce: => Future[OsmContainer]): Long = {
+    Await.result(reduce, Duration.Inf)
+    val durations = Seq.fill(runs) {
+      val start = System.nanoTime()
+      Await.result(reduce, Duration.Inf)
+      System.nanoTime() - start
+    }
+    durations.sorted.apply(runs / 2)
+  }
+
+  /** Container with sparse ids like a regional extract, in which a tenth of the
+    * referenced nodes and relation members is missing
+    */
+  private def syntheticContainer(nodeCount: Int): SeqOsmContainer = {
+    val random = new Random(42)
+    val nodeIds = Array.tabulate(nodeCount)(idx => idx * 97L + 1000000000L)
+    def referencedNode(): Long =
+      if (random.nextInt(10) == 0) random.nextLong()
+      else nodeIds(random.nextInt(nodeCount))
+
+    val nodes = nodeIds.toSeq.map(id => Node(id, 51.0, 7.0, Map.empty, None))
+    val ways = Seq.tabulate(nodeCount / 5) { idx =>
+      Way(idx + 1L, Seq.fill(8)(referencedNode()), Map.empty, None)
+    }
+    val relations = Seq.tabulate(nodeCount / 100) { idx =>
+      Relation(
+        idx + 1L,
+        Seq.tabulate(10) { member =>
+          if (member % 2 == 0)
+            RelationMember(referencedNode(), RelationMemberType.Node, "")
+          else
+            RelationMember(
+              random.nextInt(nodeCount / 5 + nodeCount / 50) + 1L,
+              RelationMemberType.Way,
+              "outer"
+            )
+        },
+        Map.empty,
+        None
+      )
+    }
+    SeqOsmContainer(nodes, ways, relations)
+  }
+
+  /** The former implementation of [[OsmContainerUtils.reducePar]] for
+    * [[SeqOsmContainer]] s
+    */
+  private def reduceParPerEntity(
+      container: SeqOsmContainer
+  ): Future[OsmContainer] = {
+    import ExecutionContext.Implicits.global
+
+    val SeqOsmContainer(nodes, ways, relations) = container
+    val updatedWays = Future
+      .traverse(ways.values)(way =>
+        Future(way.id -> (way match {
+          case openWay: Way.OpenWay =>
+            openWay.copy(nodes = openWay.nodes.filter(nodes.contains))
+          case closedWay: Way.ClosedWay =>
+            closedWay.copy(nodes = closedWay.nodes.filter(nodes.contains))
+        }))
+      )
+      .map(_.toMap)
+    val allEntities = ways ++ nodes ++ relations
+    val updatedRelations = Future
+      .traverse(relations.values)(relation =>
+        Future {
+          val memberMap =
+            relation.members.map(member => member.id -> member).toMap
+          relation.id -> relation.copy(members =
+            relation.members
+              .map(_.id)
+              .filter(allEntities.contains)
+              .flatMap(memberMap.get)
+          )
+        }
+      )
+      .map(_.toMap)
+
+    updatedWays.zip(updatedRelations).map {
+      case (updatedWays, updatedRelations) =>
+        container.copy(ways = updatedWays, relations = updatedRelations)
+    }
+  }
+}
@@ -5,17 +5,35 @@
 */
 package edu.ie3.util.osm
 
-import edu.ie3.util.osm.model.OsmContainer.{ParOsmContainer, SeqOsmContainer}
+import edu.ie3.util.geo.GeoUtils
+import edu.ie3.util.osm.OsmContainerUtils.{ClipMode, DuplicateResolution}
+import edu.ie3.util.osm.io.OsmPbfReader
+import edu.ie3.util.osm.model.OsmContainer.{
+  ParOsmContainer,
+  PrimitiveOsmContainer,
+  SeqOsmContainer
+}
+import edu.ie3.util.osm.model.OsmEntity.Relation.{
+  RelationMember,
+  RelationMemberType
+}
 import edu.ie3.util.osm.model.OsmEntity.Way.{ClosedWay, OpenWay}
+import edu.ie3.util.osm.model.OsmEntity.{MetaInformation, Node, Relation, Way}
+import edu.ie3.util.osm.model.{OsmEntity, SortedLongMap}
 import edu.ie3.util.quantities.QuantityMatchers
+import org.locationtech.jts.geom.{Coordinate, Envelope}
 import org.scalatest.Inside.inside
 import org.scalatest.matchers.should.Matchers
 import org.scalatest.wordspec.AnyWordSpecLike
 
+import java.nio.file.Paths
+import java.time.Instant
+import java.util.concurrent.ForkJoinPool
 import scala.collection.parallel.CollectionConverters._
 import scala.collection.parallel.immutable.ParMap
-import scala.concurrent.Await
+import scala.concurrent.{Await, ExecutionContext}
 import scala.concurrent.duration.{Duration, SECONDS}
+import scala.util.Random
 
 class OsmContainerUtilsSpec
     extends Matchers
@@ -131,6 +149,415 @@ class OsmContainerUtilsSpec
 
     }
 
+    "reduce a given PrimitiveOsmContainer instance correctly" in {
+      val incompleteNodes = Seq(n1, n2)
+      val primitiveContainer =
+        PrimitiveOsmContainer(incompleteNodes, ways, relations)
+
+      val expectedWays = SortedLongMap(
+        100L ->
+          ClosedWay(
+            100L,
+            Seq(n1.id, n2.id, n1.id),
+            Map.empty,
+            None
+          ),
+        11L -> OpenWay(11L, Seq(n1.id, n2.id), Map.empty, None)
+      )
+
+      inside(OsmContainerUtils.reduce(primitiveContainer)) {
+        case PrimitiveOsmContainer(nodes, ways, relations) =>
+          nodes shouldBe primitiveContainer.nodes
+          ways shouldBe expectedWays
+          relations shouldBe primitiveContainer.relations
+      }
+
+      // ways with all their nodes available are taken over as they are
+      val reduced = OsmContainerUtils.reduce(primitiveContainer)
+      OsmContainerUtils
+        .reduce(reduced)
+        .way(11L)
+        .get should be theSameInstanceAs reduced.way(11L).get
+
+      inside(
+        Await.result(
+          OsmContainerUtils.reducePar(primitiveContainer),
+          Duration(10, SECONDS)
+        )
+      ) { case PrimitiveOsmContainer(_, ways, _) =>
+        ways shouldBe expectedWays
+      }
+    }
+
+    "parReduce in chunks on a given execution context like reduce" in {
+      val nodes = (0L until 1000L)
+        .filterNot(_ % 7 == 0)
+        .map(id => Node(id, 51.0, 7.0, Map.empty, None))
+      val ways = (0L until 500L).map(id =>
+        Way(id + 2000L, Seq(id, id + 1, id + 2, id), Map.empty, None)
+      )
+      val relations = (0L until 100L).map(id =>
+        Relation(
+          id + 5000L,
+          Seq(
+            RelationMember(id * 3, RelationMemberType.Node, ""),
+            RelationMember(id * 10 + 2000L, RelationMemberType.Way, "outer"),
+            RelationMember(id + 5050L, RelationMemberType.Relation, "")
+          ),
+          Map.empty,
+          None
+        )
+      )
+      val pool = new ForkJoinPool(3)
+      val executionContext = ExecutionContext.fromExecutor(pool)
+
+      try {
+        Seq(
+          SeqOsmContainer(nodes, ways, relations),
+          ParOsmContainer(nodes.par, ways.par, relations.par),
+          PrimitiveOsmContainer(nodes, ways, relations)
+        ).foreach { container =>
+          Await.result(
+            OsmContainerUtils.reducePar(container, executionContext, 7),
+            Duration(10, SECONDS)
+          ) shouldBe OsmContainerUtils.reduce(container)
+        }
+      } finally pool.shutdown()
+    }
+
+    "clip all kinds of containers to an envelope or polygon" in {
+      val source = new OsmPbfReader()
+        .readSeqContainer(
+          Paths.get(
+            getClass.getResource("/osm/dortmund_excerpt.osm.pbf").toURI
+          )
+        )
+        .get
+      val envelope = new Envelope(7.4099, 7.4105, 51.4897, 51.4903)
+      val triangle = GeoUtils.buildPolygon(
+        Array(
+          new Coordinate(7.4099, 51.4899),
+          new Coordinate(7.4104, 51.4899),
+          new Coordinate(7.4099, 51.4904),
+          new Coordinate(7.4099, 51.4899)
+        )
+      )
+      val route = source.relations(5002L)
+      def clipped(
+          nodeIds: Seq[Long],
+          ways: Seq[Way],
+          relations: Seq[Relation]
+      ) = SeqOsmContainer(nodeIds.map(source.nodes), ways, relations)
+
+      Seq(source, source.par(), PrimitiveOsmContainer(source)).foreach {
+        container =>
+          OsmContainerUtils
+            .clip(container, envelope, ClipMode.Strict)
+            .seq() shouldBe clipped(
+            Seq(1L, 2L, 3L, 4L, 11L),
+            Seq(
+              source.ways(1001L),
+              OpenWay(2001L, Seq(11L), source.ways(2001L).tags, None)
+            ),
+            Seq(route.copy(members = Seq(route.members(1))))
+          )
+
+          OsmContainerUtils
+            .clip(container, envelope, ClipMode.CompleteWays)
+            .seq() shouldBe clipped(
+            Seq(1L, 2L, 3L, 4L, 10L, 11L, 12L),
+            Seq(source.ways(1001L), source.ways(2001L)),
+            Seq(route.copy(members = route.members.take(2)))
+          )
+
+          OsmContainerUtils
+            .clip(container, triangle, ClipMode.Strict)
+            .seq() shouldBe clipped(
+            Seq(1L, 2L, 4L),
+            Seq(
+              ClosedWay(
+                1001L,
+                Seq(1L, 2L, 4L, 1L),
+                source.ways(1001L).tags,
+                None
+              )
+            ),
+            Seq.empty
+          )
+
+          val multipolygon = source.relations(5001L)
+          OsmContainerUtils
+            .clip(
+              container,
+              new Envelope(7.4099, 7.4101, 51.4886, 51.4888),
+              ClipMode.Strict
+            )
+            .seq() shouldBe clipped(
+            Seq(36L),
+            Seq(ClosedWay(4003L, Seq(36L), source.ways(4003L).tags, None)),
+            Seq(
+              multipolygon.copy(members = Seq(multipolygon.members(2))),
+              route.copy(members = Seq(route.members(2)))
+            )
+          )
+      }
+    }
+
+    "only keep contained nodes of complete ways when clipping" in {
+      val source = new OsmPbfReader()
+        .readSeqContainer(
+          Paths.get(
+            getClass.getResource("/osm/dortmund_excerpt.osm.pbf").toURI
+          )
+        )
+        .get
+      // the way and the route refer to a node, that is missing
+      val street = source.ways(2001L)
+      val route = source.relations(5002L)
+      val missing = RelationMember(99999L, RelationMemberType.Node, "stop")
+      val incomplete = source.copy(
+        ways = source.ways.updated(
+          street.id,
+          OpenWay(street.id, street.nodes :+ 99999L, street.tags, None)
+        ),
+        relations = source.relations.updated(
+          route.id,
+          route.copy(members = route.members :+ missing)
+        )
+      )
+      val envelope = new Envelope(7.4099, 7.4105, 51.4897, 51.4903)
+
+      Seq(incomplete, incomplete.par(), PrimitiveOsmContainer(incomplete))
+        .foreach { container =>
+          val clipped = OsmContainerUtils
+            .clip(container, envelope, ClipMode.CompleteWays)
+            .seq()
+          clipped.nodes.keySet shouldBe Set(1L, 2L, 3L, 4L, 10L, 11L, 12L)
+          clipped.ways(street.id) shouldBe incomplete.ways(street.id)
+          clipped.relations(route.id).members shouldBe route.members.take(2)
+        }
+    }
+
+    "strip and detach the meta information of all kinds of containers" in {
+      val read = new OsmPbfReader(readMetaInformation = true)
+        .readSeqContainer(
+          Paths.get(
+            getClass.getResource("/osm/dortmund_excerpt.osm.pbf").toURI
+          )
+        )
+        .get
+      // e.g. of osmChange files with sub-millisecond precision
+      val precise = read
+        .nodes(3L)
+        .copy(metaInformation =
+          read
+            .nodes(3L)
+            .metaInformation
+            .map(
+              _.copy(timestamp =
+                Some(Instant.parse("2022-01-02T03:04:05.123456789Z"))
+              )
+            )
+        )
+      val source = read.copy(nodes = read.nodes.updated(3L, precise))
+      val withoutMeta = new OsmPbfReader()
+        .readSeqContainer(
+          Paths.get(
+            getClass.getResource("/osm/dortmund_excerpt.osm.pbf").toURI
+          )
+        )
+        .get
+
+      Seq(source, source.par(), PrimitiveOsmContainer(source)).foreach {
+        container =>
+          OsmContainerUtils
+            .stripMetaInformation(container)
+            .seq() shouldBe withoutMeta
+
+          val (detached, store) =
+            OsmContainerUtils.detachMetaInformation(container)
+          detached.seq() shouldBe withoutMeta
+          store.size shouldBe source.nodes.size + source.ways.size +
+            source.relations.size
+          source.nodes.values.foreach(node =>
+            store.node(node.id) shouldBe node.metaInformation
+          )
+          store.node(3L).flatMap(_.timestamp) shouldBe precise.metaInformation
+            .flatMap(_.timestamp)
+          store.of(source.ways(1001L)) shouldBe source
+            .ways(1001L)
+            .metaInformation
+          store.relation(5002L) shouldBe source.relations(5002L).metaInformation
+          store.way(3L) shouldBe None
+      }
+    }
+
+    "merge overlapping containers into their union" in {
+      val source = new OsmPbfReader()
+        .readSeqContainer(
+          Paths.get(
+            getClass.getResource("/osm/dortmund_excerpt.osm.pbf").toURI
+          )
+        )
+        .get
+      // both parts hold all ways, but only half of the nodes
+      val (even, odd) = source.nodes.partition(_._1 % 2 == 0)
+      val parts = Seq(
+        SeqOsmContainer(even, source.ways, source.relations),
+        SeqOsmContainer(odd, source.ways, Map.empty)
+      )
+
+      OsmContainerUtils.merge(parts) shouldBe source
+      OsmContainerUtils.mergePar(parts.map(_.par())).seq() shouldBe source
+
+      // the route relation refers to a missing way, which is removed once the
+      // relation is contained in several containers
+      val overlapping = parts.map(_.copy(relations = source.relations))
+      OsmContainerUtils.merge(overlapping) shouldBe OsmContainerUtils.reduce(
+        source
+      )
+      OsmContainerUtils.merge(Seq(source)) shouldBe source
+      OsmContainerUtils.merge(Seq.empty) shouldBe SeqOsmContainer(
+        Seq.empty,
+        Seq.empty,
+        Seq.empty
+      )
+    }
+
+    "merge many overlapping containers in parallel ranges like a plain union" in {
+      val random = new Random(50)
+      def meta() = Some(MetaInformation(Some(random.nextInt(4))))
+      // interleaved ids, that exceed the minimum size of a merged range
+      val containers = (0 until 4).map { container =>
+        val nodeIds = Seq.fill(5000)(random.nextInt(12000).toLong).distinct
+        val wayIds = Seq.fill(4000)(random.nextInt(8000).toLong).distinct
+        SeqOsmContainer(
+          nodeIds.map(id => Node(id, 51.49, 7.41, Map.empty, meta())),
+          wayIds.map(id =>
+            OpenWay(id, Seq(id, id + 1, 20000L + container), Map.empty, meta())
+          ),
+          Seq.empty
+        )
+      }
+
+      def union[E <: OsmEntity](
+          entities: Seq[Map[Long, E]],
+          resolution: DuplicateResolution
+      ): Map[Long, (E, Int)] =
+        entities.flatten.foldLeft(Map.empty[Long, (E, Int)]) {
+          case (merged, (id, candidate)) =>
+            merged.updated(
+              id,
+              merged.get(id).fold(candidate -> 1) { case (current, count) =>
+                val version = (_: E).metaInformation.flatMap(_.version).get
+                val kept = resolution match {
+                  case DuplicateResolution.HighestVersion
+                      if version(current) > version(candidate) =>
+                    current
+                  case _ => candidate
+                }
+                kept -> (count + 1)
+              }
+            )
+        }
+
+      Seq(DuplicateResolution.HighestVersion, DuplicateResolution.LastContainer)
+        .foreach { resolution =>
+          val nodes = union(containers.map(_.nodes), resolution).map {
+            case (id, (node, _)) => id -> node
+          }
+          val ways = union(containers.map(_.ways), resolution).map {
+            case (id, (way, count)) if count > 1 =>
+              id -> OpenWay(
+                id,
+                way.nodes.filter(nodes.contains),
+                way.tags,
+                way.metaInformation
+              )
+            case (id, (way, _)) => id -> way
+          }
+          val expected = SeqOsmContainer(nodes, ways, Map.empty)
+
+          OsmContainerUtils.merge(containers, resolution) shouldBe expected
+          OsmContainerUtils
+            .mergePar(containers.map(_.par()), resolution)
+            .seq() shouldBe expected
+        }
+    }
+
+    "deduplicate merged entities and clean up the boundary entities" in {
+      def node(id: Long, version: Option[Int]) =
+        Node(
+          id,
+          51.49,
+          7.41,
+          Map.empty,
+          version.map(v => MetaInformation(Some(v)))
+        )
+      val route = Relation(
+        30L,
+        Seq(
+          RelationMember(10L, RelationMemberType.Way, ""),
+          RelationMember(97L, RelationMemberType.Way, "")
+        ),
+        Map("type" -> "route"),
+        None
+      )
+      val west = SeqOsmContainer(
+        Seq(node(1L, Some(1)), node(2L, Some(3)), node(3L, Some(1))),
+        Seq(
+          Way(10L, Seq(1L, 2L, 99L), Map.empty, None),
+          Way(11L, Seq(1L, 98L), Map.empty, None)
+        ),
+        Seq(route)
+      )
+      val east = SeqOsmContainer(
+        Seq(
+          node(1L, Some(2)),
+          node(2L, Some(2)),
+          node(3L, None),
+          node(4L, None)
+        ),
+        Seq(Way(10L, Seq(1L, 2L, 99L), Map.empty, None)),
+        Seq(route)
+      )
+      // only the ways and relations of both containers are cleaned up
+      val ways = Seq(
+        Way(10L, Seq(1L, 2L), Map.empty, None),
+        Way(11L, Seq(1L, 98L), Map.empty, None)
+      )
+      val relations = Seq(route.copy(members = route.members.take(1)))
+
+      val byVersion = SeqOsmContainer(
+        Seq(
+          node(1L, Some(2)),
+          node(2L, Some(3)),
+          node(3L, Some(1)),
+          node(4L, None)
+        ),
+        ways,
+        relations
+      )
+      OsmContainerUtils.merge(Seq(west, east)) shouldBe byVersion
+      OsmContainerUtils
+        .mergePar(Seq(west.par(), east.par()))
+        .seq() shouldBe byVersion
+
+      OsmContainerUtils.merge(
+        Seq(west, east),
+        DuplicateResolution.LastContainer
+      ) shouldBe SeqOsmContainer(
+        Seq(
+          node(1L, Some(2)),
+          node(2L, Some(2)),
+          node(3L, None),
+          node(4L, None)
+        ),
+        ways,
+        relations
+      )
+    }
+
   }
 
 }
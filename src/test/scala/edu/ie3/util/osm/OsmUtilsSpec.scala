@@ -6,10 +6,12 @@
 package edu.ie3.util.osm
 
 import edu.ie3.util.osm.OsmUtils.GeometryUtils.buildPolygon
+import edu.ie3.util.osm.model.{NodeColumns, TagFilter, TagIndex}
 import edu.ie3.util.osm.model.OsmEntity.Way.{ClosedWay, OpenWay}
 import org.scalatest.matchers.should.Matchers
 import org.scalatest.wordspec.AnyWordSpecLike
 
+import scala.collection.parallel.CollectionConverters._
 import scala.util.{Failure, Success}
 
 class OsmUtilsSpec
@@ -63,6 +65,39 @@ class OsmUtilsSpec
       ) shouldBe List(highwayA, highwayC)
     }
 
+    "extract entities via a tag index like via a scan" in {
+      val highway = wayA.copy(tags = Map("highway" -> "residential"))
+      val entities = List(wayA, wayB, highway, wayC)
+      val index = TagIndex(entities)
+
+      OsmUtils.extractBuildings(index, None) shouldBe OsmUtils
+        .extractBuildings(entities)
+      OsmUtils.extractHighways(index, Some(Set("residential"))) shouldBe List(
+        highway
+      )
+      OsmUtils.extractLanduses(index, None) shouldBe empty
+      OsmUtils.par
+        .entitiesByKey(index, "shop", Some(Set.empty))
+        .toList shouldBe List(wayA)
+      OsmUtils.par.extractBuildings(index, None).toList shouldBe List(
+        wayB,
+        wayC
+      )
+    }
+
+    "extract entities via a compiled tag filter" in {
+      val highway = wayA.copy(tags = Map("highway" -> "residential"))
+      val entities = List(wayA, wayB, highway, wayC)
+      val filter = TagFilter
+        .anyOf(Map("shop" -> Set.empty, "highway" -> Set("residential")))
+        .compile
+
+      OsmUtils.entitiesByKey(entities, filter) shouldBe List(wayA, highway)
+      OsmUtils.par
+        .entitiesByKey(entities.par, filter)
+        .toList shouldBe List(wayA, highway)
+    }
+
     "extract landuse correctly" in {
       val landuseA = wayA.copy(tags = Map("landuse" -> "residential"))
       val landuseB = wayA.copy(tags = Map("landuse" -> "retail"))
@@ -85,5 +120,18 @@ class OsmUtilsSpec
           polygon.getCoordinates.length shouldBe 4
       }
     }
+
+    "build a polygon from node columns correctly" in {
+      buildPolygon(closedWay, NodeColumns.from(nodes)) shouldBe buildPolygon(
+        closedWay,
+        nodesMap
+      )
+
+      buildPolygon(closedWay, NodeColumns.from(Seq(n1, n2))) match {
+        case Failure(exception) =>
+          exception.getMessage shouldBe "Couldn't convert the closed way since node with id 3 wasn't found."
+        case Success(_) => fail("Polygon shouldn't be built")
+      }
+    }
   }
 }
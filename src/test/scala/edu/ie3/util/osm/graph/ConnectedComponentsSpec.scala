@@ -0,0 +1,96 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.graph
+
+import edu.ie3.util.osm.graph.ConnectedComponents.Component
+import edu.ie3.util.osm.io.OsmPbfReader
+import edu.ie3.util.osm.model.OsmContainer.PrimitiveOsmContainer
+import edu.ie3.util.osm.model.OsmEntity.Way
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+import java.nio.file.Paths
+import scala.collection.mutable
+import scala.util.Random
+
+class ConnectedComponentsSpec extends Matchers with AnyWordSpecLike {
+
+  private val excerpt = new OsmPbfReader()
+    .readSeqContainer(
+      Paths.get(getClass.getResource("/osm/dortmund_excerpt.osm.pbf").toURI)
+    )
+    .get
+
+  /** Components by a plain breadth first search over the shared nodes
+    */
+  private def expectedComponents(ways: Seq[Way]): Set[Component] = {
+    val waysByNode = ways
+      .flatMap(way => way.nodes.map(_ -> way))
+      .groupMap(_._1)(_._2)
+    val visited = mutable.Set.empty[Long]
+    ways
+      .filter(_.nodes.nonEmpty)
+      .flatMap { start =>
+        Option.when(visited.add(start.id)) {
+          val queue = mutable.Queue(start)
+          val component = mutable.ArrayBuffer.empty[Way]
+          while (queue.nonEmpty) {
+            val way = queue.dequeue()
+            component += way
+            way.nodes
+              .flatMap(waysByNode)
+              .filter(next => visited.add(next.id))
+              .foreach(queue.enqueue)
+          }
+          Component(
+            component.map(_.id).sorted.toSeq,
+            component.flatMap(_.nodes).distinct.size
+          )
+        }
+      }
+      .toSet
+  }
+
+  "The connected components" should {
+
+    "be determined for the highways and power lines of a container" in {
+      Seq(excerpt, excerpt.par(), PrimitiveOsmContainer(excerpt)).foreach {
+        container =>
+          ConnectedComponents.highways(container) shouldBe Seq(
+            Component(Seq(2001L, 2002L), 4),
+            Component(Seq(2003L), 2)
+          )
+          ConnectedComponents.power(container) shouldBe Seq(
+            Component(Seq(3001L), 3)
+          )
+      }
+    }
+
+    "equal the ones found by a breadth first search" in {
+      val random = new Random(11)
+      val ways = Seq.tabulate(5000) { idx =>
+        Way(
+          idx + 1L,
+          Seq.fill(random.nextInt(4))(random.nextInt(12000).toLong),
+          Map.empty,
+          None
+        )
+      }
+
+      val components = ConnectedComponents(ways)
+
+      components.toSet shouldBe expectedComponents(ways)
+      components.map(_.nodeCount) shouldBe components
+        .map(_.nodeCount)
+        .sorted
+        .reverse
+    }
+
+    "be empty without ways" in {
+      ConnectedComponents(Seq.empty) shouldBe Seq.empty
+    }
+  }
+}
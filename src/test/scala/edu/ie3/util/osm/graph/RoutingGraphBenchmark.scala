@@ -0,0 +1,89 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.graph
+
+import edu.ie3.util.osm.model.OsmContainer.SeqOsmContainer
+import edu.ie3.util.osm.model.OsmEntity.{Node, Way}
+
+import scala.util.Random
+
+/** Measures building a [[RoutingGraph]] of a street grid and querying shortest
+  * paths on it. It is no test suite, but is meant to be run manually, e.g. with
+  * {{{
+  * RoutingGraphBenchmark.main(Array("1000", "200"))
+  * }}}
+  * where the arguments denote the number of streets per direction and the
+  * number of queries. Every street crossing is a node, hence the grid has about
+  * twice the squared number of streets as edges.
+  */
+object RoutingGraphBenchmark {
+
+  def main(args: Array[String]): Unit = {
+    val size = args.headOption.map(_.toInt).getOrElse(1000)
+    val queries = args.lift(1).map(_.toInt).getOrElse(200)
+    val random = new Random(42)
+    val container = streetGrid(size)
+
+    val buildStart = System.nanoTime()
+    val graph = RoutingGraph.highways(container)
+    val buildDuration = System.nanoTime() - buildStart
+    println(f"Built $graph in ${buildDuration / 1e6}%.1f ms")
+
+    val search = graph.newSearch()
+    val pairs = Array.fill(queries)(
+      (random.nextInt(graph.nodeCount), random.nextInt(graph.nodeCount))
+    )
+    // warm up
+    pairs.take(20).foreach { case (source, target) =>
+      search.distance(source, target)
+    }
+    val durations = pairs.map { case (source, target) =>
+      val start = System.nanoTime()
+      search.distance(source, target)
+      System.nanoTime() - start
+    }.sorted
+    println(
+      f"A* of $queries random pairs: median ${durations(queries / 2) / 1e6}%.2f ms, " +
+        f"max ${durations.last / 1e6}%.2f ms"
+    )
+
+    val multiSource = Seq
+      .fill(5) {
+        val sources = Array.fill(10)(random.nextInt(graph.nodeCount))
+        val start = System.nanoTime()
+        search.distancesFrom(sources)
+        System.nanoTime() - start
+      }
+      .sorted
+    println(
+      f"Distances to the nearest of 10 sources for all nodes: median ${multiSource(2) / 1e6}%.1f ms"
+    )
+  }
+
+  /** Quadratic grid of streets with a spacing of about 100 m
+    */
+  private def streetGrid(size: Int): SeqOsmContainer = {
+    def id(row: Int, column: Int): Long = row.toLong * size + column + 1L
+    val nodes = for {
+      row <- 0 until size
+      column <- 0 until size
+    } yield Node(
+      id(row, column),
+      51 + row * 9e-4,
+      7 + column * 1.4e-3,
+      Map.empty,
+      None
+    )
+    val highway = Map("highway" -> "residential")
+    val rows = (0 until size).map(row =>
+      Way(row + 1L, (0 until size).map(id(row, _)), highway, None)
+    )
+    val columns = (0 until size).map(column =>
+      Way(size + column + 1L, (0 until size).map(id(_, column)), highway, None)
+    )
+    SeqOsmContainer(nodes, rows ++ columns, Seq.empty)
+  }
+}
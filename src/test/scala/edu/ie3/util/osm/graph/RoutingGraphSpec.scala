@@ -0,0 +1,191 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.graph
+
+import edu.ie3.util.geo.GeoUtils
+import edu.ie3.util.osm.io.OsmPbfReader
+import edu.ie3.util.osm.model.OsmContainer.{
+  PrimitiveOsmContainer,
+  SeqOsmContainer
+}
+import edu.ie3.util.osm.model.OsmEntity.{Node, Way}
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+import tech.units.indriya.unit.Units
+
+import java.nio.file.Paths
+import scala.util.Random
+
+class RoutingGraphSpec extends Matchers with AnyWordSpecLike {
+
+  private val excerpt = new OsmPbfReader()
+    .readSeqContainer(
+      Paths.get(getClass.getResource("/osm/dortmund_excerpt.osm.pbf").toURI)
+    )
+    .get
+
+  private def metres(container: SeqOsmContainer, a: Long, b: Long): Double = {
+    val nodeA = container.nodes(a)
+    val nodeB = container.nodes(b)
+    GeoUtils
+      .calcHaversine(
+        nodeA.latitude,
+        nodeA.longitude,
+        nodeB.latitude,
+        nodeB.longitude
+      )
+      .to(Units.METRE)
+      .getValue
+      .doubleValue
+  }
+
+  /** Street grid with a spacing of about 100 m, in which some street segments
+    * are missing
+    */
+  private def grid(size: Int, random: Random): SeqOsmContainer = {
+    def id(row: Int, column: Int): Long = row * size + column + 1L
+    val nodes = for {
+      row <- 0 until size
+      column <- 0 until size
+    } yield Node(
+      id(row, column),
+      51 + row * 9e-4,
+      7 + column * 1.4e-3,
+      Map.empty,
+      None
+    )
+    val segments = (0 until size).flatMap { row =>
+      (0 until size - 1).flatMap { column =>
+        Seq(
+          Seq(id(row, column), id(row, column + 1)),
+          Seq(id(column, row), id(column + 1, row))
+        )
+      }
+    }
+    val ways = segments.zipWithIndex
+      .filter(_ => random.nextInt(5) != 0)
+      .map { case (nodeIds, idx) =>
+        Way(idx + 1L, nodeIds, Map("highway" -> "residential"), None)
+      }
+    SeqOsmContainer(nodes, ways, Seq.empty)
+  }
+
+  "A RoutingGraph" should {
+
+    "consist of the highway segments of a container" in {
+      Seq(excerpt, excerpt.par(), PrimitiveOsmContainer(excerpt)).foreach {
+        container =>
+          val graph = RoutingGraph.highways(container)
+
+          graph.nodeCount shouldBe 6
+          graph.edgeCount shouldBe 4
+          val node11 = graph.indexOf(11L)
+          graph.neighbours(node11).map(graph.nodeId).toSet shouldBe Set(
+            10L,
+            12L
+          )
+          graph.degree(graph.indexOf(13L)) shouldBe 1
+          graph.indexOf(1L) shouldBe -1
+      }
+    }
+
+    "skip segments with missing nodes" in {
+      val container = SeqOsmContainer(
+        Seq(
+          Node(1L, 51.0, 7.0, Map.empty, None),
+          Node(2L, 51.001, 7.0, Map.empty, None)
+        ),
+        Seq(Way(1L, Seq(1L, 2L, 3L, 1L), Map("highway" -> "path"), None)),
+        Seq.empty
+      )
+
+      val graph = RoutingGraph.highways(container)
+
+      graph.nodeCount shouldBe 2
+      graph.edgeCount shouldBe 1
+      graph.indexOf(3L) shouldBe -1
+    }
+
+    "find the shortest path along the highways" in {
+      val search = RoutingGraph.highways(excerpt).newSearch()
+
+      val path = search.shortestPath(10L, 13L).get
+
+      path.nodeIds shouldBe Seq(10L, 11L, 12L, 13L)
+      path.length.to(Units.METRE).getValue.doubleValue shouldBe (
+        metres(excerpt, 10L, 11L) + metres(excerpt, 11L, 12L) +
+          metres(excerpt, 12L, 13L)
+      ) +- 1e-3
+      search.shortestPath(13L, 13L).map(_.nodeIds) shouldBe Some(Seq(13L))
+    }
+
+    "find no path between unconnected or unknown nodes" in {
+      val graph = RoutingGraph.highways(excerpt)
+      val search = graph.newSearch()
+
+      search.shortestPath(10L, 15L) shouldBe None
+      search.shortestPath(10L, 1L) shouldBe None
+      search.distance(
+        graph.indexOf(10L),
+        graph.indexOf(14L)
+      ) shouldBe Float.PositiveInfinity
+    }
+
+    "find the same distances with A* as with Dijkstra's algorithm" in {
+      val random = new Random(7)
+      val graph = RoutingGraph.highways(grid(30, random))
+      val search = graph.newSearch()
+
+      (0 until 20).foreach { _ =>
+        val source = random.nextInt(graph.nodeCount)
+        val dijkstra = search.distancesFrom(Array(source))
+        (0 until 20).foreach { _ =>
+          val target = random.nextInt(graph.nodeCount)
+          val expected = dijkstra(target)
+          val actual = search.distance(source, target)
+          if (expected.isInfinite) actual shouldBe expected
+          else
+            actual.toDouble shouldBe expected.toDouble +- (1e-3 + expected * 1e-5)
+        }
+      }
+    }
+
+    "determine the distance to the nearest of several sources" in {
+      val container = SeqOsmContainer(
+        (1 to 5).map(id =>
+          Node(id.toLong, 51.0, 7 + id * 1e-3, Map.empty, None)
+        ),
+        Seq(Way(1L, 1L to 5L, Map("highway" -> "primary"), None)),
+        Seq.empty
+      )
+      val graph = RoutingGraph.highways(container)
+      val step = metres(container, 1L, 2L)
+
+      val distances = graph
+        .newSearch()
+        .distancesFrom(Array(graph.indexOf(1L), graph.indexOf(5L)))
+
+      (1L to 5L)
+        .map(id => distances(graph.indexOf(id)).toDouble)
+        .zip(Seq(0, step, 2 * step, step, 0))
+        .foreach { case (actual, expected) =>
+          actual shouldBe expected +- 1e-2
+        }
+    }
+
+    "stop the multi-source search at the maximum distance" in {
+      val graph = RoutingGraph.highways(excerpt)
+
+      val distances = graph
+        .newSearch()
+        .distancesFrom(Array(graph.indexOf(10L)), maxDistance = 50f)
+
+      distances(graph.indexOf(10L)) shouldBe 0f
+      distances(graph.indexOf(11L)) should be < 50f
+      distances(graph.indexOf(12L)) shouldBe Float.PositiveInfinity
+    }
+  }
+}
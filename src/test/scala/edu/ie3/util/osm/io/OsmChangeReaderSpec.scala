@@ -0,0 +1,94 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.io
+
+import edu.ie3.util.exceptions.OsmException
+import edu.ie3.util.osm.model.OsmEntity.{MetaInformation, Node, Way}
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+import java.io.ByteArrayInputStream
+import java.nio.file.{Files, Paths}
+import java.time.Instant
+import java.util.zip.GZIPOutputStream
+
+class OsmChangeReaderSpec extends Matchers with AnyWordSpecLike {
+
+  private val changeFile =
+    Paths.get(getClass.getResource("/osm/dortmund_excerpt.osc").toURI)
+
+  "An OsmChangeReader" should {
+
+    "condense the operations of a change file to the net changes" in {
+      val changes = new OsmChangeReader().read(changeFile).get
+
+      changes.nodes.keySet shouldBe Set(3L, 14L, 15L, 40L)
+      changes.nodes(3L) shouldBe Some(
+        Node(3L, 51.4903, 7.4102, Map.empty, None)
+      )
+      changes.nodes(14L) shouldBe None
+      changes.nodes(15L) shouldBe None
+      // the later modification wins over the creation
+      changes.nodes(40L) shouldBe Some(
+        Node(
+          40L,
+          51.4907,
+          7.4112,
+          Map("highway" -> "crossing", "crossing" -> "zebra"),
+          None
+        )
+      )
+      changes.ways shouldBe Map(
+        2003L -> None,
+        2004L -> Some(
+          Way(2004L, Seq(13L, 40L), Map("highway" -> "service"), None)
+        )
+      )
+      changes.relations.keySet shouldBe Set(5002L)
+      changes.relations(5002L).map(_.members.map(_.id)) shouldBe Some(
+        Seq(10L, 2001L, 5001L)
+      )
+      changes.size shouldBe 7
+    }
+
+    "read meta information, if requested" in {
+      val changes =
+        new OsmChangeReader(readMetaInformation = true).read(changeFile).get
+
+      changes.nodes(3L).flatMap(_.metaInformation) shouldBe Some(
+        MetaInformation(
+          Some(3),
+          Some(Instant.parse("2022-01-02T00:00:00Z")),
+          Some(200L),
+          Some(11),
+          Some("alice"),
+          None
+        )
+      )
+    }
+
+    "read gzipped change files" in {
+      val file = Files.createTempFile("changes", ".osc.gz")
+      try {
+        val output = new GZIPOutputStream(Files.newOutputStream(file))
+        try Files.copy(changeFile, output)
+        finally output.close()
+
+        new OsmChangeReader().read(file).get shouldBe new OsmChangeReader()
+          .read(changeFile)
+          .get
+      } finally Files.deleteIfExists(file)
+    }
+
+    "reject entities outside of any operation" in {
+      val input = new ByteArrayInputStream(
+        """<osmChange version="0.6"><node id="1" lat="0" lon="0"/></osmChange>""".getBytes
+      )
+
+      new OsmChangeReader().read(input).failed.get shouldBe an[OsmException]
+    }
+  }
+}
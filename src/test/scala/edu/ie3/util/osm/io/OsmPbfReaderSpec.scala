@@ -0,0 +1,135 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.io
+
+import edu.ie3.util.exceptions.OsmException
+import edu.ie3.util.osm.model.OsmEntity
+import edu.ie3.util.osm.model.OsmEntity.Relation.{
+  RelationMember,
+  RelationMemberType
+}
+import edu.ie3.util.osm.model.OsmEntity.Way.ClosedWay
+import edu.ie3.util.osm.model.OsmEntity.{MetaInformation, Node, Way}
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+import java.io.ByteArrayInputStream
+import java.nio.file.{Path, Paths}
+import java.time.Instant
+import scala.collection.mutable.ArrayBuffer
+
+class OsmPbfReaderSpec extends Matchers with AnyWordSpecLike {
+
+  private val file: Path =
+    Paths.get(getClass.getResource("/osm/dortmund_excerpt.osm.pbf").toURI)
+
+  "An OsmPbfReader" should {
+
+    "read all entities into a SeqOsmContainer" in {
+      val container = new OsmPbfReader().readSeqContainer(file).get
+
+      container.nodes.size shouldBe 25
+      container.ways.size shouldBe 9
+      container.relations.size shouldBe 2
+
+      container.nodes(3L) shouldBe Node(3L, 51.4902, 7.4102, Map.empty, None)
+      container.nodes(16L) shouldBe Node(
+        16L,
+        51.4901,
+        7.4112,
+        Map("amenity" -> "bench", "name" -> "Bänkchen"),
+        None
+      )
+      container.ways(1001L) shouldBe a[ClosedWay]
+      container.ways(1001L).nodes shouldBe Seq(1L, 2L, 3L, 4L, 1L)
+      container.ways(2001L).tags shouldBe Map(
+        "highway" -> "residential",
+        "name" -> "Hauptstraße"
+      )
+      container.relations(5002L).members shouldBe Seq(
+        RelationMember(10L, RelationMemberType.Node, "stop"),
+        RelationMember(2001L, RelationMemberType.Way, ""),
+        RelationMember(5001L, RelationMemberType.Relation, "area"),
+        RelationMember(9999L, RelationMemberType.Way, "")
+      )
+    }
+
+    "read the same entities into a PrimitiveOsmContainer" in {
+      val reader = new OsmPbfReader(parallelism = 1)
+      val primitive = reader.readPrimitiveContainer(file).get
+      val seq = reader.readSeqContainer(file).get
+
+      primitive.nodes.toMap shouldBe seq.nodes
+      primitive.ways.toMap shouldBe seq.ways
+      primitive.relations.toMap shouldBe seq.relations
+      primitive.wayPolygon(seq.ways(1001L).asInstanceOf[ClosedWay]) shouldBe
+        seq.wayPolygon(seq.ways(1001L).asInstanceOf[ClosedWay])
+    }
+
+    "only read meta information on request" in {
+      val withoutMeta = new OsmPbfReader().readSeqContainer(file).get
+      withoutMeta.nodes.values.flatMap(_.metaInformation) shouldBe empty
+      withoutMeta.ways.values.flatMap(_.metaInformation) shouldBe empty
+
+      val withMeta =
+        new OsmPbfReader(readMetaInformation = true).readSeqContainer(file).get
+      withMeta.nodes(3L).metaInformation shouldBe Some(
+        MetaInformation(
+          version = Some(2),
+          timestamp = Some(Instant.parse("2022-01-01T00:01:00Z")),
+          changeSet = Some(101L),
+          userId = Some(11),
+          userName = Some("alice")
+        )
+      )
+      withMeta.nodes(16L).metaInformation.flatMap(_.userName) shouldBe Some(
+        "carol"
+      )
+      withMeta.relations(5002L).metaInformation shouldBe Some(
+        MetaInformation(
+          version = Some(4),
+          timestamp = Some(Instant.parse("2022-01-01T00:04:00Z")),
+          changeSet = Some(111L),
+          userId = Some(13),
+          userName = Some("carol")
+        )
+      )
+    }
+
+    "drop entities rejected by the filter" in {
+      val filter = OsmEntityFilter(
+        _.contains("power"),
+        _.get("power").contains("line"),
+        _ => false
+      )
+      val container =
+        new OsmPbfReader(filter).readPrimitiveContainer(file).get
+
+      container.nodes.idIterator.toList shouldBe List(20L, 21L, 22L)
+      container.ways.keyArray.toList shouldBe List(3001L)
+      container.relations.isEmpty shouldBe true
+    }
+
+    "hand over entities in file order to the consumer" in {
+      val entities = ArrayBuffer.empty[OsmEntity]
+      new OsmPbfReader(parallelism = 2).read(file)(entities += _).get
+
+      entities.size shouldBe 36
+      entities.take(25).map(_.id).last shouldBe 16L
+      entities.drop(25).take(9).forall(_.isInstanceOf[Way]) shouldBe true
+      entities.takeRight(2).map(_.id) shouldBe Seq(5001L, 5002L)
+    }
+
+    "fail on invalid input" in {
+      val result = new OsmPbfReader().read(
+        new ByteArrayInputStream(Array[Byte](0, 0, 0, 8, 10, 2))
+      )(_ => ())
+
+      result.isFailure shouldBe true
+      result.failed.get shouldBe an[OsmException]
+    }
+  }
+}
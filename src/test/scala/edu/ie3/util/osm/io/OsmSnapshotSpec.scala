@@ -0,0 +1,181 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.io
+
+import edu.ie3.util.exceptions.OsmException
+import edu.ie3.util.osm.model.OsmContainer.{
+  PrimitiveOsmContainer,
+  SeqOsmContainer
+}
+import edu.ie3.util.osm.model.OsmEntity.Relation.{
+  RelationMember,
+  RelationMemberType
+}
+import edu.ie3.util.osm.model.OsmEntity.{MetaInformation, Node, Relation, Way}
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+import java.nio.file.{Files, Path, Paths}
+import java.time.Instant
+
+class OsmSnapshotSpec extends Matchers with AnyWordSpecLike {
+
+  private val source: SeqOsmContainer = new OsmPbfReader(
+    readMetaInformation = true
+  ).readSeqContainer(
+    Paths.get(getClass.getResource("/osm/dortmund_excerpt.osm.pbf").toURI)
+  ).get
+
+  private def withSnapshot[T](test: Path => T): T = {
+    val file = Files.createTempFile("container", ".osmsnap")
+    try test(file)
+    finally Files.deleteIfExists(file)
+  }
+
+  "An OsmSnapshotWriter and OsmSnapshotReader" should {
+
+    "reload a SeqOsmContainer" in withSnapshot { file =>
+      new OsmSnapshotWriter().write(source, file).get
+
+      new OsmSnapshotReader().readSeqContainer(file).get shouldBe source
+    }
+
+    "reload a ParOsmContainer" in withSnapshot { file =>
+      val parContainer = source.par()
+      new OsmSnapshotWriter().write(parContainer, file).get
+
+      new OsmSnapshotReader().readParContainer(file).get shouldBe parContainer
+    }
+
+    "reload a PrimitiveOsmContainer" in withSnapshot { file =>
+      val primitiveContainer = PrimitiveOsmContainer(source)
+      new OsmSnapshotWriter().write(primitiveContainer, file).get
+
+      new OsmSnapshotReader()
+        .readPrimitiveContainer(file)
+        .get shouldBe primitiveContainer
+    }
+
+    "reload negative ids, extreme coordinates and partial meta information" in withSnapshot {
+      file =>
+        val container = SeqOsmContainer(
+          Seq(
+            Node(-5L, -90.0, -180.0, Map("a" -> "b"), None),
+            Node(
+              Long.MaxValue,
+              89.9999999,
+              179.9999999,
+              Map.empty,
+              Some(MetaInformation())
+            )
+          ),
+          Seq(
+            Way(
+              -1L,
+              Seq(Long.MaxValue, -5L, Long.MaxValue),
+              Map.empty,
+              Some(
+                MetaInformation(
+                  visible = Some(false),
+                  timestamp = Some(Instant.ofEpochSecond(-1L, 5L))
+                )
+              )
+            )
+          ),
+          Seq(
+            Relation(
+              3L,
+              Seq(
+                RelationMember(-1L, RelationMemberType.Way, ""),
+                RelationMember(3L, RelationMemberType.Relation, "sub"),
+                RelationMember(7L, RelationMemberType.Unrecognized, "")
+              ),
+              Map("type" -> "route"),
+              Some(MetaInformation(userName = Some("Grüße")))
+            )
+          )
+        )
+        new OsmSnapshotWriter().write(container, file).get
+
+        new OsmSnapshotReader().readSeqContainer(file).get shouldBe container
+    }
+
+    "read a snapshot, that exceeds a single mapping window" in withSnapshot {
+      file =>
+        new OsmSnapshotWriter().write(source, file).get
+
+        new OsmSnapshotReader(mappingWindowSize = 7L)
+          .readSeqContainer(file)
+          .get shouldBe source
+    }
+
+    "omit meta information, if requested" in withSnapshot { file =>
+      val withoutMeta = SeqOsmContainer(
+        source.nodes.view.mapValues(_.copy(metaInformation = None)).toMap,
+        source.ways.view.mapValues {
+          case way: Way.OpenWay   => way.copy(metaInformation = None)
+          case way: Way.ClosedWay => way.copy(metaInformation = None)
+        }.toMap,
+        source.relations.view
+          .mapValues(_.copy(metaInformation = None))
+          .toMap
+      )
+
+      new OsmSnapshotWriter(writeMetaInformation = false)
+        .write(source, file)
+        .get
+      new OsmSnapshotReader().readSeqContainer(file).get shouldBe withoutMeta
+
+      new OsmSnapshotWriter().write(source, file).get
+      new OsmSnapshotReader(readMetaInformation = false)
+        .readSeqContainer(file)
+        .get shouldBe withoutMeta
+    }
+
+    "be smaller than the original extract" in withSnapshot { file =>
+      new OsmSnapshotWriter(writeMetaInformation = false)
+        .write(source, file)
+        .get
+
+      Files.size(file) should be < Files.size(
+        Paths.get(getClass.getResource("/osm/dortmund_excerpt.osm.pbf").toURI)
+      )
+    }
+
+    "reject files, that are no snapshots" in withSnapshot { file =>
+      Files.write(file, "<osm></osm>".getBytes)
+
+      new OsmSnapshotReader()
+        .readSeqContainer(file)
+        .failed
+        .get shouldBe an[OsmException]
+    }
+
+    "reject snapshots of another version" in withSnapshot { file =>
+      new OsmSnapshotWriter().write(source, file).get
+      val bytes = Files.readAllBytes(file)
+      bytes(OsmSnapshotFormat.Magic.length) = 2
+      Files.write(file, bytes)
+
+      new OsmSnapshotReader()
+        .readSeqContainer(file)
+        .failed
+        .get
+        .getMessage shouldBe "Unsupported snapshot version 2, expected version 1."
+    }
+
+    "reject truncated snapshots" in withSnapshot { file =>
+      new OsmSnapshotWriter().write(source, file).get
+      val bytes = Files.readAllBytes(file)
+      Files.write(file, bytes.take(bytes.length - 3))
+
+      new OsmSnapshotReader()
+        .readSeqContainer(file)
+        .failed
+        .get shouldBe an[OsmException]
+    }
+  }
+}
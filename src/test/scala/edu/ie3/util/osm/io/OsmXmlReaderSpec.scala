@@ -0,0 +1,127 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.io
+
+import edu.ie3.util.exceptions.OsmException
+import edu.ie3.util.osm.model.CommonOsmKey
+import edu.ie3.util.osm.model.OsmEntity.{MetaInformation, Node, Way}
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+import java.io.ByteArrayInputStream
+import java.nio.charset.StandardCharsets
+import java.nio.file.{Files, Path, Paths}
+import java.time.Instant
+import scala.util.Using
+
+class OsmXmlReaderSpec extends Matchers with AnyWordSpecLike {
+
+  private val xmlFile: Path =
+    Paths.get(getClass.getResource("/osm/dortmund_excerpt.osm").toURI)
+  private val pbfFile: Path =
+    Paths.get(getClass.getResource("/osm/dortmund_excerpt.osm.pbf").toURI)
+
+  "An OsmXmlReader" should {
+
+    "read the same entities as the pbf reader" in {
+      val xml = new OsmXmlReader(readMetaInformation = true)
+        .readSeqContainer(xmlFile)
+        .get
+      val pbf = new OsmPbfReader(readMetaInformation = true)
+        .readSeqContainer(pbfFile)
+        .get
+
+      xml.nodes.size shouldBe 25
+      xml shouldBe pbf
+    }
+
+    "only read meta information on request" in {
+      val container = new OsmXmlReader().readPrimitiveContainer(xmlFile).get
+
+      container.nodes.node(10L) shouldBe Some(
+        Node(10L, 51.4898, 7.4098, Map("highway" -> "traffic_signals"), None)
+      )
+      container.ways.values.flatMap(_.metaInformation) shouldBe empty
+    }
+
+    "lazily iterate over entities" in {
+      Using.resource(Files.newInputStream(xmlFile)) { input =>
+        val iterator = new OsmXmlReader().iterator(input)
+
+        iterator.next().id shouldBe 1L
+        iterator.next().id shouldBe 2L
+        iterator.size shouldBe 34
+      }
+    }
+
+    "drop ways and relations without the requested keys" in {
+      val filter =
+        OsmEntityFilter.withAnyKey(CommonOsmKey.Building, CommonOsmKey.Power)
+      val container = new OsmXmlReader(filter).readSeqContainer(xmlFile).get
+
+      container.nodes.size shouldBe 25
+      container.ways.keySet shouldBe Set(1001L, 1002L, 3001L)
+      container.relations shouldBe empty
+    }
+
+    "drop entities rejected by a key value filter" in {
+      val filter = OsmEntityFilter.withAnyKeyValues(
+        Map("highway" -> Set("service", "footway"), "type" -> Set.empty)
+      )
+      val container = new OsmXmlReader(filter).readSeqContainer(xmlFile).get
+
+      container.ways.keySet shouldBe Set(2002L, 2003L)
+      container.relations.keySet shouldBe Set(5001L, 5002L)
+    }
+
+    "parse meta information and unknown elements correctly" in {
+      val xml =
+        """<osm version="0.6">
+          |  <changeset id="7"><tag k="comment" v="ignored"/></changeset>
+          |  <way id="7" version="3" timestamp="2021-06-01T12:00:00Z" visible="false">
+          |    <nd ref="1"/><nd ref="2"/>
+          |  </way>
+          |</osm>""".stripMargin
+      val entities = new OsmXmlReader(readMetaInformation = true)
+        .iterator(
+          new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))
+        )
+        .toList
+
+      entities shouldBe List(
+        Way(
+          7L,
+          Seq(1L, 2L),
+          Map.empty,
+          Some(
+            MetaInformation(
+              version = Some(3),
+              timestamp = Some(Instant.parse("2021-06-01T12:00:00Z")),
+              visible = Some(false)
+            )
+          )
+        )
+      )
+    }
+
+    "fail on malformed input" in {
+      def read(xml: String) = new OsmXmlReader().read(
+        new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))
+      )(_ => ())
+
+      read(
+        """<osm><node id="1" lat="x" lon="7.0"/></osm>"""
+      ).failed.get shouldBe
+        OsmException("Invalid value 'x' of attribute 'lat' at line 1.")
+      read("""<osm><node id="1" lon="7.0"/></osm>""").failed.get shouldBe
+        OsmException(
+          "Element 'node' at line 1 is missing the attribute 'lat'."
+        )
+      read("""<osm><node id="1" lat="5" lon="7.0">""").failed.get shouldBe
+        an[OsmException]
+    }
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+import java.time.Duration
+
+class EntityCacheSpec extends Matchers with AnyWordSpecLike {
+
+  "An EntityCache" should {
+
+    "cache defined values only" in {
+      val cache = new EntityCache[String](CacheConfig.Unbounded, _.length)
+
+      cache.getOrCompute(1L)(Some("a")) shouldBe Some("a")
+      cache.getOrCompute(1L)(Some("b")) shouldBe Some("a")
+      cache.getOrCompute(2L)(None) shouldBe None
+      cache.getOrCompute(2L)(Some("c")) shouldBe Some("c")
+
+      cache.statistics shouldBe CacheStatistics(1, 3, 0, 0, 2)
+      cache.statistics.hitRate shouldBe 0.25
+    }
+
+    "allow recursive requests while computing a value" in {
+      val cache = new EntityCache[String](CacheConfig.Unbounded, _.length)
+
+      def value(key: Long): Option[String] = cache.getOrCompute(key) {
+        if (key == 0) Some("0")
+        else value(key - 1).map(_ + key)
+      }
+
+      value(3L) shouldBe Some("0123")
+      cache.statistics.size shouldBe 4
+    }
+
+    "evict entries beyond the maximum number of entries" in {
+      val cache = new EntityCache[String](CacheConfig.SizeBounded(2), _.length)
+
+      (1L to 10L).foreach(key => cache.getOrCompute(key)(Some(key.toString)))
+
+      val statistics = cache.statistics
+      statistics.size shouldBe 2
+      statistics.evictions shouldBe 8
+    }
+
+    "evict entries beyond the maximum weight" in {
+      val cache =
+        new EntityCache[String](CacheConfig.WeightBounded(5), _.length)
+
+      cache.getOrCompute(1L)(Some("abc"))
+      cache.getOrCompute(2L)(Some("def"))
+      cache.getOrCompute(3L)(Some("toolong"))
+
+      val statistics = cache.statistics
+      statistics.size shouldBe 1
+      statistics.evictions shouldBe 2
+      statistics.evictedWeight shouldBe 10
+    }
+
+    "compute every request if disabled" in {
+      val cache = new EntityCache[String](CacheConfig.Disabled, _.length)
+
+      cache.getOrCompute(1L)(Some("a")) shouldBe Some("a")
+      cache.getOrCompute(1L)(Some("b")) shouldBe Some("b")
+      cache.statistics shouldBe CacheStatistics(0, 2, 0, 0, 0)
+    }
+
+    "measure the time of computations only" in {
+      val cache = new EntityCache[String](CacheConfig.Unbounded, _.length)
+
+      cache.getOrCompute(1L) {
+        Thread.sleep(20)
+        Some("a")
+      }
+      val computeTime = cache.computeTime
+      computeTime should be >= Duration.ofMillis(20)
+
+      cache.getOrCompute(1L)(Some("b")) shouldBe Some("a")
+      cache.computeTime shouldBe computeTime
+    }
+
+    "reject negative bounds" in {
+      an[IllegalArgumentException] should be thrownBy CacheConfig.SizeBounded(
+        -1
+      )
+    }
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+class IdBitSetSpec extends Matchers with AnyWordSpecLike {
+
+  "An IdBitSet" should {
+
+    "contain sparse, negative and duplicate ids" in {
+      val ids = Array(42L, -1L, Long.MaxValue, Long.MinValue, 42L, 65536L, 7L)
+      val set = IdBitSet(ids.clone())
+
+      set.size shouldBe 6
+      ids.foreach(id => set.contains(id) shouldBe true)
+      Seq(0L, 41L, 43L, 65535L, -2L, Long.MaxValue - 1).foreach(id =>
+        set.contains(id) shouldBe false
+      )
+      set.iterator.toSeq shouldBe ids.distinct.sorted.toSeq
+    }
+
+    "contain dense id ranges" in {
+      val ids = (100000L until 300000L by 3L) ++ (-5000L until 5000L)
+      val set = IdBitSet.from(ids)
+
+      set.size shouldBe ids.size
+      ids.foreach(id => set.contains(id) shouldBe true)
+      (100001L until 300000L by 3L).foreach(id =>
+        set.contains(id) shouldBe false
+      )
+      set.iterator.toSeq shouldBe ids.sorted
+    }
+
+    "be empty" in {
+      IdBitSet.empty.isEmpty shouldBe true
+      IdBitSet.from(Iterator.empty).contains(0L) shouldBe false
+    }
+  }
+}
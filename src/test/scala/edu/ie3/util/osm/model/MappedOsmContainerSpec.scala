@@ -0,0 +1,220 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.exceptions.OsmException
+import edu.ie3.util.osm.OsmContainerUtils
+import edu.ie3.util.osm.io.OsmPbfReader
+import edu.ie3.util.osm.model.OsmContainer.{MappedOsmContainer, SeqOsmContainer}
+import edu.ie3.util.osm.model.OsmEntity.Way.ClosedWay
+import edu.ie3.util.osm.model.OsmEntity.{Node, Way}
+import org.scalatest.Inside.inside
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+import java.nio.file.{Files, Path, Paths}
+import java.util.Comparator
+import scala.collection.immutable.ArraySeq
+import scala.util.Random
+
+class MappedOsmContainerSpec extends Matchers with AnyWordSpecLike {
+
+  private val file =
+    Paths.get(getClass.getResource("/osm/dortmund_excerpt.osm.pbf").toURI)
+
+  private val reader = new OsmPbfReader(readMetaInformation = true)
+
+  private val excerpt: SeqOsmContainer = reader.readSeqContainer(file).get
+
+  /** Runs the test with a fresh directory, that is deleted afterwards including
+    * the directories of derived containers
+    */
+  private def withDirectory[T](test: Path => T): T = {
+    val parent = Files.createTempDirectory("mapped")
+    try test(parent.resolve("container"))
+    finally
+      Files
+        .walk(parent)
+        .sorted(Comparator.reverseOrder[Path]())
+        .forEach(path => Files.delete(path))
+  }
+
+  /** Writes the excerpt and reopens it with tiny mapping segments, so that
+    * values crossing the border of segments are read as well
+    */
+  private def withMapped[T](test: MappedOsmContainer => T): T =
+    withDirectory { directory =>
+      MappedOsmContainer.write(excerpt, directory).get.close()
+      val container =
+        MappedOsmContainer.open(directory, CacheConfig.SizeBounded(4), 36)
+      try test(container)
+      finally container.close()
+    }
+
+  "A MappedOsmContainer" should {
+
+    "hold the same entities as the original container" in withMapped {
+      container =>
+        container.nodeCount shouldBe excerpt.nodes.size
+        container.wayCount shouldBe excerpt.ways.size
+        container.relationCount shouldBe excerpt.relations.size
+        container.statistics.nodes shouldBe excerpt.nodes.size
+
+        excerpt.nodes.keys.foreach(id =>
+          container.node(id) shouldBe excerpt.node(id)
+        )
+        excerpt.ways.keys.foreach(id =>
+          container.way(id) shouldBe excerpt.way(id)
+        )
+        excerpt.relations.keys.foreach(id =>
+          container.relation(id) shouldBe excerpt.relation(id)
+        )
+        container.node(-1L) shouldBe None
+        container.way(Long.MaxValue) shouldBe None
+
+        container.nodesIterator.map(_.id).toSeq shouldBe
+          excerpt.nodes.keys.toSeq.sorted
+        container.seq() shouldBe excerpt
+        container.par().seq() shouldBe excerpt
+        excerpt.nodes.values.flatMap(_.metaInformation) should not be empty
+    }
+
+    "answer batch requests in the order of the requested ids" in withMapped {
+      container =>
+        val random = new Random(49)
+        val ids = excerpt.nodes.keys.toSeq ++ Seq(-1L, 0L, 9999L) ++
+          excerpt.ways.keys ++ excerpt.nodes.keys.take(3)
+
+        (0 until 20).foreach { _ =>
+          val shuffled = random.shuffle(ids)
+          container.nodes(shuffled) shouldBe excerpt.nodes(shuffled)
+          container.ways(shuffled) shouldBe excerpt.ways(shuffled)
+          container.relations(shuffled) shouldBe excerpt.relations(shuffled)
+        }
+        container.nodes(Seq.empty) shouldBe empty
+    }
+
+    "keep only a bounded hot set on heap" in withMapped { container =>
+      (0 until 3).foreach(_ => excerpt.nodes.keys.foreach(container.node))
+      container.nodeHotSetStatistics.size should be <= 4L
+      container.nodeHotSetStatistics.requests shouldBe 3L * excerpt.nodes.size
+      container.nodeStore.reads should be > excerpt.nodes.size.toLong
+
+      val footprint = container.estimateMemoryFootprint()
+      footprint.total should be < excerpt.estimateMemoryFootprint().total
+    }
+
+    "build way geometries and relation entities like the original container" in withMapped {
+      container =>
+        excerpt.ways.values.foreach {
+          case way: ClosedWay =>
+            container.wayPolygon(way) shouldBe excerpt.wayPolygon(way)
+            container.wayAreaOnEarth(way) shouldBe excerpt.wayAreaOnEarth(way)
+          case _ =>
+        }
+        excerpt.relations.keys.foreach { id =>
+          container.relationEntities(id) shouldBe excerpt.relationEntities(id)
+          container.multiPolygon(id).toOption shouldBe excerpt
+            .multiPolygon(id)
+            .toOption
+        }
+        container.wayPolygonCacheStatistics.size should be <= 4L
+    }
+
+    "derive containers like the original container" in withMapped { container =>
+      val node = excerpt.nodes.values.head
+      val changes = OsmChangeSet.newBuilder
+        .put(node.copy(latitude = node.latitude + 1e-4))
+        .put(Node(1L << 40, 51.49, 7.41, Map("name" -> "new"), None))
+        .delete(excerpt.ways.values.head)
+        .result()
+
+      // derived containers delete their directory, when they are closed
+      def closed[T](derived: OsmContainer)(test: => T): T =
+        inside(derived) { case mapped: MappedOsmContainer =>
+          mapped.ownsDirectory shouldBe true
+          val result =
+            try test
+            finally mapped.close()
+          Files.exists(mapped.directory) shouldBe false
+          result
+        }
+
+      val updated = container.applyChanges(changes)
+      closed(updated) {
+        updated.directory.getParent shouldBe container.directory.getParent
+        updated.seq() shouldBe excerpt.applyChanges(changes)
+
+        val reduced = OsmContainerUtils.reduce(updated)
+        closed(reduced) {
+          reduced.seq() shouldBe OsmContainerUtils
+            .reduce(excerpt.applyChanges(changes))
+        }
+      }
+      container.seq() shouldBe excerpt
+      container.ownsDirectory shouldBe false
+
+      val stripped = OsmContainerUtils.stripMetaInformation(container)
+      closed(stripped) {
+        stripped.seq() shouldBe OsmContainerUtils.stripMetaInformation(excerpt)
+      }
+
+      // directories given by the caller are kept
+      val target = container.directory.resolveSibling("updated")
+      val kept = container.applyChanges(changes, target).get
+      try kept.seq() shouldBe excerpt.applyChanges(changes)
+      finally kept.close()
+      kept.ownsDirectory shouldBe false
+      Files.exists(target) shouldBe true
+    }
+
+    "be built by readers from unsorted extracts" in withDirectory { directory =>
+      // the ids of the excerpt are not sorted
+      val container = reader
+        .readContainer(
+          file,
+          OsmContainerBuilder
+            .mapped(directory, MappedOsmContainer.DefaultHotSet, 3)
+        )
+        .get
+      try {
+        container.seq() shouldBe excerpt
+        container.nodesIterator.map(_.id).toSeq shouldBe
+          excerpt.nodes.keys.toSeq.sorted
+        Files.list(directory).count() shouldBe 6
+      } finally container.close()
+
+      val reopened = MappedOsmContainer.open(directory).get
+      try reopened.seq() shouldBe excerpt
+      finally reopened.close()
+    }
+
+    "keep the last of several entities with the same id" in withDirectory {
+      directory =>
+        val builder = OsmContainerBuilder.mapped(
+          directory,
+          MappedOsmContainer.DefaultHotSet,
+          2
+        )
+        Seq(2L -> 1L, 2L -> 2L, 5L -> 3L, 1L -> 4L, 5L -> 5L, 2L -> 6L)
+          .foreach { case (id, node) =>
+            builder.addWay(Way(id, ArraySeq(node), Map.empty, None))
+          }
+        val container = builder.result()
+        try
+          container.waysIterator
+            .map(way => way.id -> way.nodes)
+            .toSeq shouldBe Seq(1L -> Seq(4L), 2L -> Seq(6L), 5L -> Seq(5L))
+        finally container.close()
+    }
+
+    "reject foreign files" in withDirectory { directory =>
+      MappedOsmContainer.write(excerpt, directory).get.close()
+      Files.write(directory.resolve("nodes.dat"), Array[Byte](1, 2, 3))
+      MappedOsmContainer.open(directory).failed.get shouldBe an[OsmException]
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.osm.model.OsmEntity.MetaInformation
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+import java.time.Instant
+
+class MetaInformationColumnsSpec extends Matchers with AnyWordSpecLike {
+
+  private val complete = MetaInformation(
+    Some(3),
+    Some(Instant.parse("2022-01-02T03:04:05.678Z")),
+    Some(200L),
+    Some(11),
+    Some("alice"),
+    Some(false)
+  )
+
+  "MetaInformationColumns" should {
+
+    "return the meta information by entity id" in {
+      val columns = MetaInformationColumns.from(
+        Seq(
+          7L -> complete,
+          2L -> MetaInformation(),
+          5L -> complete.copy(userName = Some("bob"), visible = Some(true)),
+          9L -> complete.copy(version = None, timestamp = None)
+        )
+      )
+
+      columns.size shouldBe 4
+      columns.get(7L) shouldBe Some(complete)
+      columns.get(2L) shouldBe Some(MetaInformation())
+      columns.get(5L).flatMap(_.userName) shouldBe Some("bob")
+      columns.get(5L).flatMap(_.visible) shouldBe Some(true)
+      columns.get(9L) shouldBe Some(
+        complete.copy(version = None, timestamp = None)
+      )
+      columns.get(3L) shouldBe None
+      columns.idIterator.toSeq shouldBe Seq(2L, 5L, 7L, 9L)
+    }
+
+    "keep timestamps without loss of precision" in {
+      val timestamps = Seq(
+        Instant.parse("2022-01-02T03:04:05.123456789Z"),
+        Instant.ofEpochSecond(-1L, 999999999),
+        Instant.EPOCH
+      )
+      val columns = MetaInformationColumns.from(
+        timestamps.zipWithIndex.map { case (timestamp, idx) =>
+          idx.toLong -> complete.copy(timestamp = Some(timestamp))
+        }
+      )
+
+      columns.iterator.flatMap(_._2.timestamp).toSeq shouldBe timestamps
+    }
+
+    "keep the last entry of an entity id" in {
+      val columns = MetaInformationColumns.from(
+        Seq(1L -> complete, 1L -> complete.copy(version = Some(4)))
+      )
+
+      columns.size shouldBe 1
+      columns.get(1L).flatMap(_.version) shouldBe Some(4)
+      columns shouldBe MetaInformationColumns.from(
+        Seq(1L -> complete.copy(version = Some(4)))
+      )
+    }
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.exceptions.OsmException
+import edu.ie3.util.osm.io.OsmPbfReader
+import edu.ie3.util.osm.model.OsmContainer.{
+  PrimitiveOsmContainer,
+  SeqOsmContainer
+}
+import edu.ie3.util.osm.model.OsmEntity.Relation.{
+  RelationMember,
+  RelationMemberType
+}
+import edu.ie3.util.osm.model.OsmEntity.{Node, Relation, Way}
+import org.locationtech.jts.geom.{Coordinate, Polygon}
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+import java.nio.file.Paths
+
+class MultipolygonSupportSpec extends Matchers with AnyWordSpecLike {
+
+  private val excerpt = new OsmPbfReader()
+    .readSeqContainer(
+      Paths.get(getClass.getResource("/osm/dortmund_excerpt.osm.pbf").toURI)
+    )
+    .get
+
+  /** Two separate squares, the left one with a hole. The outer ring of the left
+    * square is split into three ways, one of them reversed.
+    */
+  private val squares = {
+    val nodes = Seq(
+      Node(1L, 0.0, 0.0, Map.empty, None),
+      Node(2L, 0.0, 1.0, Map.empty, None),
+      Node(3L, 1.0, 1.0, Map.empty, None),
+      Node(4L, 1.0, 0.0, Map.empty, None),
+      Node(5L, 0.0, 2.0, Map.empty, None),
+      Node(6L, 1.0, 2.0, Map.empty, None),
+      Node(7L, 0.4, 0.4, Map.empty, None),
+      Node(8L, 0.4, 0.6, Map.empty, None),
+      Node(9L, 0.6, 0.5, Map.empty, None),
+      Node(10L, 5.0, 5.0, Map.empty, None),
+      Node(11L, 5.0, 6.0, Map.empty, None),
+      Node(12L, 6.0, 5.0, Map.empty, None),
+      Node(13L, 0.0, 3.0, Map.empty, None),
+      Node(14L, 1.0, 3.0, Map.empty, None)
+    )
+    val ways = Seq(
+      Way(101L, Seq(1L, 2L), Map.empty, None),
+      Way(102L, Seq(4L, 3L, 2L), Map.empty, None),
+      Way(103L, Seq(4L, 1L), Map.empty, None),
+      Way(104L, Seq(5L, 13L, 14L, 6L, 5L), Map.empty, None),
+      Way(105L, Seq(7L, 8L, 9L, 7L), Map.empty, None),
+      Way(106L, Seq(10L, 11L, 12L, 10L), Map.empty, None)
+    )
+    def multipolygon(id: Long, members: (Long, String)*) = Relation(
+      id,
+      members.map { case (wayId, role) =>
+        RelationMember(wayId, RelationMemberType.Way, role)
+      },
+      Map("type" -> "multipolygon"),
+      None
+    )
+    val relations = Seq(
+      multipolygon(
+        201L,
+        103L -> "outer",
+        105L -> "inner",
+        101L -> "outer",
+        104L -> "",
+        102L -> "outer"
+      ),
+      multipolygon(202L, 101L -> "outer", 102L -> "outer"),
+      multipolygon(203L, 106L -> "outer", 105L -> "inner"),
+      multipolygon(204L, 105L -> "inner"),
+      multipolygon(205L, 101L -> "outer", 999L -> "outer")
+    )
+    SeqOsmContainer(nodes, ways, relations)
+  }
+
+  "A container with multipolygon support" should {
+
+    "assemble multipolygons of an extract" in {
+      Seq(excerpt, excerpt.par(), PrimitiveOsmContainer(excerpt)).foreach {
+        container =>
+          val multiPolygon = container.multiPolygon(5001L).get
+
+          multiPolygon.getNumGeometries shouldBe 1
+          val polygon =
+            multiPolygon.getGeometryN(0).asInstanceOf[Polygon]
+          polygon.getExteriorRing.getNumPoints shouldBe 5
+          polygon.getNumInteriorRing shouldBe 1
+          polygon.getInteriorRingN(0).getCoordinates.toSet shouldBe Set(
+            new Coordinate(7.4095, 51.4883),
+            new Coordinate(7.4105, 51.4883),
+            new Coordinate(7.41, 51.4887)
+          )
+          polygon.isValid shouldBe true
+      }
+    }
+
+    "stitch reversed and split ways and assign holes to their shell" in {
+      val multiPolygon = squares.multiPolygon(201L).get
+
+      multiPolygon.getNumGeometries shouldBe 2
+      multiPolygon.isValid shouldBe true
+      multiPolygon.getArea shouldBe 2.0 - 0.02 +- 1e-9
+      val holes = (0 until 2).map(idx =>
+        multiPolygon
+          .getGeometryN(idx)
+          .asInstanceOf[Polygon]
+          .getNumInteriorRing
+      )
+      holes.sum shouldBe 1
+    }
+
+    "report relations, that cannot be assembled" in {
+      def failure(relationId: Long) =
+        squares.multiPolygon(relationId).failed.get
+
+      failure(202L) shouldBe OsmException(
+        "Ring of multipolygon relation 202 is not closed at node 4."
+      )
+      failure(203L) shouldBe OsmException(
+        "Inner ring of multipolygon relation 203 is not within any outer ring."
+      )
+      failure(204L) shouldBe OsmException(
+        "Multipolygon relation 204 has no outer ring."
+      )
+      failure(205L) shouldBe OsmException(
+        "Way 999 of multipolygon relation 205 is not available."
+      )
+      excerpt.multiPolygon(5002L).failed.get shouldBe OsmException(
+        "Relation 5002 is no multipolygon."
+      )
+    }
+
+    "assemble all multipolygons of a container in parallel" in {
+      val multiPolygons = squares.multiPolygons()
+
+      multiPolygons.keySet shouldBe Set(201L, 202L, 203L, 204L, 205L)
+      multiPolygons.collect {
+        case (id, result) if result.isSuccess => id
+      }.toSet shouldBe Set(201L)
+      excerpt.multiPolygons().keySet shouldBe Set(5001L)
+    }
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.osm.SimpleOsmTestData
+import edu.ie3.util.osm.model.OsmEntity.{MetaInformation, Node}
+import org.locationtech.jts.geom.Coordinate
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+class NodeColumnsSpec
+    extends Matchers
+    with AnyWordSpecLike
+    with SimpleOsmTestData {
+
+  "NodeColumns" should {
+
+    val taggedNode = Node(
+      4L,
+      49.37,
+      6.59,
+      Map("power" -> "tower"),
+      Some(MetaInformation(version = Some(2)))
+    )
+
+    "provide node views equal to the original nodes" in {
+      val columns = NodeColumns.from(Seq(taggedNode, n3, n1, n2))
+
+      columns.size shouldBe 4
+      columns.idIterator.toList shouldBe List(1L, 2L, 3L, 4L)
+      columns.node(n2.id) shouldBe Some(n2)
+      columns.node(taggedNode.id) shouldBe Some(taggedNode)
+      columns.node(5L) shouldBe None
+      columns.values.toList shouldBe List(n1, n2, n3, taggedNode)
+      columns.toMap shouldBe (nodesMap + (taggedNode.id -> taggedNode))
+    }
+
+    "only hold tags for tagged nodes" in {
+      val columns = NodeColumns.from(nodes :+ taggedNode)
+
+      columns.taggedNodeIds.toList shouldBe List(taggedNode.id)
+    }
+
+    "read coordinates without nodes correctly" in {
+      val columns = NodeColumns.from(nodes)
+
+      columns.coordinate(n1.id) shouldBe Some(
+        new Coordinate(n1.longitude, n1.latitude)
+      )
+      columns
+        .coordinates(closedWay.nodes)
+        .map(_.toSeq) shouldBe Some(
+        closedWay.nodes
+          .map(nodesMap)
+          .map(node => new Coordinate(node.longitude, node.latitude))
+      )
+      columns.coordinates(Seq(n1.id, 5L)) shouldBe None
+    }
+
+    "keep the last of duplicated nodes" in {
+      val columns = NodeColumns.from(
+        Seq(
+          taggedNode,
+          n1,
+          taggedNode.copy(tags = Map.empty, metaInformation = None)
+        )
+      )
+
+      columns.size shouldBe 2
+      columns.node(taggedNode.id) shouldBe Some(
+        taggedNode.copy(tags = Map.empty, metaInformation = None)
+      )
+      columns.taggedNodeIds shouldBe empty
+    }
+
+    "encode tags with the given dictionary" in {
+      val dictionary = new TagDictionary
+      val columns = NodeColumns
+        .newBuilder(dictionary)
+        .add(taggedNode)
+        .add(n1)
+        .result()
+
+      columns.tagDictionary shouldBe theSameInstanceAs(dictionary)
+      columns.compactTags(n1.id) shouldBe None
+      columns
+        .compactTags(taggedNode.id)
+        .exists(
+          _.hasKeyValuePair(
+            dictionary.lookup(CommonOsmKey.Power),
+            dictionary.lookup("tower")
+          )
+        ) shouldBe true
+      columns shouldBe NodeColumns.from(Seq(n1, taggedNode))
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.osm.io.{OsmChangeReader, OsmPbfReader}
+import edu.ie3.util.osm.model.OsmContainer.{
+  PrimitiveOsmContainer,
+  SeqOsmContainer
+}
+import edu.ie3.util.osm.model.OsmEntity.Node
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+import java.nio.file.Paths
+
+class OsmChangeSetSpec extends Matchers with AnyWordSpecLike {
+
+  private val excerpt = new OsmPbfReader()
+    .readSeqContainer(
+      Paths.get(getClass.getResource("/osm/dortmund_excerpt.osm.pbf").toURI)
+    )
+    .get
+
+  private val changes = new OsmChangeReader()
+    .read(Paths.get(getClass.getResource("/osm/dortmund_excerpt.osc").toURI))
+    .get
+
+  private val expected = SeqOsmContainer(
+    excerpt.nodes -- Seq(14L, 15L) ++ changes.nodes.collect {
+      case (id, Some(node)) => id -> node
+    },
+    excerpt.ways - 2003L ++ changes.ways.collect { case (id, Some(way)) =>
+      id -> way
+    },
+    excerpt.relations ++ changes.relations.collect {
+      case (id, Some(relation)) => id -> relation
+    }
+  )
+
+  private def takeOverCaches[
+      C <: RichClosedWaySupport & RelationEntitiesSupport
+  ](original: C)(applyChanges: C => C): Unit = {
+    original.precomputeWayPolygons(_ => true).polygons shouldBe 3
+    original.relationEntities(Seq(5001L, 5002L)).flatten should have size 2
+
+    val updated = applyChanges(original)
+
+    // the polygon of way 1001 is affected by the move of node 3
+    updated.wayPolygonCacheStatistics.size shouldBe 2
+    // relation 5002 itself is modified
+    updated.relationEntityCacheStatistics.size shouldBe 1
+    updated.wayPolygon(1001L).map(_.getCoordinates.apply(2).y) shouldBe Some(
+      51.4903
+    )
+    updated.wayPolygon(1002L) shouldBe original.wayPolygon(1002L)
+  }
+
+  "Applying an OsmChangeSet" should {
+
+    "update containers of all types" in {
+      excerpt.applyChanges(changes) shouldBe expected
+      excerpt.par().applyChanges(changes) shouldBe expected.par()
+      PrimitiveOsmContainer(excerpt)
+        .applyChanges(changes)
+        .seq() shouldBe expected
+    }
+
+    "share unchanged entities with the original container" in {
+      val updated = excerpt.applyChanges(changes)
+
+      updated.nodes(1L) should be theSameInstanceAs excerpt.nodes(1L)
+      updated.ways(1002L) should be theSameInstanceAs excerpt.ways(1002L)
+      excerpt.applyChanges(
+        OsmChangeSet.empty
+      ) should be theSameInstanceAs excerpt
+    }
+
+    "keep the tags of unchanged nodes of primitive containers" in {
+      val updated = PrimitiveOsmContainer(excerpt).applyChanges(
+        OsmChangeSet(
+          Map(
+            16L -> Some(
+              Node(16L, 51.49, 7.41, Map("amenity" -> "bench"), None)
+            ),
+            20L -> None
+          ),
+          Map.empty,
+          Map.empty
+        )
+      )
+
+      updated.node(16L).map(_.tags) shouldBe Some(Map("amenity" -> "bench"))
+      updated.node(20L) shouldBe None
+      updated.node(21L).map(_.tags) shouldBe excerpt.node(21L).map(_.tags)
+      updated.node(10L) shouldBe excerpt.node(10L)
+    }
+
+    "take over the cached entries, that are not affected" in {
+      takeOverCaches(excerpt.copy())(_.applyChanges(changes))
+      takeOverCaches(excerpt.par())(_.applyChanges(changes))
+      takeOverCaches(PrimitiveOsmContainer(excerpt))(_.applyChanges(changes))
+    }
+  }
+}
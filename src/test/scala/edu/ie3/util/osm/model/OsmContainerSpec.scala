@@ -8,9 +8,22 @@ package edu.ie3.util.osm.model
 import edu.ie3.util.geo.GeoUtils
 import edu.ie3.util.geo.RichGeometries._
 import edu.ie3.util.osm.SimpleOsmTestData
-import edu.ie3.util.osm.model.OsmContainer.{ParOsmContainer, SeqOsmContainer}
-import edu.ie3.util.osm.model.OsmEntity.Node
+import edu.ie3.util.osm.model.OsmContainer.{
+  ParOsmContainer,
+  PrimitiveOsmContainer,
+  SeqOsmContainer
+}
+import edu.ie3.util.osm.model.OsmEntity.Relation.{
+  RelationMember,
+  RelationMemberType
+}
+import edu.ie3.util.osm.model.OsmEntity.{Node, Relation, Way}
 import edu.ie3.util.osm.model.RelationEntitiesSupport.RelationEntities
+import edu.ie3.util.osm.model.RichClosedWaySupport.{
+  InvalidRing,
+  MissingNodes,
+  WayPolygonReport
+}
 import edu.ie3.util.quantities.QuantityMatchers
 import org.scalatest.Inside.inside
 import org.scalatest.matchers.should.Matchers
@@ -18,6 +31,7 @@ import org.scalatest.wordspec.AnyWordSpecLike
 import tech.units.indriya.quantity.Quantities
 import tech.units.indriya.unit.Units
 
+import java.time.Duration
 import scala.collection.parallel.CollectionConverters._
 
 class OsmContainerSpec
@@ -87,6 +101,223 @@ class OsmContainerSpec
       }
     }
 
+    "record statistics of configurable caches" in {
+
+      val container = SeqOsmContainer(nodes, ways, relations)
+
+      container.wayPolygon(closedWay) shouldBe defined
+      container.wayPolygon(closedWay) shouldBe defined
+      container.wayPolygonCacheStatistics shouldBe CacheStatistics(
+        1,
+        1,
+        0,
+        0,
+        1
+      )
+
+      container.relationEntities(r2.id) shouldBe defined
+      container.relationEntities(r1.id) shouldBe defined
+      // r1 has been resolved alongside r2
+      container.relationEntityCacheStatistics shouldBe CacheStatistics(
+        1,
+        1,
+        0,
+        0,
+        2
+      )
+
+      container.configureWayPolygonCache(CacheConfig.Disabled)
+      container.wayPolygon(closedWay) shouldBe defined
+      container.wayPolygon(closedWay) shouldBe defined
+      container.wayPolygonCacheStatistics shouldBe CacheStatistics(
+        0,
+        2,
+        0,
+        0,
+        0
+      )
+    }
+
+    "report its statistics and estimated memory footprint" in {
+      val container = SeqOsmContainer(nodes, ways, relations)
+      container.wayPolygon(closedWay) shouldBe defined
+      container.relationEntities(r2.id) shouldBe defined
+
+      val statistics = container.statistics
+      statistics.nodes shouldBe 3
+      statistics.ways shouldBe 2
+      statistics.relations shouldBe 2
+      statistics.wayPolygonCache shouldBe container.wayPolygonCacheStatistics
+      statistics.relationEntityCache shouldBe container.relationEntityCacheStatistics
+      statistics.wayPolygonBuildTime should be > Duration.ZERO
+      statistics.relationResolutionTime should be > Duration.ZERO
+
+      val footprint = container.estimateMemoryFootprint()
+      footprint.nodes should be > 0L
+      footprint.ways should be > 0L
+      footprint.relations should be > 0L
+      footprint.metaInformation shouldBe 0L
+      footprint.total shouldBe footprint.nodes + footprint.ways +
+        footprint.relations + footprint.tags
+
+      // the columnar nodes and primitive node ids take less memory
+      PrimitiveOsmContainer(container)
+        .estimateMemoryFootprint()
+        .total should be < footprint.total
+      container
+        .par()
+        .estimateMemoryFootprint()
+        .total should be > footprint.total
+    }
+
+    "precompute way polygons in parallel and report failures" in {
+      val corners = Seq(
+        Node(901L, 51.0, 7.0, Map.empty, None),
+        Node(902L, 51.0, 7.001, Map.empty, None),
+        Node(903L, 51.001, 7.001, Map.empty, None)
+      )
+      val building = Map("building" -> "yes")
+      val buildings = Seq(
+        Way(910L, Seq(901L, 902L, 903L, 901L), building, None),
+        Way(911L, Seq(901L, 902L, 904L, 905L, 901L), building, None),
+        Way(912L, Seq(901L, 901L), building, None),
+        Way(913L, Seq(901L, 902L, 903L), building, None),
+        Way(914L, Seq(901L, 903L, 902L, 901L), Map("landuse" -> "farm"), None)
+      )
+
+      Seq(
+        SeqOsmContainer(nodes ++ corners, ways ++ buildings, relations),
+        PrimitiveOsmContainer(nodes ++ corners, ways ++ buildings, relations)
+      ).foreach { container =>
+        inside(container.precomputeWayPolygons(_.hasKey("building"))) {
+          case WayPolygonReport(polygons, failures) =>
+            polygons shouldBe 1
+            failures.map(_.wayId) shouldBe Seq(911L, 912L)
+            failures.head shouldBe MissingNodes(911L, Seq(904L, 905L))
+            failures(1) shouldBe a[InvalidRing]
+        }
+        container.wayPolygonCacheStatistics.size shouldBe 1
+
+        container.wayPolygon(910L) shouldBe defined
+        container.wayPolygonCacheStatistics.hits shouldBe 1
+        container
+          .precomputeWayPolygons(_.hasKey("building"))
+          .polygons shouldBe 1
+        container.wayPolygonCacheStatistics.size shouldBe 1
+      }
+    }
+
+    "resolve cyclic relations" in {
+
+      val cycleA = Relation(
+        2000L,
+        Seq(
+          RelationMember(n1.id, RelationMemberType.Node, ""),
+          RelationMember(2001L, RelationMemberType.Relation, "")
+        ),
+        Map.empty,
+        None
+      )
+      val cycleB = Relation(
+        2001L,
+        Seq(
+          RelationMember(closedWay.id, RelationMemberType.Way, ""),
+          RelationMember(2000L, RelationMemberType.Relation, ""),
+          RelationMember(r2.id, RelationMemberType.Relation, "")
+        ),
+        Map.empty,
+        None
+      )
+      val container =
+        SeqOsmContainer(nodes, ways, relations ++ Seq(cycleA, cycleB))
+
+      container.relationEntities(cycleA.id) shouldBe Some(
+        RelationEntities(
+          cycleA.id,
+          Map(n1.id -> n1, n2.id -> n2),
+          Map(closedWay.id -> closedWay),
+          Map(
+            cycleA.id -> cycleA,
+            cycleB.id -> cycleB,
+            r1.id -> r1,
+            r2.id -> r2
+          )
+        )
+      )
+      container.relationEntities(cycleB.id).map(_.relations.keySet) shouldBe
+        Some(Set(cycleA.id, cycleB.id, r1.id, r2.id))
+      container.relationEntityCacheStatistics.misses shouldBe 1
+    }
+
+    "resolve deep relation hierarchies without overflowing the stack" in {
+
+      val depth = 20000
+      val hierarchy = (0 until depth).map { level =>
+        Relation(
+          10000L + level,
+          Seq(
+            RelationMember(n1.id, RelationMemberType.Node, ""),
+            RelationMember(10001L + level, RelationMemberType.Relation, "")
+          ),
+          Map.empty,
+          None
+        )
+      }
+      val container = SeqOsmContainer(nodes, ways, hierarchy)
+
+      container.relationEntities(10000L).map(_.relations.size) shouldBe Some(
+        depth - 1
+      )
+      container
+        .relationEntities(Seq(10000L + depth - 2, 10000L + depth - 1, 1L))
+        .map(_.map(_.relations.size)) shouldBe Seq(Some(1), Some(0), None)
+    }
+
+    "resolve wide relation hierarchies of similar siblings" in {
+
+      val width = 200
+      val siblings = (0 until width).map { sibling =>
+        Relation(
+          20000L + sibling,
+          RelationMember(n1.id, RelationMemberType.Node, "") +:
+            (0 until width).map(node =>
+              RelationMember(
+                100000L + sibling * width + node,
+                RelationMemberType.Node,
+                ""
+              )
+            ),
+          Map.empty,
+          None
+        )
+      }
+      val root = Relation(
+        19999L,
+        siblings.map(sibling =>
+          RelationMember(sibling.id, RelationMemberType.Relation, "")
+        ),
+        Map.empty,
+        None
+      )
+      val siblingNodes = (0 until width * width).map(idx =>
+        Node(100000L + idx, 51.49, 7.41, Map.empty, None)
+      )
+      val container =
+        SeqOsmContainer(nodes ++ siblingNodes, ways, root +: siblings)
+
+      inside(container.relationEntities(root.id)) {
+        case Some(RelationEntities(relationId, nodes, ways, relations)) =>
+          relationId shouldBe root.id
+          nodes.keySet shouldBe (siblingNodes :+ n1).map(_.id).toSet
+          ways shouldBe empty
+          relations shouldBe siblings
+            .map(sibling => sibling.id -> sibling)
+            .toMap
+      }
+      container.relationEntities(siblings.last.id).map(_.nodes.size) shouldBe
+        Some(width + 1)
+    }
+
     "transform to a ParOsmContainer correctly" in {
 
       inside(ParOsmContainer(nodes.par, ways.par, relations.par).par()) {
@@ -170,4 +401,72 @@ class OsmContainerSpec
 
   }
 
+  "A PrimitiveOsmContainer" should {
+
+    "instantiate correctly from sequences" in {
+
+      val container = PrimitiveOsmContainer(nodes, ways, relations)
+
+      inside(container) { case PrimitiveOsmContainer(nodes, ways, relations) =>
+        nodes.size shouldBe 3
+        nodes.values.toList shouldBe this.nodes
+
+        ways.size shouldBe 2
+        ways.values.toList shouldBe this.ways.sortBy(_.id)
+
+        relations.size shouldBe 2
+        relations.values.toList shouldBe this.relations
+      }
+
+    }
+
+    "look up entities correctly" in {
+
+      val container = PrimitiveOsmContainer(nodes, ways, relations)
+
+      container.node(n2.id) shouldBe Some(n2)
+      container.node(4711L) shouldBe None
+      container.nodes(Seq(n3.id, 4711L)) shouldBe Seq(Some(n3), None)
+      container.way(openWay.id) shouldBe Some(openWay)
+      container.ways(Seq(closedWay.id)) shouldBe Seq(Some(closedWay))
+      container.relation(r1.id) shouldBe Some(r1)
+      container.relations(Seq(r2.id, 4711L)) shouldBe Seq(Some(r2), None)
+    }
+
+    "provide additional way information correctly" in {
+
+      val container = PrimitiveOsmContainer(nodes, ways, relations)
+
+      container.wayCentroid(closedWay) shouldBe Some(
+        GeoUtils.buildCoordinate(49.378921000000005, 6.597183).toPoint
+      )
+      container.wayAreaCovers(n2.coordinate, closedWay) shouldBe true
+      container.wayPolygon(openWay.id) shouldBe None
+    }
+
+    "provide relation entities correctly" in {
+
+      val container = PrimitiveOsmContainer(nodes, ways, relations)
+
+      inside(container.relationEntities(r2.id)) {
+        case Some(RelationEntities(relationId, nodes, ways, relations)) =>
+          relationId shouldBe r2.id
+          nodes should contain theSameElementsAs Map(n2.id -> n2, n1.id -> n1)
+          ways should contain theSameElementsAs Map(closedWay.id -> closedWay)
+          relations should contain theSameElementsAs Map(r1.id -> r1)
+      }
+    }
+
+    "convert from and to other containers correctly" in {
+
+      val seqContainer = SeqOsmContainer(nodes, ways, relations)
+      val container = PrimitiveOsmContainer(seqContainer)
+
+      container shouldBe PrimitiveOsmContainer(nodes, ways, relations)
+      container.seq() shouldBe seqContainer
+      PrimitiveOsmContainer(container.par()) shouldBe container
+    }
+
+  }
+
 }
@@ -14,6 +14,7 @@ import org.scalatest.wordspec.AnyWordSpecLike
 
 import java.time.ZonedDateTime
 import java.util.UUID
+import scala.collection.immutable.ArraySeq
 
 class OsmEntitySpec
     extends Matchers
@@ -68,6 +69,24 @@ class OsmEntitySpec
       }
 
     }
+
+    "back its node ids by a primitive array" in {
+      val way = Way(100L, List(n1.id, n2.id, n3.id, n1.id), Map.empty, None)
+
+      way.nodes shouldBe a[ArraySeq.ofLong]
+      way.nodeArray shouldBe Array(n1.id, n2.id, n3.id, n1.id)
+      Way.nodeSeq(way.nodes) should be theSameInstanceAs way.nodes
+      Way.isClosedWay(way.nodes) shouldBe true
+      Way.isClosedWay(ArraySeq.empty[Long]) shouldBe false
+    }
+
+    "filter its node ids" in {
+      val nodes = ArraySeq(1L, 2L, 3L, 1L)
+
+      Way.filterNodes(nodes, _ != 2L) shouldBe Seq(1L, 3L, 1L)
+      Way.filterNodes(nodes, _ => true) should be theSameInstanceAs nodes
+      Way.filterNodes(Vector(1L, 2L), _ => false) shouldBe empty
+    }
   }
 
 }
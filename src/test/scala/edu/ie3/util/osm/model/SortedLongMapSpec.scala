@@ -0,0 +1,71 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+class SortedLongMapSpec extends Matchers with AnyWordSpecLike {
+
+  "A SortedLongMap" should {
+
+    "be built from unsorted entries correctly" in {
+      val map = SortedLongMap(5L -> "e", 1L -> "a", 3L -> "c", -2L -> "minus")
+
+      map.size shouldBe 4
+      map.keysIterator.toList shouldBe List(-2L, 1L, 3L, 5L)
+      map.values.toList shouldBe List("minus", "a", "c", "e")
+      map.get(3L) shouldBe Some("c")
+      map.get(4L) shouldBe None
+      map.contains(-2L) shouldBe true
+      map.getOrElse(4L, "default") shouldBe "default"
+    }
+
+    "keep the last value of duplicated keys" in {
+      val map = SortedLongMap(2L -> "first", 1L -> "a", 2L -> "second")
+
+      map.size shouldBe 2
+      map.get(2L) shouldBe Some("second")
+    }
+
+    "sort large inputs correctly" in {
+      val keys = scala.util.Random(42).shuffle((0L until 10000L).toList)
+      val map = SortedLongMap.fromValues(keys)(identity)
+
+      map.size shouldBe 10000
+      map.keysIterator.toList shouldBe (0L until 10000L).toList
+      map.valuesIterator.forall(value =>
+        map.get(value).contains(value)
+      ) shouldBe true
+    }
+
+    "map values without changing the keys" in {
+      val map = SortedLongMap(2L -> 2, 1L -> 1).mapValues(_ * 10)
+
+      map shouldBe SortedLongMap(1L -> 10, 2L -> 20)
+      map.toMap shouldBe Map(1L -> 10, 2L -> 20)
+    }
+
+    "apply changes by merging them with the entries" in {
+      val map = SortedLongMap(1L -> "a", 3L -> "c", 5L -> "e")
+
+      map.updated(
+        Map(0L -> Some("zero"), 3L -> None, 5L -> Some("E"), 9L -> Some("i"))
+      ) shouldBe SortedLongMap(0L -> "zero", 1L -> "a", 5L -> "E", 9L -> "i")
+      map.updated(Map(7L -> None)) shouldBe map
+      SortedLongMap.empty[String].updated(Map(2L -> Some("b"))) shouldBe
+        SortedLongMap(2L -> "b")
+    }
+
+    "handle empty maps" in {
+      val map = SortedLongMap.empty[String]
+
+      map.isEmpty shouldBe true
+      map.get(1L) shouldBe None
+      map shouldBe SortedLongMap.from(Seq.empty[(Long, String)])
+    }
+  }
+}
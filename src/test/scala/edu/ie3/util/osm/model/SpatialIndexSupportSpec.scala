@@ -0,0 +1,136 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.geo.GeoUtils
+import edu.ie3.util.osm.io.OsmPbfReader
+import edu.ie3.util.osm.model.OsmEntity.{Node, Way}
+import org.locationtech.jts.geom.Envelope
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+import tech.units.indriya.quantity.Quantities
+import tech.units.indriya.unit.Units
+
+import java.nio.file.Paths
+import scala.collection.parallel.CollectionConverters._
+
+class SpatialIndexSupportSpec extends Matchers with AnyWordSpecLike {
+
+  private val seqContainer = new OsmPbfReader()
+    .readSeqContainer(
+      Paths.get(getClass.getResource("/osm/dortmund_excerpt.osm.pbf").toURI)
+    )
+    .get
+
+  private val containers = Seq(
+    "SeqOsmContainer" -> (() => seqContainer.copy()),
+    "ParOsmContainer" -> (() => seqContainer.par()),
+    "PrimitiveOsmContainer" -> (() =>
+      OsmContainer.PrimitiveOsmContainer(seqContainer)
+    )
+  )
+
+  private val everything = new Envelope(7.0, 8.0, 51.0, 52.0)
+
+  containers.foreach { case (name, container) =>
+    s"A $name" should {
+
+      "find ways intersecting an envelope" in {
+        container()
+          .waysIntersecting(new Envelope(7.4099, 7.4101, 51.4899, 51.4901))
+          .map(_.id) shouldBe Seq(1001L)
+        container()
+          .waysIntersecting(new Envelope(7.3, 7.4, 51.4, 51.5)) shouldBe empty
+      }
+
+      "find ways with a key intersecting an envelope" in {
+        val osmContainer = container()
+
+        osmContainer
+          .waysIntersecting(everything, "building", None)
+          .map(_.id) shouldBe Seq(1001L, 1002L)
+        osmContainer
+          .waysIntersecting(everything, "highway", Some(Set("service")))
+          .map(_.id) shouldBe Seq(2002L)
+      }
+
+      "find ways near a point" in {
+        val osmContainer = container()
+        val point = GeoUtils.buildPoint(51.4897, 7.4103)
+
+        osmContainer
+          .waysNear(point, Quantities.getQuantity(20, Units.METRE))
+          .map(_.id) shouldBe Seq(2001L)
+        osmContainer
+          .waysNear(
+            point,
+            Quantities.getQuantity(5, Units.METRE)
+          ) shouldBe empty
+        osmContainer
+          .waysNear(
+            point,
+            Quantities.getQuantity(40, Units.METRE),
+            "highway",
+            Some(Set("footway"))
+          )
+          .map(_.id) shouldBe Seq(2003L)
+      }
+
+      "find relations intersecting an envelope" in {
+        val osmContainer = container()
+        val envelope = new Envelope(7.4099, 7.4101, 51.4884, 51.4886)
+
+        osmContainer
+          .relationsIntersecting(envelope)
+          .map(_.id) shouldBe Seq(5001L, 5002L)
+        osmContainer
+          .relationsIntersecting(envelope, "route", None)
+          .map(_.id) shouldBe Seq(5002L)
+      }
+
+      "answer concurrent queries consistently" in {
+        val osmContainer = container()
+
+        (1 to 64).par
+          .map(_ => osmContainer.waysIntersecting(everything).map(_.id))
+          .seq
+          .toSet shouldBe Set(
+          Seq(1001L, 1002L, 2001L, 2002L, 2003L, 3001L, 4001L, 4002L, 4003L)
+        )
+      }
+    }
+  }
+
+  "A container with missing nodes" should {
+    "not connect the neighbours of a missing node when finding ways near a point" in {
+      // node 2 lies between nodes 1 and 3, but is missing
+      val container = OsmContainer.SeqOsmContainer(
+        Seq(
+          Node(1L, 51.49, 7.40, Map.empty, None),
+          Node(3L, 51.49, 7.42, Map.empty, None),
+          Node(4L, 51.4901, 7.4101, Map.empty, None),
+          Node(5L, 51.4903, 7.4101, Map.empty, None)
+        ),
+        Seq(
+          Way(10L, Seq(1L, 2L, 3L), Map.empty, None),
+          Way(11L, Seq(1L, 3L), Map.empty, None),
+          // the only contained node counts as point
+          Way(12L, Seq(2L, 4L, 6L), Map.empty, None),
+          Way(13L, Seq(2L, 5L), Map.empty, None)
+        ),
+        Seq.empty
+      )
+      val point = GeoUtils.buildPoint(51.49, 7.41)
+
+      Seq(container, OsmContainer.PrimitiveOsmContainer(container)).foreach {
+        osmContainer =>
+          osmContainer
+            .waysNear(point, Quantities.getQuantity(20, Units.METRE))
+            .map(_.id) shouldBe Seq(11L, 12L)
+      }
+    }
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.osm.model.OsmContainer.PrimitiveOsmContainer
+import edu.ie3.util.osm.model.OsmEntity.Relation.{
+  RelationMember,
+  RelationMemberType
+}
+import edu.ie3.util.osm.model.OsmEntity.{Relation, Way}
+import org.scalatest.Inside.inside
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+import scala.collection.parallel.CollectionConverters._
+
+class TagDictionarySpec extends Matchers with AnyWordSpecLike {
+
+  "A TagDictionary" should {
+
+    "assign dense codes to distinct strings" in {
+      val dictionary = new TagDictionary
+
+      dictionary.code("building") shouldBe 0
+      dictionary.code("yes") shouldBe 1
+      dictionary.code("building") shouldBe 0
+      dictionary.size shouldBe 2
+      dictionary.string(1) shouldBe "yes"
+      dictionary.lookup(CommonOsmKey.Building) shouldBe 0
+      dictionary.lookup("highway") shouldBe TagDictionary.NoCode
+      dictionary.size shouldBe 2
+      an[IndexOutOfBoundsException] should be thrownBy dictionary.string(2)
+    }
+
+    "intern strings" in {
+      val dictionary = new TagDictionary
+      val first = new String("residential")
+      val second = new String("residential")
+
+      dictionary.intern(first) shouldBe theSameInstanceAs(first)
+      dictionary.intern(second) shouldBe theSameInstanceAs(first)
+    }
+
+    "encode and decode tags" in {
+      val dictionary = new TagDictionary
+      val tags = Map(
+        "name" -> "Hauptstraße",
+        "highway" -> "residential",
+        "surface" -> "asphalt",
+        "lanes" -> "2",
+        "maxspeed" -> "50"
+      )
+
+      val encoded = dictionary.encode(tags)
+
+      encoded.size shouldBe 5
+      Iterator
+        .range(1, encoded.size)
+        .forall(idx => encoded.keyCodeAt(idx - 1) < encoded.keyCodeAt(idx))
+        .shouldBe(true)
+      dictionary.decode(encoded) shouldBe tags
+      dictionary.encode(Map.empty) shouldBe CompactTags.empty
+    }
+
+    "assign codes consistently when shared between threads" in {
+      val dictionary = new TagDictionary
+      val strings = (0 until 1000).map(idx => s"value$idx")
+
+      val codes = strings.zipWithIndex.par.map { case (string, idx) =>
+        dictionary.code(string) -> idx
+      }.seq
+
+      dictionary.size shouldBe 1000
+      codes.map(_._1).distinct.size shouldBe 1000
+      codes.foreach { case (code, idx) =>
+        dictionary.string(code) shouldBe strings(idx)
+      }
+    }
+  }
+
+  "CompactTags" should {
+
+    val dictionary = new TagDictionary
+    val tags = dictionary.encode(
+      Map("building" -> "yes", "name" -> "Haus 2", "power" -> "substation")
+    )
+    val building = dictionary.lookup(CommonOsmKey.Building)
+    val power = dictionary.lookup(CommonOsmKey.Power)
+    val yes = dictionary.lookup("yes")
+    val substation = dictionary.lookup("substation")
+
+    "check for keys correctly" in {
+      tags.hasKey(building) shouldBe true
+      tags.hasKey(dictionary.code("highway")) shouldBe false
+      tags.hasKey(TagDictionary.NoCode) shouldBe false
+    }
+
+    "check for key value pairs correctly" in {
+      tags.hasKeyValuePair(building, yes) shouldBe true
+      tags.hasKeyValuePair(power, yes) shouldBe false
+      tags.hasKeyValuePair(power, TagDictionary.NoCode) shouldBe false
+    }
+
+    "check for key with one of several values correctly" in {
+      tags.hasKeyValuesPairOr(power, Set(yes, substation)) shouldBe true
+      tags.hasKeyValuesPairOr(power, Set(yes)) shouldBe false
+      tags.hasKeyValuesPairOr(power, Set.empty) shouldBe true
+      tags.hasKeyValuesPairOr(TagDictionary.NoCode, Set.empty) shouldBe false
+    }
+  }
+
+  "The tags of a PrimitiveOsmContainer" should {
+    val dictionary = new TagDictionary
+    val builder = OsmContainerBuilder.primitive(dictionary)
+    builder.addNode(1L, 51.49, 7.41, Map("power" -> "tower"), None)
+    builder.addNode(2L, 51.5, 7.42, Map.empty, None)
+    builder.addWay(
+      Way(10L, Seq(1L, 2L), Map("power" -> "line", "voltage" -> "110"), None)
+    )
+    builder.addRelation(
+      Relation(
+        20L,
+        Seq(RelationMember(10L, RelationMemberType.Way, "")),
+        Map("type" -> "route", "power" -> "line"),
+        None
+      )
+    )
+    val container = builder.result()
+    val way = container.way(10L).get
+    val relation = container.relation(20L).get
+
+    "be encoded by the dictionary of the container for all entities" in {
+      Seq(container.node(1L).get.tags, way.tags, relation.tags).foreach {
+        tags =>
+          inside(tags) { case encoded: DictionaryTags =>
+            encoded.dictionary shouldBe theSameInstanceAs(dictionary)
+          }
+      }
+      container.node(2L).get.tags shouldBe empty
+
+      val converted = PrimitiveOsmContainer(container.seq())
+      inside(converted.way(10L).get.tags) { case encoded: DictionaryTags =>
+        encoded.dictionary shouldBe theSameInstanceAs(converted.tagDictionary)
+      }
+      converted shouldBe container
+    }
+
+    "be tested by their codes" in {
+      way.hasKey("voltage") shouldBe true
+      way.hasKey(CommonOsmKey.Building) shouldBe false
+      way.hasKeyValuePair(CommonOsmKey.Power, "line") shouldBe true
+      // neither string is known to the dictionary
+      way.hasKeyValuePair("cables", "3") shouldBe false
+      way.hasKeyValuePair("power", "tower") shouldBe false
+      relation.hasKeyValuesPairOr(
+        "power",
+        Set("minor_line", "line")
+      ) shouldBe true
+      relation.hasKeyValuesPairOr("power", Set("cable")) shouldBe false
+      relation.hasKeyValuesPairOr("type", Set.empty) shouldBe true
+    }
+
+    "behave like plain maps" in {
+      way.tags shouldBe Map("power" -> "line", "voltage" -> "110")
+      way.tags.hashCode() shouldBe Map(
+        "power" -> "line",
+        "voltage" -> "110"
+      ).hashCode()
+      way.tags.get("voltage") shouldBe Some("110")
+      way.tags.get("name") shouldBe None
+      way.tags.updated("name", "L1") shouldBe Map(
+        "power" -> "line",
+        "voltage" -> "110",
+        "name" -> "L1"
+      )
+      way.tags.removed("voltage") shouldBe Map("power" -> "line")
+    }
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.osm.model.OsmEntity.Node
+import edu.ie3.util.osm.model.TagFilter.{And, Key, Not, Or}
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+import scala.util.Random
+
+class TagFilterSpec extends Matchers with AnyWordSpecLike {
+
+  private val keys = (0 until 12).map(idx => s"k$idx")
+  private val values = (0 until 4).map(idx => s"v$idx")
+
+  /** Straight forward evaluation of the filter description
+    */
+  private def evaluate(filter: TagFilter, tags: Map[String, String]): Boolean =
+    filter match {
+      case Key(key, values) =>
+        tags.get(key).exists(values.isEmpty || values.contains(_))
+      case Not(inner)   => !evaluate(inner, tags)
+      case And(filters) => filters.forall(evaluate(_, tags))
+      case Or(filters)  => filters.exists(evaluate(_, tags))
+    }
+
+  private def randomTags(random: Random): Map[String, String] =
+    Seq
+      .fill(random.nextInt(5))(
+        keys(random.nextInt(keys.size)) -> values(random.nextInt(values.size))
+      )
+      .toMap
+
+  private def randomFilter(random: Random, depth: Int): TagFilter =
+    if (depth == 0 || random.nextInt(3) == 0)
+      TagFilter.key(
+        keys(random.nextInt(keys.size)),
+        values.filter(_ => random.nextBoolean()).toSet
+      )
+    else
+      random.nextInt(3) match {
+        case 0 => !randomFilter(random, depth - 1)
+        case 1 =>
+          And(Seq.fill(random.nextInt(4))(randomFilter(random, depth - 1)))
+        case _ =>
+          Or(Seq.fill(random.nextInt(8))(randomFilter(random, depth - 1)))
+      }
+
+  "A compiled TagFilter" should {
+
+    "match like hasKeysValuesPairOr" in {
+      val keyTagValues = Map(
+        "building" -> Set.empty[String],
+        "landuse" -> Set("residential", "retail"),
+        "highway" -> Set("residential")
+      )
+      val filter = TagFilter.anyOf(keyTagValues).compile
+      val nodes = Seq(
+        Map("building" -> "yes"),
+        Map("landuse" -> "retail", "name" -> "Mall"),
+        Map("landuse" -> "meadow", "highway" -> "path"),
+        Map("highway" -> "residential"),
+        Map.empty[String, String],
+        (0 until 6)
+          .map(idx => s"other$idx" -> "yes")
+          .toMap + ("building" -> "no")
+      ).zipWithIndex.map { case (tags, id) =>
+        Node(id.toLong, 51.0, 7.0, tags, None)
+      }
+
+      nodes.map(filter) shouldBe nodes.map(_.hasKeysValuesPairOr(keyTagValues))
+      nodes.filter(filter).map(_.id) shouldBe Seq(0L, 1L, 3L, 5L)
+    }
+
+    "evaluate negations and conjunctions" in {
+      val filter = ((TagFilter.key(CommonOsmKey.Building) || TagFilter.key(
+        "landuse",
+        Set("residential")
+      )) && !TagFilter.key("disused", Set("yes"))).compile
+
+      filter.matches(Map("building" -> "yes")) shouldBe true
+      filter.matches(
+        Map("building" -> "yes", "disused" -> "yes")
+      ) shouldBe false
+      filter.matches(
+        Map("landuse" -> "residential", "disused" -> "no")
+      ) shouldBe true
+      filter.matches(Map("landuse" -> "retail")) shouldBe false
+      And(Seq.empty).compile.matches(Map.empty) shouldBe true
+      Or(Seq.empty).compile.matches(Map("building" -> "yes")) shouldBe false
+    }
+
+    "match like the filter description on plain and encoded tags" in {
+      val random = new Random(47)
+      val dictionary = new TagDictionary
+      // keep one key and one value unknown to the dictionary
+      keys.init.foreach(dictionary.code)
+      values.init.foreach(dictionary.code)
+
+      (0 until 200).foreach { _ =>
+        val filter = randomFilter(random, 3)
+        val compiled = filter.compile
+        val encoded = compiled.forDictionary(dictionary)
+        (0 until 50).foreach { _ =>
+          val tags = randomTags(random)
+          compiled.matches(tags) shouldBe evaluate(filter, tags)
+          val knownTags = tags.filter { case (key, value) =>
+            key != keys.last && value != values.last
+          }
+          encoded(dictionary.encode(knownTags)) shouldBe evaluate(
+            filter,
+            knownTags
+          )
+        }
+      }
+    }
+  }
+}
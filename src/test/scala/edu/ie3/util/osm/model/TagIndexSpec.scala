@@ -0,0 +1,88 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.osm.SimpleOsmTestData
+import edu.ie3.util.osm.model.OsmContainer.{
+  PrimitiveOsmContainer,
+  SeqOsmContainer
+}
+import edu.ie3.util.osm.model.OsmEntity.Node
+import edu.ie3.util.osm.model.OsmEntity.Way.ClosedWay
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+class TagIndexSpec
+    extends Matchers
+    with AnyWordSpecLike
+    with SimpleOsmTestData {
+
+  "A TagIndex" should {
+
+    val tower = Node(10L, 50.0, 7.0, Map("power" -> "tower"), None)
+    val house =
+      ClosedWay(20L, Seq(1L, 2L, 3L, 1L), Map("building" -> "house"), None)
+    val garage = ClosedWay(
+      21L,
+      Seq(1L, 2L, 3L, 1L),
+      Map("building" -> "garage", "name" -> "Garage"),
+      None
+    )
+    val yes =
+      ClosedWay(22L, Seq(1L, 2L, 3L, 1L), Map("building" -> "yes"), None)
+    val untagged = Node(11L, 50.0, 7.0, Map.empty, None)
+    val entities = Seq(house, untagged, tower, garage, yes)
+
+    "index tagged entities only" in {
+      val index = TagIndex(entities)
+
+      index.entities shouldBe Seq(house, tower, garage, yes)
+      index.keys shouldBe Set("building", "power", "name")
+      index.values("building") shouldBe Set("house", "garage", "yes")
+      index.values("highway") shouldBe empty
+      index.count("building") shouldBe 3
+      index.count("building", "garage") shouldBe 1
+    }
+
+    "answer queries like a scan of all entities" in {
+      val index = TagIndex(entities)
+      val queries = Seq(
+        "building" -> None,
+        "building" -> Some(Set.empty[String]),
+        "building" -> Some(Set("yes", "house")),
+        "building" -> Some(Set("unknown")),
+        "power" -> Some(Set("tower")),
+        "highway" -> None
+      )
+
+      queries.foreach { case (key, values) =>
+        index.entitiesByKey(key, values) shouldBe entities.filter(entity =>
+          entity.hasKeyValuesPairOr(key, values.getOrElse(Set.empty))
+        )
+      }
+      index.positions("building", Some(Set("yes", "house"))) shouldBe Array(
+        0,
+        3
+      )
+      index.entitiesByKey(CommonOsmKey.Power, None) shouldBe Seq(tower)
+    }
+
+    "be built from containers" in {
+      val container = SeqOsmContainer(
+        Seq(n1, n2, n3, tower, untagged),
+        Seq(closedWay, openWay, house),
+        Seq(r1, r2)
+      )
+      val primitive = PrimitiveOsmContainer(container)
+      val expected = (container.nodes.values ++ container.ways.values ++
+        container.relations.values).filter(_.tags.nonEmpty)
+
+      TagIndex(container).entities should contain theSameElementsAs expected
+      TagIndex(primitive).entities should contain theSameElementsAs expected
+      TagIndex(container.par()).entitiesByKey("power") shouldBe Seq(tower)
+    }
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * © 2026. TU Dortmund University,
+ * Institute of Energy Systems, Energy Efficiency and Energy Economics,
+ * Research group Distribution grid planning and operation
+*/
+package edu.ie3.util.osm.model
+
+import edu.ie3.util.geo.GeoUtils
+import edu.ie3.util.osm.io.OsmPbfReader
+import edu.ie3.util.osm.model.OsmContainer.{
+  PrimitiveOsmContainer,
+  SeqOsmContainer
+}
+import edu.ie3.util.osm.model.OsmEntity.Relation.{
+  RelationMember,
+  RelationMemberType
+}
+import edu.ie3.util.osm.model.OsmEntity.{Node, Relation, Way}
+import edu.ie3.util.osm.model.OsmEntity.Way.ClosedWay
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+import java.nio.file.Paths
+import java.util.concurrent.ForkJoinPool
+
+class TiledOsmContainerSpec extends Matchers with AnyWordSpecLike {
+
+  private val excerpt = PrimitiveOsmContainer(
+    new OsmPbfReader()
+      .readSeqContainer(
+        Paths.get(getClass.getResource("/osm/dortmund_excerpt.osm.pbf").toURI)
+      )
+      .get
+  )
+
+  private val tiled = TiledOsmContainer(excerpt, columns = 3, rows = 3)
+
+  private def coveringWays(
+      container: PrimitiveOsmContainer,
+      node: Node
+  ): Set[Long] = {
+    val point = GeoUtils.buildPoint(node.latitude, node.longitude)
+    container.ways.valuesIterator.collect {
+      case way: ClosedWay if container.wayAreaCovers(point, way) => way.id
+    }.toSet
+  }
+
+  "A TiledOsmContainer" should {
+
+    "assign every entity to exactly one owning tile" in {
+      tiled.tiles should have size 9
+      tiled.tiles.map(_.index) shouldBe (0 until 9)
+
+      tiled.tiles
+        .flatMap(_.ownNodes.map(_.id))
+        .sorted shouldBe excerpt.nodes.idIterator.toSeq
+      tiled.tiles
+        .flatMap(_.ownWays.map(_.id))
+        .sorted shouldBe excerpt.ways.keysIterator.toSeq
+      tiled.tiles
+        .flatMap(_.ownRelations.map(_.id))
+        .sorted shouldBe excerpt.relations.keysIterator.toSeq
+
+      val node = excerpt.nodes.nodeAt(0)
+      tiled
+        .tileAt(node.latitude, node.longitude)
+        .ownsNode(node.id) shouldBe true
+    }
+
+    "hold the nodes of the ways and the members of the relations of a tile" in {
+      tiled.foreachTile { tile =>
+        tile.container.ways.valuesIterator.foreach { way =>
+          val available = way.nodes.filter(excerpt.nodes.contains)
+          available.filterNot(tile.container.nodes.contains) shouldBe empty
+          tile.container.way(way.id) shouldBe excerpt.way(way.id)
+        }
+        tile.container.relations.valuesIterator.foreach { relation =>
+          relation.members.foreach { member =>
+            member.relationType match {
+              case RelationMemberType.Node =>
+                tile.container.nodes.contains(member.id) shouldBe excerpt.nodes
+                  .contains(member.id)
+              case RelationMemberType.Way =>
+                tile.container.ways.contains(member.id) shouldBe excerpt.ways
+                  .contains(member.id)
+              case _ =>
+                tile.container.relations.contains(
+                  member.id
+                ) shouldBe excerpt.relations.contains(member.id)
+            }
+          }
+        }
+      }
+    }
+
+    "aggregate the owned entities like the whole container" in {
+      def area(
+          container: PrimitiveOsmContainer,
+          ways: Iterator[OsmEntity.Way]
+      ) =
+        ways
+          .collect { case way: ClosedWay =>
+            container.wayAreaOnEarth(way)
+          }
+          .flatten
+          .map(_.getValue.doubleValue)
+          .sum
+
+      val pool = new ForkJoinPool(2)
+      try {
+        val tileAreas =
+          tiled
+            .withPool(pool)
+            .mapTiles(tile => area(tile.container, tile.ownWays))
+        tileAreas should have size 9
+        tileAreas.sum shouldBe area(
+          excerpt,
+          excerpt.ways.valuesIterator
+        ) +- 1e-6
+      } finally pool.shutdown()
+    }
+
+    "join the owned nodes with the covering ways like the whole container" in {
+      val joined = tiled
+        .mapTiles { tile =>
+          tile.ownNodes.map(node =>
+            node.id -> coveringWays(tile.container, node)
+          )
+        }
+        .flatten
+        .toMap
+
+      joined shouldBe excerpt.nodes.nodesIterator
+        .map(node => node.id -> coveringWays(excerpt, node))
+        .toMap
+      joined.values.flatten should not be empty
+    }
+
+    "place relations by the envelopes of their member relations" in {
+      def member(id: Long) =
+        RelationMember(id, RelationMemberType.Relation, "")
+      val container = SeqOsmContainer(
+        Seq(
+          Node(1L, 51.0, 7.0, Map.empty, None),
+          Node(2L, 51.02, 7.02, Map.empty, None),
+          Node(3L, 51.28, 7.28, Map.empty, None),
+          Node(4L, 51.3, 7.3, Map.empty, None)
+        ),
+        Seq(
+          Way(10L, Seq(1L, 2L), Map.empty, None),
+          Way(11L, Seq(3L, 4L), Map.empty, None)
+        ),
+        Seq(
+          Relation(
+            20L,
+            Seq(RelationMember(10L, RelationMemberType.Way, "")),
+            Map.empty,
+            None
+          ),
+          Relation(
+            21L,
+            Seq(RelationMember(11L, RelationMemberType.Way, "")),
+            Map.empty,
+            None
+          ),
+          // only relation members
+          Relation(30L, Seq(member(20L), member(21L)), Map.empty, None),
+          // membership cycle
+          Relation(
+            40L,
+            Seq(member(41L), RelationMember(11L, RelationMemberType.Way, "")),
+            Map.empty,
+            None
+          ),
+          Relation(41L, Seq(member(40L)), Map.empty, None)
+        )
+      )
+      val tiles = TiledOsmContainer(container, columns = 3, rows = 3).tiles
+      def owner(relation: Long) =
+        tiles.filter(_.ownRelations.exists(_.id == relation)).map(_.index)
+
+      owner(20L) shouldBe Seq(0)
+      owner(21L) shouldBe Seq(8)
+      owner(30L) shouldBe Seq(4)
+      owner(40L) shouldBe Seq(8)
+      owner(41L) shouldBe Seq(8)
+      tiles.foreach(_.container.relations.contains(30L) shouldBe true)
+      tiles(0).ownRelations.map(_.id).toSeq shouldBe Seq(20L)
+    }
+
+    "reject empty grids" in {
+      an[IllegalArgumentException] should be thrownBy TiledOsmContainer(
+        excerpt,
+        columns = 0,
+        rows = 1
+      )
+    }
+  }
+}